@@ -72,11 +72,24 @@ public class JSVGRasterizer implements SVGRasterizer {
 
 	@Override
 	public ImageData rasterizeSVG(InputStream inputStream, int zoom) throws IOException {
+		return parseSVG(inputStream).rasterize(zoom);
+	}
+
+	@Override
+	public Document parseSVG(InputStream inputStream) throws IOException {
 		SVGDocument svgDocument = loadSVG(inputStream);
 		if (svgDocument == null) {
 			SWT.error(SWT.ERROR_INVALID_IMAGE);
 		}
-		BufferedImage rasterizedImage = renderSVG(svgDocument, zoom);
+		return zoom -> rasterize(svgDocument, zoom);
+	}
+
+	private ImageData rasterize(SVGDocument svgDocument, int zoom) {
+		BufferedImage rasterizedImage;
+		// JSVG does not document rendering as thread safe, so render one zoom at a time
+		synchronized (svgDocument) {
+			rasterizedImage = renderSVG(svgDocument, zoom);
+		}
 		return convertToSWTImageData(rasterizedImage);
 	}
 
@@ -123,14 +136,7 @@ public class JSVGRasterizer implements SVGRasterizer {
 		int[] pixels = ((DataBufferInt) rasterizedImage.getRaster().getDataBuffer()).getData();
 		PaletteData paletteData = new PaletteData(0xFF0000, 0x00FF00, 0x0000FF);
 		ImageData imageData = new ImageData(width, height, 24, paletteData);
-		int index = 0;
-		for (int y = 0; y < imageData.height; y++) {
-			for (int x = 0; x < imageData.width; x++) {
-				int alpha = (pixels[index] >> 24) & 0xFF;
-				imageData.setAlpha(x, y, alpha);
-				imageData.setPixel(x, y, pixels[index++] & 0x00FFFFFF);
-			}
-		}
+		imageData.setARGB(pixels, 0);
 		return imageData;
 	}
 }
@@ -31,10 +31,10 @@ class DefaultContent implements StyledTextContent {
 	int highWatermark = 300;
 	int lowWatermark = 50;
 
-	int[][] lines = new int[50][2];	// array of character positions and lengths representing the lines of text
+	int[] lineStarts = new int[50];	// the character positions at which the lines of text start
+	int[] lineLengths = new int[50];	// the lengths of the lines of text, including the delimiter and gap
 	int lineCount = 0;	// the number of lines of text
-	int expandExp = 1; 	// the expansion exponent, used to increase the lines array exponentially
-	int replaceExpandExp = 1; 	// the expansion exponent, used to increase the lines array exponentially
+	int expandExp = 1; 	// the expansion exponent, used to increase the lines arrays exponentially
 
 /**
  * Creates a new DefaultContent and initializes it.  A <code>StyledTextContent</code> will always have
@@ -53,41 +53,16 @@ DefaultContent() {
  * @param length the length of the line
  */
 void addLineIndex(int start, int length) {
-	int size = lines.length;
+	int size = lineStarts.length;
 	if (lineCount == size) {
 		// expand the lines by powers of 2
-		int[][] newLines = new int[size+Compatibility.pow2(expandExp)][2];
-		System.arraycopy(lines, 0, newLines, 0, size);
-		lines = newLines;
+		setLinesSize(size+Compatibility.pow2(expandExp));
 		expandExp++;
 	}
-	int[] range = new int[] {start, length};
-	lines[lineCount] = range;
+	lineStarts[lineCount] = start;
+	lineLengths[lineCount] = length;
 	lineCount++;
 }
-/**
- * Adds a line index to the end of <code>linesArray</code>.  Increases the
- * size of the array if necessary and returns a new array.
- * <p>
- *
- * @param start the start of the line
- * @param length the length of the line
- * @param linesArray the array to which to add the line index
- * @param count the position at which to add the line
- * @return a new array of line indexes
- */
-int[][] addLineIndex(int start, int length, int[][] linesArray, int count) {
-	int size = linesArray.length;
-	int[][] newLines = linesArray;
-	if (count == size) {
-		newLines = new int[size+Compatibility.pow2(replaceExpandExp)][2];
-		replaceExpandExp++;
-		System.arraycopy(linesArray, 0, newLines, 0, size);
-	}
-	int[] range = new int[] {start, length};
-	newLines[count] = range;
-	return newLines;
-}
 /**
  * Adds a <code>TextChangeListener</code> listening for
  * <code>TextChangingEvent</code> and <code>TextChangedEvent</code>. A
@@ -221,22 +196,22 @@ private void validateReplace(int start, int replaceLength) {
 	}
 }
 /**
- * Calculates the indexes of each line of text in the given range.
+ * Calculates the indexes of each line of text in the given range and stores
+ * the first <code>maxLines</code> of them in the lines arrays, starting at
+ * <code>line</code>. The last line of the range is the text after the last
+ * delimiter, which may be empty.
  * <p>
  *
- * @param offset the logical start offset of the text lineate
+ * @param offset the physical start offset of the text to lineate
  * @param length the length of the text to lineate, includes gap
- * @param numLines the number of lines to initially allocate for the line index array,
- *	passed in for efficiency (the exact number of lines may be known)
- * @return a line indexes array where each line is identified by a start offset and
- * 	a length
+ * @param line the index at which to store the first line
+ * @param maxLines the number of lines to store, 0 to only count the delimiters
+ * @return the number of line delimiters in the range
  */
-int[][] indexLines(int offset, int length, int numLines){
-	int[][] indexedLines = new int[numLines][2];
+int indexLines(int offset, int length, int line, int maxLines){
 	int start = 0;
 	int lineCount = 0;
 	int i;
-	replaceExpandExp = 1;
 	for (i = start; i < length; i++) {
 		int location = i + offset;
 		if ((location >= gapStart) && (location < gapEnd)) {
@@ -251,21 +226,28 @@ int[][] indexLines(int offset, int length, int numLines){
 						i++;
 					}
 				}
-				indexedLines = addLineIndex(start, i - start + 1, indexedLines, lineCount);
+				setLineIndex(line, lineCount, maxLines, offset + start, i - start + 1);
 				lineCount++;
 				start = i + 1;
 			} else if (ch == SWT.LF) {
-				indexedLines = addLineIndex(start, i - start + 1, indexedLines, lineCount);
+				setLineIndex(line, lineCount, maxLines, offset + start, i - start + 1);
 				lineCount++;
 				start = i + 1;
 			}
 		}
 	}
-	int[][] newLines = new int[lineCount+1][2];
-	System.arraycopy(indexedLines, 0, newLines, 0, lineCount);
-	int[] range = new int[] {start, i - start};
-	newLines[lineCount] = range;
-	return newLines;
+	setLineIndex(line, lineCount, maxLines, offset + start, i - start);
+	return lineCount;
+}
+/**
+ * Stores the line with the given index in a range of lines, if it is one of
+ * the first <code>maxLines</code> lines of the range.
+ */
+void setLineIndex(int line, int index, int maxLines, int start, int length) {
+	if (index < maxLines) {
+		lineStarts[line + index] = start;
+		lineLengths[line + index] = length;
+	}
 }
 /**
  * Inserts text.
@@ -299,10 +281,12 @@ void insert(int position, String text) {
 	}
 
 	// figure out the number of new lines that have been inserted
-	int [][] newLines = indexLines(startLineOffset, startLineLength, 10);
+	int numDelimiters = indexLines(startLineOffset, startLineLength, startLine, 0);
 	// only insert an empty line if it is the last line in the text
-	int numNewLines = newLines.length - 1;
-	if (newLines[numNewLines][1] == 0) {
+	int numNewLines = numDelimiters;
+	int lastPosition = startLineOffset + startLineLength - 1;
+	boolean inGap = lastPosition >= gapStart && lastPosition < gapEnd;
+	if (!inGap && isDelimiter(textStore[lastPosition])) {
 		// last inserted line is a new line
 		if (endInsert) {
 			// insert happening at end of the text, leave numNewLines as
@@ -317,19 +301,13 @@ void insert(int position, String text) {
 	// make room for the new lines
 	expandLinesBy(numNewLines);
 	// shift down the lines after the replace line
-	for (int i = lineCount - 1; i > startLine; i--) {
-		lines[i + numNewLines]=lines[i];
-	}
-	// insert the new lines
-	for (int i = 0; i < numNewLines; i++) {
-		newLines[i][0] += startLineOffset;
-		lines[startLine + i]=newLines[i];
-	}
-	// update the last inserted line
-	if (numNewLines < newLines.length) {
-		newLines[numNewLines][0] += startLineOffset;
-		lines[startLine + numNewLines] = newLines[numNewLines];
+	int shifted = lineCount - startLine - 1;
+	if (shifted > 0) {
+		System.arraycopy(lineStarts, startLine + 1, lineStarts, startLine + 1 + numNewLines, shifted);
+		System.arraycopy(lineLengths, startLine + 1, lineLengths, startLine + 1 + numNewLines, shifted);
 	}
+	// insert the new lines and update the last inserted line
+	indexLines(startLineOffset, startLineLength, startLine, Math.min(numNewLines + 1, numDelimiters + 1));
 
 	lineCount += numNewLines;
 	gapLine = getLineAtPhysicalOffset(gapStart);
@@ -356,10 +334,10 @@ void moveAndResizeGap(int position, int size, int newGapLine) {
 	// remove the old gap from the lines information
 	if (gapExists()) {
 		// adjust the line length
-		lines[gapLine][1] = lines[gapLine][1] - oldSize;
+		lineLengths[gapLine] -= oldSize;
 		// adjust the offsets of the lines after the gapLine
 		for (int i = gapLine + 1; i < lineCount; i++) {
-			lines[i][0] = lines[i][0] - oldSize;
+			lineStarts[i] -= oldSize;
 		}
 	}
 
@@ -400,10 +378,10 @@ void moveAndResizeGap(int position, int size, int newGapLine) {
 		gapLine = newGapLine;
 		// adjust the line length
 		int gapLength = gapEnd - gapStart;
-		lines[gapLine][1] = lines[gapLine][1] + (gapLength);
+		lineLengths[gapLine] += gapLength;
 		// adjust the offsets of the lines after the gapLine
 		for (int i = gapLine + 1; i < lineCount; i++) {
-			lines[i][0] = lines[i][0] + gapLength;
+			lineStarts[i] += gapLength;
 		}
 	}
 }
@@ -493,8 +471,8 @@ public int getCharCount() {
 @Override
 public String getLine(int index) {
 	if ((index >= lineCount) || (index < 0)) error(SWT.ERROR_INVALID_ARGUMENT);
-	int start = lines[index][0];
-	int length = lines[index][1];
+	int start = lineStarts[index];
+	int length = lineLengths[index];
 	int end = start + length - 1;
 	if (!gapExists() || (end < gapStart) || (start >= gapEnd)) {
 		// line is before or after the gap
@@ -535,8 +513,8 @@ public String getLineDelimiter() {
  * @return the logical line text (i.e., without the gap) with delimiters
  */
 String getFullLine(int index) {
-	int start = lines[index][0];
-	int length = lines[index][1];
+	int start = lineStarts[index];
+	int length = lineLengths[index];
 	int end = start + length - 1;
 	if (!gapExists() || (end < gapStart) || (start >= gapEnd)) {
 		// line is before or after the gap
@@ -558,8 +536,8 @@ String getFullLine(int index) {
  * @return the physical line
  */
 String getPhysicalLine(int index) {
-	int start = lines[index][0];
-	int length = lines[index][1];
+	int start = lineStarts[index];
+	int length = lineLengths[index];
 	return getPhysicalText(start, length);
 }
 /**
@@ -596,7 +574,7 @@ public int getLineAtOffset(int charPosition){
 	// last character) - for inserting
 	if (lineCount > 0) {
 		int lastLine = lineCount - 1;
-		if (position == lines[lastLine][0] + lines[lastLine][1])
+		if (position == lineStarts[lastLine] + lineLengths[lastLine])
 			return lastLine;
 	}
 
@@ -605,8 +583,8 @@ public int getLineAtOffset(int charPosition){
 	int index = lineCount;
 	while (high - low > 1) {
 		index = (high + low) / 2;
-		int lineStart = lines[index][0];
-		int lineEnd = lineStart + lines[index][1] - 1;
+		int lineStart = lineStarts[index];
+		int lineEnd = lineStart + lineLengths[index] - 1;
 		if (position <= lineStart) {
 			high = index;
 		} else if (position <= lineEnd) {
@@ -631,8 +609,8 @@ int getLineAtPhysicalOffset(int position){
 	int index = lineCount;
 	while (high - low > 1) {
 		index = (high + low) / 2;
-		int lineStart = lines[index][0];
-		int lineEnd = lineStart + lines[index][1] - 1;
+		int lineStart = lineStarts[index];
+		int lineEnd = lineStart + lineLengths[index] - 1;
 		if (position <= lineStart) {
 			high = index;
 		} else if (position <= lineEnd) {
@@ -659,7 +637,7 @@ int getLineAtPhysicalOffset(int position){
 public int getOffsetAtLine(int lineIndex) {
 	if (lineIndex == 0) return 0;
 	if ((lineIndex >= lineCount) || (lineIndex < 0)) error(SWT.ERROR_INVALID_ARGUMENT);
-	int start = lines[lineIndex][0];
+	int start = lineStarts[lineIndex];
 	if (start > gapEnd) {
 		return start - (gapEnd - gapStart);
 	} else {
@@ -673,13 +651,21 @@ public int getOffsetAtLine(int lineIndex) {
  * @param numLines the number to increase the array by
  */
 void expandLinesBy(int numLines) {
-	int size = lines.length;
+	int size = lineStarts.length;
 	if (size - lineCount >= numLines) {
 		return;
 	}
-	int[][] newLines = new int[size+Math.max(10, numLines)][2];
-	System.arraycopy(lines, 0, newLines, 0, size);
-	lines = newLines;
+	setLinesSize(size+Math.max(10, numLines));
+}
+/**
+ * Resizes the line indexes arrays.
+ * <p>
+ *
+ * @param size the new size of the arrays
+ */
+void setLinesSize(int size) {
+	lineStarts = Arrays.copyOf(lineStarts, size);
+	lineLengths = Arrays.copyOf(lineLengths, size);
 }
 /**
  * Reports an SWT error.
@@ -863,7 +849,7 @@ void delete(int position, int length, int numLines) {
 	}
 
 	adjustGap(position + length, -length, startLine);
-	int [][] oldLines = indexLines(position, length + (gapEnd - gapStart), numLines);
+	int numOldLines = indexLines(position, length + (gapEnd - gapStart), 0, 0);
 
 	// enlarge the gap - the gap can be enlarged either to the
 	// right or left
@@ -892,14 +878,15 @@ void delete(int position, int length, int numLines) {
 		j++;
 	}
 	// update the line where the deletion started
-	lines[startLine][1] = (position - startLineOffset) + (j - position);
+	lineLengths[startLine] = (position - startLineOffset) + (j - position);
 	// figure out the number of lines that have been deleted
-	int numOldLines = oldLines.length - 1;
 	if (splittingDelimiter) numOldLines -= 1;
 	// shift up the lines after the last deleted line, no need to update
 	// the offset or length of the lines
-	for (int i = endLine + 1; i < lineCount; i++) {
-		lines[i - numOldLines] = lines[i];
+	int shifted = lineCount - endLine - 1;
+	if (shifted > 0) {
+		System.arraycopy(lineStarts, endLine + 1, lineStarts, endLine + 1 - numOldLines, shifted);
+		System.arraycopy(lineLengths, endLine + 1, lineLengths, endLine + 1 - numOldLines, shifted);
 	}
 	lineCount -= numOldLines;
 	gapLine = getLineAtPhysicalOffset(gapStart);
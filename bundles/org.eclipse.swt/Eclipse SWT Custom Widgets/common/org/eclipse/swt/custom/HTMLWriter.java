@@ -10,6 +10,8 @@
  *******************************************************************************/
 package org.eclipse.swt.custom;
 
+import java.io.*;
+
 import org.eclipse.swt.*;
 import org.eclipse.swt.graphics.*;
 
@@ -32,9 +34,19 @@ class HTMLWriter extends StyledTextWriterBase {
 	private boolean multiline;
 
 	public HTMLWriter(StyledText styledText, int start, int length, StyledTextContent content) {
-		super(styledText, start, length);
-		String text = content.getTextRange(start, length);
-		multiline = text.contains("\n");
+		this(styledText, start, length, content, null);
+	}
+
+	/**
+	 * Creates a writer that passes the HTML on to {@code output} in chunks.
+	 *
+	 * @param output the writer to pass the data on to, or null to keep the data
+	 */
+	HTMLWriter(StyledText styledText, int start, int length, StyledTextContent content, Writer output) {
+		super(styledText, start, length, output);
+		// look at the line of the end instead of searching the text for a line break,
+		// so that the content does not have to copy the whole range
+		multiline = content.getLineAtOffset(start) != content.getLineAtOffset(start + length);
 		tag = multiline ? "div" : "span";
 		writeHeader();
 	}
@@ -233,10 +245,9 @@ class HTMLWriter extends StyledTextWriterBase {
 	// ==== Helper methods ====
 
 	@Override
-	String escapeText(String string) {
-		// The resulting string is at least as long as the original.
-		StringBuilder result = new StringBuilder(string.length());
-		string.chars().forEach(ch -> {
+	void escapeText(StringBuilder result, String string, int start, int end) {
+		for (int i = start; i < end; i++) {
+			char ch = string.charAt(i);
 			switch (ch) {
 				case '&':
 					result.append("&amp;");
@@ -251,10 +262,9 @@ class HTMLWriter extends StyledTextWriterBase {
 					result.append("&gt;");
 					break;
 				default:
-					result.append((char) ch);
+					result.append(ch);
 			}
-		});
-		return result.toString();
+		}
 	}
 
 	// TODO: do we also want support for alpha?
@@ -0,0 +1,521 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.custom;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.charset.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.List;
+
+import org.eclipse.swt.*;
+import org.eclipse.swt.widgets.*;
+
+/**
+ * A read-only <code>StyledTextContent</code> showing a file, for viewing
+ * large log and data files. The file is memory mapped instead of read into
+ * the heap, and only the parts of it that are accessed are decoded, a few
+ * blocks of characters at a time.
+ * <p>
+ * The file is decoded once in a background thread to find the offsets of
+ * its lines. Until this is done, the content only holds the lines indexed
+ * so far, and grows as more lines are indexed, so that a widget can show
+ * the start of the file at once. The growth is reported to the
+ * <code>TextChangeListener</code>s as text appended to the content, on the
+ * display of the thread that added them, e.g. the one of the
+ * <code>StyledText</code> showing the content. The <code>newText</code>
+ * of these events is empty; the appended text can be read from the
+ * content. Beyond the offsets of the lines, the memory used does not
+ * depend on the size of the file.
+ * </p>
+ * <p>
+ * The charset has to be stateless, like UTF-8, ISO-8859-1 or UTF-16LE,
+ * since blocks are decoded independently of each other. Malformed input is
+ * replaced as by <code>new String(byte[], Charset)</code>. The content does
+ * not follow changes to the file after it was created.
+ * </p>
+ *
+ * @see StyledText#setContent(StyledTextContent)
+ * @since 3.131
+ */
+public class MappedFileContent implements StyledTextContent {
+	private final static String LineDelimiter = System.lineSeparator();
+
+	/** The number of characters decoded together. */
+	static final int BLOCK_SIZE = 1 << 14;
+
+	/** The number of decoded blocks that are kept. */
+	static final int CACHE_SIZE = 16;
+
+	final ByteBuffer bytes;
+	final Charset charset;
+	List<StyledTextListener> textListeners = new ArrayList<>(); // stores text listeners
+	final Map<Integer, String> blocks;
+	Display display;	// the display on which the growth of the content is reported, or null
+	boolean updatePending;	// whether an update has been posted to the display and not run yet
+
+	/* The part of the index that has been reported to the listeners, only changed by update() */
+	int visibleLineCount = 1;
+	int visibleCharCount;
+
+	/* The index, written by the indexing thread while holding the lock of the content */
+	int[] lineStarts = new int[1024];	// the offsets of the lines found so far
+	int lineCount = 1;	// the number of lines found so far
+	int[] blockBytes = new int[64];	// the byte offsets at which the blocks start, and the end of the last one
+	int[] blockChars = new int[64];	// the character offsets at which the blocks start, and the end of the last one
+	int blockCount;	// the number of blocks indexed so far
+	boolean indexed;	// whether the whole file has been indexed
+
+/**
+ * Creates a content showing the given file decoded with the given charset,
+ * and starts indexing its lines in the background.
+ *
+ * @param file the file to show
+ * @param charset the charset of the file
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the file or charset is null</li>
+ *    <li>ERROR_INVALID_ARGUMENT - if the file is larger than 2 GB</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_IO - if an IO error occurs while opening the file</li>
+ * </ul>
+ */
+public MappedFileContent(Path file, Charset charset) {
+	if (file == null || charset == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	this.charset = charset;
+	bytes = map(file);
+	blocks = new LinkedHashMap<>(CACHE_SIZE, 0.75f, true) {
+		static final long serialVersionUID = 1L;
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Integer, String> eldest) {
+			return size() > CACHE_SIZE;
+		}
+	};
+	Thread thread = new Thread(this::index, "SWT MappedFileContent " + file.getFileName()); //$NON-NLS-1$
+	thread.setDaemon(true);
+	thread.start();
+}
+/**
+ * Adds a <code>TextChangeListener</code>. The listener is told about
+ * the lines indexed after this call, as text appended to the content.
+ * If the calling thread has a display, the listener is notified on it,
+ * otherwise on the thread indexing the file.
+ *
+ * @param listener the listener
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT when listener is null</li>
+ * </ul>
+ */
+@Override
+public void addTextChangeListener(TextChangeListener listener) {
+	if (listener == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	Display current = Display.getCurrent();
+	synchronized (textListeners) {
+		if (current != null) {
+			synchronized (this) {
+				display = current;
+			}
+		}
+		textListeners.add(new StyledTextListener(listener));
+	}
+}
+/**
+ * Adds the line starting at the given offset to the index.
+ */
+void addLine(int start) {
+	if (lineCount == lineStarts.length) lineStarts = Arrays.copyOf(lineStarts, lineCount * 2);
+	lineStarts[lineCount++] = start;
+}
+/**
+ * Returns the characters of the block with the given index, which
+ * must have been indexed.
+ */
+String getBlock(int index) {
+	synchronized (blocks) {
+		String block = blocks.get(index);
+		if (block != null) return block;
+	}
+	int start, end, length;
+	synchronized (this) {
+		start = blockBytes[index];
+		end = blockBytes[index + 1];
+		length = blockChars[index + 1] - blockChars[index];
+	}
+	byte[] data = new byte[end - start];
+	bytes.get(start, data);
+	String block = new String(data, charset);
+	// the block decodes to the characters it had while indexing, keep the offsets if it does not
+	if (block.length() != length) {
+		block = block.length() > length ? block.substring(0, length) : block + "\uFFFD".repeat(length - block.length());
+	}
+	synchronized (blocks) {
+		blocks.put(index, block);
+	}
+	return block;
+}
+/**
+ * @return the number of characters of the lines indexed so far
+ */
+@Override
+public int getCharCount() {
+	synchronized (this) {
+		return visibleCharCount;
+	}
+}
+/**
+ * Returns the line at <code>index</code> without delimiters.
+ *
+ * @param index	the index of the line to return
+ * @return the line text without delimiters
+ * @exception IllegalArgumentException <ul>
+ *   <li>ERROR_INVALID_ARGUMENT when index is out of range</li>
+ * </ul>
+ */
+@Override
+public String getLine(int index) {
+	if (index < 0) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+	int start, end;
+	synchronized (this) {
+		if (index >= visibleLineCount) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		start = lineStarts[index];
+		end = index + 1 < visibleLineCount ? lineStarts[index + 1] : visibleCharCount;
+	}
+	String line = getText(start, end);
+	int length = line.length();
+	while (length > 0 && (line.charAt(length - 1) == SWT.CR || line.charAt(length - 1) == SWT.LF)) {
+		length--;
+	}
+	return line.substring(0, length);
+}
+/**
+ * Returns the line at the given offset.
+ *
+ * @param offset offset of the character
+ * @return the line index
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_INVALID_ARGUMENT when offset is out of range</li>
+ * </ul>
+ */
+@Override
+public int getLineAtOffset(int offset) {
+	if (offset < 0) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+	synchronized (this) {
+		if (offset > visibleCharCount) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		int low = 0, high = visibleLineCount - 1;
+		while (low < high) {
+			int mid = (low + high + 1) >>> 1;
+			if (lineStarts[mid] <= offset) {
+				low = mid;
+			} else {
+				high = mid - 1;
+			}
+		}
+		return low;
+	}
+}
+/**
+ * @return the number of lines indexed so far
+ */
+@Override
+public int getLineCount() {
+	synchronized (this) {
+		return visibleLineCount;
+	}
+}
+/**
+ * Returns the line delimiter that should be used by the StyledText
+ * widget when inserting new lines.
+ *
+ * @return the platform line delimiter as specified in the line.separator
+ * 	system property.
+ */
+@Override
+public String getLineDelimiter() {
+	return LineDelimiter;
+}
+/**
+ * Returns the offset of the given line.
+ *
+ * @param lineIndex index of line
+ * @return the starting offset of the line.  When there are not any lines,
+ * 	getOffsetAtLine(0) is a valid call that should answer 0.
+ * @exception IllegalArgumentException <ul>
+ *   <li>ERROR_INVALID_ARGUMENT when lineIndex is out of range</li>
+ * </ul>
+ */
+@Override
+public int getOffsetAtLine(int lineIndex) {
+	if (lineIndex < 0) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+	synchronized (this) {
+		if (lineIndex >= visibleLineCount) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		return lineStarts[lineIndex];
+	}
+}
+/**
+ * Returns the characters between the offsets, which must have been indexed.
+ */
+String getText(int start, int end) {
+	if (start == end) return "";
+	int first, last;
+	int[] offsets;
+	synchronized (this) {
+		first = indexOfBlock(start);
+		last = indexOfBlock(end - 1);
+		offsets = Arrays.copyOfRange(blockChars, first, last + 1);
+	}
+	if (first == last) {
+		return getBlock(first).substring(start - offsets[0], end - offsets[0]);
+	}
+	StringBuilder buffer = new StringBuilder(end - start);
+	for (int i = first; i <= last; i++) {
+		String block = getBlock(i);
+		int offset = offsets[i - first];
+		buffer.append(block, Math.max(start - offset, 0), Math.min(end - offset, block.length()));
+	}
+	return buffer.toString();
+}
+/**
+ * Returns the text in the given range.
+ *
+ * @param start the start offset of the text to return
+ * @param length the length of the text to return
+ * @return the text
+ * @exception IllegalArgumentException <ul>
+ *   <li>ERROR_INVALID_ARGUMENT when the range is out of bounds</li>
+ * </ul>
+ */
+@Override
+public String getTextRange(int start, int length) {
+	if (start < 0 || length < 0) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+	synchronized (this) {
+		if (start + length > visibleCharCount) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+	}
+	return getText(start, start + length);
+}
+/**
+ * Decodes the file and indexes its lines and blocks.
+ */
+void index() {
+	CharsetDecoder decoder = newDecoder();
+	ByteBuffer mapped = bytes.duplicate();
+	// decoders are much faster on heap buffers than on mapped ones
+	ByteBuffer input = ByteBuffer.allocate(BLOCK_SIZE).flip();
+	CharBuffer output = CharBuffer.allocate(BLOCK_SIZE);
+	int offset = 0;
+	boolean cr = false, flushed = false;
+	try {
+		while (!flushed) {
+			if (mapped.hasRemaining()) {
+				input.compact();
+				int count = Math.min(input.remaining(), mapped.remaining());
+				mapped.get(input.array(), input.position(), count);
+				input.position(input.position() + count).flip();
+			}
+			boolean endOfInput = !mapped.hasRemaining();
+			output.clear();
+			if (decoder.decode(input, output, endOfInput).isUnderflow() && endOfInput) {
+				flushed = decoder.flush(output).isUnderflow();
+			}
+			char[] chars = output.array();
+			int length = output.position();
+			synchronized (this) {
+				for (int i = 0; i < length; i++, offset++) {
+					char ch = chars[i];
+					if (cr) {
+						cr = false;
+						if (ch == SWT.LF) {
+							addLine(offset + 1);
+							continue;
+						}
+						addLine(offset);
+					}
+					if (ch == SWT.LF) {
+						addLine(offset + 1);
+					} else if (ch == SWT.CR) {
+						cr = true;
+					}
+				}
+				if (cr && flushed) addLine(offset);
+				if (length > 0) {
+					if (blockCount + 1 == blockBytes.length) {
+						blockBytes = Arrays.copyOf(blockBytes, blockBytes.length * 2);
+						blockChars = Arrays.copyOf(blockChars, blockChars.length * 2);
+					}
+					blockCount++;
+					blockBytes[blockCount] = mapped.position() - input.remaining();
+					blockChars[blockCount] = offset;
+				}
+			}
+			if (length > 0) postUpdate();
+		}
+	} finally {
+		synchronized (this) {
+			indexed = true;
+		}
+		postUpdate();
+	}
+}
+/**
+ * Returns whether the whole file has been indexed, and its lines have
+ * been reported to the listeners. Until then, the content only holds
+ * the lines indexed so far.
+ *
+ * @return <code>true</code> if the content holds the whole file, <code>false</code> otherwise
+ */
+public boolean isIndexed() {
+	synchronized (this) {
+		return indexed && visibleLineCount == lineCount && visibleCharCount == blockChars[blockCount];
+	}
+}
+/**
+ * Returns the index of the block containing the given offset.
+ */
+int indexOfBlock(int offset) {
+	int low = 0, high = blockCount - 1;
+	while (low < high) {
+		int mid = (low + high + 1) >>> 1;
+		if (blockChars[mid] <= offset) {
+			low = mid;
+		} else {
+			high = mid - 1;
+		}
+	}
+	return low;
+}
+CharsetDecoder newDecoder() {
+	return charset.newDecoder().onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+}
+/**
+ * Reports the lines indexed so far on the display of the listeners, or
+ * at once if there is none. Updates posted to the display are coalesced.
+ */
+void postUpdate() {
+	Display current;
+	// no listener can be added for the display while updating without it
+	synchronized (textListeners) {
+		synchronized (this) {
+			current = display;
+			if (current != null) {
+				if (updatePending) return;
+				updatePending = true;
+			}
+		}
+		if (current == null) {
+			update();
+			return;
+		}
+	}
+	try {
+		current.asyncExec(this::update);
+	} catch (SWTException e) {
+		// the display has been disposed, and with it the widgets listening
+		synchronized (this) {
+			if (display == current) display = null;
+			updatePending = false;
+		}
+		postUpdate();
+	}
+}
+/**
+ * Appends the lines indexed since the last update to the content, and
+ * tells the listeners about them. Before the whole file has been indexed,
+ * the content ends at the start of the last line found, since the line
+ * following it may still grow.
+ */
+void update() {
+	synchronized (textListeners) {
+		int start, newCharCount, newLineCount;
+		synchronized (this) {
+			updatePending = false;
+			start = visibleCharCount;
+			newCharCount = (indexed ? blockChars[blockCount] : lineStarts[lineCount - 1]) - visibleCharCount;
+			newLineCount = lineCount - visibleLineCount;
+		}
+		if (newCharCount == 0 && newLineCount == 0) return;
+		StyledTextEvent event = new StyledTextEvent(this);
+		event.type = ST.TextChanging;
+		event.start = start;
+		event.text = "";
+		event.newCharCount = newCharCount;
+		event.newLineCount = newLineCount;
+		sendTextEvent(event);
+		synchronized (this) {
+			visibleCharCount += newCharCount;
+			visibleLineCount += newLineCount;
+		}
+		event = new StyledTextEvent(this);
+		event.type = ST.TextChanged;
+		sendTextEvent(event);
+	}
+}
+/**
+ * Maps the file into memory. The mapping stays valid after the channel is closed.
+ */
+static ByteBuffer map(Path file) {
+	try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+		long size = channel.size();
+		if (size > Integer.MAX_VALUE) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+	} catch (IOException e) {
+		SWT.error(SWT.ERROR_IO, e);
+		return null;
+	}
+}
+/**
+ * Removes the specified <code>TextChangeListener</code>.
+ *
+ * @param listener the listener which should no longer be notified
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT when listener is null</li>
+ * </ul>
+ */
+@Override
+@SuppressWarnings("removal")
+public void removeTextChangeListener(TextChangeListener listener) {
+	if (listener == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	synchronized (textListeners) {
+		textListeners.removeIf(typedListener -> typedListener.getEventListener() == listener);
+	}
+}
+/**
+ * Sends the event to the text listeners.
+ */
+void sendTextEvent(StyledTextEvent event) {
+	for (StyledTextListener textListener : textListeners.toArray(new StyledTextListener[0])) {
+		textListener.handleEvent(event);
+	}
+}
+/**
+ * Not supported, the content is read-only.
+ *
+ * @exception UnsupportedOperationException always
+ */
+@Override
+public void replaceTextRange(int start, int replaceLength, String text) {
+	throw new UnsupportedOperationException();
+}
+/**
+ * Not supported, the content is read-only.
+ *
+ * @exception UnsupportedOperationException always
+ */
+@Override
+public void setText(String text) {
+	throw new UnsupportedOperationException();
+}
+}
@@ -0,0 +1,580 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.custom;
+
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.*;
+
+import org.eclipse.swt.*;
+import org.eclipse.swt.widgets.*;
+
+/**
+ * A <code>StyledTextContent</code> for large documents, stored as a piece
+ * table. The text set with <code>setText</code> is kept unmodified and the
+ * inserted text is appended to a second buffer; the document is a sequence
+ * of pieces of these two buffers, held in a balanced tree that also counts
+ * the line delimiters in every subtree.
+ * <p>
+ * Setting the text does not copy it, and replacing text as well as mapping
+ * between lines and offsets take logarithmic time in the number of pieces,
+ * independent of the distance to the previous change. This makes the
+ * content suitable for documents of hundreds of megabytes, where the
+ * default content of the <code>StyledText</code> widget would copy large
+ * parts of the text on every edit far from the previous one.
+ * </p>
+ * <p>
+ * Like the default content, this content does not allow the \r\n line
+ * delimiter to be split or partially deleted.
+ * </p>
+ *
+ * @see StyledText#setContent(StyledTextContent)
+ * @since 3.131
+ */
+public class PieceTableContent implements StyledTextContent {
+	private final static String LineDelimiter = System.lineSeparator();
+
+	List<StyledTextListener> textListeners = new ArrayList<>(); // stores text listeners for event sending
+	Buffer added;	// the text inserted since the last setText, only ever appended to
+	Node root;	// the pieces of the text in order
+
+	/**
+	 * A buffer of text with the offsets of its line breaks. The offset of
+	 * a line break is the offset of the last character of the delimiter,
+	 * i.e. of a \n or of a \r that is not followed by \n.
+	 */
+	static final class Buffer {
+		final CharSequence text;
+		int[] breaks = new int[16];
+		int breakCount;
+
+		Buffer(CharSequence text) {
+			this.text = text;
+			index(0);
+		}
+
+		int length() {
+			return text.length();
+		}
+
+		/**
+		 * Appends the string and indexes its line breaks. A \r that ends
+		 * the buffer is no longer a line break when a \n is appended.
+		 */
+		void append(String string) {
+			int start = text.length();
+			((StringBuilder) text).append(string);
+			if (breakCount > 0 && breaks[breakCount - 1] == start - 1 && start < text.length()) {
+				if (text.charAt(start - 1) == SWT.CR && text.charAt(start) == SWT.LF) breakCount--;
+			}
+			index(start);
+		}
+
+		void index(int start) {
+			CharSequence text = this.text;
+			int length = text.length();
+			for (int i = start; i < length; i++) {
+				char ch = text.charAt(i);
+				if (ch == SWT.LF || (ch == SWT.CR && (i + 1 == length || text.charAt(i + 1) != SWT.LF))) {
+					if (breakCount == breaks.length) breaks = Arrays.copyOf(breaks, breakCount * 2);
+					breaks[breakCount++] = i;
+				}
+			}
+		}
+
+		/**
+		 * Returns the index of the first line break at or after the offset.
+		 */
+		int indexOf(int offset) {
+			int low = 0, high = breakCount;
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				if (breaks[mid] < offset) {
+					low = mid + 1;
+				} else {
+					high = mid;
+				}
+			}
+			return low;
+		}
+
+		/**
+		 * Returns the number of line breaks in the given range. A \r at the
+		 * end of the range is a line break even when the buffer continues
+		 * with \n, since the range is never followed by a \n in the content.
+		 */
+		int countBreaks(int start, int length) {
+			int end = start + length;
+			int count = indexOf(end) - indexOf(start);
+			if (length > 0 && end < text.length() && text.charAt(end - 1) == SWT.CR && text.charAt(end) == SWT.LF) count++;
+			return count;
+		}
+
+		/**
+		 * Returns the offset of the line break with the given index in the range.
+		 */
+		int breakAt(int start, int length, int index) {
+			int i = indexOf(start) + index;
+			if (i < breakCount && breaks[i] < start + length) return breaks[i];
+			return start + length - 1;
+		}
+	}
+
+	/**
+	 * A piece of one of the buffers, as the node of a treap: the pieces
+	 * are in text order in the tree and in heap order of their random
+	 * priorities, which keeps the tree balanced with high probability.
+	 */
+	static final class Node {
+		final Buffer buffer;
+		final int priority = ThreadLocalRandom.current().nextInt();
+		int start, length, breaks;	// the piece and the number of line breaks in it
+		int size, lines;	// the number of characters and line breaks in the subtree
+		Node left, right;
+
+		Node(Buffer buffer, int start, int length) {
+			this.buffer = buffer;
+			this.start = start;
+			setLength(length);
+		}
+
+		void setLength(int length) {
+			this.length = length;
+			breaks = buffer.countBreaks(start, length);
+			update();
+		}
+
+		Node update() {
+			size = length;
+			lines = breaks;
+			if (left != null) {
+				size += left.size;
+				lines += left.lines;
+			}
+			if (right != null) {
+				size += right.size;
+				lines += right.lines;
+			}
+			return this;
+		}
+
+		char firstChar() {
+			return buffer.text.charAt(start);
+		}
+
+		char lastChar() {
+			return buffer.text.charAt(start + length - 1);
+		}
+	}
+
+/**
+ * Creates a new PieceTableContent and initializes it.  A <code>StyledTextContent</code> will always have
+ * at least one empty line.
+ */
+public PieceTableContent() {
+	setText("");
+}
+/**
+ * Adds a <code>TextChangeListener</code> listening for
+ * <code>TextChangingEvent</code> and <code>TextChangedEvent</code>. A
+ * <code>TextChangingEvent</code> is sent before changes to the text occur.
+ * A <code>TextChangedEvent</code> is sent after changes to the text
+ * occurred.
+ *
+ * @param listener the listener
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT when listener is null</li>
+ * </ul>
+ */
+@Override
+public void addTextChangeListener(TextChangeListener listener) {
+	if (listener == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	StyledTextListener typedListener = new StyledTextListener(listener);
+	textListeners.add(typedListener);
+}
+/**
+ * Appends the text to the end of the given tree. When the last piece
+ * ends with the last inserted text, as when typing, it is extended
+ * instead of adding a piece.
+ */
+Node append(Node node, String text) {
+	int start = added.length();
+	added.append(text);
+	if (node != null && extend(node, start, text.length())) return node;
+	return join(node, new Node(added, start, text.length()));
+}
+/**
+ * Extends the last piece of the tree by the given length if it ends
+ * at the given offset of the added buffer.
+ */
+boolean extend(Node node, int end, int length) {
+	boolean extended;
+	if (node.right != null) {
+		extended = extend(node.right, end, length);
+	} else if (node.buffer == added && node.start + node.length == end) {
+		node.setLength(node.length + length);
+		return true;
+	} else {
+		extended = false;
+	}
+	if (extended) node.update();
+	return extended;
+}
+/**
+ * Returns the number of line breaks before the given offset.
+ */
+int countBreaks(int offset) {
+	int count = 0;
+	Node node = root;
+	while (node != null) {
+		int leftSize = node.left != null ? node.left.size : 0;
+		if (offset <= leftSize) {
+			node = node.left;
+			continue;
+		}
+		if (node.left != null) count += node.left.lines;
+		offset -= leftSize;
+		if (offset == node.length) return count + node.breaks;
+		if (offset < node.length) {
+			// the piece continues after the offset, a \r before it may be followed by \n
+			Buffer buffer = node.buffer;
+			return count + buffer.indexOf(node.start + offset) - buffer.indexOf(node.start);
+		}
+		count += node.breaks;
+		offset -= node.length;
+		node = node.right;
+	}
+	return count;
+}
+/**
+ * @return the number of characters in the content
+ */
+@Override
+public int getCharCount() {
+	return root != null ? root.size : 0;
+}
+/**
+ * Returns the line at <code>index</code> without delimiters.
+ *
+ * @param index	the index of the line to return
+ * @return the line text without delimiters
+ * @exception IllegalArgumentException <ul>
+ *   <li>ERROR_INVALID_ARGUMENT when index is out of range</li>
+ * </ul>
+ */
+@Override
+public String getLine(int index) {
+	int lineCount = getLineCount();
+	if ((index >= lineCount) || (index < 0)) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+	int start = getOffsetAtLine(index);
+	int end = index + 1 < lineCount ? getOffsetAtLine(index + 1) : getCharCount();
+	String line = getTextRange(start, end - start);
+	int length = line.length();
+	while (length > 0 && isDelimiter(line.charAt(length - 1))) {
+		length--;
+	}
+	return line.substring(0, length);
+}
+/**
+ * Returns the line at the given offset.
+ *
+ * @param offset offset of the character
+ * @return the line index
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_INVALID_ARGUMENT when offset is out of range</li>
+ * </ul>
+ */
+@Override
+public int getLineAtOffset(int offset) {
+	int charCount = getCharCount();
+	if ((offset > charCount) || (offset < 0)) SWT.error(SWT.ERROR_INVALID_ARGUMENT, null, ". charPosition=" + offset + " charCount=" + charCount);
+	return countBreaks(offset);
+}
+/**
+ * @return the number of lines in the content
+ */
+@Override
+public int getLineCount() {
+	return (root != null ? root.lines : 0) + 1;
+}
+/**
+ * Returns the line delimiter that should be used by the StyledText
+ * widget when inserting new lines.
+ *
+ * @return the platform line delimiter as specified in the line.separator
+ * 	system property.
+ */
+@Override
+public String getLineDelimiter() {
+	return LineDelimiter;
+}
+/**
+ * Returns the offset of the given line.
+ *
+ * @param lineIndex index of line
+ * @return the starting offset of the line.  When there are not any lines,
+ * 	getOffsetAtLine(0) is a valid call that should answer 0.
+ * @exception IllegalArgumentException <ul>
+ *   <li>ERROR_INVALID_ARGUMENT when lineIndex is out of range</li>
+ * </ul>
+ */
+@Override
+public int getOffsetAtLine(int lineIndex) {
+	if (lineIndex == 0) return 0;
+	if ((lineIndex >= getLineCount()) || (lineIndex < 0)) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+	// the line starts after the line break with the index lineIndex - 1
+	int index = lineIndex - 1;
+	int offset = 0;
+	Node node = root;
+	while (true) {
+		int leftLines = node.left != null ? node.left.lines : 0;
+		if (index < leftLines) {
+			node = node.left;
+			continue;
+		}
+		index -= leftLines;
+		if (node.left != null) offset += node.left.size;
+		if (index < node.breaks) {
+			return offset + node.buffer.breakAt(node.start, node.length, index) - node.start + 1;
+		}
+		index -= node.breaks;
+		offset += node.length;
+		node = node.right;
+	}
+}
+/**
+ * Returns the text in the given range.
+ *
+ * @param start the start offset of the text to return
+ * @param length the length of the text to return
+ * @return the text
+ * @exception IllegalArgumentException <ul>
+ *   <li>ERROR_INVALID_ARGUMENT when the range is out of bounds</li>
+ * </ul>
+ */
+@Override
+public String getTextRange(int start, int length) {
+	if (start < 0 || length < 0 || start + length > getCharCount()) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+	if (length == 0) return "";
+	StringBuilder buffer = new StringBuilder(length);
+	getTextRange(root, start, start + length, buffer);
+	return buffer.toString();
+}
+void getTextRange(Node node, int start, int end, StringBuilder buffer) {
+	while (node != null && start < end) {
+		int leftSize = node.left != null ? node.left.size : 0;
+		if (start < leftSize) getTextRange(node.left, start, Math.min(end, leftSize), buffer);
+		int pieceStart = Math.max(start - leftSize, 0), pieceEnd = Math.min(end - leftSize, node.length);
+		if (pieceStart < pieceEnd) buffer.append(node.buffer.text, node.start + pieceStart, node.start + pieceEnd);
+		int rightStart = leftSize + node.length;
+		start = Math.max(start - rightStart, 0);
+		end -= rightStart;
+		node = node.right;
+	}
+}
+/**
+ * Returns whether or not the given character is a line delimiter.  Both CR and LF
+ * are valid line delimiters.
+ *
+ * @param ch the character to test
+ * @return true if ch is a delimiter, false otherwise
+ */
+boolean isDelimiter(char ch) {
+	return ch == SWT.CR || ch == SWT.LF;
+}
+private boolean isInsideCRLF(int pos) {
+	if (pos == 0) return false;
+	if (pos == getCharCount()) return false;
+	String text = getTextRange(pos - 1, 2);
+	return text.charAt(0) == SWT.CR && text.charAt(1) == SWT.LF;
+}
+/**
+ * Concatenates the trees. A \r at the end of the left tree and a \n at
+ * the start of the right tree are moved into a piece of their own, so
+ * that every \r\n delimiter is inside a single piece.
+ */
+Node join(Node left, Node right) {
+	if (left == null) return right;
+	if (right == null) return left;
+	Node last = left, first = right;
+	while (last.right != null) last = last.right;
+	while (first.left != null) first = first.left;
+	if (last.lastChar() == SWT.CR && first.firstChar() == SWT.LF) {
+		Node[] parts = new Node[2];
+		split(left, left.size - 1, parts);
+		left = parts[0];
+		split(right, 1, parts);
+		right = parts[1];
+		int start = added.length();
+		added.append("\r\n");
+		left = merge(left, new Node(added, start, 2));
+	}
+	return merge(left, right);
+}
+/**
+ * Returns the number of lines that are in the specified text.
+ *
+ * @param text the text to lineate
+ * @return number of lines in the text
+ */
+int lineCount(String text) {
+	int lineCount = 0;
+	int length = text.length();
+	for (int i = 0; i < length; i++) {
+		char ch = text.charAt(i);
+		if (ch == SWT.CR) {
+			if (i + 1 < length && text.charAt(i + 1) == SWT.LF) {
+				i++;
+			}
+			lineCount++;
+		} else if (ch == SWT.LF) {
+			lineCount++;
+		}
+	}
+	return lineCount;
+}
+/**
+ * Concatenates two trees, keeping the nodes in heap order of their priorities.
+ */
+static Node merge(Node left, Node right) {
+	if (left == null) return right;
+	if (right == null) return left;
+	if (left.priority > right.priority) {
+		left.right = merge(left.right, right);
+		return left.update();
+	}
+	right.left = merge(left, right.left);
+	return right.update();
+}
+/**
+ * Removes the specified <code>TextChangeListener</code>.
+ *
+ * @param listener the listener which should no longer be notified
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT when listener is null</li>
+ * </ul>
+ */
+@Override
+@SuppressWarnings("removal")
+public void removeTextChangeListener(TextChangeListener listener) {
+	if (listener == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	for (int i = 0; i < textListeners.size(); i++) {
+		TypedListener typedListener = textListeners.get(i);
+		if (typedListener.getEventListener () == listener) {
+			textListeners.remove(i);
+			break;
+		}
+	}
+}
+/**
+ * Replaces the text with <code>newText</code> starting at position <code>start</code>
+ * for a length of <code>replaceLength</code>.  Notifies the appropriate listeners.
+ *
+ * @param start	start offset of text to replace
+ * @param replaceLength start offset of text to replace
+ * @param newText start offset of text to replace
+ *
+ * @exception IllegalArgumentException <ul>
+ *   <li>ERROR_INVALID_ARGUMENT when the range is out of bounds or the text change
+ *      results in a multi byte line delimiter being split or partially deleted.
+ *      Splitting a line delimiter by inserting text between the CR and LF characters
+ *      of the \r\n delimiter or deleting part of this line delimiter is not supported</li>
+ * </ul>
+ */
+@Override
+public void replaceTextRange(int start, int replaceLength, String newText) {
+	if (start < 0 || replaceLength < 0 || start + replaceLength > getCharCount()) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+	if (isInsideCRLF(start) || (replaceLength > 0 && isInsideCRLF(start + replaceLength))) {
+		String message = " [start=" + start + " len=" + replaceLength + "]";
+		SWT.error(SWT.ERROR_INVALID_ARGUMENT, null, message);
+	}
+
+	// inform listeners
+	StyledTextEvent event = new StyledTextEvent(this);
+	event.type = ST.TextChanging;
+	event.start = start;
+	event.replaceLineCount = countBreaks(start + replaceLength) - countBreaks(start);
+	event.text = newText;
+	event.newLineCount = lineCount(newText);
+	event.replaceCharCount = replaceLength;
+	event.newCharCount = newText.length();
+	sendTextEvent(event);
+
+	Node[] parts = new Node[2];
+	split(root, start, parts);
+	Node left = parts[0];
+	split(parts[1], replaceLength, parts);
+	Node right = parts[1];
+	if (!newText.isEmpty()) left = append(left, newText);
+	root = join(left, right);
+
+	// inform listeners
+	event = new StyledTextEvent(this);
+	event.type = ST.TextChanged;
+	sendTextEvent(event);
+}
+/**
+ * Sends the text listeners the TextChanged event.
+ */
+void sendTextEvent(StyledTextEvent event) {
+	for (StyledTextListener textListener : textListeners) {
+		textListener.handleEvent(event);
+	}
+}
+/**
+ * Sets the content to text. The text is not copied and the text inserted
+ * later is kept separately.
+ *
+ * @param text the text
+ */
+@Override
+public void setText(String text) {
+	Buffer original = new Buffer(text);
+	added = new Buffer(new StringBuilder());
+	root = text.isEmpty() ? null : new Node(original, 0, text.length());
+	StyledTextEvent event = new StyledTextEvent(this);
+	event.type = ST.TextSet;
+	event.text = "";
+	sendTextEvent(event);
+}
+/**
+ * Splits the tree into the pieces before and after the offset, which are
+ * stored in <code>result</code>. A piece containing the offset is split in two.
+ */
+static void split(Node node, int offset, Node[] result) {
+	if (node == null) {
+		result[0] = result[1] = null;
+		return;
+	}
+	int leftSize = node.left != null ? node.left.size : 0;
+	if (offset <= leftSize) {
+		split(node.left, offset, result);
+		node.left = result[1];
+		result[1] = node.update();
+	} else if (offset >= leftSize + node.length) {
+		split(node.right, offset - leftSize - node.length, result);
+		node.right = result[0];
+		result[0] = node.update();
+	} else {
+		int length = offset - leftSize;
+		Node tail = new Node(node.buffer, node.start + length, node.length - length);
+		Node right = node.right;
+		node.right = null;
+		node.setLength(length);
+		result[0] = node;
+		result[1] = merge(tail, right);
+	}
+}
+}
@@ -13,6 +13,7 @@
  *******************************************************************************/
 package org.eclipse.swt.custom;
 
+import java.io.*;
 import java.util.*;
 
 import org.eclipse.swt.*;
@@ -30,27 +31,55 @@ import org.eclipse.swt.graphics.*;
  * if set, or those set directly in the widget. All styles are applied to
  * the stream like they are rendered by the widget. In addition, the
  * widget font name and size is used for the whole text.</p>
+ *
+ * <p>The header holds the font and color tables of all the written styles,
+ * so it is inserted when the writer is closed. A writer that passes its data
+ * on to an output writes the header first instead, and takes the tables
+ * from a writer that the same content has already been written to.</p>
  */
 class RTFWriter extends StyledTextWriterBase {
 	static final int DEFAULT_FOREGROUND = 0;
 	static final int DEFAULT_BACKGROUND = 1;
 	List<Color> colorTable;
 	List<Font> fontTable;
+	boolean headerWritten;
 
 	public RTFWriter(StyledText styledText, int start, int length) {
-		super(styledText, start, length);
+		this(styledText, start, length, null, null);
+	}
+
+	/**
+	 * Creates a writer that passes the RTF on to {@code output} in chunks.
+	 *
+	 * @param output the writer to pass the data on to, or null to keep the data
+	 * @param tables a closed writer the same content was written to, used
+	 *  for the font and color tables. May be null if {@code output} is null.
+	 */
+	RTFWriter(StyledText styledText, int start, int length, Writer output, RTFWriter tables) {
+		super(styledText, start, length, output);
 		colorTable = new ArrayList<>();
 		fontTable = new ArrayList<>();
-		colorTable.add(this.styledText.getForeground());
-		colorTable.add(this.styledText.getBackground());
-		fontTable.add(this.styledText.getFont());
+		if (tables != null) {
+			colorTable.addAll(tables.colorTable);
+			fontTable.addAll(tables.fontTable);
+			writeHeader();
+			headerWritten = true;
+		} else {
+			colorTable.add(this.styledText.getForeground());
+			colorTable.add(this.styledText.getBackground());
+			fontTable.add(this.styledText.getFont());
+		}
 	}
 
 	@Override
 	public void close() {
 		if (!isClosed()) {
-			writeHeader();
-			write("\n}}\0");
+			if (headerWritten) {
+				write("\n}}");
+			} else {
+				writeHeader();
+				write("\n}}\0");
+			}
 			super.close();
 		}
 	}
@@ -195,23 +224,21 @@ class RTFWriter extends StyledTextWriterBase {
 	// ==== Helper methods ====
 
 	@Override
-	String escapeText(String string) {
-		// The resulting string is at least as long as the original.
-		StringBuilder result = new StringBuilder(string.length());
-		string.chars().forEach(ch -> {
+	void escapeText(StringBuilder result, String string, int start, int end) {
+		for (int i = start; i < end; i++) {
+			char ch = string.charAt(i);
 			if (ch > 0x7F) {
 				result.append("\\u");
-				result.append(Integer.toString((short) ch));
+				result.append((short) ch);
 				result.append('?'); // ANSI representation (1 byte long, \\uc1)
 			} else if (ch == '}' || ch == '{' || ch == '\\') {
 				result.append('\\');
-				result.append((char) ch);
+				result.append(ch);
 			} else {
 				// Fixes bug 21698.
-				result.append((char) ch);
+				result.append(ch);
 			}
-		});
-		return result.toString();
+		}
 	}
 
 	/**
@@ -18,6 +18,7 @@
 package org.eclipse.swt.custom;
 
 
+import java.io.*;
 import java.util.*;
 import java.util.function.*;
 import java.util.stream.*;
@@ -328,7 +329,7 @@ public class StyledText extends Canvas {
 				printerRenderer.setLineIndent(i, 1, indent * scaleFactorX);
 			}
 		}
-		StyleRange[] styles = printerRenderer.styles;
+		StyleRange[] styles = printerRenderer.getStyleRanges(0, Integer.MAX_VALUE, false);
 		for (int i = 0; i < printerRenderer.styleCount; i++) {
 			StyleRange style = styles[i];
 			Font font = style.font;
@@ -3066,6 +3067,61 @@ void doWordPrevious() {
 void endAutoScroll() {
 	autoScrollDirection = SWT.NULL;
 }
+/**
+ * Writes the specified range of the content to the given writer, in the
+ * format of the given transfer. Lines are separated by the platform line
+ * delimiter and formatted like the text that is copied to the clipboard.
+ * <p>
+ * The formatted content is passed on to the writer in chunks while it is
+ * produced, so exporting a large range does not build the whole formatted
+ * text in memory. The writer is not flushed or closed.
+ * </p>
+ *
+ * @param start offset of the first character to write
+ * @param length number of characters to write
+ * @param transfer the format to write: <code>RTFTransfer</code>,
+ * 	<code>HTMLTransfer</code> or <code>TextTransfer</code>
+ * @param writer the writer to write the formatted content to
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_WIDGET_DISPOSED - if the receiver has been disposed</li>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ *    <li>ERROR_IO - if the writer fails to write the content</li>
+ * </ul>
+ * @exception IllegalArgumentException <ul>
+ *   <li>ERROR_NULL_ARGUMENT when the transfer or the writer is null</li>
+ *   <li>ERROR_INVALID_ARGUMENT when the transfer is not one of the supported formats</li>
+ *   <li>ERROR_INVALID_RANGE when start and/or length are outside the widget content</li>
+ * </ul>
+ *
+ * @since 3.131
+ */
+public void exportText(int start, int length, Transfer transfer, Writer writer) {
+	checkWidget();
+	if (transfer == null || writer == null) {
+		SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	}
+	int end = start + length;
+	if (start > end || start < 0 || end > getCharCount()) {
+		SWT.error(SWT.ERROR_INVALID_RANGE);
+	}
+	TextWriter textWriter;
+	if (transfer instanceof RTFTransfer) {
+		// The RTF header comes first and lists the fonts and colors of all
+		// the styles. Collect them in a pass that discards its output.
+		RTFWriter tables = new RTFWriter(this, start, length, Writer.nullWriter(), null);
+		writePlatformDelimitedText(tables);
+		textWriter = new RTFWriter(this, start, length, writer, tables);
+	} else if (transfer instanceof HTMLTransfer) {
+		textWriter = new HTMLWriter(this, start, length, content, writer);
+	} else if (transfer instanceof TextTransfer) {
+		textWriter = new TextWriter(start, length, writer);
+	} else {
+		SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		return;
+	}
+	writePlatformDelimitedText(textWriter);
+}
 @Override
 public Color getBackground() {
 	checkWidget();
@@ -3980,6 +4036,58 @@ public int getLineWrapIndent(int index) {
 	}
 	return isListening(ST.LineGetStyle) ? 0 : renderer.getLineWrapIndent(index, wrapIndent);
 }
+/**
+ * Returns the number of times the layout of a line was found in the
+ * layout cache and could be used without being computed again.
+ *
+ * @return the number of layout cache hits
+ * @exception SWTException <ul>
+ *    <li>ERROR_WIDGET_DISPOSED - if the receiver has been disposed</li>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ * </ul>
+ *
+ * @see #getLayoutCacheMissCount()
+ * @see #setLayoutCacheSize(int)
+ * @since 3.131
+ */
+public long getLayoutCacheHitCount() {
+	checkWidget();
+	return renderer.layoutCacheHits;
+}
+/**
+ * Returns the number of times the layout of a line had to be computed
+ * because it was not in the layout cache or was no longer valid.
+ *
+ * @return the number of layout cache misses
+ * @exception SWTException <ul>
+ *    <li>ERROR_WIDGET_DISPOSED - if the receiver has been disposed</li>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ * </ul>
+ *
+ * @see #getLayoutCacheHitCount()
+ * @see #setLayoutCacheSize(int)
+ * @since 3.131
+ */
+public long getLayoutCacheMissCount() {
+	checkWidget();
+	return renderer.layoutCacheMisses;
+}
+/**
+ * Returns the maximum number of line layouts kept by the receiver.
+ *
+ * @return the size of the layout cache
+ * @exception SWTException <ul>
+ *    <li>ERROR_WIDGET_DISPOSED - if the receiver has been disposed</li>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ * </ul>
+ *
+ * @see #setLayoutCacheSize(int)
+ * @since 3.131
+ */
+public int getLayoutCacheSize() {
+	checkWidget();
+	return renderer.layoutCacheSize;
+}
 /**
  * Returns the left margin.
  *
@@ -4256,6 +4364,16 @@ int getPartialTopIndex() {
  * 	delimiter to separate lines as written by the specified TextWriter.
  */
 String getPlatformDelimitedText(TextWriter writer) {
+	writePlatformDelimitedText(writer);
+	return writer.toString();
+}
+/**
+ * Writes the content in the range of the writer using the platform line
+ * delimiter to separate lines, and closes the writer.
+ *
+ * @param writer the TextWriter to write line text into
+ */
+void writePlatformDelimitedText(TextWriter writer) {
 	int end = writer.getStart() + writer.getCharCount();
 	int startLine = content.getLineAtOffset(writer.getStart());
 	int endLine = content.getLineAtOffset(end);
@@ -4272,7 +4390,6 @@ String getPlatformDelimitedText(TextWriter writer) {
 		writer.writeLineDelimiter(PlatformLineDelimiter);
 	}
 	writer.close();
-	return writer.toString();
 }
 /**
  * Returns all the ranges of text that have an associated StyleRange.
@@ -9015,6 +9132,34 @@ public void setKeyBinding(int key, int action) {
 		}
 	}
 }
+/**
+ * Sets the maximum number of line layouts kept by the receiver. The
+ * layouts of the lines used most recently are kept, so that lines that are
+ * painted, measured or navigated to again do not need to be laid out again.
+ * The layouts of the visible lines are always kept, even when they are
+ * more than the given size.
+ * <p>
+ * The default size is 300.
+ * </p>
+ *
+ * @param size the size of the layout cache
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_INVALID_ARGUMENT - if the size is negative</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_WIDGET_DISPOSED - if the receiver has been disposed</li>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ * </ul>
+ *
+ * @see #getLayoutCacheHitCount()
+ * @see #getLayoutCacheMissCount()
+ * @since 3.131
+ */
+public void setLayoutCacheSize(int size) {
+	checkWidget();
+	if (size < 0) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+	renderer.setLayoutCacheSize(size);
+}
 /**
  * Sets the left margin.
  *
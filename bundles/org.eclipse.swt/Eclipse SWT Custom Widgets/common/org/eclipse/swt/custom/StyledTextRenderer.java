@@ -18,6 +18,7 @@ package org.eclipse.swt.custom;
 
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.*;
 
 import org.eclipse.swt.*;
 import org.eclipse.swt.graphics.*;
@@ -44,11 +45,15 @@ class StyledTextRenderer {
 	int tabWidth;
 	int ascent, descent;
 	int averageCharWidth;
+	float charWidth;	//width of printable ASCII characters, 0 if they differ
 	int tabLength;	//tab length in spaces
 
 	/* Line data */
 	int topIndex = -1;
-	TextLayout[] layouts;
+	LinkedHashMap<Integer, TextLayout> layouts;
+	int layoutCacheSize = CACHE_SIZE;
+	long layoutCacheHits, layoutCacheMisses;
+	boolean measuring;
 	int lineCount;
 	LineSizeInfo[] lineSizes;
 	LineInfo[] lines;
@@ -64,9 +69,8 @@ class StyledTextRenderer {
 	int[] redrawLines;
 
 	/* Style data */
-	int[] ranges;
+	StyleNode styleRoot;
 	int styleCount;
-	StyleRange[] styles;
 	StyleRange[] stylesSet;
 	int stylesSetCount = 0;
 	boolean hasLinks, fixedPitch;
@@ -77,6 +81,7 @@ class StyledTextRenderer {
 
 	final static int GROW = 32;
 	final static int IDLE_TIME = 50;
+	final static int IDLE_REFRESH_TIME = 500;
 	final static int CACHE_SIZE = 300;
 
 	final static int BACKGROUND = 1 << 0;
@@ -184,6 +189,54 @@ class StyledTextRenderer {
 		}
 	}
 
+	/**
+	 * A style range, as the node of a treap: the ranges are in offset order
+	 * in the tree and in heap order of their random priorities, which keeps
+	 * the tree balanced with high probability. The shift of a node is added
+	 * to the start of all the ranges of its subtree, it moves the ranges
+	 * after an edit without visiting them.
+	 */
+	static final class StyleNode {
+		final StyleRange style;
+		final int priority = ThreadLocalRandom.current().nextInt();
+		int start, length, shift;
+		int count;	// the number of ranges in the subtree
+		StyleNode left, right;
+
+		StyleNode(int start, int length, StyleRange style) {
+			this.start = start;
+			this.length = length;
+			this.style = style;
+			count = 1;
+		}
+
+		/**
+		 * Applies the shift of the node to its start and passes it on to its
+		 * children. The start of a node is valid once all the nodes on its path
+		 * from the root have been pushed.
+		 */
+		StyleNode push() {
+			if (shift != 0) {
+				start += shift;
+				if (left != null) left.shift += shift;
+				if (right != null) right.shift += shift;
+				shift = 0;
+			}
+			return this;
+		}
+
+		StyleNode update() {
+			count = 1;
+			if (left != null) count += left.count;
+			if (right != null) count += right.count;
+			return this;
+		}
+
+		int end() {
+			return start + length;
+		}
+	}
+
 	private record LineDrawInfo(int index, TextLayout layout, String text, int offset, int height) {
 
 	}
@@ -197,102 +250,117 @@ StyledTextRenderer(Device device, StyledText styledText) {
 	this.device = device;
 	this.styledText = styledText;
 }
-int addMerge(int[] mergeRanges, StyleRange[] mergeStyles, int mergeCount, int modifyStart, int modifyEnd) {
-	int rangeCount = styleCount << 1;
-	StyleRange endStyle = null;
-	int endStart = 0, endLength = 0;
-	if (modifyEnd < rangeCount) {
-		endStyle = styles[modifyEnd >> 1];
-		endStart = ranges[modifyEnd];
-		endLength = ranges[modifyEnd + 1];
-	}
-	int grow = mergeCount - (modifyEnd - modifyStart);
-	if (rangeCount + grow >= ranges.length) {
-		int[] tmpRanges = new int[ranges.length + grow + (GROW << 1)];
-		System.arraycopy(ranges, 0, tmpRanges, 0, modifyStart);
-		StyleRange[] tmpStyles = new StyleRange[styles.length + (grow >> 1) + GROW];
-		System.arraycopy(styles, 0, tmpStyles, 0, modifyStart >> 1);
-		if (rangeCount > modifyEnd) {
-			System.arraycopy(ranges, modifyEnd, tmpRanges, modifyStart + mergeCount, rangeCount - modifyEnd);
-			System.arraycopy(styles, modifyEnd >> 1, tmpStyles, (modifyStart + mergeCount) >> 1, styleCount - (modifyEnd >> 1));
-		}
-		ranges = tmpRanges;
-		styles = tmpStyles;
-	} else {
-		if (rangeCount > modifyEnd) {
-			System.arraycopy(ranges, modifyEnd, ranges, modifyStart + mergeCount, rangeCount - modifyEnd);
-			System.arraycopy(styles, modifyEnd >> 1, styles, (modifyStart + mergeCount) >> 1, styleCount - (modifyEnd >> 1));
-		}
+/**
+ * Returns a tree of the given style ranges, which must be sorted and must not
+ * overlap. Empty ranges are skipped and adjacent similar ranges are merged
+ * when <code>merge</code> is true.
+ */
+static StyleNode buildStyles(int[] ranges, StyleRange[] styles, boolean merge) {
+	StyleNode[] stack = new StyleNode[styles.length + 1];
+	int top = 0;
+	StyleNode last = null;
+	for (int i = 0; i < styles.length; i++) {
+		int start = ranges != null ? ranges[i << 1] : styles[i].start;
+		int length = ranges != null ? ranges[(i << 1) + 1] : styles[i].length;
+		if (length == 0) continue;
+		if (merge && last != null && last.end() == start && styles[i].similarTo(last.style)) {
+			last.length += length;
+			continue;
+		}
+		last = new StyleNode(start, length, styles[i]);
+		/* the nodes come in order, build the treap on the stack of its right spine */
+		StyleNode child = null;
+		while (top > 0 && stack[top - 1].priority < last.priority) {
+			child = stack[--top];
+			child.update();
+		}
+		last.left = child;
+		if (top > 0) stack[top - 1].right = last;
+		stack[top++] = last;
+	}
+	while (top > 1) stack[--top].update();
+	return top > 0 ? stack[0].update() : null;
+}
+/**
+ * Adds the nodes of the styles that intersect the range from start (inclusive)
+ * to end (exclusive) to the list, in offset order.
+ */
+static void collectStyles(StyleNode node, int start, int end, List<StyleNode> result) {
+	if (node == null) return;
+	node.push();
+	boolean after = node.end() > start, before = node.start < end;
+	if (after) collectStyles(node.left, start, end, result);
+	if (after && before) result.add(node);
+	if (before) collectStyles(node.right, start, end, result);
+}
+static StyleNode firstStyle(StyleNode node) {
+	if (node == null) return null;
+	while (node.push().left != null) node = node.left;
+	return node;
+}
+static StyleNode lastStyle(StyleNode node) {
+	if (node == null) return null;
+	while (node.push().right != null) node = node.right;
+	return node;
+}
+static StyleNode mergeStyles(StyleNode left, StyleNode right) {
+	if (left == null) return right;
+	if (right == null) return left;
+	if (left.priority > right.priority) {
+		left.push().right = mergeStyles(left.right, right);
+		return left.update();
+	}
+	right.push().left = mergeStyles(left, right.left);
+	return right.update();
+}
+/**
+ * Splits the tree into the styles that start before the offset and the others.
+ */
+static void splitStyles(StyleNode node, int offset, StyleNode[] result) {
+	if (node == null) {
+		result[0] = result[1] = null;
+		return;
 	}
-	if (MERGE_STYLES) {
-		int j = modifyStart;
-		for (int i = 0; i < mergeCount; i += 2) {
-			if (j > 0 && ranges[j - 2] + ranges[j - 1] == mergeRanges[i] && mergeStyles[i >> 1].similarTo(styles[(j - 2) >> 1])) {
-				ranges[j - 1] += mergeRanges[i + 1];
-			} else {
-				styles[j >> 1] = mergeStyles[i >> 1];
-				ranges[j++] = mergeRanges[i];
-				ranges[j++] = mergeRanges[i + 1];
-			}
-		}
-		if (endStyle != null && ranges[j - 2] + ranges[j - 1] == endStart && endStyle.similarTo(styles[(j - 2) >> 1])) {
-			ranges[j - 1] += endLength;
-			modifyEnd += 2;
-			mergeCount += 2;
-		}
-		if (rangeCount > modifyEnd) {
-			System.arraycopy(ranges, modifyStart + mergeCount, ranges, j, rangeCount - modifyEnd);
-			System.arraycopy(styles, (modifyStart + mergeCount) >> 1, styles, j >> 1, styleCount - (modifyEnd >> 1));
-		}
-		grow = (j - modifyStart) - (modifyEnd - modifyStart);
-	} else {
-		System.arraycopy(mergeRanges, 0, ranges, modifyStart, mergeCount);
-		System.arraycopy(mergeStyles, 0, styles, modifyStart >> 1, mergeCount >> 1);
-	}
-	styleCount += grow >> 1;
-	return grow;
-}
-int addMerge(StyleRange[] mergeStyles, int mergeCount, int modifyStart, int modifyEnd) {
-	int grow = mergeCount - (modifyEnd - modifyStart);
-	StyleRange endStyle = null;
-	if (modifyEnd < styleCount) endStyle = styles[modifyEnd];
-	if (styleCount + grow >= styles.length) {
-		StyleRange[] tmpStyles = new StyleRange[styles.length + grow + GROW];
-		System.arraycopy(styles, 0, tmpStyles, 0, modifyStart);
-		if (styleCount > modifyEnd) {
-			System.arraycopy(styles, modifyEnd, tmpStyles, modifyStart + mergeCount, styleCount - modifyEnd);
-		}
-		styles = tmpStyles;
+	if (node.push().start < offset) {
+		splitStyles(node.right, offset, result);
+		node.right = result[0];
+		result[0] = node.update();
 	} else {
-		if (styleCount > modifyEnd) {
-			System.arraycopy(styles, modifyEnd, styles, modifyStart + mergeCount, styleCount - modifyEnd);
-		}
+		splitStyles(node.left, offset, result);
+		node.left = result[1];
+		result[1] = node.update();
 	}
+}
+/**
+ * Concatenates two trees, merging the last style of the first one with the
+ * first style of the second one when they are adjacent and similar.
+ */
+StyleNode joinStyles(StyleNode left, StyleNode right) {
 	if (MERGE_STYLES) {
-		int j = modifyStart;
-		for (int i = 0; i < mergeCount; i++) {
-			StyleRange newStyle = mergeStyles[i], style;
-			if (j > 0 && (style = styles[j - 1]).start + style.length == newStyle.start && newStyle.similarTo(style)) {
-				style.length += newStyle.length;
-			} else {
-				styles[j++] = newStyle;
-			}
-		}
-		StyleRange style = styles[j - 1];
-		if (endStyle != null && style.start + style.length == endStyle.start && endStyle.similarTo(style)) {
-			style.length += endStyle.length;
-			modifyEnd++;
-			mergeCount++;
+		StyleNode last = lastStyle(left), first = firstStyle(right);
+		if (last != null && first != null && last.end() == first.start && first.style.similarTo(last.style)) {
+			last.length += first.length;
+			StyleNode[] result = new StyleNode[2];
+			splitStyles(right, first.start + 1, result);
+			right = result[1];
 		}
-		if (styleCount > modifyEnd) {
-			System.arraycopy(styles, modifyStart + mergeCount, styles, j, styleCount - modifyEnd);
+	}
+	return mergeStyles(left, right);
+}
+/**
+ * Returns the first style that ends after the offset, or null.
+ */
+StyleNode findStyle(int offset) {
+	StyleNode node = styleRoot, result = null;
+	while (node != null) {
+		if (node.push().end() > offset) {
+			result = node;
+			node = node.left;
+		} else {
+			node = node.right;
 		}
-		grow = (j - modifyStart) - (modifyEnd - modifyStart);
-	} else {
-		System.arraycopy(mergeStyles, 0, styles, modifyStart, mergeCount);
 	}
-	styleCount += grow;
-	return grow;
+	return result;
 }
 void calculate(int startLine, int lineCount) {
 	int endLine = startLine + lineCount;
@@ -302,8 +370,14 @@ void calculate(int startLine, int lineCount) {
 	int hTrim = styledText.leftMargin + styledText.rightMargin + styledText.getCaretWidth();
 	for (int i = startLine; i < endLine; i++) {
 		LineSizeInfo line = getLineSize(i);
-		if (line.needsRecalculateSize()) {
-			TextLayout layout = getTextLayout(i);
+		if (line.needsRecalculateSize() && !calculateSimple(i, line, hTrim)) {
+			TextLayout layout;
+			measuring = true;
+			try {
+				layout = getTextLayout(i);
+			} finally {
+				measuring = false;
+			}
 			Rectangle rect = layout.getBounds();
 			line.width = rect.width + hTrim;
 			line.height = rect.height;
@@ -316,6 +390,61 @@ void calculate(int startLine, int lineCount) {
 		}
 	}
 }
+/**
+ * Computes the size of a line from the cached font metrics, without creating
+ * a TextLayout. This is only possible for lines of printable ASCII characters,
+ * which all have the same width in the regular font, when no style, listener
+ * or line attribute can change their layout and the line does not wrap.
+ *
+ * @return true if the size of the line was computed and false if it must be
+ *         computed with a TextLayout
+ */
+boolean calculateSimple(int lineIndex, LineSizeInfo line, int hTrim) {
+	if (charWidth == 0 || styledText == null || fixedLineMetrics != null) return false;
+	if (styledText.tabs != null || styledText.justify || styledText.bidiColoring) return false;
+	if (styledText.isListening(ST.LineGetStyle) || styledText.isListening(ST.LineGetSegments)) return false;
+	if (styledText.ime != null && styledText.ime.getCompositionOffset() != -1) return false;
+	if (lines != null && lines[lineIndex] != null && (lines[lineIndex].flags & ~BACKGROUND) != 0) return false;
+	if (getLineBullet(lineIndex, null) != null) return false;
+	String text = content.getLine(lineIndex);
+	int length = text.length();
+	if (styleCount > 0) {
+		StyleRange[] lineStyles = getStyleRanges(content.getOffsetAtLine(lineIndex), length, false);
+		if (lineStyles != null) {
+			for (StyleRange style : lineStyles) {
+				if (style.isVariableHeight() || style.fontStyle != SWT.NORMAL || style.metrics != null) return false;
+				if (style.underline && style.underlineStyle == SWT.UNDERLINE_LINK) hasLinks = true;
+			}
+		}
+	}
+	int indent = styledText.indent;
+	float x = 0;
+	for (int i = 0; i < length; i++) {
+		char ch = text.charAt(i);
+		if (' ' <= ch && ch < 0x7F) {
+			x += charWidth;
+		} else if (ch == '\t' && indent == 0 && tabWidth > 0) {
+			x = ((int) x / tabWidth + 1) * tabWidth;
+		} else {
+			return false;
+		}
+	}
+	int width = indent + Math.round(x);
+	int wrapWidth = styledText.getWrapWidth();
+	if (wrapWidth != -1) {
+		if (width > wrapWidth) return false;
+		width = wrapWidth;
+	}
+	int spacing = styledText.lineSpacing;
+	if (lineSpacingProvider != null) {
+		Integer lineSpacing = lineSpacingProvider.getLineSpacing(lineIndex);
+		if (lineSpacing != null && lineSpacing.intValue() >= 0) spacing = lineSpacing;
+	}
+	line.width = width + hTrim;
+	line.height = getLineHeight() + spacing;
+	averageLineHeight += (line.height - Math.round(averageLineHeight)) / ++linesInAverageLineHeight;
+	return true;
+}
 LineSizeInfo getLineSize(int i) {
 	if (lineSizes[i] == null) {
 		lineSizes[i] = new LineSizeInfo();
@@ -340,6 +469,8 @@ void calculateClientArea () {
 void calculateIdle () {
 	if (idleRunning) return;
 	Runnable runnable = new Runnable() {
+		long refreshTime = System.currentTimeMillis();
+
 		@Override
 		public void run() {
 			if (styledText == null) return;
@@ -353,6 +484,14 @@ void calculateIdle () {
 				}
 			}
 			if (i < lineCount) {
+				/*
+				 * The scroll range starts from an estimate of the unknown line
+				 * heights, refine it from time to time while the lines are measured.
+				 */
+				if (start - refreshTime > IDLE_REFRESH_TIME) {
+					refreshTime = System.currentTimeMillis();
+					styledText.setScrollBars(true);
+				}
 				Display display = styledText.getDisplay();
 				display.asyncExec(this);
 			} else {
@@ -391,15 +530,18 @@ void clearLineStyle(int startLine, int count) {
 	}
 }
 void copyInto(StyledTextRenderer renderer) {
-	if (ranges != null) {
-		int[] newRanges = renderer.ranges = new int[styleCount << 1];
-		System.arraycopy(ranges, 0, newRanges, 0, newRanges.length);
-	}
-	if (styles != null) {
-		StyleRange[] newStyles = renderer.styles = new StyleRange[styleCount];
+	if (styleRoot != null) {
+		List<StyleNode> nodes = new ArrayList<>(styleCount);
+		collectStyles(styleRoot, 0, Integer.MAX_VALUE, nodes);
+		int[] newRanges = new int[nodes.size() << 1];
+		StyleRange[] newStyles = new StyleRange[nodes.size()];
 		for (int i = 0; i < newStyles.length; i++) {
-			newStyles[i] = (StyleRange)styles[i].clone();
+			StyleNode node = nodes.get(i);
+			newRanges[i << 1] = node.start;
+			newRanges[(i << 1) + 1] = node.length;
+			newStyles[i] = (StyleRange)node.style.clone();
 		}
+		renderer.styleRoot = buildStyles(newRanges, newStyles, false);
 		renderer.styleCount = styleCount;
 	}
 	if (lines != null) {
@@ -421,11 +563,7 @@ void dispose() {
 	styledText = null;
 }
 void disposeTextLayout (TextLayout layout) {
-	if (layouts != null) {
-		for (TextLayout l : layouts) {
-			if (l == layout) return;
-		}
-	}
+	if (layouts != null && layouts.containsValue(layout)) return;
 	layout.dispose();
 }
 void drawBullet(Bullet bullet, GC gc, int paintX, int paintY, int index, int lineAscent, int lineDescent) {
@@ -704,20 +842,21 @@ boolean hasLink(int offset) {
 			}
 		}
 	}  else {
-		if (ranges != null) {
-			int rangeCount = styleCount << 1;
-			int index = getRangeIndex(offset, -1, rangeCount);
-			if (index >= rangeCount) return false;
-			int rangeStart = ranges[index];
-			int rangeLength = ranges[index + 1];
-			StyleRange rangeStyle = styles[index >> 1];
-			if (rangeStart <= offset && offset < rangeStart + rangeLength && rangeStyle.underline && rangeStyle.underlineStyle == SWT.UNDERLINE_LINK) {
-				return true;
-			}
+		StyleNode node = findStyle(offset);
+		if (node != null && node.start <= offset && node.style.underline && node.style.underlineStyle == SWT.UNDERLINE_LINK) {
+			return true;
 		}
 	}
 	return false;
 }
+/**
+ * Returns the number of text layouts kept in the cache. The cache holds at
+ * least the layouts of the visible lines, they are all in use while painting.
+ */
+int getLayoutCacheLimit() {
+	if (styledText == null) return layoutCacheSize;
+	return Math.max(layoutCacheSize, getVisibleLineCount());
+}
 int getLineAlignment(int index, int defaultAlignment) {
 	if (lines == null) return defaultAlignment;
 	LineInfo info = lines[index];
@@ -865,57 +1004,18 @@ int[] getLineTabStops(int index, int[] defaultTabStops) {
 StyledTextLineSpacingProvider getLineSpacingProvider() {
 	return lineSpacingProvider;
 }
-int getRangeIndex(int offset, int low, int high) {
-	if (styleCount == 0) return 0;
-	if (ranges != null)  {
-		while (high - low > 2) {
-			int index = ((high + low) / 2) / 2 * 2;
-			int end = ranges[index] + ranges[index + 1];
-			if (end > offset) {
-				high = index;
-			} else {
-				low = index;
-			}
-		}
-	} else {
-		while (high - low > 1) {
-			int index = ((high + low) / 2);
-			int end = styles[index].start + styles[index].length;
-			if (end > offset) {
-				high = index;
-			} else {
-				low = index;
-			}
-		}
-	}
-	return high;
-}
 int[] getRanges(int start, int length) {
 	if (length == 0) return null;
-	int[] newRanges;
-	int end = start + length - 1;
-	if (ranges != null) {
-		int rangeCount = styleCount << 1;
-		int rangeStart = getRangeIndex(start, -1, rangeCount);
-		if (rangeStart >= rangeCount) return null;
-		if (ranges[rangeStart] > end) return null;
-		int rangeEnd = Math.min(rangeCount - 2, getRangeIndex(end, rangeStart - 1, rangeCount));
-		if (ranges[rangeEnd] > end) rangeEnd = Math.max(rangeStart, rangeEnd - 2);
-		newRanges = new int[rangeEnd - rangeStart + 2];
-		System.arraycopy(ranges, rangeStart, newRanges, 0, newRanges.length);
-	} else {
-		int rangeStart = getRangeIndex(start, -1, styleCount);
-		if (rangeStart >= styleCount) return null;
-		if (styles[rangeStart].start > end) return null;
-		int rangeEnd = Math.min(styleCount - 1, getRangeIndex(end, rangeStart - 1, styleCount));
-		if (styles[rangeEnd].start > end) rangeEnd = Math.max(rangeStart, rangeEnd - 1);
-		newRanges = new int[(rangeEnd - rangeStart + 1) << 1];
-		for (int i = rangeStart, j = 0; i <= rangeEnd; i++, j += 2) {
-			StyleRange style = styles[i];
-			newRanges[j] = style.start;
-			newRanges[j + 1] = style.length;
-		}
+	List<StyleNode> nodes = new ArrayList<>();
+	collectStyles(styleRoot, start, start + length, nodes);
+	if (nodes.isEmpty()) return null;
+	int[] newRanges = new int[nodes.size() << 1];
+	for (int i = 0, j = 0; i < nodes.size(); i++, j += 2) {
+		StyleNode node = nodes.get(i);
+		newRanges[j] = node.start;
+		newRanges[j + 1] = node.length;
 	}
+	int end = start + length - 1;
 	if (start > newRanges[0]) {
 		newRanges[1] = newRanges[0] + newRanges[1] - start;
 		newRanges[0] = start;
@@ -925,47 +1025,26 @@ int[] getRanges(int start, int length) {
 	}
 	return newRanges;
 }
+/**
+ * Returns the styles that intersect the given range. The styles are shared
+ * with the receiver unless <code>includeRanges</code> is true, in which case
+ * they are copies with the start and length of the ranges, clipped to the
+ * given range.
+ */
 StyleRange[] getStyleRanges(int start, int length, boolean includeRanges) {
 	if (length == 0) return null;
-	StyleRange[] newStyles;
-	int end = start + length - 1;
-	if (ranges != null) {
-		int rangeCount = styleCount << 1;
-		int rangeStart = getRangeIndex(start, -1, rangeCount);
-		if (rangeStart >= rangeCount) return null;
-		if (ranges[rangeStart] > end) return null;
-		int rangeEnd = Math.min(rangeCount - 2, getRangeIndex(end, rangeStart - 1, rangeCount));
-		if (ranges[rangeEnd] > end) rangeEnd = Math.max(rangeStart, rangeEnd - 2);
-		newStyles = new StyleRange[((rangeEnd - rangeStart) >> 1) + 1];
+	List<StyleNode> nodes = new ArrayList<>();
+	collectStyles(styleRoot, start, start + length, nodes);
+	if (nodes.isEmpty()) return null;
+	StyleRange[] newStyles = new StyleRange[nodes.size()];
+	for (int i = 0; i < newStyles.length; i++) {
+		StyleNode node = nodes.get(i);
 		if (includeRanges) {
-			for (int i = rangeStart, j = 0; i <= rangeEnd; i += 2, j++) {
-				newStyles[j] = (StyleRange)styles[i >> 1].clone();
-				newStyles[j].start = ranges[i];
-				newStyles[j].length = ranges[i + 1];
-			}
+			StyleRange style = newStyles[i] = (StyleRange)node.style.clone();
+			style.start = Math.max(start, node.start);
+			style.length = Math.min(start + length, node.end()) - style.start;
 		} else {
-			System.arraycopy(styles, rangeStart >> 1, newStyles, 0, newStyles.length);
-		}
-	} else {
-		int rangeStart = getRangeIndex(start, -1, styleCount);
-		if (rangeStart >= styleCount) return null;
-		if (styles[rangeStart].start > end) return null;
-		int rangeEnd = Math.min(styleCount - 1, getRangeIndex(end, rangeStart - 1, styleCount));
-		if (styles[rangeEnd].start > end) rangeEnd = Math.max(rangeStart, rangeEnd - 1);
-		newStyles = new StyleRange[rangeEnd - rangeStart + 1];
-		System.arraycopy(styles, rangeStart, newStyles, 0, newStyles.length);
-	}
-	if (includeRanges || ranges == null) {
-		StyleRange style = newStyles[0];
-		if (start > style.start) {
-			newStyles[0] = style = (StyleRange)style.clone();
-			style.length = style.start + style.length - start;
-			style.start = start;
-		}
-		style = newStyles[newStyles.length - 1];
-		if (end < style.start + style.length - 1) {
-			newStyles[newStyles.length - 1] = style = (StyleRange)style.clone();
-			style.length = end - style.start + 1;
+			newStyles[i] = node.style;
 		}
 	}
 	return newStyles;
@@ -1020,12 +1099,8 @@ boolean isSameLineSpacing(int lineIndex, int newLineSpacing) {
 	if (layouts == null) {
 		return false;
 	}
-	int layoutIndex = lineIndex - topIndex;
-	if (0 <= layoutIndex && layoutIndex < layouts.length) {
-		TextLayout layout = layouts[layoutIndex];
-		return layout != null && !layout.isDisposed() && layout.getSpacing() == newLineSpacing;
-	}
-	return false;
+	TextLayout layout = layouts.get(lineIndex);
+	return layout != null && !layout.isDisposed() && layout.getSpacing() == newLineSpacing;
 }
 
 private static final class StyleEntry {
@@ -1044,21 +1119,8 @@ TextLayout getTextLayout(int lineIndex, int orientation, int width, int lineSpac
 	TextLayout layout = null;
 	if (styledText != null) {
 		int topIndex = styledText.topIndex > 0 ? styledText.topIndex - 1 : 0;
-		if (layouts == null || topIndex != this.topIndex) {
-			TextLayout[] newLayouts = new TextLayout[CACHE_SIZE];
-			if (layouts != null) {
-				for (int i = 0; i < layouts.length; i++) {
-					if (layouts[i] != null) {
-						int layoutIndex = (i + this.topIndex) - topIndex;
-						if (0 <= layoutIndex && layoutIndex < newLayouts.length) {
-							newLayouts[layoutIndex] = layouts[i];
-						} else {
-							layouts[i].dispose();
-						}
-					}
-				}
-			}
-			if (bullets != null && bulletsIndices != null && topIndex != this.topIndex) {
+		if (topIndex != this.topIndex) {
+			if (bullets != null && bulletsIndices != null) {
 				int delta = topIndex - this.topIndex;
 				if (delta > 0) {
 					if (delta < bullets.length) {
@@ -1077,22 +1139,34 @@ TextLayout getTextLayout(int lineIndex, int orientation, int width, int lineSpac
 				}
 			}
 			this.topIndex = topIndex;
-			layouts = newLayouts;
 		}
-		if (layouts != null) {
-			int layoutIndex = lineIndex - topIndex;
-			if (0 <= layoutIndex && layoutIndex < layouts.length) {
-				layout = layouts[layoutIndex];
-				if (layout != null) {
-					// Bug 520374: lineIndex can be >= linesSize.length
-					if(lineIndex < lineSizes.length && getLineSize(lineIndex).canLayout()) {
-						return layout;
-					}
-				} else {
-					layout = layouts[layoutIndex] = new TextLayout(device);
+		if (layouts == null) {
+			layouts = new LinkedHashMap<>(16, 0.75f, true) {
+				static final long serialVersionUID = 1L;
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<Integer, TextLayout> eldest) {
+					if (size() <= getLayoutCacheLimit()) return false;
+					eldest.getValue().dispose();
+					return true;
 				}
+			};
+		}
+		layout = layouts.get(lineIndex);
+		if (layout != null) {
+			// Bug 520374: lineIndex can be >= linesSize.length
+			if(lineIndex < lineSizes.length && getLineSize(lineIndex).canLayout()) {
+				layoutCacheHits++;
+				return layout;
 			}
+		} else if (!measuring || (topIndex <= lineIndex && lineIndex <= topIndex + getVisibleLineCount())) {
+			/*
+			 * Lines measured in the background are not kept, so that they do
+			 * not push the layouts of the lines on screen out of the cache.
+			 */
+			layout = new TextLayout(device);
+			layouts.put(lineIndex, layout);
 		}
+		layoutCacheMisses++;
 	}
 	if (layout == null) layout = new TextLayout(device);
 	String line = content.getLine(lineIndex);
@@ -1187,14 +1261,9 @@ TextLayout getTextLayout(int lineIndex, int orientation, int width, int lineSpac
 				}
 			}
 		}
-		ranges = this.ranges;
-		styles = this.styles;
-		styleCount = this.styleCount;
-		if (ranges != null) {
-			rangeStart = getRangeIndex(lineOffset, -1, styleCount << 1);
-		} else {
-			rangeStart = getRangeIndex(lineOffset, -1, styleCount);
-		}
+		ranges = getRanges(lineOffset, line.length());
+		styles = getStyleRanges(lineOffset, line.length(), false);
+		if (styles != null) styleCount = styles.length;
 	}
 	if (bullet != null) {
 		StyleRange style = bullet.style;
@@ -1358,8 +1427,8 @@ TextLayout getTextLayout(int lineIndex, int orientation, int width, int lineSpac
 			ascent = metrics.getAscent() + metrics.getLeading();
 			descent = metrics.getDescent();
 			if (layouts != null) {
-				for (TextLayout l : layouts) {
-					if (l != null && l != layout) {
+				for (TextLayout l : layouts.values()) {
+					if (l != layout) {
 						l.setAscent(ascent);
 						l.setDescent(descent);
 					}
@@ -1386,20 +1455,26 @@ TextLayout getTextLayout(int lineIndex, int orientation, int width, int lineSpac
 	}
 	return layout;
 }
+/**
+ * Returns the maximum number of lines that fit in the client area, lines
+ * are never smaller than the default line height.
+ */
+int getVisibleLineCount() {
+	return styledText.clientAreaHeight / Math.max(1, getLineHeight()) + 2;
+}
 int getWidth() {
 	return maxWidth;
 }
 void reset() {
 	if (layouts != null) {
-		for (TextLayout layout : layouts) {
-			if (layout != null) layout.dispose();
+		for (TextLayout layout : layouts.values()) {
+			layout.dispose();
 		}
 		layouts = null;
 	}
 	topIndex = -1;
 	stylesSetCount = styleCount = lineCount = 0;
-	ranges = null;
-	styles = null;
+	styleRoot = null;
 	stylesSet = null;
 	lines = null;
 	lineSizes = null;
@@ -1498,6 +1573,14 @@ void setFont(Font font, int tabs) {
 	}
 	layout.setText(tabBuffer.toString());
 	tabWidth = layout.getBounds().width;
+	StringBuilder ascii = new StringBuilder();
+	for (char ch = ' '; ch < 0x7F; ch++) {
+		ascii.append(ch);
+	}
+	layout.setText(ascii.toString());
+	int asciiWidth = layout.getBounds().width;
+	layout.setText("W".repeat(ascii.length())); //$NON-NLS-1$
+	charWidth = asciiWidth == layout.getBounds().width ? (float) asciiWidth / ascii.length() : 0;
 	layout.dispose();
 	if (styledText != null) {
 		GC gc = new GC(styledText);
@@ -1506,6 +1589,17 @@ void setFont(Font font, int tabs) {
 		gc.dispose();
 	}
 }
+void setLayoutCacheSize(int size) {
+	layoutCacheSize = size;
+	if (layouts != null) {
+		int limit = getLayoutCacheLimit();
+		Iterator<TextLayout> iterator = layouts.values().iterator();
+		while (layouts.size() > limit) {
+			iterator.next().dispose();
+			iterator.remove();
+		}
+	}
+}
 void setLineAlignment(int startLine, int count, int alignment) {
 	if (lines == null) lines = new LineInfo[lineCount];
 	for (int i = startLine; i < startLine + count; i++) {
@@ -1635,8 +1729,7 @@ void setLineSpacingProvider(StyledTextLineSpacingProvider lineSpacingProvider) {
 void setStyleRanges (int[] newRanges, StyleRange[] newStyles) {
 	if (newStyles == null) {
 		stylesSetCount = styleCount = 0;
-		ranges = null;
-		styles = null;
+		styleRoot = null;
 		stylesSet = null;
 		hasLinks = false;
 		return;
@@ -1668,122 +1761,51 @@ void setStyleRanges (int[] newRanges, StyleRange[] newStyles) {
 	}
 
 	if (styleCount == 0) {
-		if (newRanges != null) {
-			ranges = new int[newRanges.length];
-			System.arraycopy(newRanges, 0, ranges, 0, ranges.length);
-		}
-		styles = new StyleRange[newStyles.length];
-		System.arraycopy(newStyles, 0, styles, 0, styles.length);
-		styleCount = newStyles.length;
+		styleRoot = buildStyles(newRanges, newStyles, false);
+		styleCount = styleRoot != null ? styleRoot.count : 0;
 		return;
 	}
-	if (newRanges != null && ranges == null) {
-		ranges = new int[styles.length << 1];
-		for (int i = 0, j = 0; i < styleCount; i++) {
-			ranges[j++] = styles[i].start;
-			ranges[j++] = styles[i].length;
-		}
-	}
-	if (newRanges == null && ranges != null) {
-		newRanges = new int[newStyles.length << 1];
-		for (int i = 0, j = 0; i < newStyles.length; i++) {
-			newRanges[j++] = newStyles[i].start;
-			newRanges[j++] = newStyles[i].length;
-		}
-	}
-	if (ranges != null) {
-		int rangeCount = styleCount << 1;
-		int start = newRanges[0];
-		int modifyStart = getRangeIndex(start, -1, rangeCount), modifyEnd;
-		boolean insert = modifyStart == rangeCount;
-		if (!insert) {
-			int end = newRanges[newRanges.length - 2] + newRanges[newRanges.length - 1];
-			modifyEnd = getRangeIndex(end, modifyStart - 1, rangeCount);
-			insert = modifyStart == modifyEnd && ranges[modifyStart] >= end;
-		}
-		if (insert) {
-			addMerge(newRanges, newStyles, newRanges.length, modifyStart, modifyStart);
-			return;
-		}
-		modifyEnd = modifyStart;
-		int[] mergeRanges = new int[6];
-		StyleRange[] mergeStyles = new StyleRange[3];
-		for (int i = 0; i < newRanges.length; i += 2) {
-			int newStart = newRanges[i];
-			int newEnd = newStart + newRanges[i + 1];
-			if (newStart == newEnd) continue;
-			int modifyLast = 0, mergeCount = 0;
-			while (modifyEnd < rangeCount) {
-				if (newStart >= ranges[modifyStart] + ranges[modifyStart + 1]) modifyStart += 2;
-				if (ranges[modifyEnd] + ranges[modifyEnd + 1] > newEnd) break;
-				modifyEnd += 2;
-			}
-			if (ranges[modifyStart] < newStart && newStart < ranges[modifyStart] + ranges[modifyStart + 1]) {
-				mergeStyles[mergeCount >> 1] = styles[modifyStart >> 1];
-				mergeRanges[mergeCount] = ranges[modifyStart];
-				mergeRanges[mergeCount + 1] = newStart - ranges[modifyStart];
-				mergeCount += 2;
-			}
-			mergeStyles[mergeCount >> 1] = newStyles[i >> 1];
-			mergeRanges[mergeCount] = newStart;
-			mergeRanges[mergeCount + 1] = newRanges[i + 1];
-			mergeCount += 2;
-			if (modifyEnd < rangeCount && ranges[modifyEnd] < newEnd && newEnd < ranges[modifyEnd] + ranges[modifyEnd + 1]) {
-				mergeStyles[mergeCount >> 1] = styles[modifyEnd >> 1];
-				mergeRanges[mergeCount] = newEnd;
-				mergeRanges[mergeCount + 1] = ranges[modifyEnd] + ranges[modifyEnd + 1] - newEnd;
-				mergeCount += 2;
-				modifyLast = 2;
-			}
-			int grow = addMerge(mergeRanges, mergeStyles, mergeCount, modifyStart, modifyEnd + modifyLast);
-			rangeCount += grow;
-			modifyStart = modifyEnd += grow;
-		}
+	int last = newStyles.length - 1;
+	int start = newRanges != null ? newRanges[0] : newStyles[0].start;
+	int end = newRanges != null ? newRanges[last << 1] + newRanges[(last << 1) + 1] : newStyles[last].start + newStyles[last].length;
+	StyleNode node = findStyle(start);
+	if (node == null || node.start >= end) {
+		/* the new styles are all between two existing ranges */
+		StyleNode[] result = new StyleNode[2];
+		splitStyles(styleRoot, start, result);
+		StyleNode right = result[1];
+		styleRoot = joinStyles(joinStyles(result[0], buildStyles(newRanges, newStyles, MERGE_STYLES)), right);
 	} else {
-		int start = newStyles[0].start;
-		int modifyStart = getRangeIndex(start, -1, styleCount), modifyEnd;
-		boolean insert = modifyStart == styleCount;
-		if (!insert) {
-			int end = newStyles[newStyles.length - 1].start + newStyles[newStyles.length - 1].length;
-			modifyEnd = getRangeIndex(end, modifyStart - 1, styleCount);
-			insert = modifyStart == modifyEnd && styles[modifyStart].start >= end;
-		}
-		if (insert) {
-			addMerge(newStyles, newStyles.length, modifyStart, modifyStart);
-			return;
-		}
-		modifyEnd = modifyStart;
-		StyleRange[] mergeStyles = new StyleRange[3];
-		for (StyleRange newStyle : newStyles) {
-			StyleRange style;
-			int newStart = newStyle.start;
-			int newEnd = newStart + newStyle.length;
-			if (newStart == newEnd) continue;
-			int modifyLast = 0, mergeCount = 0;
-			while (modifyEnd < styleCount) {
-				if (newStart >= styles[modifyStart].start + styles[modifyStart].length) modifyStart++;
-				if (styles[modifyEnd].start + styles[modifyEnd].length > newEnd) break;
-				modifyEnd++;
-			}
-			style = styles[modifyStart];
-			if (style.start < newStart && newStart < style.start + style.length) {
-				style = mergeStyles[mergeCount++] = (StyleRange)style.clone();
-				style.length = newStart - style.start;
-			}
-			mergeStyles[mergeCount++] = newStyle;
-			if (modifyEnd < styleCount) {
-				style = styles[modifyEnd];
-				if (style.start < newEnd && newEnd < style.start + style.length) {
-					style = mergeStyles[mergeCount++] = (StyleRange)style.clone();
-					style.length += style.start - newEnd;
-					style.start = newEnd;
-					modifyLast = 1;
-				}
-			}
-			int grow = addMerge(mergeStyles, mergeCount, modifyStart, modifyEnd + modifyLast);
-			modifyStart = modifyEnd += grow;
+		for (int i = 0; i < newStyles.length; i++) {
+			int newStart = newRanges != null ? newRanges[i << 1] : newStyles[i].start;
+			int newLength = newRanges != null ? newRanges[(i << 1) + 1] : newStyles[i].length;
+			if (newLength > 0) setStyle(newStart, newStart + newLength, newStyles[i]);
 		}
 	}
+	styleCount = styleRoot != null ? styleRoot.count : 0;
+}
+/**
+ * Replaces the styles between start (inclusive) and end (exclusive) with
+ * the given style. The ranges that overlap the boundaries are cut.
+ */
+void setStyle(int start, int end, StyleRange style) {
+	StyleNode[] result = new StyleNode[2];
+	splitStyles(styleRoot, start, result);
+	StyleNode before = result[0];
+	splitStyles(result[1], end, result);
+	StyleNode inside = result[0], after = result[1];
+	StyleNode last = lastStyle(before), tail = null;
+	if (last != null && last.end() > start) {
+		if (last.end() > end) tail = new StyleNode(end, last.end() - end, last.style);
+		last.length = start - last.start;
+		splitStyles(before, last.start, result);
+		before = joinStyles(result[0], result[1]);
+	}
+	last = lastStyle(inside);
+	if (last != null && last.end() > end) tail = new StyleNode(end, last.end() - end, last.style);
+	StyleNode node = joinStyles(before, new StyleNode(start, end - start, style));
+	if (tail != null) node = joinStyles(node, tail);
+	styleRoot = joinStyles(node, after);
 }
 void textChanging(TextChangingEvent event) {
 	int start = event.start;
@@ -1828,51 +1850,45 @@ void textChanging(TextChangingEvent event) {
 			lineSizes[i] = null;
 		}
 		if (layouts != null) {
-			int layoutStartLine = startLine - topIndex;
-			int layoutEndLine = layoutStartLine + replaceLineCount + 1;
-			for (int i = layoutStartLine; i < layoutEndLine; i++) {
-				if (0 <= i && i < layouts.length) {
-					if (layouts[i] != null) layouts[i].dispose();
-					layouts[i] = null;
-					if (bullets != null && bulletsIndices != null) bullets[i] = null;
+			List<Map.Entry<Integer, TextLayout>> entries = new ArrayList<>(layouts.entrySet());
+			layouts.clear();
+			for (Map.Entry<Integer, TextLayout> entry : entries) {
+				int index = entry.getKey().intValue();
+				if (index < startLine) {
+					layouts.put(entry.getKey(), entry.getValue());
+				} else if (index > startLine + replaceLineCount) {
+					layouts.put(Integer.valueOf(index + delta), entry.getValue());
+				} else {
+					entry.getValue().dispose();
 				}
 			}
+		}
+		if (bullets != null && bulletsIndices != null) {
+			int bulletStartLine = startLine - topIndex;
+			int bulletEndLine = bulletStartLine + replaceLineCount + 1;
+			for (int i = bulletStartLine; i < bulletEndLine; i++) {
+				if (0 <= i && i < bullets.length) bullets[i] = null;
+			}
 			if (delta > 0) {
-				for (int i = layouts.length - 1; i >= layoutEndLine; i--) {
-					if (0 <= i && i < layouts.length) {
+				for (int i = bullets.length - 1; i >= bulletEndLine; i--) {
+					if (0 <= i && i < bullets.length) {
 						endIndex = i + delta;
-						if (0 <= endIndex && endIndex < layouts.length) {
-							layouts[endIndex] = layouts[i];
-							layouts[i] = null;
-							if (bullets != null && bulletsIndices != null) {
-								bullets[endIndex] = bullets[i];
-								bulletsIndices[endIndex] = bulletsIndices[i];
-								bullets[i] = null;
-							}
-						} else {
-							if (layouts[i] != null) layouts[i].dispose();
-							layouts[i] = null;
-							if (bullets != null && bulletsIndices != null) bullets[i] = null;
+						if (0 <= endIndex && endIndex < bullets.length) {
+							bullets[endIndex] = bullets[i];
+							bulletsIndices[endIndex] = bulletsIndices[i];
 						}
+						bullets[i] = null;
 					}
 				}
 			} else if (delta < 0) {
-				for (int i = layoutEndLine; i < layouts.length; i++) {
-					if (0 <= i && i < layouts.length) {
+				for (int i = bulletEndLine; i < bullets.length; i++) {
+					if (0 <= i && i < bullets.length) {
 						endIndex = i + delta;
-						if (0 <= endIndex && endIndex < layouts.length) {
-							layouts[endIndex] = layouts[i];
-							layouts[i] = null;
-							if (bullets != null && bulletsIndices != null) {
-								bullets[endIndex] = bullets[i];
-								bulletsIndices[endIndex] = bulletsIndices[i];
-								bullets[i] = null;
-							}
-						} else {
-							if (layouts[i] != null) layouts[i].dispose();
-							layouts[i] = null;
-							if (bullets != null && bulletsIndices != null) bullets[i] = null;
+						if (0 <= endIndex && endIndex < bullets.length) {
+							bullets[endIndex] = bullets[i];
+							bulletsIndices[endIndex] = bulletsIndices[i];
 						}
+						bullets[i] = null;
 					}
 				}
 			}
@@ -1940,108 +1956,37 @@ void updateBullets(int startLine, int replaceLineCount, int newLineCount, boolea
 		}
 	}
 }
+/**
+ * Updates the styles for a text change. The styles of the replaced text are
+ * removed, the new text is not styled and the ranges after it are moved.
+ */
 void updateRanges(int start, int replaceCharCount, int newCharCount) {
 	if (styleCount == 0 || (replaceCharCount == 0 && newCharCount == 0)) return;
-	if (ranges != null) {
-		int rangeCount = styleCount << 1;
-		int modifyStart = getRangeIndex(start, -1, rangeCount);
-		if (modifyStart == rangeCount) return;
-		int end = start + replaceCharCount;
-		int modifyEnd = getRangeIndex(end, modifyStart - 1, rangeCount);
-		int offset = newCharCount - replaceCharCount;
-		if (modifyStart == modifyEnd && ranges[modifyStart] < start && end < ranges[modifyEnd] + ranges[modifyEnd + 1]) {
+	int end = start + replaceCharCount;
+	StyleNode[] result = new StyleNode[2];
+	splitStyles(styleRoot, start, result);
+	StyleNode before = result[0];
+	splitStyles(result[1], end, result);
+	StyleNode inside = result[0], after = result[1];
+	StyleNode last = lastStyle(before), tail = null;
+	if (last != null && last.end() > start) {
+		if (last.end() > end) {
 			if (newCharCount == 0) {
-				ranges[modifyStart + 1] -= replaceCharCount;
-				modifyEnd += 2;
+				last.length -= replaceCharCount;
 			} else {
-				if (rangeCount + 2 > ranges.length) {
-					int[] newRanges = new int[ranges.length + (GROW << 1)];
-					System.arraycopy(ranges, 0, newRanges, 0, rangeCount);
-					ranges = newRanges;
-					StyleRange[] newStyles = new StyleRange[styles.length + GROW];
-					System.arraycopy(styles, 0, newStyles, 0, styleCount);
-					styles = newStyles;
-				}
-				System.arraycopy(ranges, modifyStart + 2, ranges, modifyStart + 4, rangeCount - (modifyStart + 2));
-				System.arraycopy(styles, (modifyStart + 2) >> 1, styles, (modifyStart + 4) >> 1, styleCount - ((modifyStart + 2) >> 1));
-				ranges[modifyStart + 3] = ranges[modifyStart] + ranges[modifyStart + 1] - end;
-				ranges[modifyStart + 2] = start + newCharCount;
-				ranges[modifyStart + 1] = start - ranges[modifyStart];
-				styles[(modifyStart >> 1) + 1] = styles[modifyStart >> 1];
-				rangeCount += 2;
-				styleCount++;
-				modifyEnd += 4;
-			}
-			if (offset != 0) {
-				for (int i = modifyEnd; i < rangeCount; i += 2) {
-					ranges[i] += offset;
-				}
+				tail = new StyleNode(end, last.end() - end, last.style);
+				last.length = start - last.start;
 			}
 		} else {
-			if (ranges[modifyStart] < start && start < ranges[modifyStart] + ranges[modifyStart + 1]) {
-				ranges[modifyStart + 1] = start - ranges[modifyStart];
-				modifyStart += 2;
-			}
-			if (modifyEnd < rangeCount && ranges[modifyEnd] < end && end < ranges[modifyEnd] + ranges[modifyEnd + 1]) {
-				ranges[modifyEnd + 1] = ranges[modifyEnd] + ranges[modifyEnd + 1] - end;
-				ranges[modifyEnd] = end;
-			}
-			if (offset != 0) {
-				for (int i = modifyEnd; i < rangeCount; i += 2) {
-					ranges[i] += offset;
-				}
-			}
-			System.arraycopy(ranges, modifyEnd, ranges, modifyStart, rangeCount - modifyEnd);
-			System.arraycopy(styles, modifyEnd >> 1, styles, modifyStart >> 1, styleCount - (modifyEnd >> 1));
-			styleCount -= (modifyEnd - modifyStart) >> 1;
-		}
-	} else {
-		int modifyStart = getRangeIndex(start, -1, styleCount);
-		if (modifyStart == styleCount) return;
-		int end = start + replaceCharCount;
-		int modifyEnd = getRangeIndex(end, modifyStart - 1, styleCount);
-		int offset = newCharCount - replaceCharCount;
-		if (modifyStart == modifyEnd && styles[modifyStart].start < start && end < styles[modifyEnd].start + styles[modifyEnd].length) {
-			if (newCharCount == 0) {
-				styles[modifyStart].length -= replaceCharCount;
-				modifyEnd++;
-			} else {
-				if (styleCount + 1 > styles.length) {
-					StyleRange[] newStyles = new StyleRange[styles.length + GROW];
-					System.arraycopy(styles, 0, newStyles, 0, styleCount);
-					styles = newStyles;
-				}
-				System.arraycopy(styles, modifyStart + 1, styles, modifyStart + 2, styleCount - (modifyStart + 1));
-				styles[modifyStart + 1] = (StyleRange)styles[modifyStart].clone();
-				styles[modifyStart + 1].length = styles[modifyStart].start + styles[modifyStart].length - end;
-				styles[modifyStart + 1].start = start + newCharCount;
-				styles[modifyStart].length = start - styles[modifyStart].start;
-				styleCount++;
-				modifyEnd += 2;
-			}
-			if (offset != 0) {
-				for (int i = modifyEnd; i < styleCount; i++) {
-					styles[i].start += offset;
-				}
-			}
-		} else {
-			if (styles[modifyStart].start < start && start < styles[modifyStart].start + styles[modifyStart].length) {
-				styles[modifyStart].length = start - styles[modifyStart].start;
-				modifyStart++;
-			}
-			if (modifyEnd < styleCount && styles[modifyEnd].start < end && end < styles[modifyEnd].start + styles[modifyEnd].length) {
-				styles[modifyEnd].length = styles[modifyEnd].start + styles[modifyEnd].length - end;
-				styles[modifyEnd].start = end;
-			}
-			if (offset != 0) {
-				for (int i = modifyEnd; i < styleCount; i++) {
-					styles[i].start += offset;
-				}
-			}
-			System.arraycopy(styles, modifyEnd, styles, modifyStart, styleCount - modifyEnd);
-			styleCount -= modifyEnd - modifyStart;
+			last.length = start - last.start;
 		}
 	}
+	last = lastStyle(inside);
+	if (last != null && last.end() > end) tail = new StyleNode(end, last.end() - end, last.style);
+	after = mergeStyles(tail, after);
+	if (after != null) after.shift += newCharCount - replaceCharCount;
+	styleRoot = mergeStyles(before, after);
+	styleCount = styleRoot != null ? styleRoot.count : 0;
 }
 
 public boolean hasVerticalIndent() {
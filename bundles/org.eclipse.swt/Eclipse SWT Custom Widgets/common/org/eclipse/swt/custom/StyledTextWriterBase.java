@@ -13,6 +13,8 @@
  *******************************************************************************/
 package org.eclipse.swt.custom;
 
+import java.io.*;
+
 import org.eclipse.swt.*;
 import org.eclipse.swt.graphics.*;
 
@@ -32,6 +34,8 @@ import org.eclipse.swt.graphics.*;
  */
 abstract class StyledTextWriterBase extends TextWriter {
 	final StyledText styledText;
+	/** Holds the escaped text of a segment, reused for all segments */
+	final StringBuilder escapeBuffer = new StringBuilder();
 
 	/**
 	 * Creates a writer that processed content starting at offset "start"
@@ -43,7 +47,20 @@ abstract class StyledTextWriterBase extends TextWriter {
 	 * @param styledText the widget to produce the RTF from
 	 */
 	public StyledTextWriterBase(StyledText styledText, int start, int length) {
-		super(start, length);
+		this(styledText, start, length, null);
+	}
+
+	/**
+	 * Creates a writer that passes the content starting at offset "start"
+	 * in the document on to {@code output} in chunks.
+	 *
+	 * @param start start offset of content to write, 0 based from beginning of document
+	 * @param length length of content to write
+	 * @param styledText the widget to produce the output from
+	 * @param output the writer to pass the data on to, or null to keep the data
+	 */
+	StyledTextWriterBase(StyledText styledText, int start, int length, Writer output) {
+		super(start, length, output);
 		this.styledText = styledText;
 	}
 
@@ -57,8 +74,14 @@ abstract class StyledTextWriterBase extends TextWriter {
 	 * @param end end offset of segment
 	 */
 	void writeEscaped(String string, int start, int end) {
-		String textToWrite = string.substring(start, end);
-		write(escapeText(textToWrite));
+		escapeBuffer.setLength(0);
+		escapeText(escapeBuffer, string, start, end);
+		write(escapeBuffer, 0, escapeBuffer.length());
+		if (escapeBuffer.length() > BUFFER_SIZE) {
+			// do not hold on to the memory of a very long line
+			escapeBuffer.setLength(0);
+			escapeBuffer.trimToSize();
+		}
 	}
 
 	/**
@@ -143,9 +166,6 @@ abstract class StyledTextWriterBase extends TextWriter {
 			return;
 		}
 		int lineIndex = Math.max(0, writeOffset);
-
-		String atLineEnd = writeLineStart(lineBackground, indent, verticalIndent, alignment, justify);
-
 		int endOffset = startOffset + super.getCharCount();
 
 		// We are already at the end, should not write an empty paragraph
@@ -153,6 +173,8 @@ abstract class StyledTextWriterBase extends TextWriter {
 			return;
 		}
 
+		String atLineEnd = writeLineStart(lineBackground, indent, verticalIndent, alignment, justify);
+
 		int lineEndOffset = Math.min(lineLength, endOffset - lineOffset);
 
 		int outTextLen = 0; // collect the length of the text we output (unescaped)
@@ -217,11 +239,15 @@ abstract class StyledTextWriterBase extends TextWriter {
 	abstract void writeHeader();
 
 	/**
-	 * Takes plain text and returns the same text escaped using the rules of the output format.
+	 * Appends the specified segment of plain text to {@code result}, escaped
+	 * using the rules of the output format.
+	 *
+	 * @param result the buffer to append the escaped text to
 	 * @param text the text to escape
-	 * @return the escaped text
+	 * @param start start offset of segment. 0 based.
+	 * @param end end offset of segment
 	 */
-	abstract String escapeText(String text);
+	abstract void escapeText(StringBuilder result, String text, int start, int end);
 
 	/**
 	 * Invoked at the beginning of each line in the original widget.
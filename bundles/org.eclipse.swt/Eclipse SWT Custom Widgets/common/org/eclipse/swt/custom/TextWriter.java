@@ -13,6 +13,8 @@
  *******************************************************************************/
 package org.eclipse.swt.custom;
 
+import java.io.*;
+
 import org.eclipse.swt.*;
 
 /**
@@ -24,9 +26,17 @@ import org.eclipse.swt.*;
  * <b>NOTE:</b> <code>toString()</code> is guaranteed to return a valid string only after close()
  * has been called.
  * </p>
+ * <p>
+ * When created with an output <code>Writer</code>, the data is not kept but
+ * passed on to the output in chunks of <code>BUFFER_SIZE</code> characters,
+ * and <code>toString()</code> only returns the data not yet passed on.
+ * </p>
  */
 class TextWriter {
+	static final int BUFFER_SIZE = 8192;
 	private StringBuilder buffer;
+	private Writer output;		// receives the data in chunks, may be null
+	private int flushedCount;	// number of characters passed on to the output
 	private int startOffset;	// offset of first character that will be written
 	private int endOffset;		// offset of last character that will be written.
 								// 0 based from the beginning of the widget text.
@@ -40,19 +50,50 @@ class TextWriter {
 	 * @param length length of content to write
 	 */
 	public TextWriter(int start, int length) {
-		buffer = new StringBuilder(length);
+		this(start, length, null);
+	}
+	/**
+	 * Creates a writer that writes content starting at offset "start"
+	 * in the document to the given output.
+	 *
+	 * @param start start offset of content to write, 0 based from beginning of document
+	 * @param length length of content to write
+	 * @param output the writer to pass the data on to, or null to keep the data
+	 */
+	TextWriter(int start, int length, Writer output) {
+		buffer = new StringBuilder(output == null ? length : Math.min(length, BUFFER_SIZE) + 64);
 		startOffset = start;
 		endOffset = start + length;
+		this.output = output;
 	}
 	/**
 	 * Closes the writer. Once closed no more content can be written.
 	 * <b>NOTE:</b>  <code>toString()</code> is not guaranteed to return a valid string unless
 	 * the writer is closed.
+	 *
+	 * @exception SWTException <ul>
+	 *   <li>ERROR_IO when the output fails to write the remaining data.</li>
+	 * </ul>
 	 */
 	public void close() {
 		if (!isClosed) {
 			isClosed = true;
+			if (output != null) {
+				flush();
+			}
+		}
+	}
+	/**
+	 * Passes the data written so far on to the output.
+	 */
+	private void flush() {
+		try {
+			output.append(buffer);
+		} catch (IOException e) {
+			SWT.error(SWT.ERROR_IO, e);
 		}
+		flushedCount += buffer.length();
+		buffer.setLength(0);
 	}
 	/**
 	 * Returns the number of characters to write.
@@ -91,33 +132,44 @@ class TextWriter {
 	 */
 	void write(String string) {
 		buffer.append(string);
+		if (output != null && buffer.length() >= BUFFER_SIZE) flush();
+	}
+	/**
+	 * Appends the given segment of a character sequence to the data.
+	 */
+	void write(CharSequence string, int start, int end) {
+		buffer.append(string, start, end);
+		if (output != null && buffer.length() >= BUFFER_SIZE) flush();
 	}
 	/**
 	 * Inserts the given string to the data at the specified offset.
 	 * <p>
-	 * Do nothing if "offset" is &lt; 0 or &gt; getCharCount()
+	 * Do nothing if "offset" is &lt; 0 or &gt; getCharCount(), or if the data
+	 * before "offset" has already been passed on to the output.
 	 * </p>
 	 *
 	 * @param string text to insert
 	 * @param offset offset in the existing data to insert "string" at.
 	 */
 	void write(String string, int offset) {
-		if (offset < 0 || offset > buffer.length()) {
+		if (offset < flushedCount || offset > flushedCount + buffer.length()) {
 			return;
 		}
-		buffer.insert(offset, string);
+		buffer.insert(offset - flushedCount, string);
 	}
 	/**
 	 * Appends the given int to the data.
 	 */
 	void write(int i) {
 		buffer.append(i);
+		if (output != null && buffer.length() >= BUFFER_SIZE) flush();
 	}
 	/**
 	 * Appends the given character to the data.
 	 */
 	void write(char i) {
 		buffer.append(i);
+		if (output != null && buffer.length() >= BUFFER_SIZE) flush();
 	}
 	/**
 	 * Appends the specified line text to the data.
@@ -147,7 +199,7 @@ class TextWriter {
 		}
 		int copyEnd = Math.min(lineLength, endOffset - lineOffset);
 		if (lineIndex < copyEnd) {
-			write(line.substring(lineIndex, copyEnd));
+			write(line, lineIndex, copyEnd);
 		}
 	}
 	/**
@@ -135,9 +135,10 @@ public class Display extends Device implements Executor {
 	TouchSource[] touchSources;
 
 	/* Sync/Async Widget Communication */
-	Synchronizer synchronizer;
+	volatile Synchronizer synchronizer;
 	Consumer<RuntimeException> runtimeExceptionHandler = DefaultExceptionHandler.RUNTIME_EXCEPTION_HANDLER;
 	Consumer<Error> errorHandler = DefaultExceptionHandler.RUNTIME_ERROR_HANDLER;
+	volatile EventLoopMonitor monitor;
 	Thread thread;
 	boolean allowTimers = true, runAsyncMessages = true;
 
@@ -349,6 +350,7 @@ public class Display extends Device implements Executor {
 
 	/* Timer */
 	Runnable timerList [];
+	long [] timerTimes;
 	NSTimer nsTimers [];
 	SWTWindowDelegate timerDelegate;
 	static SWTApplicationDelegate applicationDelegate;
@@ -617,6 +619,95 @@ public void asyncExec (Runnable runnable) {
 	}
 }
 
+/**
+ * Causes the <code>run()</code> method of the runnable to
+ * be invoked by the user-interface thread at the next
+ * reasonable opportunity for work of the given priority.
+ * The caller of this method continues to run in parallel,
+ * and is not notified when the runnable has completed.
+ * <p>
+ * The priority is one of:
+ * <dl>
+ * <dt><code>SWT.HIGH</code></dt>
+ * <dd>interactive work that the user waits for, such as a selection update</dd>
+ * <dt><code>SWT.NORMAL</code></dt>
+ * <dd>the same as {@link #asyncExec(Runnable)}</dd>
+ * <dt><code>SWT.LOW</code></dt>
+ * <dd>background work, such as refreshes after a change in the model</dd>
+ * </dl>
+ * Runnables of a higher priority are generally run first, but the
+ * user-interface thread keeps running some runnables of a lower priority
+ * when there are always runnables of a higher one. Background work is
+ * only run when the display has no events to dispatch. The runnables
+ * of {@link #syncExec(Runnable)} are run as interactive work.
+ * </p>
+ * <p>
+ * Note that at the time the runnable is invoked, widgets
+ * that have the receiver as their display may have been
+ * disposed. Therefore, it is necessary to check for this
+ * case inside the runnable before accessing the widget.
+ * </p>
+ *
+ * @param priority the priority of the runnable
+ * @param runnable code to run on the user-interface thread
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the runnable is null</li>
+ *    <li>ERROR_INVALID_ARGUMENT - if the priority is not one of <code>SWT.HIGH</code>, <code>SWT.NORMAL</code> or <code>SWT.LOW</code></li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_DEVICE_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ *
+ * @see #asyncExec(Runnable)
+ *
+ * @since 3.131
+ */
+public void asyncExec (int priority, Runnable runnable) {
+	synchronized (Device.class) {
+		if (isDisposed ()) error (SWT.ERROR_DEVICE_DISPOSED);
+		synchronizer.asyncExec (priority, runnable);
+	}
+}
+
+/**
+ * Causes the <code>run()</code> method of the runnable to
+ * be invoked by the user-interface thread at the next
+ * reasonable opportunity, unless it is replaced before.
+ * The runnable replaces the runnable of a previous call
+ * with an equal key that has not started to run yet, and
+ * is run in its place. This is useful for updates of which
+ * only the latest one matters, such as progress. The caller
+ * of this method continues to run in parallel, and is not
+ * notified when the runnable has completed.
+ * <p>
+ * Note that at the time the runnable is invoked, widgets
+ * that have the receiver as their display may have been
+ * disposed. Therefore, it is necessary to check for this
+ * case inside the runnable before accessing the widget.
+ * </p>
+ *
+ * @param key the key identifying the runnables that replace each other
+ * @param runnable code to run on the user-interface thread
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the key or the runnable is null</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_DEVICE_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ *
+ * @see #asyncExec(Runnable)
+ *
+ * @since 3.131
+ */
+public void asyncExecCoalesced (Object key, Runnable runnable) {
+	synchronized (Device.class) {
+		if (isDisposed ()) error (SWT.ERROR_DEVICE_DISPOSED);
+		synchronizer.asyncExecCoalesced (key, runnable);
+	}
+}
+
 /**
  * Executes the given runnable in the user-interface thread of this Display.
  * <ul>
@@ -3983,33 +4074,39 @@ boolean performKeyEquivalent(NSWindow window, NSEvent nsEvent) {
  */
 public boolean readAndDispatch () {
 	checkDevice ();
-	if (sendEventCount == 0 && loopCount == poolCount - 1 && Callback.getEntryCount () == 0) removePool ();
-	addPool ();
-	runSkin ();
-	runDeferredLayouts ();
-	loopCount++;
-	boolean events = false;
+	EventLoopMonitor monitor = this.monitor;
+	long start = monitor != null ? monitor.dispatchStarted () : 0;
 	try {
-		events |= runSettings ();
-		events |= runTimers ();
-		events |= runContexts ();
-		events |= runPopups ();
-		NSEvent event = application.nextEventMatchingMask(OS.NSAnyEventMask, null, OS.NSDefaultRunLoopMode, true);
-		if ((event != null) && (application != null)) {
-			events = true;
-			application.sendEvent(event);
-		}
-		events |= runPaint ();
-		events |= runDeferredEvents ();
-		if (!events) {
-			events = isDisposed () || runAsyncMessages (false);
+		if (sendEventCount == 0 && loopCount == poolCount - 1 && Callback.getEntryCount () == 0) removePool ();
+		addPool ();
+		runSkin ();
+		runDeferredLayouts ();
+		loopCount++;
+		boolean events = false;
+		try {
+			events |= runSettings ();
+			events |= runTimers ();
+			events |= runContexts ();
+			events |= runPopups ();
+			NSEvent event = application.nextEventMatchingMask(OS.NSAnyEventMask, null, OS.NSDefaultRunLoopMode, true);
+			if ((event != null) && (application != null)) {
+				events = true;
+				application.sendEvent(event);
+			}
+			events |= runPaint ();
+			events |= runDeferredEvents ();
+			if (!events) {
+				events = isDisposed () || runAsyncMessages (false, true);
+			}
+		} finally {
+			removePool ();
+			loopCount--;
+			if (sendEventCount == 0 && loopCount == poolCount && Callback.getEntryCount () == 0) addPool ();
 		}
+		return events;
 	} finally {
-		removePool ();
-		loopCount--;
-		if (sendEventCount == 0 && loopCount == poolCount && Callback.getEntryCount () == 0) addPool ();
+		if (monitor != null) monitor.dispatchEnded (start);
 	}
-	return events;
 }
 
 static void register (Display display) {
@@ -4382,6 +4479,10 @@ boolean runAsyncMessages (boolean all) {
 	return synchronizer.runAsyncMessages (all);
 }
 
+boolean runAsyncMessages (boolean all, boolean idle) {
+	return synchronizer.runAsyncMessages (all, idle);
+}
+
 boolean runAWTInvokeLater() {
 	NSString javaRunLoopMode = getAwtRunLoopMode();
 	if (javaRunLoopMode == null) return false;
@@ -4612,6 +4713,7 @@ boolean runTimers () {
 			timerList [i] = null;
 			if (runnable != null) {
 				result = true;
+				timerStarted (i);
 				runnable.run ();
 			}
 		}
@@ -5199,6 +5301,47 @@ public final Consumer<Error> getErrorHandler () {
 	return errorHandler;
 }
 
+/**
+ * Returns the monitor that measures the event loop of the receiver,
+ * or <code>null</code> if it is not measured.
+ *
+ * @return the event loop monitor, or <code>null</code>
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ *    <li>ERROR_DEVICE_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ *
+ * @see #setEventLoopMonitor(EventLoopMonitor)
+ * @since 3.131
+ */
+public EventLoopMonitor getEventLoopMonitor () {
+	checkDevice ();
+	return monitor;
+}
+
+/**
+ * Sets the monitor that measures the event loop of the receiver.
+ * The monitor records how long the receiver takes to dispatch events
+ * and to run the runnables of <code>asyncExec()</code>, <code>syncExec()</code>
+ * and <code>timerExec()</code>. Measuring is off by default, and
+ * turned off again by setting the monitor to <code>null</code>.
+ *
+ * @param monitor the event loop monitor, or <code>null</code>
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ *    <li>ERROR_DEVICE_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ *
+ * @see EventLoopMonitor
+ * @since 3.131
+ */
+public void setEventLoopMonitor (EventLoopMonitor monitor) {
+	checkDevice ();
+	this.monitor = monitor;
+}
+
 /**
  * Causes the user-interface thread to <em>sleep</em> (that is,
  * to be put in a state where it does not consume CPU cycles)
@@ -5233,6 +5376,83 @@ int sourceProc (int info) {
 	return 0;
 }
 
+/**
+ * Causes the <code>run()</code> method of the runnable to
+ * be invoked by the user-interface thread at the next
+ * reasonable opportunity, and returns a future that is
+ * completed when the runnable has run. The caller of this
+ * method continues to run in parallel, and can wait for
+ * the future or add dependent actions to it. Unlike
+ * {@link #syncExec(Runnable)}, this does not block a thread.
+ * <p>
+ * An exception thrown by the runnable completes the future
+ * exceptionally, and is not passed to the exception handlers
+ * of the receiver. When the receiver is disposed before the
+ * runnable is run, the future is completed exceptionally with
+ * an <code>SWTException</code> with code <code>ERROR_DEVICE_DISPOSED</code>.
+ * </p>
+ *
+ * @param runnable code to run on the user-interface thread
+ * @return a future that is completed when the runnable has run
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the runnable is null</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_DEVICE_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ *
+ * @see #supplyAsync(Supplier)
+ * @see #asyncExec(Runnable)
+ *
+ * @since 3.131
+ */
+public CompletableFuture<Void> runAsync (Runnable runnable) {
+	if (runnable == null) error (SWT.ERROR_NULL_ARGUMENT);
+	return supplyAsync (() -> {
+		runnable.run ();
+		return null;
+	});
+}
+
+/**
+ * Causes the <code>get()</code> method of the supplier to
+ * be invoked by the user-interface thread at the next
+ * reasonable opportunity, and returns a future that is
+ * completed with its result. The caller of this method
+ * continues to run in parallel, and can wait for the future
+ * or add dependent actions to it. Unlike {@link #syncCall(SwtCallable)},
+ * this does not block a thread.
+ * <p>
+ * An exception thrown by the supplier completes the future
+ * exceptionally, and is not passed to the exception handlers
+ * of the receiver. When the receiver is disposed before the
+ * supplier is invoked, the future is completed exceptionally with
+ * an <code>SWTException</code> with code <code>ERROR_DEVICE_DISPOSED</code>.
+ * </p>
+ *
+ * @param supplier code to run on the user-interface thread
+ * @return a future that is completed with the result of the supplier
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the supplier is null</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_DEVICE_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ *
+ * @see #runAsync(Runnable)
+ * @see #asyncExec(Runnable)
+ *
+ * @since 3.131
+ */
+public <T> CompletableFuture<T> supplyAsync (Supplier<T> supplier) {
+	if (supplier == null) error (SWT.ERROR_NULL_ARGUMENT);
+	FutureRunnable<T> task = new FutureRunnable<> (supplier);
+	asyncExec (task);
+	return task.future;
+}
+
 /**
  * Causes the <code>run()</code> method of the runnable to
  * be invoked by the user-interface thread at the next
@@ -5341,6 +5561,7 @@ public void timerExec (int milliseconds, Runnable runnable) {
 	//TODO - remove a timer, reschedule a timer not tested
 	if (runnable == null) error (SWT.ERROR_NULL_ARGUMENT);
 	if (timerList == null) timerList = new Runnable [4];
+	if (timerTimes == null) timerTimes = new long [4];
 	if (nsTimers == null) nsTimers = new NSTimer [4];
 	int index = 0;
 	while (index < timerList.length) {
@@ -5359,6 +5580,7 @@ public void timerExec (int milliseconds, Runnable runnable) {
 				nsTimers [index] = null;
 			} else {
 				timer.setFireDate(NSDate.dateWithTimeIntervalSinceNow (milliseconds / 1000.0));
+				timerTimes [index] = monitor != null ? System.nanoTime () + TimeUnit.MILLISECONDS.toNanos (milliseconds) : 0;
 			}
 			return;
 		}
@@ -5373,6 +5595,9 @@ public void timerExec (int milliseconds, Runnable runnable) {
 		Runnable [] newTimerList = new Runnable [timerList.length + 4];
 		System.arraycopy (timerList, 0, newTimerList, 0, timerList.length);
 		timerList = newTimerList;
+		long [] newTimerTimes = new long [timerTimes.length + 4];
+		System.arraycopy (timerTimes, 0, newTimerTimes, 0, timerTimes.length);
+		timerTimes = newTimerTimes;
 		NSTimer [] newTimerIds = new NSTimer [nsTimers.length + 4];
 		System.arraycopy (nsTimers, 0, newTimerIds, 0, nsTimers.length);
 		nsTimers = newTimerIds;
@@ -5386,9 +5611,17 @@ public void timerExec (int milliseconds, Runnable runnable) {
 	if (timer != null) {
 		nsTimers [index] = timer;
 		timerList [index] = runnable;
+		timerTimes [index] = monitor != null ? System.nanoTime () + TimeUnit.MILLISECONDS.toNanos (milliseconds) : 0;
 	}
 }
 
+void timerStarted (int index) {
+	long time = timerTimes [index];
+	timerTimes [index] = 0;
+	EventLoopMonitor monitor = this.monitor;
+	if (monitor != null && time != 0) monitor.timerExec.record (System.nanoTime () - time);
+}
+
 long timerProc (long id, long sel, long timerID) {
 	NSTimer timer = new NSTimer (timerID);
 	try {
@@ -5401,6 +5634,7 @@ long timerProc (long id, long sel, long timerID) {
 				timerList [index] = null;
 				nsTimers [index] = null;
 				if (runnable != null) {
+					timerStarted (index);
 					try {
 						runnable.run ();
 					} catch (RuntimeException exception) {
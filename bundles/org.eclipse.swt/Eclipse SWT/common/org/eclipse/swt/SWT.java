@@ -1375,14 +1375,18 @@ public class SWT {
 	public static final int ON = 1;
 
 	/**
-	 * Indicates low quality (value is 1).
+	 * Indicates low quality (value is 1). This constant is also
+	 * used with <code>Display.asyncExec(int, Runnable)</code> to
+	 * indicate background work.
 	 *
 	 * @since 3.1
 	 */
 	public static final int LOW = 1;
 
 	/**
-	 * Indicates high quality (value is 2).
+	 * Indicates high quality (value is 2). This constant is also
+	 * used with <code>Display.asyncExec(int, Runnable)</code> to
+	 * indicate interactive work.
 	 *
 	 * @since 3.1
 	 */
@@ -4144,10 +4148,12 @@ public class SWT {
 	/**
 	 * The font style constant indicating a normal weight, non-italic font
 	 * (value is 0). This constant is also used with <code>ProgressBar</code>
-	 * to indicate a normal state.
+	 * to indicate a normal state, and with <code>Display.asyncExec(int, Runnable)</code>
+	 * to indicate normal work.
 	 * <p><b>Used By:</b></p>
 	 * <ul>
 	 * <li><code>ProgressBar</code></li>
+	 * <li><code>Display</code></li>
 	 * </ul>
 	 */
 	public static final int NORMAL = 0;
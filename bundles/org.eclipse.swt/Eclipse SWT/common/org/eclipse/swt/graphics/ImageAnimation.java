@@ -0,0 +1,389 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.graphics;
+
+import java.io.*;
+import java.nio.*;
+import java.util.*;
+
+import org.eclipse.swt.*;
+import org.eclipse.swt.internal.image.*;
+import org.eclipse.swt.internal.image.FrameDecoder.*;
+
+/**
+ * Instances of this class give access to the frames of an animated
+ * image, such as an animated GIF, without holding all of them in
+ * memory.
+ * <p>
+ * The headers of all frames are read when the animation is created,
+ * the pixels of a frame are only decoded when the frame is requested.
+ * The few most recently used frames are kept, so playing the animation
+ * decodes each frame once per loop. The frames can either be requested
+ * as they are stored in the file, see {@link #getFrame(int)}, or as
+ * they are displayed, with the disposal methods of the previous frames
+ * applied, see {@link #getComposedFrame(int)}. Composing the frames in
+ * order only draws the new frame each time.
+ * </p><p>
+ * The memory needed is the file itself plus a few frames, regardless
+ * of the number of frames. Images in formats other than GIF are
+ * decoded completely when the animation is created.
+ * </p><p>
+ * This class is not thread safe.
+ * </p>
+ *
+ * @see ImageLoader
+ * @see ImageData#disposalMethod
+ * @see ImageData#delayTime
+ * @since 3.131
+ */
+public final class ImageAnimation {
+	final FrameDecoder decoder;
+	final int width, height, repeatCount;
+
+	/* The most recently used frames, in access order */
+	final Map<Integer, ImageData> cache = new LinkedHashMap<>(16, 0.75f, true) {
+		static final long serialVersionUID = 1L;
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Integer, ImageData> eldest) {
+			return size() > CACHE_SIZE;
+		}
+	};
+
+	/* The composed frame as ARGB pixels, and the pixels covered by it */
+	int[] canvas, previous;
+	int composed = -1;
+
+	static final int CACHE_SIZE = 4;
+
+/**
+ * Constructs an animation from the images in the specified
+ * input stream. The stream is read completely, but not closed.
+ *
+ * @param stream the input stream to load the animation from
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the stream is null</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_IO - if an IO error occurs while reading the stream</li>
+ *    <li>ERROR_INVALID_IMAGE - if the image stream contains invalid data</li>
+ *    <li>ERROR_UNSUPPORTED_FORMAT - if the image stream contains an unrecognized format</li>
+ * </ul>
+ */
+public ImageAnimation(InputStream stream) {
+	this(readAll(stream));
+}
+
+/**
+ * Constructs an animation from the images in the file with
+ * the specified name.
+ *
+ * @param filename the name of the file to load the animation from
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the file name is null</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_IO - if an IO error occurs while reading the file</li>
+ *    <li>ERROR_INVALID_IMAGE - if the image file contains invalid data</li>
+ *    <li>ERROR_UNSUPPORTED_FORMAT - if the image file contains an unrecognized format</li>
+ * </ul>
+ */
+public ImageAnimation(String filename) {
+	this(readAll(filename));
+}
+
+ImageAnimation(ByteBuffer buffer) {
+	ImageLoader loader = new ImageLoader();
+	decoder = new FrameDecoder(buffer, loader);
+	if (decoder.frames.length == 0) SWT.error(SWT.ERROR_INVALID_IMAGE);
+	int width = loader.logicalScreenWidth, height = loader.logicalScreenHeight;
+	if (width <= 0 || height <= 0) {
+		for (Frame frame : decoder.frames) {
+			width = Math.max(width, frame.x + frame.width);
+			height = Math.max(height, frame.y + frame.height);
+		}
+	}
+	this.width = width;
+	this.height = height;
+	repeatCount = loader.repeatCount;
+}
+
+static ByteBuffer readAll(InputStream stream) {
+	if (stream == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	try {
+		return ByteBuffer.wrap(stream.readAllBytes());
+	} catch (IOException e) {
+		SWT.error(SWT.ERROR_IO, e);
+		return null;
+	}
+}
+
+static ByteBuffer readAll(String filename) {
+	if (filename == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	try (InputStream stream = new FileInputStream(filename)) {
+		return readAll(stream);
+	} catch (IOException e) {
+		SWT.error(SWT.ERROR_IO, e);
+		return null;
+	}
+}
+
+void checkIndex(int index) {
+	if (index < 0 || index >= decoder.frames.length) SWT.error(SWT.ERROR_INVALID_RANGE);
+}
+
+/**
+ * Returns the number of frames of the animation.
+ *
+ * @return the number of frames
+ */
+public int getFrameCount() {
+	return decoder.frames.length;
+}
+
+/**
+ * Returns the width of the area in which the frames are displayed,
+ * which is the width of the composed frames.
+ *
+ * @return the width of the animation
+ */
+public int getWidth() {
+	return width;
+}
+
+/**
+ * Returns the height of the area in which the frames are displayed,
+ * which is the height of the composed frames.
+ *
+ * @return the height of the animation
+ */
+public int getHeight() {
+	return height;
+}
+
+/**
+ * Returns the number of times the animation should be played,
+ * 0 meaning forever.
+ *
+ * @return the number of times to play the animation
+ *
+ * @see ImageLoader#repeatCount
+ */
+public int getRepeatCount() {
+	return repeatCount;
+}
+
+/**
+ * Returns the time to wait before displaying the frame after the
+ * one at the given index, in hundredths of a second. The frame
+ * does not have to be decoded for this.
+ *
+ * @param index the index of the frame
+ * @return the delay time of the frame
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_INVALID_RANGE - if the index is not between 0 and the number of frames minus 1 (inclusive)</li>
+ * </ul>
+ *
+ * @see ImageData#delayTime
+ */
+public int getDelayTime(int index) {
+	checkIndex(index);
+	return decoder.frames[index].delayTime;
+}
+
+/**
+ * Returns the frame at the given index as it is stored in the file,
+ * like the element at that index of the data loaded by an
+ * <code>ImageLoader</code>. The frame is decoded if it is not one
+ * of the most recently used frames.
+ * <p>
+ * The returned image data is shared with the cache of the receiver
+ * and must not be modified.
+ * </p>
+ *
+ * @param index the index of the frame
+ * @return the image data of the frame
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_INVALID_RANGE - if the index is not between 0 and the number of frames minus 1 (inclusive)</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_INVALID_IMAGE - if the frame contains invalid data</li>
+ * </ul>
+ */
+public ImageData getFrame(int index) {
+	checkIndex(index);
+	ImageData image = cache.get(index);
+	if (image == null) {
+		image = decoder.decode(index);
+		cache.put(index, image);
+	}
+	return image;
+}
+
+/**
+ * Returns the frame at the given index as it is displayed, that is
+ * drawn over the previous frames after applying their disposal
+ * methods. The returned image data is as large as the animation,
+ * has a direct palette and an alpha channel for the transparent
+ * areas. Areas disposed with {@link SWT#DM_FILL_BACKGROUND} become
+ * transparent, like in web browsers.
+ * <p>
+ * Requesting the frame after the one composed last only draws the
+ * new frame, requesting any other frame composes the frames from
+ * the start of the animation.
+ * </p>
+ *
+ * @param index the index of the frame
+ * @return a new image data of the composed frame
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_INVALID_RANGE - if the index is not between 0 and the number of frames minus 1 (inclusive)</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_INVALID_IMAGE - if a frame contains invalid data</li>
+ * </ul>
+ */
+public ImageData getComposedFrame(int index) {
+	checkIndex(index);
+	if (canvas == null) {
+		canvas = new int[width * height];
+	}
+	if (index < composed) {
+		Arrays.fill(canvas, 0);
+		composed = -1;
+	}
+	while (composed < index) {
+		composeNext();
+	}
+	ImageData result = new ImageData(width, height, 24, new PaletteData(0xFF0000, 0xFF00, 0xFF));
+	result.setARGB(canvas, 0);
+	return result;
+}
+
+/**
+ * Dispose the frame composed last, then draw the next frame.
+ */
+void composeNext() {
+	Frame[] frames = decoder.frames;
+	if (composed >= 0) {
+		Frame frame = frames[composed];
+		switch (frame.disposalMethod) {
+			case SWT.DM_FILL_BACKGROUND -> fill(frame, 0);
+			case SWT.DM_FILL_PREVIOUS -> copy(frame, previous, canvas);
+		}
+	}
+	composed++;
+	Frame frame = frames[composed];
+	if (frame.disposalMethod == SWT.DM_FILL_PREVIOUS) {
+		if (previous == null) previous = new int[width * height];
+		copy(frame, canvas, previous);
+	}
+	draw(getFrame(composed), frame);
+}
+
+/**
+ * Fill the part of the canvas covered by the frame.
+ */
+void fill(Frame frame, int argb) {
+	int x0 = Math.max(0, frame.x), x1 = Math.min(width, frame.x + frame.width);
+	for (int y = Math.max(0, frame.y), y1 = Math.min(height, frame.y + frame.height); y < y1; y++) {
+		if (x0 < x1) Arrays.fill(canvas, y * width + x0, y * width + x1, argb);
+	}
+}
+
+/**
+ * Copy the part of the canvas covered by the frame.
+ */
+void copy(Frame frame, int[] from, int[] to) {
+	int x0 = Math.max(0, frame.x), x1 = Math.min(width, frame.x + frame.width);
+	for (int y = Math.max(0, frame.y), y1 = Math.min(height, frame.y + frame.height); y < y1; y++) {
+		if (x0 < x1) System.arraycopy(from, y * width + x0, to, y * width + x0, x1 - x0);
+	}
+}
+
+/**
+ * Draw the image of the frame over the canvas.
+ */
+void draw(ImageData image, Frame frame) {
+	PaletteData palette = image.palette;
+	int[] colors = null;
+	if (!palette.isDirect) {
+		colors = new int[1 << image.depth];
+		for (int i = 0; i < palette.colors.length && i < colors.length; i++) {
+			RGB rgb = palette.colors[i];
+			colors[i] = 0xFF000000 | (rgb.red << 16) | (rgb.green << 8) | rgb.blue;
+		}
+		if (image.transparentPixel >= 0 && image.transparentPixel < colors.length) {
+			colors[image.transparentPixel] = 0;
+		}
+	}
+	int x0 = Math.max(0, -frame.x), x1 = Math.min(image.width, width - frame.x);
+	int y0 = Math.max(0, -frame.y), y1 = Math.min(image.height, height - frame.y);
+	if (x0 >= x1) return;
+	int[] pixels = new int[x1 - x0];
+	byte[] alphas = image.alphaData != null ? new byte[x1 - x0] : null;
+	for (int y = y0; y < y1; y++) {
+		image.getPixels(x0, y, pixels.length, pixels, 0);
+		if (alphas != null) image.getAlphas(x0, y, alphas.length, alphas, 0);
+		int offset = (frame.y + y) * width + frame.x + x0;
+		for (int i = 0; i < pixels.length; i++) {
+			int pixel = pixels[i], argb;
+			if (colors != null) {
+				argb = colors[pixel];
+			} else {
+				argb = pixel == image.transparentPixel ? 0 : 0xFF000000 | rgb(palette, pixel);
+			}
+			int alpha = alphas != null ? alphas[i] & 0xFF : image.alpha != -1 ? image.alpha : argb >>> 24;
+			if (alpha == 0xFF) {
+				canvas[offset + i] = argb | 0xFF000000;
+			} else if (alpha != 0 && argb != 0) {
+				canvas[offset + i] = blend(argb, alpha, canvas[offset + i]);
+			}
+		}
+	}
+}
+
+/**
+ * Answer the RGB value of a pixel of an image with a direct palette.
+ */
+static int rgb(PaletteData palette, int pixel) {
+	int r = pixel & palette.redMask;
+	r = (palette.redShift < 0) ? r >>> -palette.redShift : r << palette.redShift;
+	int g = pixel & palette.greenMask;
+	g = (palette.greenShift < 0) ? g >>> -palette.greenShift : g << palette.greenShift;
+	int b = pixel & palette.blueMask;
+	b = (palette.blueShift < 0) ? b >>> -palette.blueShift : b << palette.blueShift;
+	return (r << 16) | (g << 8) | b;
+}
+
+/**
+ * Answer the source color with the given alpha drawn over the
+ * destination color, both in ARGB.
+ */
+static int blend(int argb, int alpha, int dest) {
+	int destAlpha = dest >>> 24;
+	int outAlpha = alpha + destAlpha * (255 - alpha) / 255;
+	if (outAlpha == 0) return 0;
+	int result = outAlpha << 24;
+	for (int shift = 0; shift < 24; shift += 8) {
+		int src = (argb >> shift) & 0xFF, dst = (dest >> shift) & 0xFF;
+		int c = (src * alpha + dst * destAlpha * (255 - alpha) / 255) / outAlpha;
+		result |= c << shift;
+	}
+	return result;
+}
+}
@@ -18,6 +18,7 @@ import java.io.*;
 
 import org.eclipse.swt.*;
 import org.eclipse.swt.internal.*;
+import org.eclipse.swt.internal.image.*;
 
 /**
  * Instances of this class are device-independent descriptions
@@ -640,6 +641,74 @@ public void getAlphas(int x, int y, int getWidth, byte[] alphas, int startIndex)
 	System.arraycopy(alphaData, y * width + x, alphas, startIndex, getWidth);
 }
 
+/**
+ * Returns the color and alpha value of every pixel of the receiver as
+ * packed <code>0xAARRGGBB</code> values, row by row, starting at
+ * <code>startIndex</code> in <code>argb</code>. The alpha values are
+ * taken from the receiver's alpha data like {@link #getAlpha(int, int)}
+ * does, and are 255 if there is no alpha data.
+ *
+ * @param argb the buffer in which to put the pixels
+ * @param startIndex the offset into the buffer to begin putting pixels
+ *
+ * @exception IndexOutOfBoundsException if the buffer is too small
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if argb is null</li>
+ * </ul>
+ *
+ * @since 3.131
+ */
+public void getARGB(int[] argb, int startIndex) {
+	if (argb == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	if (startIndex < 0 || startIndex > argb.length - width * height) throw new IndexOutOfBoundsException();
+	final int type = depth == 24 ? TYPE_GENERIC_24 : depth == 32 ? TYPE_GENERIC_32_MSB : -1;
+	final int r = palette.isDirect ? getChannelOffset(palette.redMask, type) : -1;
+	final int g = palette.isDirect ? getChannelOffset(palette.greenMask, type) : -1;
+	final int b = palette.isDirect ? getChannelOffset(palette.blueMask, type) : -1;
+	if (r != -1 && g != -1 && b != -1) {
+		final int bpp = depth / 8;
+		for (int y = 0, i = startIndex; y < height; y++) {
+			for (int x = 0, dp = y * bytesPerLine; x < width; x++, i++, dp += bpp) {
+				argb[i] = 0xFF000000 | (data[dp + r] & 0xFF) << 16 | (data[dp + g] & 0xFF) << 8 | (data[dp + b] & 0xFF);
+			}
+		}
+	} else {
+		int[] colors = null;
+		if (!palette.isDirect) {
+			colors = new int[palette.colors.length];
+			for (int i = 0; i < colors.length; i++) {
+				RGB rgb = palette.colors[i];
+				if (rgb != null) colors[i] = 0xFF000000 | (rgb.red << 16) | (rgb.green << 8) | rgb.blue;
+			}
+		}
+		final int redMask = palette.redMask, greenMask = palette.greenMask, blueMask = palette.blueMask;
+		final int redShift = palette.redShift, greenShift = palette.greenShift, blueShift = palette.blueShift;
+		final int[] pixels = new int[width];
+		for (int y = 0, i = startIndex; y < height; y++) {
+			getPixels(0, y, width, pixels, 0);
+			for (int x = 0; x < width; x++, i++) {
+				final int pixel = pixels[x];
+				if (colors != null) {
+					argb[i] = pixel < colors.length ? colors[pixel] : 0xFF000000;
+				} else {
+					int red = pixel & redMask;
+					red = (redShift < 0) ? red >>> -redShift : red << redShift;
+					int green = pixel & greenMask;
+					green = (greenShift < 0) ? green >>> -greenShift : green << greenShift;
+					int blue = pixel & blueMask;
+					blue = (blueShift < 0) ? blue >>> -blueShift : blue << blueShift;
+					argb[i] = 0xFF000000 | (red & 0xFF) << 16 | (green & 0xFF) << 8 | (blue & 0xFF);
+				}
+			}
+		}
+	}
+	if (alphaData != null) {
+		for (int i = 0, j = startIndex, n = width * height; i < n; i++, j++) {
+			argb[j] = (argb[j] & 0xFFFFFF) | alphaData[i] << 24;
+		}
+	}
+}
+
 /**
  * Returns the pixel value at offset <code>x</code> in
  * scanline <code>y</code> in the receiver's data.
@@ -1171,6 +1240,45 @@ public ImageData scaledTo(int width, int height) {
 	return dest;
 }
 
+/**
+ * Returns a copy of the receiver which has been stretched or
+ * shrunk to the specified size using the given interpolation.
+ * If either the width or height is negative, the resulting image
+ * will be inverted in the associated axis.
+ * <p>
+ * <code>SWT.NONE</code> and <code>SWT.DEFAULT</code> pick the
+ * nearest pixel like {@link #scaledTo(int, int)} and keep the format
+ * of the receiver. <code>SWT.LOW</code> interpolates bilinearly and
+ * <code>SWT.HIGH</code> bicubically; both answer a 24 bit direct image
+ * with alpha data if the receiver has any transparency.
+ * </p>
+ *
+ * @param width the width of the new ImageData
+ * @param height the height of the new ImageData
+ * @param interpolation the interpolation: one of <code>SWT.DEFAULT</code>,
+ *        <code>SWT.NONE</code>, <code>SWT.LOW</code> or <code>SWT.HIGH</code>
+ * @return a scaled copy of the image
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_INVALID_ARGUMENT - if the interpolation is not one of the values above</li>
+ * </ul>
+ *
+ * @since 3.131
+ */
+public ImageData scaledTo(int width, int height, int interpolation) {
+	switch (interpolation) {
+		case SWT.DEFAULT:
+		case SWT.NONE:
+			return scaledTo(width, height);
+		case SWT.LOW:
+			return ImageResampler.resample(this, width, height, ImageResampler.Filter.BILINEAR);
+		case SWT.HIGH:
+			return ImageResampler.resample(this, width, height, ImageResampler.Filter.BICUBIC);
+	}
+	SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+	return null;
+}
+
 /**
  * Sets the alpha value at offset <code>x</code> in
  * scanline <code>y</code> in the receiver's alpha data.
@@ -1223,6 +1331,65 @@ public void setAlphas(int x, int y, int putWidth, byte[] alphas, int startIndex)
 	System.arraycopy(alphas, startIndex, alphaData, y * width + x, putWidth);
 }
 
+/**
+ * Sets the color and alpha value of every pixel of the receiver from
+ * the packed <code>0xAARRGGBB</code> values in <code>argb</code>, row
+ * by row, starting at <code>startIndex</code>. The alpha values are
+ * stored in the receiver's alpha data, which is created if needed.
+ *
+ * @param argb the pixels to set
+ * @param startIndex the index at which to begin setting
+ *
+ * @exception IndexOutOfBoundsException if the buffer is too small
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if argb is null</li>
+ *    <li>ERROR_INVALID_ARGUMENT - if the receiver does not have a direct palette</li>
+ * </ul>
+ *
+ * @since 3.131
+ */
+public void setARGB(int[] argb, int startIndex) {
+	if (argb == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	if (!palette.isDirect) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+	if (startIndex < 0 || startIndex > argb.length - width * height) throw new IndexOutOfBoundsException();
+	if (alphaData == null) alphaData = new byte[width * height];
+	final int type = depth == 24 ? TYPE_GENERIC_24 : depth == 32 ? TYPE_GENERIC_32_MSB : -1;
+	final int r = getChannelOffset(palette.redMask, type);
+	final int g = getChannelOffset(palette.greenMask, type);
+	final int b = getChannelOffset(palette.blueMask, type);
+	if (r != -1 && g != -1 && b != -1 && r != g && r != b && g != b) {
+		final int bpp = depth / 8;
+		/* the byte not covered by a channel is cleared as setPixel does */
+		final int z = bpp == 4 ? 6 - r - g - b : -1;
+		for (int y = 0, i = startIndex, ai = 0; y < height; y++) {
+			for (int x = 0, dp = y * bytesPerLine; x < width; x++, i++, ai++, dp += bpp) {
+				final int pixel = argb[i];
+				data[dp + r] = (byte) (pixel >> 16);
+				data[dp + g] = (byte) (pixel >> 8);
+				data[dp + b] = (byte) pixel;
+				if (z != -1) data[dp + z] = 0;
+				alphaData[ai] = (byte) (pixel >>> 24);
+			}
+		}
+	} else {
+		final int redMask = palette.redMask, greenMask = palette.greenMask, blueMask = palette.blueMask;
+		final int redShift = palette.redShift, greenShift = palette.greenShift, blueShift = palette.blueShift;
+		final int[] pixels = new int[width];
+		for (int y = 0, i = startIndex, ai = 0; y < height; y++) {
+			for (int x = 0; x < width; x++, i++, ai++) {
+				final int pixel = argb[i];
+				final int red = (pixel >> 16) & 0xFF, green = (pixel >> 8) & 0xFF, blue = pixel & 0xFF;
+				pixels[x] =
+					((redShift < 0 ? red << -redShift : red >>> redShift) & redMask) |
+					((greenShift < 0 ? green << -greenShift : green >>> greenShift) & greenMask) |
+					((blueShift < 0 ? blue << -blueShift : blue >>> blueShift) & blueMask);
+				alphaData[ai] = (byte) (pixel >>> 24);
+			}
+			setPixels(0, y, width, pixels, 0);
+		}
+	}
+}
+
 /**
  * Sets the pixel value at offset <code>x</code> in
  * scanline <code>y</code> in the receiver's data.
@@ -1824,31 +1991,40 @@ static void blit(
 		}
 		return;
 	}
-	/*Fast 32 to 32 blit */
-	if (stype == TYPE_GENERIC_32_MSB && dtype == TYPE_GENERIC_32_MSB) {
-		if (srcRedMask == 0xFF00 && srcGreenMask == 0xff0000 && srcBlueMask == 0xff000000 && destRedMask == 0xFF0000 && destGreenMask == 0xff00 && destBlueMask == 0xff) {
-			for (int dy = destHeight, sfy = sfyi; dy > 0; --dy, sp = spr += (sfy >>> 16) * srcStride, sfy = (sfy & 0xffff) + sfyi, dp = dpr += dpryi) {
-				for (int dx = destWidth, sfx = sfxi; dx > 0; --dx, dp += dprxi, sfx = (sfx & 0xffff) + sfxi) {
-					destData[dp] = srcData[sp + 3];
-					destData[dp + 1] = srcData[sp + 2];
-					destData[dp + 2] = srcData[sp + 1];
-					destData[dp + 3] = srcData[sp];
-					sp += (sfx >>> 16) * 4;
+	/*** Fast blit (8 bits per channel, byte aligned) ***/
+	if (sbpp >= 3 && dbpp >= 3) {
+		final int sr = getChannelOffset(srcRedMask, stype), dr = getChannelOffset(destRedMask, dtype);
+		final int sg = getChannelOffset(srcGreenMask, stype), dg = getChannelOffset(destGreenMask, dtype);
+		final int sb = getChannelOffset(srcBlueMask, stype), db = getChannelOffset(destBlueMask, dtype);
+		if (sr != -1 && sg != -1 && sb != -1 && dr != -1 && dg != -1 && db != -1 && dr != dg && dr != db && dg != db) {
+			final int sinc = sbpp;
+			if (dbpp == 4) {
+				/*
+				 * The byte not covered by a channel is cleared as in the comprehensive
+				 * blit, except that the former fast 32 to 32 blit swapping the byte
+				 * order copied it from the source, which is kept.
+				 */
+				final int dz = 6 - dr - dg - db;
+				final int sz = stype == TYPE_GENERIC_32_MSB && dtype == TYPE_GENERIC_32_MSB
+					&& srcRedMask == 0xFF00 && srcGreenMask == 0xFF0000 && srcBlueMask == 0xFF000000
+					&& destRedMask == 0xFF0000 && destGreenMask == 0xFF00 && destBlueMask == 0xFF ? 6 - sr - sg - sb : -1;
+				for (int dy = destHeight, sfy = sfyi; dy > 0; --dy, sp = spr += (sfy >>> 16) * srcStride, sfy = (sfy & 0xffff) + sfyi, dp = dpr += dpryi) {
+					for (int dx = destWidth, sfx = sfxi; dx > 0; --dx, dp += dprxi, sfx = (sfx & 0xffff) + sfxi) {
+						destData[dp + dr] = srcData[sp + sr];
+						destData[dp + dg] = srcData[sp + sg];
+						destData[dp + db] = srcData[sp + sb];
+						destData[dp + dz] = sz != -1 ? srcData[sp + sz] : 0;
+						sp += (sfx >>> 16) * sinc;
+					}
 				}
-			}
-			return;
-		}
-	}
-	/*Fast 24 to 32 blit */
-	if (stype == TYPE_GENERIC_24 && dtype == TYPE_GENERIC_32_MSB) {
-		if (srcRedMask == 0xFF && srcGreenMask == 0xff00 && srcBlueMask == 0xff0000 && destRedMask == 0xFF0000 && destGreenMask == 0xff00 && destBlueMask == 0xff) {
-			for (int dy = destHeight, sfy = sfyi; dy > 0; --dy, sp = spr += (sfy >>> 16) * srcStride, sfy = (sfy & 0xffff) + sfyi, dp = dpr += dpryi) {
-				for (int dx = destWidth, sfx = sfxi; dx > 0; --dx, dp += dprxi, sfx = (sfx & 0xffff) + sfxi) {
-					destData[dp] = 0;
-					destData[dp + 1] = srcData[sp + 2];
-					destData[dp + 2] = srcData[sp + 1];
-					destData[dp + 3] = srcData[sp];
-					sp += (sfx >>> 16) * 3;
+			} else {
+				for (int dy = destHeight, sfy = sfyi; dy > 0; --dy, sp = spr += (sfy >>> 16) * srcStride, sfy = (sfy & 0xffff) + sfyi, dp = dpr += dpryi) {
+					for (int dx = destWidth, sfx = sfxi; dx > 0; --dx, dp += dprxi, sfx = (sfx & 0xffff) + sfxi) {
+						destData[dp + dr] = srcData[sp + sr];
+						destData[dp + dg] = srcData[sp + sg];
+						destData[dp + db] = srcData[sp + sb];
+						sp += (sfx >>> 16) * sinc;
+					}
 				}
 			}
 			return;
@@ -2327,6 +2503,34 @@ static void blit(
 			return;
 	}
 
+	/*** Fast blit (8 bits per channel, byte aligned) ***/
+	if (dbpp >= 3 && stype != TYPE_INDEX_16_LSB) {
+		final int dr = getChannelOffset(destRedMask, dtype);
+		final int dg = getChannelOffset(destGreenMask, dtype);
+		final int db = getChannelOffset(destBlueMask, dtype);
+		if (dr != -1 && dg != -1 && db != -1 && dr != dg && dr != db && dg != db) {
+			final int dz = dbpp == 4 ? 6 - dr - dg - db : -1;
+			final byte[] indices = new byte[srcWidth];
+			for (int y = 0, spr = 0, dpr = 0; y < srcHeight; y++, spr += srcStride, dpr += destStride) {
+				final byte[] row;
+				if (stype == TYPE_INDEX_8) {
+					row = srcData;
+				} else {
+					getIndexRow(srcData, spr, stype, indices, srcWidth);
+					row = indices;
+				}
+				for (int x = 0, sp = row == srcData ? spr : 0, dp = dpr; x < srcWidth; x++, sp++, dp += dbpp) {
+					final int index = row[sp] & 0xff;
+					destData[dp + dr] = srcReds[index];
+					destData[dp + dg] = srcGreens[index];
+					destData[dp + db] = srcBlues[index];
+					if (dz != -1) destData[dp + dz] = 0;
+				}
+			}
+			return;
+		}
+	}
+
 	/*** Comprehensive blit (apply transformations) ***/
 	final int destRedShift = getChannelShift(destRedMask);
 	final int destRedWidth = getChannelWidth(destRedMask, destRedShift);
@@ -2413,6 +2617,58 @@ static void blit(
 	}
 }
 
+/**
+ * Answers the offset of the byte holding a channel within a 24 or 32 bit
+ * pixel of the given type, or -1 if the mask does not select exactly one
+ * whole byte of the pixel.
+ */
+static int getChannelOffset(int mask, int type) {
+	final int shift;
+	switch (mask) {
+		case 0xFF: shift = 0; break;
+		case 0xFF00: shift = 1; break;
+		case 0xFF0000: shift = 2; break;
+		case 0xFF000000: shift = 3; break;
+		default: return -1;
+	}
+	switch (type) {
+		case TYPE_GENERIC_24: return shift < 3 ? 2 - shift : -1;
+		case TYPE_GENERIC_32_MSB: return 3 - shift;
+		case TYPE_GENERIC_32_LSB: return shift;
+	}
+	return -1;
+}
+
+/**
+ * Unpacks one row of 1, 2 or 4 bit palette indices starting at the given
+ * byte offset into one byte per pixel.
+ */
+static void getIndexRow(byte[] srcData, int offset, int stype, byte[] indices, int width) {
+	switch (stype) {
+		case TYPE_INDEX_4:
+			for (int x = 0; x < width; x++) {
+				final int b = srcData[offset + (x >> 1)];
+				indices[x] = (byte) (((x & 1) != 0 ? b : b >>> 4) & 0x0f);
+			}
+			break;
+		case TYPE_INDEX_2:
+			for (int x = 0; x < width; x++) {
+				indices[x] = (byte) ((srcData[offset + (x >> 2)] >>> (6 - (x & 3) * 2)) & 0x03);
+			}
+			break;
+		case TYPE_INDEX_1_MSB:
+			for (int x = 0; x < width; x++) {
+				indices[x] = (byte) ((srcData[offset + (x >> 3)] >>> (7 - (x & 7))) & 0x01);
+			}
+			break;
+		case TYPE_INDEX_1_LSB:
+			for (int x = 0; x < width; x++) {
+				indices[x] = (byte) ((srcData[offset + (x >> 3)] >>> (x & 7)) & 0x01);
+			}
+			break;
+	}
+}
+
 /**
  * Computes the required channel shift from a mask.
  */
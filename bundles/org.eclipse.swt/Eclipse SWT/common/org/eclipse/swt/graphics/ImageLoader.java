@@ -15,6 +15,9 @@
 package org.eclipse.swt.graphics;
 
 import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.file.*;
 import java.util.*;
 
 import org.eclipse.swt.*;
@@ -100,13 +103,89 @@ public class ImageLoader {
 	 * </p><p>
 	 * When saving png files, the value is from 0 to 3, but they do not impact the quality
 	 * because PNG is lossless compression. 0 is uncompressed, 1 is low compression and fast,
-	 * 2 is default compression, and 3 is high compression but slow.
+	 * 2 is default compression, and 3 is high compression but slow. Except when uncompressed,
+	 * rows are filtered as set by <code>pngFilter</code>, and large images are
+	 * compressed on several threads.
 	 * </p>
 	 *
+	 * @see #pngFilter
 	 * @since 3.8
 	 */
 	public int compression;
 
+	/**
+	 * The filtering of the rows used when saving compressed png files,
+	 * one of <code>PNG_FILTER_AUTO</code>, <code>PNG_FILTER_NONE</code>
+	 * and <code>PNG_FILTER_ADAPTIVE</code>.
+	 * <p>
+	 * Adaptive filtering makes photographs considerably smaller, but
+	 * images with large areas of flat color like screenshots often
+	 * compress better unfiltered. The default is taken from the
+	 * <code>org.eclipse.swt.image.png.filter</code> system property,
+	 * which can be <code>auto</code>, <code>none</code> or <code>adaptive</code>,
+	 * and is <code>PNG_FILTER_AUTO</code> if it is not set.
+	 * </p>
+	 *
+	 * @see #compression
+	 * @since 3.131
+	 */
+	public int pngFilter;
+
+	/**
+	 * Value of <code>pngFilter</code> that compresses a few bands of rows
+	 * spread over the image both unfiltered and adaptively filtered, and
+	 * filters the image when that is smaller.
+	 *
+	 * @since 3.131
+	 */
+	public static final int PNG_FILTER_AUTO = 0;
+
+	/**
+	 * Value of <code>pngFilter</code> that saves all rows unfiltered.
+	 *
+	 * @since 3.131
+	 */
+	public static final int PNG_FILTER_NONE = 1;
+
+	/**
+	 * Value of <code>pngFilter</code> that filters every row with the
+	 * filter type that is expected to compress best.
+	 *
+	 * @since 3.131
+	 */
+	public static final int PNG_FILTER_ADAPTIVE = 2;
+
+	/*
+	 * The default of pngFilter, from the system property.
+	 */
+	static final int DEFAULT_PNG_FILTER = switch (System.getProperty("org.eclipse.swt.image.png.filter", "auto").strip()) {
+		case "none" -> PNG_FILTER_NONE;
+		case "adaptive" -> PNG_FILTER_ADAPTIVE;
+		default -> PNG_FILTER_AUTO;
+	};
+
+	/**
+	 * The number of rows of a non-interlaced PNG image that are decoded
+	 * between two <code>ImageLoaderEvent</code>s, for progressive display.
+	 * The image data of such an event only holds the rows decoded since
+	 * the previous event, and its <code>y</code> field is the position of
+	 * the first of these rows in the image. An event with the complete
+	 * image follows the last rows.
+	 * <p>
+	 * The default is 0, which sends no events while loading non-interlaced
+	 * PNG images.
+	 * </p>
+	 *
+	 * @since 3.131
+	 */
+	public int progressiveRows;
+
+	/*
+	 * Files of at least this size are memory mapped by load(Path),
+	 * smaller ones are cheaper to read in a single call.
+	 */
+	static final int MAP_THRESHOLD = 256 * 1024;
+
 	/*
 	 * the set of ImageLoader event listeners, created on demand
 	 */
@@ -130,6 +209,7 @@ void reset() {
 	backgroundPixel = -1;
 	repeatCount = 1;
 	compression = -1;
+	pngFilter = DEFAULT_PNG_FILTER;
 }
 
 /**
@@ -163,6 +243,88 @@ List<ElementAtZoom<ImageData>> load(InputStream stream, int fileZoom, int target
 	return images;
 }
 
+/**
+ * Loads an array of <code>ImageData</code> objects from the
+ * specified input stream, decoding the images at a reduced size
+ * if the image format supports it. Throws an error if either an error
+ * occurs while loading the images, or if the images are not
+ * of a supported type. Returns the loaded image data array.
+ * <p>
+ * This method is intended for thumbnails and previews. JPEG images are
+ * decoded directly at 1/2, 1/4 or 1/8 of their size, choosing the smallest
+ * size that is still at least <code>targetWidth</code> x <code>targetHeight</code>
+ * pixels. This is much faster and needs much less memory than loading the
+ * full image and scaling it down afterwards. The loaded images are usually
+ * larger than the target size, use {@link ImageData#scaledTo(int, int)} to
+ * get an image of the exact size. Images in other formats are loaded at
+ * their full size.
+ * </p>
+ *
+ * @param stream the input stream to load the images from
+ * @param targetWidth the minimum width of the loaded images
+ * @param targetHeight the minimum height of the loaded images
+ * @return an array of <code>ImageData</code> objects loaded from the specified input stream
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the stream is null</li>
+ *    <li>ERROR_INVALID_ARGUMENT - if the target width or height is not positive</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_IO - if an IO error occurs while reading the stream</li>
+ *    <li>ERROR_INVALID_IMAGE - if the image stream contains invalid data</li>
+ *    <li>ERROR_UNSUPPORTED_FORMAT - if the image stream contains an unrecognized format</li>
+ * </ul>
+ *
+ * @since 3.131
+ */
+public ImageData[] loadScaled(InputStream stream, int targetWidth, int targetHeight) {
+	if (stream == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	if (targetWidth <= 0 || targetHeight <= 0) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+	reset();
+	List<ElementAtZoom<ImageData>> images = FileFormat.load(new ElementAtZoom<>(stream, FileFormat.DEFAULT_ZOOM), this,
+			FileFormat.DEFAULT_ZOOM, targetWidth, targetHeight);
+	data = images.stream().map(ElementAtZoom::element).toArray(ImageData[]::new);
+	return data;
+}
+
+/**
+ * Returns an iterator over the <code>ImageData</code> objects in
+ * the specified input stream, which loads each image only when it
+ * is requested. Throws an error if either an error occurs while
+ * loading the images, or if the images are not of a supported type.
+ * <p>
+ * This method is intended for animated GIF images with many frames,
+ * only the frame currently being loaded is held in memory. The
+ * <code>data</code> field of the receiver is not set, the other
+ * fields are set as the images are loaded. Images in other formats
+ * are all loaded before the first one is returned. The stream is
+ * read as the iterator advances and must not be closed before the
+ * last image has been loaded.
+ * </p><p>
+ * The methods of the returned iterator throw the same errors as
+ * this method.
+ * </p>
+ *
+ * @param stream the input stream to load the images from
+ * @return an iterator over the images in the specified input stream
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the stream is null</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_IO - if an IO error occurs while reading the stream</li>
+ *    <li>ERROR_INVALID_IMAGE - if the image stream contains invalid data</li>
+ *    <li>ERROR_UNSUPPORTED_FORMAT - if the image stream contains an unrecognized format</li>
+ * </ul>
+ *
+ * @since 3.131
+ */
+public Iterator<ImageData> loadFrames(InputStream stream) {
+	if (stream == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	reset();
+	return FileFormat.loadFrames(stream, this);
+}
+
 static boolean canLoadAtZoom(InputStream stream, int fileZoom, int targetZoom) {
 	if (stream == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
 	return FileFormat.canLoadAtZoom(new ElementAtZoom<>(stream, fileZoom), targetZoom);
@@ -201,6 +363,127 @@ List<ElementAtZoom<ImageData>> load(String filename, int fileZoom, int targetZoo
 	return null;
 }
 
+/**
+ * Loads an array of <code>ImageData</code> objects from the
+ * file with the specified name, decoding the images at a reduced
+ * size if the image format supports it. Throws an error if either
+ * an error occurs while loading the images, or if the images are
+ * not of a supported type. Returns the loaded image data array.
+ * <p>
+ * See {@link #loadScaled(InputStream, int, int)} for details on how the
+ * size of the loaded images is chosen.
+ * </p>
+ *
+ * @param filename the name of the file to load the images from
+ * @param targetWidth the minimum width of the loaded images
+ * @param targetHeight the minimum height of the loaded images
+ * @return an array of <code>ImageData</code> objects loaded from the specified file
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the file name is null</li>
+ *    <li>ERROR_INVALID_ARGUMENT - if the target width or height is not positive</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_IO - if an IO error occurs while reading the file</li>
+ *    <li>ERROR_INVALID_IMAGE - if the image file contains invalid data</li>
+ *    <li>ERROR_UNSUPPORTED_FORMAT - if the image file contains an unrecognized format</li>
+ * </ul>
+ *
+ * @since 3.131
+ */
+public ImageData[] loadScaled(String filename, int targetWidth, int targetHeight) {
+	if (filename == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	try (InputStream stream = new FileInputStream(filename)) {
+		return loadScaled(stream, targetWidth, targetHeight);
+	} catch (IOException e) {
+		SWT.error(SWT.ERROR_IO, e);
+	}
+	return null;
+}
+
+/**
+ * Loads an array of <code>ImageData</code> objects from the
+ * bytes between the position and the limit of the specified buffer.
+ * Throws an error if either an error occurs while loading the images,
+ * or if the images are not of a supported type. Returns the loaded
+ * image data array.
+ * <p>
+ * The image formats read directly from the buffer, jumping to the
+ * data they need where the format allows it, instead of copying it
+ * through intermediate stream buffers. The position of the buffer
+ * is not changed.
+ * </p>
+ *
+ * @param buffer the buffer to load the images from
+ * @return an array of <code>ImageData</code> objects loaded from the specified buffer
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the buffer is null</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_INVALID_IMAGE - if the buffer contains invalid data</li>
+ *    <li>ERROR_UNSUPPORTED_FORMAT - if the buffer contains an unrecognized format</li>
+ * </ul>
+ *
+ * @since 3.131
+ */
+public ImageData[] load(ByteBuffer buffer) {
+	if (buffer == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	load(new ByteBufferInputStream(buffer), FileFormat.DEFAULT_ZOOM, FileFormat.DEFAULT_ZOOM);
+	return data;
+}
+
+/**
+ * Loads an array of <code>ImageData</code> objects from the
+ * specified file. Throws an error if either an error occurs while
+ * loading the images, or if the images are not of a supported type.
+ * Returns the loaded image data array.
+ * <p>
+ * Large files are memory mapped and read like {@link #load(ByteBuffer)}
+ * does, small ones are read into memory with a single call. Either way
+ * the file is not read through intermediate stream buffers.
+ * </p>
+ *
+ * @param path the path of the file to load the images from
+ * @return an array of <code>ImageData</code> objects loaded from the specified file
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the path is null</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_IO - if an IO error occurs while reading the file</li>
+ *    <li>ERROR_INVALID_IMAGE - if the image file contains invalid data</li>
+ *    <li>ERROR_UNSUPPORTED_FORMAT - if the image file contains an unrecognized format</li>
+ * </ul>
+ *
+ * @since 3.131
+ */
+public ImageData[] load(java.nio.file.Path path) {
+	if (path == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	ByteBuffer buffer = null;
+	try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+		long size = channel.size();
+		if (size >= MAP_THRESHOLD && size <= Integer.MAX_VALUE) {
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+		} else if (size < MAP_THRESHOLD) {
+			buffer = ByteBuffer.allocate((int) size);
+			while (buffer.hasRemaining() && channel.read(buffer) != -1) {}
+			buffer.flip();
+		}
+	} catch (IOException e) {
+		SWT.error(SWT.ERROR_IO, e);
+	}
+	if (buffer == null) {
+		/* too large to be mapped at once */
+		try (InputStream stream = Files.newInputStream(path)) {
+			return load(stream);
+		} catch (IOException e) {
+			SWT.error(SWT.ERROR_IO, e);
+		}
+	}
+	return load(buffer);
+}
+
 static boolean canLoadAtZoom(String filename, int fileZoom, int targetZoom) {
 	if (filename == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
 	try (InputStream stream = new FileInputStream(filename)) {
@@ -28,6 +28,11 @@ import java.util.*;
  * <li>For image sources which contain multiple images, the
  * <code>endOfImage</code> flag in the event will be set to true
  * after each individual image is loaded.</li>
+ * <li>For non-interlaced PNG images loaded with
+ * <code>ImageLoader.progressiveRows</code> set, the image data of events
+ * that are not the end of the image only holds the rows decoded since the
+ * previous event, and its <code>y</code> field is the position of the
+ * first of these rows in the image.</li>
  * </ul>
  *
  * @see ImageLoader
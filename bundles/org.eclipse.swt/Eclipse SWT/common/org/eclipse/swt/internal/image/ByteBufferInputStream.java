@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.internal.image;
+
+import java.io.*;
+import java.nio.*;
+
+/**
+ * An input stream reading the remaining bytes of a byte buffer, for
+ * example a memory mapped image file. Reads copy straight from the
+ * buffer into the destination array and the stream can be positioned
+ * freely, which lets the file formats seek instead of buffering the
+ * data they skip over.
+ */
+public final class ByteBufferInputStream extends InputStream {
+	final ByteBuffer buffer;
+	int mark;
+
+/**
+ * Create a stream over the bytes between the position and the
+ * limit of the given buffer. The position of the given buffer
+ * is not changed.
+ */
+public ByteBufferInputStream(ByteBuffer buffer) {
+	this.buffer = buffer.slice();
+}
+
+@Override
+public int available() {
+	return buffer.remaining();
+}
+
+@Override
+public int read() {
+	return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+}
+
+@Override
+public int read(byte[] b, int off, int len) {
+	if (len == 0) return 0;
+	if (!buffer.hasRemaining()) return -1;
+	int count = Math.min(len, buffer.remaining());
+	buffer.get(b, off, count);
+	return count;
+}
+
+@Override
+public byte[] readAllBytes() {
+	byte[] bytes = new byte[buffer.remaining()];
+	buffer.get(bytes);
+	return bytes;
+}
+
+@Override
+public long skip(long n) {
+	int count = (int) Math.max(0, Math.min(n, buffer.remaining()));
+	buffer.position(buffer.position() + count);
+	return count;
+}
+
+@Override
+public boolean markSupported() {
+	return true;
+}
+
+@Override
+public void mark(int readlimit) {
+	mark = buffer.position();
+}
+
+@Override
+public void reset() {
+	buffer.position(mark);
+}
+
+/**
+ * Answer the number of bytes read since the start of the stream.
+ */
+int position() {
+	return buffer.position();
+}
+
+/**
+ * Move to the given offset from the start of the stream.
+ */
+void seek(int position) throws IOException {
+	if (position < 0 || position > buffer.limit()) throw new EOFException();
+	buffer.position(position);
+}
+}
@@ -60,7 +60,7 @@ public abstract class FileFormat {
 
 	public static final int DEFAULT_ZOOM = 100;
 
-	private static Optional<FileFormat> determineFileFormat(LEDataInputStream stream) {
+	static Optional<FileFormat> determineFileFormat(LEDataInputStream stream) {
 		return FORMAT_FACTORIES.stream().skip(1).map(Supplier::get).filter(f -> {
 			try {
 				return f.isFileFormat(stream);
@@ -92,6 +92,13 @@ public abstract class FileFormat {
 	ImageLoader loader;
 	int compression;
 
+	/**
+	 * The minimum size requested for the decoded image, or 0 to decode it at
+	 * its full size. Formats that can decode an image at a reduced size pick
+	 * the smallest size that is at least as large, all others ignore it.
+	 */
+	int targetWidth, targetHeight;
+
 	/**
 	 * Return whether or not the specified input stream represents a supported file
 	 * format.
@@ -113,29 +120,73 @@ public List<ElementAtZoom<ImageData>> loadFromStream(LEDataInputStream stream, i
 		inputStream = stream;
 		return loadFromByteStream(fileZoom, targetZoom);
 	} catch (Exception e) {
-		if (e instanceof IOException) {
-			SWT.error(SWT.ERROR_IO, e);
-		} else {
-			SWT.error(SWT.ERROR_INVALID_IMAGE, e);
-		}
+		loadError(e);
 		return null;
 	}
 }
 
+/**
+ * Answer an iterator over the images in the input stream. Formats
+ * which can read their images one at a time read each image only
+ * when it is requested, all others read them all up front.
+ */
+Iterator<ImageData> loadFramesFromByteStream() {
+	return loadFromStream(inputStream, DEFAULT_ZOOM, DEFAULT_ZOOM).stream().map(ElementAtZoom::element).iterator();
+}
+
+/**
+ * Throw the error for an exception that occurred while reading
+ * the input stream.
+ */
+static void loadError(Exception e) {
+	if (e instanceof IOException) {
+		SWT.error(SWT.ERROR_IO, e);
+	} else {
+		SWT.error(SWT.ERROR_INVALID_IMAGE, e);
+	}
+}
+
 /**
  * Read the specified input stream using the specified loader, and
  * return the device independent image array represented by the stream.
  */
 public static List<ElementAtZoom<ImageData>> load(ElementAtZoom<InputStream> is, ImageLoader loader, int targetZoom) {
+	return load(is, loader, targetZoom, 0, 0);
+}
+
+/**
+ * Read the specified input stream using the specified loader, and
+ * return the device independent image array represented by the stream.
+ * Formats which support it decode the images at a reduced size that is
+ * at least <code>targetWidth</code> x <code>targetHeight</code> pixels.
+ */
+public static List<ElementAtZoom<ImageData>> load(ElementAtZoom<InputStream> is, ImageLoader loader, int targetZoom, int targetWidth, int targetHeight) {
 	LEDataInputStream stream = new LEDataInputStream(is.element());
 	FileFormat fileFormat = determineFileFormat(stream).orElseGet(() -> {
 		SWT.error(SWT.ERROR_UNSUPPORTED_FORMAT);
 		return null;
 	});
 	fileFormat.loader = loader;
+	fileFormat.targetWidth = targetWidth;
+	fileFormat.targetHeight = targetHeight;
 	return fileFormat.loadFromStream(stream, is.zoom(), targetZoom);
 }
 
+/**
+ * Read the specified input stream using the specified loader, and
+ * return an iterator over the device independent images in the stream.
+ */
+public static Iterator<ImageData> loadFrames(InputStream is, ImageLoader loader) {
+	LEDataInputStream stream = new LEDataInputStream(is);
+	FileFormat fileFormat = determineFileFormat(stream).orElseGet(() -> {
+		SWT.error(SWT.ERROR_UNSUPPORTED_FORMAT);
+		return null;
+	});
+	fileFormat.loader = loader;
+	fileFormat.inputStream = stream;
+	return fileFormat.loadFramesFromByteStream();
+}
+
 public static boolean canLoadAtZoom(ElementAtZoom<InputStream> is, int targetZoom) {
 	return is.zoom() == targetZoom  || isDynamicallySizableFormat(is.element());
 }
@@ -0,0 +1,95 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.internal.image;
+
+import java.nio.*;
+import java.util.*;
+
+import org.eclipse.swt.*;
+import org.eclipse.swt.graphics.*;
+import org.eclipse.swt.internal.DPIUtil.*;
+
+/**
+ * Random access to the images of an image file held in memory. The
+ * headers of all images are read up front, the pixels of an image
+ * are only decoded when the image is requested. Formats which cannot
+ * read their images one at a time decode all of them up front.
+ */
+public final class FrameDecoder {
+	public final Frame[] frames;
+	GIFFileFormat gifFormat;
+	ImageData[] images;
+
+	/**
+	 * The header of one image.
+	 */
+	public static final class Frame {
+		public int x, y, width, height, disposalMethod, delayTime;
+		int position, transparentPixel;
+	}
+
+/**
+ * Read the headers of the images in the given buffer. The
+ * fields of the loader are set like ImageLoader.load() does,
+ * except for <code>data</code>.
+ */
+public FrameDecoder(ByteBuffer buffer, ImageLoader loader) {
+	LEDataInputStream stream = new LEDataInputStream(new ByteBufferInputStream(buffer));
+	FileFormat fileFormat = FileFormat.determineFileFormat(stream).orElseGet(() -> {
+		SWT.error(SWT.ERROR_UNSUPPORTED_FORMAT);
+		return null;
+	});
+	fileFormat.loader = loader;
+	fileFormat.inputStream = stream;
+	if (fileFormat instanceof GIFFileFormat gif) {
+		List<Frame> list = null;
+		try {
+			list = gif.readFrames();
+		} catch (Exception e) {
+			FileFormat.loadError(e);
+		}
+		gifFormat = gif;
+		frames = list.toArray(new Frame[list.size()]);
+	} else {
+		images = fileFormat.loadFromStream(stream, FileFormat.DEFAULT_ZOOM, FileFormat.DEFAULT_ZOOM).stream()
+				.map(ElementAtZoom::element).toArray(ImageData[]::new);
+		frames = new Frame[images.length];
+		for (int i = 0; i < images.length; i++) {
+			ImageData image = images[i];
+			Frame frame = new Frame();
+			frame.x = image.x;
+			frame.y = image.y;
+			frame.width = image.width;
+			frame.height = image.height;
+			frame.disposalMethod = image.disposalMethod;
+			frame.delayTime = image.delayTime;
+			frame.transparentPixel = image.transparentPixel;
+			frames[i] = frame;
+		}
+	}
+}
+
+/**
+ * Answer the image of the frame at the given index.
+ */
+public ImageData decode(int index) {
+	if (images != null) return images[index];
+	try {
+		return gifFormat.readFrame(frames[index]);
+	} catch (Exception e) {
+		FileFormat.loadError(e);
+		return null;
+	}
+}
+}
@@ -15,10 +15,12 @@ package org.eclipse.swt.internal.image;
 
 
 import java.io.*;
+import java.util.*;
 
 import org.eclipse.swt.*;
 import org.eclipse.swt.graphics.*;
 import org.eclipse.swt.internal.image.FileFormat.*;
+import org.eclipse.swt.internal.image.FrameDecoder.*;
 
 public final class GIFFileFormat extends StaticImageFileFormat {
 	String signature;
@@ -27,6 +29,8 @@ public final class GIFFileFormat extends StaticImageFileFormat {
 	int delayTime = 0;
 	int transparentPixel = -1;
 	int repeatCount = 1;
+	PaletteData globalPalette;
+	int nextID, imageCount;
 
 	static final int GIF_APPLICATION_EXTENSION_BLOCK_ID = 0xFF;
 	static final int GIF_GRAPHICS_CONTROL_BLOCK_ID = 0xF9;
@@ -66,6 +70,58 @@ public final class GIFFileFormat extends StaticImageFileFormat {
 	 */
 	@Override
 	ImageData[] loadFromByteStream() {
+		readHeader();
+		List<ImageData> images = new ArrayList<>();
+		ImageData image;
+		while ((image = readNextImage()) != null) {
+			images.add(image);
+		}
+		return images.toArray(new ImageData[images.size()]);
+	}
+
+	/**
+	 * Answer an iterator which reads the header right away
+	 * and each image only when it is requested, so that only
+	 * one image of an animation is held in memory at a time.
+	 */
+	@Override
+	Iterator<ImageData> loadFramesFromByteStream() {
+		try {
+			readHeader();
+		} catch (Exception e) {
+			loadError(e);
+		}
+		return new Iterator<>() {
+			ImageData next;
+
+			@Override
+			public boolean hasNext() {
+				if (next == null && nextID != -1) {
+					try {
+						next = readNextImage();
+					} catch (Exception e) {
+						nextID = -1;
+						loadError(e);
+					}
+				}
+				return next != null;
+			}
+
+			@Override
+			public ImageData next() {
+				if (!hasNext()) throw new NoSuchElementException();
+				ImageData image = next;
+				next = null;
+				return image;
+			}
+		};
+	}
+
+	/**
+	 * Read the header and the global palette, and the identifier
+	 * of the first block after them.
+	 */
+	void readHeader() {
 		byte[] signature = new byte[3];
 		byte[] versionBytes = new byte[3];
 		byte[] block = new byte[7];
@@ -89,11 +145,11 @@ public final class GIFFileFormat extends StaticImageFileFormat {
 		//aspect = block[6] & 0xFF;
 		bitsPerPixel = ((bitField >> 4) & 0x07) + 1;
 		defaultDepth = (bitField & 0x7) + 1;
-		PaletteData palette = null;
+		globalPalette = null;
 		if ((bitField & 0x80) != 0) {
 			// Global palette.
 			//sorted = (bitField & 0x8) != 0;
-			palette = readPalette(1 << defaultDepth);
+			globalPalette = readPalette(1 << defaultDepth);
 		} else {
 			// No global palette.
 			//sorted = false;
@@ -101,20 +157,64 @@ public final class GIFFileFormat extends StaticImageFileFormat {
 			defaultDepth = bitsPerPixel;
 		}
 		loader.backgroundPixel = backgroundPixel;
+		imageCount = 0;
+		nextID = readID();
+	}
 
-		ImageData[] images = new ImageData[0];
-		int id = readID();
-		while (id != GIF_TRAILER_ID && id != -1) {
-			if (id == GIF_IMAGE_BLOCK_ID) {
-				ImageData image = readImageBlock(palette);
-				if (loader.hasListeners()) {
-					loader.notifyListeners(new ImageLoaderEvent(loader, image, 3, true));
-				}
-				ImageData[] oldImages = images;
-				images = new ImageData[oldImages.length + 1];
-				System.arraycopy(oldImages, 0, images, 0, oldImages.length);
-				images[images.length - 1] = image;
-			} else if (id == GIF_EXTENSION_BLOCK_ID) {
+	/**
+	 * Read the blocks up to and including the next image.
+	 * Return the image, or null if there are no more images.
+	 */
+	ImageData readNextImage() {
+		if (!readToImageBlock()) return null;
+		ImageData image = readImageBlock(globalPalette);
+		if (loader.hasListeners()) {
+			loader.notifyListeners(new ImageLoaderEvent(loader, image, 3, true));
+		}
+		imageCount++;
+		readNextID();
+		return image;
+	}
+
+	/**
+	 * Read the header and the headers of all images, skipping
+	 * over their pixels. The images can then be read in any
+	 * order with readFrame(), if the input stream can seek.
+	 */
+	List<Frame> readFrames() {
+		readHeader();
+		List<Frame> frames = new ArrayList<>();
+		while (readToImageBlock()) {
+			frames.add(skipImageBlock());
+			imageCount++;
+			readNextID();
+		}
+		return frames;
+	}
+
+	/**
+	 * Read the image of the given frame.
+	 */
+	ImageData readFrame(Frame frame) {
+		try {
+			inputStream.seek(frame.position);
+		} catch (IOException e) {
+			SWT.error(SWT.ERROR_IO, e);
+		}
+		disposalMethod = frame.disposalMethod;
+		delayTime = frame.delayTime;
+		transparentPixel = frame.transparentPixel;
+		return readImageBlock(globalPalette);
+	}
+
+	/**
+	 * Read the blocks up to the next image block.
+	 * Return false if there are no more images.
+	 */
+	boolean readToImageBlock() {
+		while (nextID != GIF_TRAILER_ID && nextID != -1) {
+			if (nextID == GIF_IMAGE_BLOCK_ID) return true;
+			if (nextID == GIF_EXTENSION_BLOCK_ID) {
 				/* Read the extension block. Currently, only the
 				 * interesting parts of certain extensions are kept,
 				 * and the rest is discarded. In future, if we want
@@ -125,13 +225,21 @@ public final class GIFFileFormat extends StaticImageFileFormat {
 			} else {
 				/* The GIF is not to spec, but try to salvage it
 				 * if we read at least one image. */
-				if (images.length > 0) break;
+				nextID = -1;
+				if (imageCount > 0) break;
 				SWT.error(SWT.ERROR_INVALID_IMAGE);
 			}
-			id = readID(); // block terminator (0)
-			if (id == 0) id = readID(); // next block ID (unless we just read it)
+			readNextID();
 		}
-		return images;
+		return false;
+	}
+
+	/**
+	 * Read the identifier of the block following the current one.
+	 */
+	void readNextID() {
+		nextID = readID(); // block terminator (0)
+		if (nextID == 0) nextID = readID(); // next block ID (unless we just read it)
 	}
 
 	/**
@@ -389,6 +497,44 @@ public final class GIFFileFormat extends StaticImageFileFormat {
 		return image;
 	}
 
+	/**
+	 * Answer the frame for the image block at the current
+	 * position in the input stream, and skip over the block.
+	 */
+	Frame skipImageBlock() {
+		Frame frame = new Frame();
+		frame.position = inputStream.getPosition();
+		byte[] block = new byte[9];
+		try {
+			inputStream.read(block);
+			frame.x = (block[0] & 0xFF) | ((block[1] & 0xFF) << 8);
+			frame.y = (block[2] & 0xFF) | ((block[3] & 0xFF) << 8);
+			frame.width = (block[4] & 0xFF) | ((block[5] & 0xFF) << 8);
+			frame.height = (block[6] & 0xFF) | ((block[7] & 0xFF) << 8);
+			byte bitField = block[8];
+			int depth = defaultDepth;
+			if ((bitField & 0x80) != 0) {
+				// Local palette.
+				depth = (bitField & 0x7) + 1;
+				inputStream.skip((1 << depth) * 3);
+			}
+			// Same work around as in readImageBlock()
+			if (transparentPixel > 1 << depth) {
+				transparentPixel = -1;
+			}
+			if (inputStream.read() < 0) {
+				SWT.error(SWT.ERROR_INVALID_IMAGE);
+			}
+			LZWCodec.skipBlocks(inputStream);
+		} catch (IOException e) {
+			SWT.error(SWT.ERROR_IO, e);
+		}
+		frame.disposalMethod = disposalMethod;
+		frame.delayTime = delayTime;
+		frame.transparentPixel = transparentPixel;
+		return frame;
+	}
+
 	/**
 	 * Read a palette from the input stream.
 	 */
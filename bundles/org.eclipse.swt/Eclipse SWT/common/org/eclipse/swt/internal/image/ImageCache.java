@@ -0,0 +1,313 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.internal.image;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.charset.*;
+import java.nio.file.*;
+import java.nio.file.attribute.*;
+import java.security.*;
+import java.util.*;
+import java.util.concurrent.atomic.*;
+
+import org.eclipse.swt.*;
+import org.eclipse.swt.graphics.*;
+
+/**
+ * A disk cache for images that are expensive to produce, like rasterized
+ * SVG images and smoothly scaled images. Entries are identified by a key
+ * computed from the content of the source, the method that produced the
+ * image and its parameters, so they stay valid across launches.
+ * <p>
+ * Every entry is a file holding a small header followed by the pixels as
+ * big endian ARGB values, which can be read without any decoding. Files
+ * are written under a temporary name and then renamed, so several
+ * processes can share a directory: readers see either a complete entry or
+ * none. When the directory grows beyond its maximum size, the least
+ * recently used entries are deleted.
+ * </p>
+ * <p>
+ * The cache is disabled unless the <code>swt.imageCache</code> system
+ * property names a directory. The maximum size in megabytes can be set
+ * with <code>swt.imageCache.size</code> and defaults to 64.
+ * </p>
+ */
+public final class ImageCache {
+
+	/**
+	 * System property naming the cache directory; the cache is disabled if not set.
+	 */
+	static final String SWT_IMAGE_CACHE = "swt.imageCache";
+
+	/**
+	 * System property for the maximum size of the cache directory in megabytes.
+	 */
+	static final String SWT_IMAGE_CACHE_SIZE = "swt.imageCache.size";
+
+	static final int MAGIC = 0x53575449; // "SWTI"
+	static final int VERSION = 1;
+	static final int HEADER_SIZE = 24;
+	static final int FLAG_ALPHA_DATA = 1;
+	static final String SUFFIX = ".argb";
+	static final String TEMP_SUFFIX = ".tmp";
+
+	/** The time after which the access time of an entry is refreshed, in milliseconds. */
+	static final long TOUCH_INTERVAL = 60 * 60 * 1000;
+
+	private static final ImageCache DEFAULT = createDefault();
+
+	final java.nio.file.Path directory;
+	final long maxSize;
+	final AtomicLong written = new AtomicLong();
+
+/**
+ * Creates a cache in the given directory, which is created if needed.
+ *
+ * @param directory the directory holding the entries
+ * @param maxSize the size in bytes above which entries are evicted
+ */
+public ImageCache(java.nio.file.Path directory, long maxSize) {
+	this.directory = directory;
+	this.maxSize = maxSize;
+}
+
+static ImageCache createDefault() {
+	String directory = System.getProperty(SWT_IMAGE_CACHE);
+	if (directory == null || directory.isBlank()) return null;
+	long size = 64;
+	try {
+		String value = System.getProperty(SWT_IMAGE_CACHE_SIZE);
+		if (value != null) size = Long.parseLong(value.trim());
+	} catch (NumberFormatException e) {
+	}
+	return new ImageCache(Paths.get(directory.trim()), size << 20);
+}
+
+/**
+ * Answers the cache configured with the system properties, or
+ * <code>null</code> if caching is disabled.
+ *
+ * @return the default cache or <code>null</code>
+ */
+public static ImageCache getDefault() {
+	return DEFAULT;
+}
+
+/**
+ * Answers the key of an image produced from the given source bytes.
+ *
+ * @param source the content the image is produced from
+ * @param method the name of the method producing the image
+ * @param parameters the parameters of the method, like the zoom
+ * @return the key
+ */
+public static String key(byte[] source, String method, int... parameters) {
+	MessageDigest digest = newDigest(method, parameters);
+	digest.update(source);
+	return HexFormat.of().formatHex(digest.digest());
+}
+
+/**
+ * Answers the key of an image produced from the given image data.
+ *
+ * @param source the image data the image is produced from
+ * @param method the name of the method producing the image
+ * @param parameters the parameters of the method, like the size
+ * @return the key
+ */
+public static String key(ImageData source, String method, int... parameters) {
+	MessageDigest digest = newDigest(method, parameters);
+	PaletteData palette = source.palette;
+	ByteBuffer header = ByteBuffer.allocate(40);
+	header.putInt(source.width).putInt(source.height).putInt(source.depth).putInt(source.bytesPerLine);
+	header.putInt(source.transparentPixel).putInt(source.alpha).putInt(source.maskPad);
+	header.putInt(palette.redMask).putInt(palette.greenMask).putInt(palette.blueMask);
+	digest.update(header.array());
+	if (!palette.isDirect) {
+		for (RGB rgb : palette.colors) {
+			digest.update(rgb == null ? new byte[4] : new byte[] {1, (byte) rgb.red, (byte) rgb.green, (byte) rgb.blue});
+		}
+	}
+	digest.update(source.data);
+	if (source.alphaData != null) digest.update(source.alphaData);
+	if (source.maskData != null) digest.update(source.maskData);
+	return HexFormat.of().formatHex(digest.digest());
+}
+
+static MessageDigest newDigest(String method, int... parameters) {
+	MessageDigest digest;
+	try {
+		digest = MessageDigest.getInstance("SHA-256");
+	} catch (NoSuchAlgorithmException e) {
+		throw new IllegalStateException(e);
+	}
+	/* Also key on the SWT version, so that entries from older versions are not reused */
+	ByteBuffer buffer = ByteBuffer.allocate(8 + parameters.length * 4);
+	buffer.putInt(SWT.getVersion()).putInt(parameters.length);
+	for (int parameter : parameters) buffer.putInt(parameter);
+	digest.update(buffer.array());
+	digest.update(method.getBytes(StandardCharsets.UTF_8));
+	digest.update((byte) 0);
+	return digest;
+}
+
+/**
+ * Answers the image cached for the given key, or <code>null</code> if
+ * there is none. The image is 24 bit with alpha data if the cached image
+ * had alpha data, and has the same constant alpha value.
+ *
+ * @param key the key of the image
+ * @return the cached image or <code>null</code>
+ */
+public ImageData get(String key) {
+	java.nio.file.Path file = directory.resolve(key + SUFFIX);
+	ImageData image;
+	try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+		long size = channel.size();
+		if (size > Integer.MAX_VALUE) return null;
+		/*
+		 * The pixels are copied into the image anyway, and a mapped file
+		 * could not be deleted or replaced on Windows until the mapping
+		 * is garbage collected, so read all entries into the heap.
+		 */
+		ByteBuffer buffer = ByteBuffer.allocate((int) size);
+		while (buffer.hasRemaining() && channel.read(buffer) != -1) {}
+		buffer.flip();
+		image = read(buffer);
+	} catch (IOException e) {
+		return null;
+	}
+	try {
+		if (image == null) {
+			/* Left behind by an older version or damaged, remove it so it is written again */
+			Files.deleteIfExists(file);
+		} else {
+			touch(file);
+		}
+	} catch (IOException e) {
+	}
+	return image;
+}
+
+static ImageData read(ByteBuffer buffer) {
+	if (buffer.remaining() < HEADER_SIZE) return null;
+	if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) return null;
+	int width = buffer.getInt(), height = buffer.getInt(), flags = buffer.getInt(), alpha = buffer.getInt();
+	if (width <= 0 || height <= 0 || (long) width * height * 4 != buffer.remaining()) return null;
+	int[] argb = new int[width * height];
+	buffer.asIntBuffer().get(argb);
+	ImageData image = new ImageData(width, height, 24, new PaletteData(0xFF0000, 0xFF00, 0xFF));
+	image.setARGB(argb, 0);
+	if ((flags & FLAG_ALPHA_DATA) == 0) image.alphaData = null;
+	image.alpha = alpha;
+	return image;
+}
+
+/**
+ * Stores the image under the given key. Images with a transparent pixel
+ * or a transparency mask are not cached.
+ *
+ * @param key the key of the image
+ * @param image the image to cache
+ */
+public void put(String key, ImageData image) {
+	if (image.transparentPixel != -1 || image.maskData != null) return;
+	int[] argb = new int[image.width * image.height];
+	image.getARGB(argb, 0);
+	ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + argb.length * 4);
+	buffer.putInt(MAGIC).putInt(VERSION).putInt(image.width).putInt(image.height);
+	buffer.putInt(image.alphaData != null ? FLAG_ALPHA_DATA : 0).putInt(image.alpha);
+	buffer.asIntBuffer().put(argb);
+	buffer.rewind();
+	java.nio.file.Path file = directory.resolve(key + SUFFIX);
+	java.nio.file.Path temp = directory.resolve(key + '.' + ProcessHandle.current().pid() + '.' + Thread.currentThread().getId() + TEMP_SUFFIX);
+	try {
+		Files.createDirectories(directory);
+		try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			while (buffer.hasRemaining()) channel.write(buffer);
+		}
+		try {
+			Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+		}
+	} catch (IOException e) {
+		/* The cache is best effort, for example when another process holds the entry */
+		try {
+			Files.deleteIfExists(temp);
+		} catch (IOException e1) {
+		}
+		return;
+	}
+	long total = written.addAndGet(buffer.capacity());
+	if (total >= maxSize / 16 && written.compareAndSet(total, 0)) {
+		trim();
+	}
+}
+
+/**
+ * Mark the entry as recently used, at most once per interval to avoid
+ * a write for every read.
+ */
+void touch(java.nio.file.Path file) throws IOException {
+	long now = System.currentTimeMillis();
+	if (now - Files.getLastModifiedTime(file).toMillis() > TOUCH_INTERVAL) {
+		Files.setLastModifiedTime(file, FileTime.fromMillis(now));
+	}
+}
+
+/**
+ * Delete the least recently used entries until the directory is no
+ * larger than the maximum size, as well as temporary files left behind
+ * by processes that did not finish writing them.
+ */
+synchronized void trim() {
+	record Entry(java.nio.file.Path file, long size, long time) {}
+	List<Entry> entries = new ArrayList<>();
+	long total = 0, now = System.currentTimeMillis();
+	try (DirectoryStream<java.nio.file.Path> stream = Files.newDirectoryStream(directory)) {
+		for (java.nio.file.Path file : stream) {
+			String name = file.getFileName().toString();
+			if (!name.endsWith(SUFFIX) && !name.endsWith(TEMP_SUFFIX)) continue;
+			try {
+				BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+				long time = attributes.lastModifiedTime().toMillis();
+				if (name.endsWith(TEMP_SUFFIX)) {
+					if (now - time > TOUCH_INTERVAL) Files.deleteIfExists(file);
+					continue;
+				}
+				entries.add(new Entry(file, attributes.size(), time));
+				total += attributes.size();
+			} catch (IOException e) {
+				/* Deleted or replaced by another process */
+			}
+		}
+	} catch (IOException e) {
+		return;
+	}
+	if (total <= maxSize) return;
+	entries.sort(Comparator.comparingLong(Entry::time));
+	for (Entry entry : entries) {
+		if (total <= maxSize) break;
+		try {
+			Files.deleteIfExists(entry.file());
+			total -= entry.size();
+		} catch (IOException e) {
+			/* In use by another process, try the next one */
+		}
+	}
+}
+}
@@ -0,0 +1,284 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.internal.image;
+
+import java.util.*;
+import java.util.stream.*;
+
+import org.eclipse.swt.*;
+import org.eclipse.swt.graphics.*;
+
+/**
+ * Scales image data with a separable filter, first along the rows and
+ * then along the columns. The filter weights are computed once per axis
+ * and the color channels are weighted with alpha, so that transparent
+ * pixels do not bleed their color into the edges of the result.
+ * <p>
+ * The result is a 24 bit direct image with alpha data if the source has
+ * any transparency; a constant alpha value is carried over unchanged.
+ * </p>
+ */
+public final class ImageResampler {
+
+	/**
+	 * Images with at least this many destination pixels are resampled
+	 * with the rows split across the common fork join pool.
+	 */
+	static final int PARALLEL_THRESHOLD = 1 << 16;
+
+	/**
+	 * The supported resampling filters.
+	 */
+	public enum Filter {
+		/** Linear interpolation between the nearest pixels (triangle filter). */
+		BILINEAR(1) {
+			@Override
+			double weight(double x) {
+				return 1 - x;
+			}
+		},
+		/** Catmull-Rom cubic spline, sharper than bilinear with little ringing. */
+		BICUBIC(2) {
+			@Override
+			double weight(double x) {
+				if (x < 1) return (1.5 * x - 2.5) * x * x + 1;
+				return ((-0.5 * x + 2.5) * x - 4) * x + 2;
+			}
+		},
+		/** Windowed sinc with three lobes, the sharpest of the filters. */
+		LANCZOS(3) {
+			@Override
+			double weight(double x) {
+				if (x == 0) return 1;
+				double px = Math.PI * x;
+				return 3 * Math.sin(px) * Math.sin(px / 3) / (px * px);
+			}
+		};
+
+		final int radius;
+
+		Filter(int radius) {
+			this.radius = radius;
+		}
+
+		/**
+		 * Answers the weight for a distance <code>0 &lt;= x &lt; radius</code>.
+		 */
+		abstract double weight(double x);
+	}
+
+	/**
+	 * The weights to compute each destination pixel along one axis: the
+	 * destination pixel <code>i</code> is the sum of <code>taps</code>
+	 * source pixels from <code>start[i]</code> on, weighted with
+	 * <code>weights[i * taps]</code> and following.
+	 */
+	static final class Kernel {
+		final int taps;
+		final int[] start;
+		final float[] weights;
+
+		Kernel(Filter filter, int srcSize, int destSize, boolean flip) {
+			double scale = (double) destSize / srcSize;
+			/* When shrinking, stretch the filter to cover all source pixels */
+			double filterScale = Math.max(1, 1 / scale);
+			double support = filter.radius * filterScale;
+			taps = Math.min(srcSize, (int) Math.ceil(support) * 2 + 1);
+			start = new int[destSize];
+			weights = new float[destSize * taps];
+			double[] w = new double[taps];
+			for (int i = 0; i < destSize; i++) {
+				double center = (i + 0.5) / scale;
+				int min = Math.max(0, (int) (center - support + 0.5));
+				int max = Math.min(srcSize, (int) (center + support + 0.5));
+				int first = Math.min(min, srcSize - taps);
+				double sum = 0;
+				for (int k = 0; k < taps; k++) {
+					int j = first + k;
+					double distance = Math.abs(j + 0.5 - center) / filterScale;
+					w[k] = (j >= min && j < max && distance < filter.radius) ? filter.weight(distance) : 0;
+					sum += w[k];
+				}
+				int index = flip ? destSize - 1 - i : i;
+				start[index] = first;
+				if (sum == 0) {
+					weights[index * taps + Math.min(taps - 1, Math.max(0, (int) center - first))] = 1;
+				} else {
+					for (int k = 0; k < taps; k++) {
+						weights[index * taps + k] = (float) (w[k] / sum);
+					}
+				}
+			}
+		}
+	}
+
+private ImageResampler() {
+}
+
+/**
+ * Returns a copy of the image scaled to the given size with the given
+ * filter. If either the width or height is negative, the result is
+ * inverted in the associated axis. Large images are resampled on
+ * several cores.
+ *
+ * @param image the image to scale
+ * @param width the width of the result
+ * @param height the height of the result
+ * @param filter the resampling filter
+ * @return the scaled image
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the image or filter is null</li>
+ *    <li>ERROR_INVALID_ARGUMENT - if the width or height is zero</li>
+ * </ul>
+ */
+public static ImageData resample(ImageData image, int width, int height, Filter filter) {
+	boolean parallel = Math.abs((long) width * height) >= PARALLEL_THRESHOLD && Runtime.getRuntime().availableProcessors() > 1;
+	return resample(image, width, height, filter, parallel);
+}
+
+/**
+ * Returns a copy of the image scaled to the given size with the given
+ * filter, optionally splitting the rows across the common fork join
+ * pool.
+ *
+ * @param image the image to scale
+ * @param width the width of the result
+ * @param height the height of the result
+ * @param filter the resampling filter
+ * @param parallel whether to resample rows concurrently
+ * @return the scaled image
+ *
+ * @see #resample(ImageData, int, int, Filter)
+ */
+public static ImageData resample(ImageData image, int width, int height, Filter filter, boolean parallel) {
+	if (image == null || filter == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	if (width == 0 || height == 0) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+	final boolean flipX = width < 0, flipY = height < 0;
+	final int srcWidth = image.width, srcHeight = image.height;
+	final int destWidth = Math.abs(width), destHeight = Math.abs(height);
+	final int[] pixels = getARGB(image);
+	final Kernel kernelX = new Kernel(filter, srcWidth, destWidth, flipX);
+	final Kernel kernelY = new Kernel(filter, srcHeight, destHeight, flipY);
+
+	/* Rows: premultiplied alpha, red, green and blue per destination column */
+	final float[] rows = new float[srcHeight * destWidth * 4];
+	forEachBand(srcHeight, parallel, (first, last) -> {
+		final int taps = kernelX.taps;
+		final int[] start = kernelX.start;
+		final float[] weights = kernelX.weights;
+		for (int y = first; y < last; y++) {
+			int sp = y * srcWidth, dp = y * destWidth * 4;
+			for (int x = 0, wp = 0; x < destWidth; x++, dp += 4) {
+				float a = 0, r = 0, g = 0, b = 0;
+				for (int k = 0, p = sp + start[x]; k < taps; k++, p++, wp++) {
+					final int pixel = pixels[p];
+					final float wa = weights[wp] * (pixel >>> 24);
+					a += wa;
+					r += wa * ((pixel >> 16) & 0xFF);
+					g += wa * ((pixel >> 8) & 0xFF);
+					b += wa * (pixel & 0xFF);
+				}
+				rows[dp] = a;
+				rows[dp + 1] = r;
+				rows[dp + 2] = g;
+				rows[dp + 3] = b;
+			}
+		}
+	});
+
+	final boolean transparent = image.alphaData != null || image.maskData != null || image.transparentPixel != -1;
+	final PaletteData palette = new PaletteData(0xFF0000, 0xFF00, 0xFF);
+	final ImageData result = new ImageData(destWidth, destHeight, 24, palette);
+	result.x = image.x;
+	result.y = image.y;
+	result.type = image.type;
+	result.disposalMethod = image.disposalMethod;
+	result.delayTime = image.delayTime;
+	result.alpha = image.alpha;
+	if (transparent) result.alphaData = new byte[destWidth * destHeight];
+	final byte[] data = result.data, alphaData = result.alphaData;
+	final int bytesPerLine = result.bytesPerLine;
+
+	/* Columns: sum the rows and divide by alpha again */
+	forEachBand(destHeight, parallel, (first, last) -> {
+		final int taps = kernelY.taps, rowLength = destWidth * 4;
+		final float[] sums = new float[rowLength];
+		for (int y = first; y < last; y++) {
+			Arrays.fill(sums, 0);
+			for (int k = 0, sp = kernelY.start[y] * rowLength, wp = y * taps; k < taps; k++, sp += rowLength, wp++) {
+				final float weight = kernelY.weights[wp];
+				if (weight == 0) continue;
+				for (int i = 0; i < rowLength; i++) {
+					sums[i] += weight * rows[sp + i];
+				}
+			}
+			for (int x = 0, i = 0, dp = y * bytesPerLine; x < destWidth; x++, i += 4, dp += 3) {
+				final float a = sums[i];
+				if (a > 0) {
+					data[dp] = clamp(sums[i + 1] / a);
+					data[dp + 1] = clamp(sums[i + 2] / a);
+					data[dp + 2] = clamp(sums[i + 3] / a);
+				}
+				if (alphaData != null) alphaData[y * destWidth + x] = clamp(a);
+			}
+		}
+	});
+	return result;
+}
+
+static byte clamp(float value) {
+	int v = (int) (value + 0.5f);
+	return (byte) (v < 0 ? 0 : v > 255 ? 255 : v);
+}
+
+interface Band {
+	void run(int first, int last);
+}
+
+/**
+ * Runs the band over all rows, split into several bands on the common
+ * fork join pool when parallel.
+ */
+static void forEachBand(int rows, boolean parallel, Band band) {
+	if (!parallel || rows < 2) {
+		band.run(0, rows);
+		return;
+	}
+	final int count = Math.min(rows, Runtime.getRuntime().availableProcessors() * 4);
+	IntStream.range(0, count).parallel().forEach(i -> band.run(rows * i / count, rows * (i + 1) / count));
+}
+
+/**
+ * Answers the pixels of the image as non-premultiplied ARGB values, with
+ * alpha taken from the alpha data, transparency mask or transparent pixel.
+ * A constant alpha value is not applied.
+ */
+static int[] getARGB(ImageData image) {
+	final int width = image.width, height = image.height;
+	final int[] argb = new int[width * height];
+	image.getARGB(argb, 0);
+	if (image.alphaData == null && (image.maskData != null || image.transparentPixel != -1)) {
+		final ImageData mask = image.getTransparencyMask();
+		final int[] row = new int[width];
+		for (int y = 0, p = 0; y < height; y++) {
+			mask.getPixels(0, y, width, row, 0);
+			for (int x = 0; x < width; x++, p++) {
+				if (row[x] == 0) argb[p] &= 0xFFFFFF;
+			}
+		}
+	}
+	return argb;
+}
+}
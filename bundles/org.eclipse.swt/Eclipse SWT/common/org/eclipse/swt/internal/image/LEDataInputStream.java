@@ -32,6 +32,12 @@ final class LEDataInputStream extends InputStream {
 	 */
 	protected int pos;
 
+	/**
+	 * The position of the byte buffer stream when this stream was
+	 * created, or -1 if the input is not a byte buffer stream.
+	 */
+	int origin = -1;
+
 
 	public LEDataInputStream(InputStream input) {
 		this(input, 512);
@@ -39,6 +45,9 @@ final class LEDataInputStream extends InputStream {
 
 	public LEDataInputStream(InputStream input, int bufferSize) {
 		this.in = input;
+		if (input instanceof ByteBufferInputStream source) {
+			origin = source.position();
+		}
 		if (bufferSize > 0) {
 			buf = new byte[bufferSize];
 			pos = bufferSize;
@@ -62,6 +71,37 @@ final class LEDataInputStream extends InputStream {
 		return position;
 	}
 
+	/**
+	 * Answer whether the input supports seek(). This is the case
+	 * when reading from a byte buffer, e.g. a memory mapped file.
+	 */
+	public boolean canSeek() {
+		return origin != -1;
+	}
+
+	/**
+	 * Move to the given position, dropping any pushed back bytes.
+	 * Only supported if canSeek() answers true.
+	 */
+	public void seek(int newPosition) throws IOException {
+		if (buf == null || !canSeek() || newPosition < 0) throw new IOException();
+		((ByteBufferInputStream) in).seek(origin + newPosition);
+		pos = buf.length;
+		position = newPosition;
+	}
+
+	/**
+	 * Skip n bytes, without reading them if the input supports seek().
+	 */
+	@Override
+	public long skip(long n) throws IOException {
+		if (!canSeek() || n <= 0) return super.skip(n);
+		if (buf == null) throw new IOException();
+		long count = Math.min(n, available());
+		seek(position + (int) count);
+		return count;
+	}
+
 	/**
 	 * Answers how many bytes are available for reading without blocking
 	 */
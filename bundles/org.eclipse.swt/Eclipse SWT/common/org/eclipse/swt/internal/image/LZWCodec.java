@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2025 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,16 +14,27 @@
 package org.eclipse.swt.internal.image;
 
 
+import java.io.*;
+import java.util.*;
+
 import org.eclipse.swt.*;
 import org.eclipse.swt.graphics.*;
 
 final class LZWCodec {
-	int bitsPerPixel, blockSize, blockIndex, currentByte, bitsLeft,
+	int bitsPerPixel, blockSize, blockIndex, bitBuffer, bitCount,
 		codeSize, clearCode, endCode, newCodes, topSlot, currentSlot,
-		imageWidth, imageHeight, imageX, imageY, pass, line, codeMask;
-	byte[] block, lineArray;
-	int[] stack, suffix, prefix;
-	LZWNode[] nodeStack;
+		imageWidth, imageHeight, pass, line, codeMask;
+	byte[] block, data;
+	int dataLength, dataIndex;
+	/* Decoder string table: each code is its prefix code followed by one pixel */
+	int[] prefix, length;
+	byte[] suffix, stack;
+	/*
+	 * Encoder dictionary: an open addressing hash table of the strings
+	 * added so far. Each entry packs the pixel, the code of the prefix
+	 * and the code of the string, 0 marks an empty entry.
+	 */
+	int[] hashTable;
 	LEDataInputStream inputStream;
 	LEDataOutputStream outputStream;
 	ImageData image;
@@ -33,16 +44,19 @@ final class LZWCodec {
 		0x1, 0x3, 0x7, 0xF, 0x1F, 0x3F, 0x7F,
 		0xFF, 0x1FF, 0x3FF, 0x7FF, 0xFFF
 	};
+	static final int MAX_CODES = 4096;
+	/* At most half full, so that lookups rarely probe more than one entry */
+	static final int HASH_SIZE = 8192;
+	static final int HASH_SHIFT = 32 - 13;
+	static final int HASH_MULTIPLIER = 0x9E3779B1;
 
 /**
  * Decode the input.
  */
 void decode() {
-	int code;
 	int oc = 0;
 	int fc = 0;
 	byte[] buf = new byte[imageWidth];
-	int stackIndex = 0;
 	int bufIndex = 0;
 	int c;
 	while ((c = nextCode()) != endCode) {
@@ -62,23 +76,35 @@ void decode() {
 				}
 			}
 		} else {
-			code = c;
-			if (code >= currentSlot) {
-				code = oc;
-				stack[stackIndex] = fc;
-				stackIndex++;
+			/*
+			 * A code that is not in the table yet can only be the one
+			 * about to be added, the previous string followed by its
+			 * own first pixel.
+			 */
+			int code = c;
+			boolean unknown = code >= currentSlot;
+			if (unknown) code = oc;
+			int count = length[code];
+			int total = unknown ? count + 1 : count;
+			byte[] out = buf;
+			int start = bufIndex;
+			if (bufIndex + total > imageWidth) {
+				/* The string wraps to the next row */
+				if (total > stack.length) SWT.error(SWT.ERROR_INVALID_IMAGE);
+				out = stack;
+				start = 0;
 			}
-			while (code >= newCodes) {
-				stack[stackIndex] = suffix[code];
-				stackIndex++;
+			if (unknown) out[start + count] = (byte)fc;
+			for (int i = start + count - 1; i > start; i--) {
+				out[i] = suffix[code];
 				code = prefix[code];
 			}
-			stack[stackIndex] = code;
-			stackIndex++;
+			out[start] = (byte)code;
 			if (currentSlot < topSlot) {
 				fc = code;
-				suffix[currentSlot] = fc;
+				suffix[currentSlot] = (byte)fc;
 				prefix[currentSlot] = oc;
+				length[currentSlot] = length[oc] + 1;
 				currentSlot++;
 				oc = c;
 			}
@@ -89,14 +115,24 @@ void decode() {
 					topSlot = topSlot + topSlot;
 				}
 			}
-			while (stackIndex > 0) {
-				stackIndex--;
-				buf[bufIndex] = (byte)stack[stackIndex];
-				bufIndex++;
+			if (out == buf) {
+				bufIndex += total;
 				if (bufIndex == imageWidth) {
 					nextPutPixels(buf);
 					bufIndex = 0;
 				}
+			} else {
+				int index = 0;
+				while (index < total) {
+					int copy = Math.min(total - index, imageWidth - bufIndex);
+					System.arraycopy(stack, index, buf, bufIndex, copy);
+					index += copy;
+					bufIndex += copy;
+					if (bufIndex == imageWidth) {
+						nextPutPixels(buf);
+						bufIndex = 0;
+					}
+				}
 			}
 		}
 	}
@@ -115,6 +151,7 @@ public void decode(LEDataInputStream inputStream, ImageLoader loader, ImageData
 	this.interlaced = interlaced;
 	this.bitsPerPixel = depth;
 	initializeForDecoding();
+	readBlocks();
 	decode();
 }
 /**
@@ -127,11 +164,11 @@ void encode() {
 	nextPutCode(endCode);
 
 	// Write out last partial block
-	if (bitsLeft == 8) {
-		block[0] = (byte)(blockIndex - 1); // Nothing in last byte
-	} else {
-		block[0] = (byte)(blockIndex); // Last byte has data
+	if (bitCount > 0) {
+		block[blockIndex] = (byte)bitBuffer; // Last byte has data
+		blockIndex++;
 	}
+	block[0] = (byte)(blockIndex - 1);
 	writeBlock();
 
 	// Write out empty block to indicate the end (if needed)
@@ -152,78 +189,57 @@ public void encode(LEDataOutputStream byteStream, ImageData image) {
 }
 /**
  * Encoding loop broken out to allow early return.
+ * Answer the code of the string that is still pending.
  */
 int encodeLoop() {
-	int pixel = nextPixel();
-	boolean found;
-	LZWNode node;
-	while (true) {
-		int currentPrefix = pixel;
-		node = nodeStack[currentPrefix];
-		found = true;
-		pixel = nextPixel();
-		if (pixel < 0)
-			return currentPrefix;
-		while (found && (node.children != null)) {
-			node = node.children;
-			while (found && (node.suffix != pixel)) {
-				if (pixel < node.suffix) {
-					if (node.left == null) {
-						node.left = new LZWNode();
-						found = false;
-					}
-					node = node.left;
-				} else {
-					if (node.right == null) {
-						node.right = new LZWNode();
-						found = false;
-					}
-					node = node.right;
+	byte[] row = new byte[imageWidth];
+	int[] table = hashTable;
+	int ent = -1;
+	for (int y = 0; y < imageHeight; y++) {
+		nextPixels(row, y);
+		int x = 0;
+		if (ent < 0) ent = row[x++] & 0xFF;
+		next: for (; x < imageWidth; x++) {
+			int pixel = row[x] & 0xFF;
+			int key = (pixel << 12) | ent;
+			int i = (key * HASH_MULTIPLIER) >>> HASH_SHIFT;
+			int entry;
+			while ((entry = table[i]) != 0) {
+				if (entry >>> 12 == key) {
+					ent = entry & 0xFFF;
+					continue next;
 				}
+				i = (i + 1) & (HASH_SIZE - 1);
 			}
-			if (found) {
-				currentPrefix = node.code;
-				pixel = nextPixel();
-				if (pixel < 0)
-					return currentPrefix;
-			}
-		}
-		if (found) {
-			node.children = new LZWNode();
-			node = node.children;
-		}
-		node.children = null;
-		node.left = null;
-		node.right = null;
-		node.code = currentSlot;
-		node.prefix = currentPrefix;
-		node.suffix = pixel;
-		nextPutCode(currentPrefix);
-		currentSlot++;
-		// Off by one?
-		if (currentSlot < 4096) {
-			if (currentSlot > topSlot) {
-				codeSize++;
+			nextPutCode(ent);
+			table[i] = (key << 12) | currentSlot;
+			currentSlot++;
+			if (currentSlot < MAX_CODES) {
+				// The decoder grows the code size one code earlier
+				if (currentSlot > topSlot) {
+					codeSize++;
+					codeMask = MASK_TABLE[codeSize - 1];
+					topSlot *= 2;
+				}
+			} else {
+				nextPutCode(clearCode);
+				Arrays.fill(table, 0);
+				codeSize = bitsPerPixel + 1;
 				codeMask = MASK_TABLE[codeSize - 1];
-				topSlot *= 2;
-			}
-		} else {
-			nextPutCode(clearCode);
-			for (LZWNode lzwnode : nodeStack) {
-				lzwnode.children = null;
+				currentSlot = newCodes;
+				topSlot = 1 << codeSize;
 			}
-			codeSize = bitsPerPixel + 1;
-			codeMask = MASK_TABLE[codeSize - 1];
-			currentSlot = newCodes;
-			topSlot = 1 << codeSize;
+			ent = pixel;
 		}
 	}
+	return ent;
 }
 /**
  * Initialize the receiver for decoding the given
  * byte array.
  */
 void initializeForDecoding() {
+	if (bitsPerPixel > 11) SWT.error(SWT.ERROR_INVALID_IMAGE);
 	pass = 1;
 	line = 0;
 	codeSize = bitsPerPixel + 1;
@@ -231,14 +247,17 @@ void initializeForDecoding() {
 	clearCode = 1 << bitsPerPixel;
 	endCode = clearCode + 1;
 	newCodes = currentSlot = endCode + 1;
-	currentByte = -1;
-	blockSize = bitsLeft = 0;
-	blockIndex = 0;
+	bitBuffer = bitCount = 0;
 	codeMask = MASK_TABLE[codeSize - 1];
-	stack = new int[4096];
-	suffix = new int[4096];
-	prefix = new int[4096];
-	block = new byte[256];
+	prefix = new int[MAX_CODES];
+	suffix = new byte[MAX_CODES];
+	length = new int[MAX_CODES];
+	stack = new byte[MAX_CODES + 1];
+	for (int code = 0; code < MAX_CODES; code++) {
+		prefix[code] = code;
+		suffix[code] = (byte)code;
+		length[code] = 1;
+	}
 	imageWidth = image.width;
 	imageHeight = image.height;
 }
@@ -254,144 +273,62 @@ void initializeForEncoding() {
 	clearCode = 1 << bitsPerPixel;
 	endCode = clearCode + 1;
 	newCodes = currentSlot = endCode + 1;
-	bitsLeft = 8;
-	currentByte = 0;
+	codeMask = MASK_TABLE[codeSize - 1];
+	bitBuffer = bitCount = 0;
 	blockIndex = 1;
 	blockSize = 255;
 	block = new byte[blockSize];
-	block[0] = (byte)(blockSize - 1);
-	nodeStack = new LZWNode[1 << bitsPerPixel];
-	for (int i = 0; i < nodeStack.length; i++) {
-		LZWNode node = new LZWNode();
-		node.code = i + 1;
-		node.prefix = -1;
-		node.suffix = i + 1;
-		nodeStack[i] = node;
-	}
+	hashTable = new int[HASH_SIZE];
 	imageWidth = image.width;
 	imageHeight = image.height;
-	imageY = -1;
-	lineArray = new byte[imageWidth];
-	imageX = imageWidth + 1; // Force a read
 }
 /**
  * Answer the next code from the input byte array.
  */
 int nextCode() {
-	int code;
-	if (bitsLeft == 0) {
-		if (blockIndex >= blockSize) {
-			blockSize = readBlock();
-			blockIndex = 0;
-			if (blockSize == 0) return endCode;
-		}
-		blockIndex++;
-		currentByte = block[blockIndex] & 0xFF;
-		bitsLeft = 8;
-		code = currentByte;
-	} else {
-		int shift = bitsLeft - 8;
-		if (shift < 0)
-			code = currentByte >> (0 - shift);
-		else
-			code = currentByte << shift;
-	}
-	while (codeSize > bitsLeft) {
-		if (blockIndex >= blockSize) {
-			blockSize = readBlock();
-			blockIndex = 0;
-			if (blockSize == 0) return endCode;
-		}
-		blockIndex++;
-		currentByte = block[blockIndex] & 0xFF;
-		code += currentByte << bitsLeft;
-		bitsLeft += 8;
-	}
-	bitsLeft -= codeSize;
-	return code & codeMask;
-}
-/**
- * Answer the next pixel to encode in the image
- */
-int nextPixel() {
-	imageX++;
-	if (imageX > imageWidth) {
-		imageY++;
-		if (imageY >= imageHeight) {
-			return -1;
-		} else {
-			nextPixels(lineArray, imageWidth);
-		}
-		imageX = 1;
+	while (bitCount < codeSize) {
+		if (dataIndex >= dataLength) return endCode;
+		bitBuffer |= (data[dataIndex++] & 0xFF) << bitCount;
+		bitCount += 8;
 	}
-	return this.lineArray[imageX - 1] & 0xFF;
+	int code = bitBuffer & codeMask;
+	bitBuffer >>>= codeSize;
+	bitCount -= codeSize;
+	return code;
 }
 /**
  * Copy a row of pixel values from the image.
  */
-void nextPixels(byte[] buf, int lineWidth) {
+void nextPixels(byte[] buf, int y) {
 	if (image.depth == 8) {
-		System.arraycopy(image.data, imageY * image.bytesPerLine, buf, 0, lineWidth);
+		System.arraycopy(image.data, y * image.bytesPerLine, buf, 0, imageWidth);
 	} else {
-		image.getPixels(0, imageY, lineWidth, buf, 0);
+		image.getPixels(0, y, imageWidth, buf, 0);
 	}
 }
 /**
  * Output aCode to the output stream.
  */
 void nextPutCode(int aCode) {
-	int codeToDo = aCode;
-	int codeBitsToDo = codeSize;
-	// Fill in the remainder of the current byte with the
-	// *high-order* bits of the code.
-	int c = codeToDo & MASK_TABLE[bitsLeft - 1];
-	currentByte = currentByte | (c << (8 - bitsLeft));
-	block[blockIndex] = (byte)currentByte;
-	codeBitsToDo -= bitsLeft;
-	if (codeBitsToDo < 1) {
-		// The whole code fit in the first byte, so we are done.
-		bitsLeft -= codeSize;
-		if (bitsLeft == 0) {
-			// We used the whole last byte, so get ready
-			// for the next one.
-			bitsLeft = 8;
-			blockIndex++;
-			if (blockIndex >= blockSize) {
-				writeBlock();
-				blockIndex = 1;
-			}
-			currentByte = 0;
-		}
-		return;
-	}
-	codeToDo = codeToDo >> bitsLeft;
-
-	// Fill in any remaining whole bytes (i.e. not the last one!)
-	blockIndex++;
-	if (blockIndex >= blockSize) {
-		writeBlock();
-		blockIndex = 1;
-	}
-	while (codeBitsToDo >= 8) {
-		currentByte = codeToDo & 0xFF;
-		block[blockIndex] = (byte)currentByte;
-		codeToDo = codeToDo >> 8;
-		codeBitsToDo -= 8;
+	bitBuffer |= aCode << bitCount;
+	bitCount += codeSize;
+	while (bitCount >= 8) {
+		block[blockIndex] = (byte)bitBuffer;
+		bitBuffer >>>= 8;
+		bitCount -= 8;
 		blockIndex++;
 		if (blockIndex >= blockSize) {
+			block[0] = (byte)(blockSize - 1);
 			writeBlock();
 			blockIndex = 1;
 		}
 	}
-	// Fill the *low-order* bits of the last byte with the remainder
-	bitsLeft = 8 - codeBitsToDo;
-	currentByte = codeToDo;
-	block[blockIndex] = (byte)currentByte;
 }
 /**
  * Copy a row of pixel values to the image.
  */
 void nextPutPixels(byte[] buf) {
+	if (line >= imageHeight) return;
 	if (image.depth == 8) {
 		// Slight optimization for depth = 8.
 		int start = line * image.bytesPerLine;
@@ -445,26 +382,37 @@ void copyRow(byte[] buf, int copies) {
 	}
 }
 /**
- * Read a block from the byte stream.
- * Return the number of bytes read.
- * Throw an exception if the block could not be read.
+ * Read all data sub-blocks of the image, up to and including
+ * the block terminator, into one array.
+ * Throw an exception if the blocks could not be read.
  */
-int readBlock() {
-	int size = -1;
+void readBlocks() {
+	data = new byte[4096];
+	dataLength = dataIndex = 0;
 	try {
-		size = inputStream.read();
-		if (size == -1) {
-			SWT.error(SWT.ERROR_INVALID_IMAGE);
-		}
-		block[0] = (byte)size;
-		size = inputStream.read(block, 1, size);
-		if (size == -1) {
-			SWT.error(SWT.ERROR_INVALID_IMAGE);
+		int size;
+		while ((size = inputStream.read()) > 0) {
+			if (dataLength + size > data.length) {
+				data = Arrays.copyOf(data, Math.max(dataLength + size, data.length * 2));
+			}
+			int read = inputStream.read(data, dataLength, size);
+			if (read == -1) break;
+			dataLength += read;
+			if (read < size) break;
 		}
-	} catch (Exception e) {
+	} catch (IOException e) {
 		SWT.error(SWT.ERROR_IO, e);
 	}
-	return size;
+}
+/**
+ * Skip over the data sub-blocks of an image, up to and
+ * including the block terminator, without decoding them.
+ */
+static void skipBlocks(LEDataInputStream inputStream) throws IOException {
+	int size;
+	while ((size = inputStream.read()) > 0) {
+		inputStream.skip(size);
+	}
 }
 /**
  * Write a block to the byte stream.
@@ -29,6 +29,7 @@ public final class PNGFileFormat extends StaticImageFileFormat {
 	ImageData imageData;
 	byte[] data;
 	byte[] alphaPalette;
+	byte[] pixelRow;
 	byte headerByte1;
 	byte headerByte2;
 	int adler;
@@ -52,8 +53,15 @@ ImageData[] loadFromByteStream() {
 		headerChunk = chunkReader.getIhdrChunk();
 		int width = headerChunk.getWidth(), height = headerChunk.getHeight();
 		if (width <= 0 || height <= 0) SWT.error(SWT.ERROR_INVALID_IMAGE);
-		int imageSize = getAlignedBytesPerRow() * height;
-		data = new byte[imageSize];
+		/*
+		* Interlaced images are assembled in PNG format and converted
+		* after each pass. Non-interlaced images are converted one row
+		* at a time directly into the image data.
+		*/
+		if (headerChunk.getInterlaceMethod() != PngIhdrChunk.INTERLACE_METHOD_NONE) {
+			int imageSize = getAlignedBytesPerRow() * height;
+			data = new byte[imageSize];
+		}
 		imageData = ImageData.internal_new(
 			width,
 			height,
@@ -465,17 +473,32 @@ void fireInterlacedFrameEvent(int frameCount) {
 /**
  * Read the pixel data for a non-interlaced image from the
  * data stream.
- * Update the imageData to reflect the new data.
+ * Each row is unfiltered and converted straight into the
+ * imageData, so no copy of the whole image is made in PNG
+ * format.
  */
 void readNonInterlacedImage(InputStream inputStream) throws IOException {
-	int dataOffset = 0;
-	int alignedBytesPerRow = getAlignedBytesPerRow();
 	int bytesPerRow = getBytesPerRow();
 	byte[] row1 = new byte[bytesPerRow];
 	byte[] row2 = new byte[bytesPerRow];
 	byte[] currentRow = row1;
 	byte[] lastRow = row2;
+	int width = headerChunk.getWidth();
 	int height = headerChunk.getHeight();
+	switch (headerChunk.getColorType()) {
+		case PngIhdrChunk.COLOR_TYPE_GRAYSCALE_WITH_ALPHA:
+		case PngIhdrChunk.COLOR_TYPE_RGB_WITH_ALPHA:
+			imageData.alphaData = new byte[width * height];
+			break;
+		case PngIhdrChunk.COLOR_TYPE_PALETTE:
+			if (alphaPalette != null) {
+				imageData.alphaData = new byte[width * height];
+				pixelRow = new byte[width];
+			}
+			break;
+	}
+	int rowsPerEvent = loader.hasListeners() ? loader.progressiveRows : 0;
+	int incrementCount = 0, firstRow = 0;
 	for (int row = 0; row < height; row++) {
 		byte filterType = (byte)inputStream.read();
 		int read = 0;
@@ -483,12 +506,101 @@ void readNonInterlacedImage(InputStream inputStream) throws IOException {
 			read += inputStream.read(currentRow, read, bytesPerRow - read);
 		}
 		filterRow(currentRow, lastRow, filterType);
-		System.arraycopy(currentRow, 0, data, dataOffset, bytesPerRow);
-		dataOffset += alignedBytesPerRow;
+		setRowValues(currentRow, row);
 		currentRow = (currentRow == row1) ? row2 : row1;
 		lastRow = (lastRow == row1) ? row2 : row1;
+		if (rowsPerEvent > 0 && row + 1 - firstRow == rowsPerEvent && row + 1 < height) {
+			fireRowsEvent(firstRow, rowsPerEvent, incrementCount++);
+			firstRow = row + 1;
+		}
+	}
+	if (rowsPerEvent > 0) {
+		ImageData image = (ImageData) imageData.clone();
+		loader.notifyListeners(new ImageLoaderEvent(loader, image, incrementCount, true));
+	}
+}
+/**
+ * Fire an event to let listeners know that a band of rows
+ * of a non-interlaced image has been loaded. The image data
+ * of the event only holds the new rows, its y field is the
+ * position of the first row in the image.
+ */
+void fireRowsEvent(int startRow, int rowCount, int incrementCount) {
+	int bytesPerLine = imageData.bytesPerLine;
+	int width = imageData.width;
+	byte[] bandData = new byte[bytesPerLine * rowCount];
+	System.arraycopy(imageData.data, startRow * bytesPerLine, bandData, 0, bandData.length);
+	ImageData band = new ImageData(width, rowCount, imageData.depth, imageData.palette, imageData.scanlinePad, bandData);
+	band.type = imageData.type;
+	band.transparentPixel = imageData.transparentPixel;
+	band.y = startRow;
+	if (imageData.alphaData != null) {
+		band.alphaData = new byte[width * rowCount];
+		System.arraycopy(imageData.alphaData, startRow * width, band.alphaData, 0, band.alphaData.length);
+	}
+	loader.notifyListeners(new ImageLoaderEvent(loader, band, incrementCount, false));
+}
+/**
+ * Convert one unfiltered row of PNG pixel data to the
+ * SWT format and store it in the imageData. This does
+ * the same conversions as validateBitDepth() and
+ * setPixelData() do for a whole image.
+ */
+void setRowValues(byte[] row, int y) {
+	byte[] dest = imageData.data;
+	int destIndex = y * imageData.bytesPerLine;
+	int width = imageData.width;
+	/*
+	* If the image uses 16-bit depth, only the high byte
+	* of every sample is used.
+	*/
+	int step = headerChunk.getBitDepth() > 8 ? 2 : 1;
+	switch (headerChunk.getColorType()) {
+		case PngIhdrChunk.COLOR_TYPE_GRAYSCALE_WITH_ALPHA:
+		{
+			byte[] alphaData = imageData.alphaData;
+			int alphaIndex = width * y;
+			for (int x = 0, srcIndex = 0; x < width; x++, srcIndex += 2 * step) {
+				byte grey = row[srcIndex];
+				dest[destIndex++] = grey;
+				dest[destIndex++] = grey;
+				dest[destIndex++] = grey;
+				alphaData[alphaIndex++] = row[srcIndex + step];
+			}
+			break;
+		}
+		case PngIhdrChunk.COLOR_TYPE_RGB_WITH_ALPHA:
+		{
+			byte[] alphaData = imageData.alphaData;
+			int alphaIndex = width * y;
+			for (int x = 0, srcIndex = 0; x < width; x++, srcIndex += 4 * step) {
+				dest[destIndex++] = row[srcIndex];
+				dest[destIndex++] = row[srcIndex + step];
+				dest[destIndex++] = row[srcIndex + 2 * step];
+				alphaData[alphaIndex++] = row[srcIndex + 3 * step];
+			}
+			break;
+		}
+		case PngIhdrChunk.COLOR_TYPE_PALETTE:
+			System.arraycopy(row, 0, dest, destIndex, row.length);
+			if (alphaPalette != null) {
+				imageData.getPixels(0, y, width, pixelRow, 0);
+				byte[] alphaData = imageData.alphaData;
+				int alphaIndex = width * y;
+				for (int x = 0; x < width; x++) {
+					alphaData[alphaIndex + x] = alphaPalette[pixelRow[x] & 0xFF];
+				}
+			}
+			break;
+		case PngIhdrChunk.COLOR_TYPE_RGB:
+		default:
+			if (step == 1) {
+				System.arraycopy(row, 0, dest, destIndex, row.length);
+			} else {
+				compress16BitDepthTo8BitDepth(row, 0, dest, destIndex, row.length / 2);
+			}
+			break;
 	}
-	setImageDataValues(data, imageData);
 }
 /**
  * SWT does not support 16-bit depth color formats.
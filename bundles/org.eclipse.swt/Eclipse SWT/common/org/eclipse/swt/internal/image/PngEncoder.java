@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2025 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,6 +14,8 @@
 package org.eclipse.swt.internal.image;
 
 import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
 import java.util.zip.*;
 
 import org.eclipse.swt.*;
@@ -33,6 +35,27 @@ final class PngEncoder extends Object {
 	static final int BEST_COMPRESSION = 9;
 	static final int DEFAULT_COMPRESSION = -1;
 
+	static final int FILTER_NONE = 0;
+	static final int FILTER_SUB = 1;
+	static final int FILTER_UP = 2;
+	static final int FILTER_AVERAGE = 3;
+	static final int FILTER_PAETH = 4;
+
+	/*
+	 * Images with at least this many bytes of pixel data are deflated
+	 * in bands of about BAND_SIZE bytes on several threads.
+	 */
+	static final int PARALLEL_THRESHOLD = 1 << 20;
+	static final int BAND_SIZE = 1 << 18;
+	static final int WINDOW_SIZE = 1 << 15;
+
+	/*
+	 * Size of the sample used to decide between adaptive filtering
+	 * and no filtering.
+	 */
+	static final int SAMPLE_BLOCKS = 4;
+	static final int SAMPLE_ROWS = 16;
+
 	ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
 	PngChunk chunk;
 
@@ -41,6 +64,7 @@ final class PngEncoder extends Object {
 	int transparencyType;
 
 	int width, height, bitDepth, colorType;
+	int bytesPerPixel, bytesPerRow, level;
 
 	int compressionMethod = 0;
 	int filterMethod = 0;
@@ -70,6 +94,19 @@ public PngEncoder(ImageLoader loader) {
 
 	if (!(colorType == 2 || colorType == 3 || colorType == 6)) SWT.error(SWT.ERROR_INVALID_IMAGE);
 
+	this.bytesPerPixel = switch (colorType) {
+	case 3 -> 1;
+	case 6 -> 4;
+	default -> 3;
+	};
+	this.bytesPerRow = width * bytesPerPixel;
+	this.level = switch (loader.compression) {
+	case 0 -> NO_COMPRESSION;
+	case 1 -> BEST_SPEED;
+	case 3 -> BEST_COMPRESSION;
+	default -> DEFAULT_COMPRESSION;
+	};
+
 }
 
 void writeShort(ByteArrayOutputStream baos, int theShort) {
@@ -235,90 +272,394 @@ void writeTransparency() {
 
 void writeImageData() throws IOException {
 
-	ByteArrayOutputStream baos = new ByteArrayOutputStream(1024);
-	OutputStream os = new DeflaterOutputStream(baos, new Deflater(switch (loader.compression) {
-	case 0 -> NO_COMPRESSION;
-	case 1 -> BEST_SPEED;
-	case 3 -> BEST_COMPRESSION;
-	default -> DEFAULT_COMPRESSION;
-	}));
-
-	if (colorType == 3) {
+	boolean adaptive = useAdaptiveFilter();
+	byte[] idat;
+	long imageSize = (long) (bytesPerRow + 1) * height;
+	if (level != NO_COMPRESSION && imageSize >= PARALLEL_THRESHOLD && Runtime.getRuntime().availableProcessors() > 1) {
+		idat = deflateParallel(adaptive);
+	}
+	else {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream(1024);
+		OutputStream os = new DeflaterOutputStream(baos, new Deflater(level));
+		RowEncoder encoder = new RowEncoder(adaptive);
+		byte[] line = new byte[bytesPerRow + 1];
+		for (int y = 0; y < height; y++) {
+			encoder.encodeRow(y, line, 0);
+			os.write(line);
+		}
+		os.flush();
+		os.close();
+		idat = baos.toByteArray();
+	}
 
-		byte[] lineData = new byte[width];
+	writeChunk(TAG_IDAT, idat);
 
-		for (int y = 0; y < height; y++) {
+}
 
-			int filter = 0;
-			os.write(filter);
+/**
+ * Answer whether the rows should be filtered adaptively.
+ * <p>
+ * Adaptive filtering makes photographs considerably smaller, but
+ * images with large areas of flat color like screenshots often
+ * compress better unfiltered. Unless the loader asks for one of the two,
+ * a few bands of rows spread over the image are compressed both ways
+ * with the requested compression level and the smaller result wins.
+ * Palette images and uncompressed images are never filtered.
+ * </p>
+ */
+boolean useAdaptiveFilter() {
+
+	if (colorType == 3 || level == NO_COMPRESSION) return false;
+	switch (loader.pngFilter) {
+		case ImageLoader.PNG_FILTER_NONE: return false;
+		case ImageLoader.PNG_FILTER_ADAPTIVE: return true;
+	}
 
-			data.getPixels(0, y, width, lineData, 0);
+	RowEncoder noneEncoder = new RowEncoder(false);
+	RowEncoder adaptiveEncoder = new RowEncoder(true);
+	Deflater noneDeflater = new Deflater(level);
+	Deflater adaptiveDeflater = new Deflater(level);
+	byte[] line = new byte[bytesPerRow + 1];
+	byte[] buffer = new byte[8192];
+	long noneSize = 0, adaptiveSize = 0;
+	int blocks = height > SAMPLE_BLOCKS * SAMPLE_ROWS ? SAMPLE_BLOCKS : 1;
+	int rows = Math.min(height, SAMPLE_ROWS * SAMPLE_BLOCKS / blocks);
+	for (int block = 0; block < blocks; block++) {
+		int startRow = blocks == 1 ? 0 : (2 * block + 1) * height / (2 * blocks);
+		int endRow = Math.min(height, startRow + rows);
+		for (int y = startRow; y < endRow; y++) {
+			noneEncoder.encodeRow(y, line, 0);
+			noneSize += deflate(noneDeflater, line, buffer);
+			adaptiveEncoder.encodeRow(y, line, 0);
+			adaptiveSize += deflate(adaptiveDeflater, line, buffer);
+		}
+	}
+	noneDeflater.finish();
+	adaptiveDeflater.finish();
+	noneSize += deflate(noneDeflater, null, buffer);
+	adaptiveSize += deflate(adaptiveDeflater, null, buffer);
+	noneDeflater.end();
+	adaptiveDeflater.end();
+	return adaptiveSize < noneSize;
 
-			os.write(lineData);
+}
 
+/**
+ * Feed input to the deflater, or finish it when input is null, and
+ * answer the number of compressed bytes it produced. The output itself
+ * is discarded.
+ */
+static int deflate(Deflater deflater, byte[] input, byte[] buffer) {
+
+	int size = 0;
+	if (input != null) {
+		deflater.setInput(input);
+		while (!deflater.needsInput()) {
+			size += deflater.deflate(buffer);
 		}
+	}
+	else {
+		while (!deflater.finished()) {
+			size += deflater.deflate(buffer);
+		}
+	}
+	return size;
+
+}
+
+/**
+ * Compress the image data the way pigz does. The filtered rows are
+ * split into bands that are deflated concurrently, each band primed
+ * with the last 32K of the previous one as dictionary. All bands but
+ * the last end on a byte boundary with a sync flush, so their output
+ * concatenates into a single deflate stream.
+ */
+byte[] deflateParallel(boolean adaptive) {
+
+	int rowsPerBand = Math.max(1, BAND_SIZE / (bytesPerRow + 1));
+	int bandCount = (height + rowsPerBand - 1) / rowsPerBand;
+	byte[][] filtered = new byte[bandCount][];
+	byte[][] compressed = new byte[bandCount][];
+
+	List<Callable<Object>> tasks = new ArrayList<>(bandCount);
+	for (int i = 0; i < bandCount; i++) {
+		int band = i;
+		tasks.add(Executors.callable(() -> {
+			int startRow = band * rowsPerBand;
+			int endRow = Math.min(height, startRow + rowsPerBand);
+			byte[] buffer = new byte[(endRow - startRow) * (bytesPerRow + 1)];
+			RowEncoder encoder = new RowEncoder(adaptive);
+			for (int y = startRow, offset = 0; y < endRow; y++, offset += bytesPerRow + 1) {
+				encoder.encodeRow(y, buffer, offset);
+			}
+			filtered[band] = buffer;
+		}));
+	}
+	invokeAll(tasks);
+
+	tasks.clear();
+	for (int i = 0; i < bandCount; i++) {
+		int band = i;
+		tasks.add(Executors.callable(() -> {
+			Deflater deflater = new Deflater(level, true);
+			if (band > 0) {
+				byte[] previous = filtered[band - 1];
+				int length = Math.min(WINDOW_SIZE, previous.length);
+				deflater.setDictionary(previous, previous.length - length, length);
+			}
+			byte[] input = filtered[band];
+			ByteArrayOutputStream out = new ByteArrayOutputStream(input.length / 4 + 64);
+			byte[] buffer = new byte[8192];
+			deflater.setInput(input);
+			if (band == bandCount - 1) {
+				deflater.finish();
+				while (!deflater.finished()) {
+					int count = deflater.deflate(buffer);
+					out.write(buffer, 0, count);
+				}
+			}
+			else {
+				int count;
+				do {
+					count = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+					out.write(buffer, 0, count);
+				} while (count == buffer.length);
+			}
+			deflater.end();
+			compressed[band] = out.toByteArray();
+		}));
+	}
+	invokeAll(tasks);
 
+	ByteArrayOutputStream baos = new ByteArrayOutputStream(1024);
+	/* zlib header, see RFC 1950 */
+	int flevel = switch (level) {
+	case BEST_SPEED -> 0;
+	case BEST_COMPRESSION -> 3;
+	default -> 2;
+	};
+	int header = (0x78 << 8) | (flevel << 6);
+	header += 31 - header % 31;
+	writeShort(baos, header);
+	Adler32 adler = new Adler32();
+	for (int i = 0; i < bandCount; i++) {
+		baos.write(compressed[i], 0, compressed[i].length);
+		adler.update(filtered[i]);
 	}
+	writeInt(baos, (int) adler.getValue());
+	return baos.toByteArray();
 
-	else {
+}
 
-		int[] lineData = new int[width];
-		byte[] alphaData = null;
-		if (colorType == 6) {
-			alphaData = new byte[width];
+static void invokeAll(List<Callable<Object>> tasks) {
+
+	for (Future<Object> future : ForkJoinPool.commonPool().invokeAll(tasks)) {
+		try {
+			future.get();
+		}
+		catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException runtimeException) throw runtimeException;
+			if (e.getCause() instanceof Error error) throw error;
+			SWT.error(SWT.ERROR_IO, e.getCause());
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			SWT.error(SWT.ERROR_IO, e);
 		}
+	}
 
-		int redMask = data.palette.redMask;
-		int redShift = data.palette.redShift;
-		int greenMask = data.palette.greenMask;
-		int greenShift = data.palette.greenShift;
-		int blueShift = data.palette.blueShift;
-		int blueMask = data.palette.blueMask;
+}
 
-		byte[] lineBytes = new byte[width * (colorType == 6 ? 4 : 3)];
+/**
+ * Converts the rows of the image to PNG samples and filters them.
+ * With adaptive filtering, the filter of every row is chosen with the
+ * minimum sum of absolute differences heuristic recommended by the PNG
+ * specification, otherwise the rows are not filtered.
+ * <p>
+ * An instance is not thread safe, each thread uses its own.
+ * </p>
+ */
+final class RowEncoder {
+
+	boolean adaptive;
+	int[] lineData = new int[width];
+	byte[] alphas = colorType == 6 ? new byte[width] : null;
+	byte[] current = new byte[bytesPerRow];
+	byte[] previous = new byte[bytesPerRow];
+	int previousY = -1;
+
+RowEncoder(boolean adaptive) {
+	this.adaptive = adaptive;
+}
 
-		for (int y = 0; y < height; y++) {
+/**
+ * Write the filter type and the filtered samples of row y to
+ * output starting at offset.
+ */
+void encodeRow(int y, byte[] output, int offset) {
 
-			int filter = 0;
-			os.write(filter);
+	if (y > 0 && previousY != y - 1) {
+		getRow(y - 1, previous);
+	}
+	if (y == 0) {
+		Arrays.fill(previous, (byte) 0);
+	}
+	getRow(y, current);
+	byte[] above = previous;
 
-			data.getPixels(0, y, width, lineData, 0);
+	int filter = adaptive ? chooseFilter(current, above) : FILTER_NONE;
+	output[offset] = (byte) filter;
+	filterRow(filter, current, above, output, offset + 1);
 
-			if (colorType == 6) {
-				data.getAlphas(0, y, width, alphaData, 0);
-			}
+	byte[] temp = previous;
+	previous = current;
+	current = temp;
+	previousY = y;
 
-			int offset = 0;
-			for (int x = 0; x < lineData.length; x++) {
+}
 
-				int pixel = lineData[x];
+void getRow(int y, byte[] lineBytes) {
 
-				int r = pixel & redMask;
-				lineBytes[offset++] = (byte) ((redShift < 0) ? r >>> -redShift
-						: r << redShift);
-				int g = pixel & greenMask;
-				lineBytes[offset++] = (byte) ((greenShift < 0) ? g >>> -greenShift
-						: g << greenShift);
-				int b = pixel & blueMask;
-				lineBytes[offset++] = (byte) ((blueShift < 0) ? b >>> -blueShift
-						: b << blueShift);
+	if (colorType == 3) {
+		data.getPixels(0, y, width, lineBytes, 0);
+		return;
+	}
 
-				if (colorType == 6) {
-					lineBytes[offset++] = alphaData[x];
-				}
+	data.getPixels(0, y, width, lineData, 0);
 
-			}
+	if (colorType == 6) {
+		data.getAlphas(0, y, width, alphas, 0);
+	}
+
+	int redMask = data.palette.redMask;
+	int redShift = data.palette.redShift;
+	int greenMask = data.palette.greenMask;
+	int greenShift = data.palette.greenShift;
+	int blueShift = data.palette.blueShift;
+	int blueMask = data.palette.blueMask;
+
+	int offset = 0;
+	for (int x = 0; x < lineData.length; x++) {
 
-			os.write(lineBytes);
+		int pixel = lineData[x];
 
+		int r = pixel & redMask;
+		lineBytes[offset++] = (byte) ((redShift < 0) ? r >>> -redShift
+				: r << redShift);
+		int g = pixel & greenMask;
+		lineBytes[offset++] = (byte) ((greenShift < 0) ? g >>> -greenShift
+				: g << greenShift);
+		int b = pixel & blueMask;
+		lineBytes[offset++] = (byte) ((blueShift < 0) ? b >>> -blueShift
+				: b << blueShift);
+
+		if (colorType == 6) {
+			lineBytes[offset++] = alphas[x];
 		}
 
 	}
 
-	os.flush();
-	os.close();
+}
+
+}
+
+/**
+ * Answer the filter type for which the sum of the absolute values of
+ * the filtered row, taking the filtered bytes as signed values, is the
+ * smallest.
+ */
+int chooseFilter(byte[] row, byte[] above) {
+
+	int bpp = bytesPerPixel;
+	int noneSum = 0, subSum = 0, upSum = 0, averageSum = 0, paethSum = 0;
+	for (int i = 0; i < bpp; i++) {
+		int value = row[i] & 0xFF;
+		int up = above[i] & 0xFF;
+		noneSum += Math.abs((byte) value);
+		subSum += Math.abs((byte) value);
+		upSum += Math.abs((byte) (value - up));
+		averageSum += Math.abs((byte) (value - (up >> 1)));
+		paethSum += Math.abs((byte) (value - up));
+	}
+	for (int i = bpp; i < row.length; i++) {
+		int value = row[i] & 0xFF;
+		int left = row[i - bpp] & 0xFF;
+		int up = above[i] & 0xFF;
+		int upLeft = above[i - bpp] & 0xFF;
+		noneSum += Math.abs((byte) value);
+		subSum += Math.abs((byte) (value - left));
+		upSum += Math.abs((byte) (value - up));
+		averageSum += Math.abs((byte) (value - ((left + up) >> 1)));
+		paethSum += Math.abs((byte) (value - paeth(left, up, upLeft)));
+	}
+	int filter = FILTER_NONE, best = noneSum;
+	if (subSum < best) {
+		filter = FILTER_SUB;
+		best = subSum;
+	}
+	if (upSum < best) {
+		filter = FILTER_UP;
+		best = upSum;
+	}
+	if (averageSum < best) {
+		filter = FILTER_AVERAGE;
+		best = averageSum;
+	}
+	if (paethSum < best) {
+		filter = FILTER_PAETH;
+	}
+	return filter;
+
+}
+
+void filterRow(int type, byte[] row, byte[] above, byte[] output, int offset) {
+
+	int bpp = bytesPerPixel;
+	switch (type) {
+		case FILTER_SUB:
+			for (int i = 0; i < bpp; i++) {
+				output[offset + i] = row[i];
+			}
+			for (int i = bpp; i < row.length; i++) {
+				output[offset + i] = (byte) (row[i] - row[i - bpp]);
+			}
+			break;
+		case FILTER_UP:
+			for (int i = 0; i < row.length; i++) {
+				output[offset + i] = (byte) (row[i] - above[i]);
+			}
+			break;
+		case FILTER_AVERAGE:
+			for (int i = 0; i < bpp; i++) {
+				output[offset + i] = (byte) (row[i] - ((above[i] & 0xFF) >> 1));
+			}
+			for (int i = bpp; i < row.length; i++) {
+				output[offset + i] = (byte) (row[i] - (((row[i - bpp] & 0xFF) + (above[i] & 0xFF)) >> 1));
+			}
+			break;
+		case FILTER_PAETH:
+			for (int i = 0; i < bpp; i++) {
+				output[offset + i] = (byte) (row[i] - above[i]);
+			}
+			for (int i = bpp; i < row.length; i++) {
+				output[offset + i] = (byte) (row[i] - paeth(row[i - bpp] & 0xFF, above[i] & 0xFF, above[i - bpp] & 0xFF));
+			}
+			break;
+		default:
+			System.arraycopy(row, 0, output, offset, row.length);
+			break;
+	}
+
+}
+
+static int paeth(int left, int up, int upLeft) {
 
-	writeChunk(TAG_IDAT, baos.toByteArray());
+	/* written without branches, which the JIT compiles to conditional moves */
+	int pa = Math.abs(up - upLeft);
+	int pb = Math.abs(left - upLeft);
+	int pc = Math.abs(left + up - 2 * upLeft);
+	int nearest = pb <= pc ? up : upLeft;
+	return pa <= Math.min(pb, pc) ? left : nearest;
 
 }
 
@@ -14,6 +14,7 @@ package org.eclipse.swt.internal.image;
 
 import java.io.*;
 import java.nio.charset.*;
+import java.security.*;
 import java.util.*;
 
 import org.eclipse.swt.*;
@@ -34,6 +35,23 @@ public class SVGFileFormat extends FileFormat {
 	private static final SVGRasterizer RASTERIZER = ServiceLoader
 			.load(SVGRasterizer.class, SVGFileFormat.class.getClassLoader()).findFirst().orElse(null);
 
+	/**
+	 * The maximum total size of the SVG sources of the documents kept in
+	 * {@link #DOCUMENTS}, as the size of a parsed document grows with it.
+	 */
+	static final int DOCUMENT_CACHE_SIZE = 4 << 20;
+
+	/**
+	 * The recently parsed documents, so that rasterizing the same image at
+	 * another zoom does not parse it again, in the order they were used. The
+	 * documents are identified by a digest of their source, so that the
+	 * source itself is not kept. Access must be synchronized.
+	 */
+	static final Map<String, CachedDocument> DOCUMENTS = new LinkedHashMap<>(16, 0.75f, true);
+
+	/** The total size of the sources of the documents in {@link #DOCUMENTS}. */
+	static int documentsSize;
+
 	@Override
 	boolean isFileFormat(LEDataInputStream stream) throws IOException {
 		byte[] firstBytes = new byte[5];
@@ -52,7 +70,15 @@ public class SVGFileFormat extends FileFormat {
 			SWT.error(SWT.ERROR_INVALID_ARGUMENT, null, " [Cannot rasterize SVG for zoom <= 0]");
 		}
 		try {
-			ImageData rasterizedImageData = RASTERIZER.rasterizeSVG(inputStream, 100 * targetZoom / fileZoom);
+			byte[] source = inputStream.readAllBytes();
+			int zoom = 100 * targetZoom / fileZoom;
+			ImageCache cache = ImageCache.getDefault();
+			String key = cache != null ? ImageCache.key(source, "svg:" + RASTERIZER.getClass().getName(), zoom) : null;
+			ImageData rasterizedImageData = key != null ? cache.get(key) : null;
+			if (rasterizedImageData == null) {
+				rasterizedImageData = getDocument(source).rasterize(zoom);
+				if (key != null) cache.put(key, rasterizedImageData);
+			}
 			return List.of(new ElementAtZoom<>(rasterizedImageData, targetZoom));
 		} catch (IOException e) {
 			SWT.error(SWT.ERROR_INVALID_IMAGE, e);
@@ -60,6 +86,49 @@ public class SVGFileFormat extends FileFormat {
 		}
 	}
 
+	/**
+	 * Answers the parsed document for the given SVG source, reusing the one
+	 * from an earlier load of the same bytes if it is still cached.
+	 */
+	static SVGRasterizer.Document getDocument(byte[] source) throws IOException {
+		String key = documentKey(source);
+		synchronized (DOCUMENTS) {
+			CachedDocument cached = DOCUMENTS.get(key);
+			if (cached != null) return cached.document();
+		}
+		SVGRasterizer.Document document = RASTERIZER.parseSVG(new ByteArrayInputStream(source));
+		if (source.length > DOCUMENT_CACHE_SIZE) return document;
+		synchronized (DOCUMENTS) {
+			CachedDocument replaced = DOCUMENTS.put(key, new CachedDocument(document, source.length));
+			if (replaced != null) documentsSize -= replaced.size();
+			documentsSize += source.length;
+			Iterator<CachedDocument> iterator = DOCUMENTS.values().iterator();
+			while (documentsSize > DOCUMENT_CACHE_SIZE) {
+				documentsSize -= iterator.next().size();
+				iterator.remove();
+			}
+		}
+		return document;
+	}
+
+	/**
+	 * Answers the key of the given SVG source in {@link #DOCUMENTS}, a SHA-256
+	 * digest of its bytes.
+	 */
+	static String documentKey(byte[] source) {
+		try {
+			return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(source));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * A parsed document and the size of its SVG source.
+	 */
+	record CachedDocument(SVGRasterizer.Document document, int size) {
+	}
+
 	@Override
 	void unloadIntoByteStream(ImageLoader loader) {
 		throw new UnsupportedOperationException();
@@ -14,6 +14,7 @@ package org.eclipse.swt.internal.image;
 
 import java.io.*;
 
+import org.eclipse.swt.*;
 import org.eclipse.swt.graphics.*;
 
 /**
@@ -32,4 +33,42 @@ public interface SVGRasterizer {
 	 *         the input is not a valid SVG file or cannot be processed.
 	 */
 	public ImageData rasterizeSVG(InputStream stream, int zoom) throws IOException;
+
+	/**
+	 * Parses an SVG image from the provided {@code InputStream} into a document
+	 * that can be rasterized at several zooms without parsing it again.
+	 * <p>
+	 * The default implementation keeps the bytes of the stream and passes them
+	 * to {@link #rasterizeSVG(InputStream, int)} for every rasterization.
+	 * </p>
+	 *
+	 * @param stream the SVG image as an {@link InputStream}.
+	 * @return the parsed document, never {@code null}.
+	 * @throws IOException if the stream cannot be read.
+	 */
+	public default Document parseSVG(InputStream stream) throws IOException {
+		byte[] bytes = stream.readAllBytes();
+		return zoom -> {
+			try {
+				return rasterizeSVG(new ByteArrayInputStream(bytes), zoom);
+			} catch (IOException e) {
+				SWT.error(SWT.ERROR_INVALID_IMAGE, e);
+				return null;
+			}
+		};
+	}
+
+	/**
+	 * A parsed SVG image. Documents may be shared between threads.
+	 */
+	public interface Document {
+		/**
+		 * Rasterizes the document using the specified zoom.
+		 *
+		 * @param zoom the scaling factor (in percent) e.g. {@code 200} for
+		 *             doubled size. This value must be greater zero.
+		 * @return the {@link ImageData} for the rasterized image.
+		 */
+		public ImageData rasterize(int zoom);
+	}
 }
@@ -33,6 +33,12 @@ public TIFFRandomFileAccess(LEDataInputStream stream) {
 void seek(int pos) throws IOException {
 	if (pos == current) return;
 	if (pos < start) throw new IOException();
+	if (inputStream.canSeek()) {
+		/* Random access input, no need to cache anything */
+		inputStream.seek(pos);
+		current = pos;
+		return;
+	}
 	current = pos;
 	if (current > next) {
 		int n = current - next;
@@ -57,6 +63,11 @@ void seek(int pos) throws IOException {
 
 void read(byte b[]) throws IOException {
 	int size = b.length;
+	if (inputStream.canSeek()) {
+		if (inputStream.read(b) != size) throw new EOFException();
+		current += size;
+		return;
+	}
 	int nCached = Math.min(size, next - current);
 	int nMissing = size - next + current;
 	int destNext = 0;
@@ -129,6 +129,14 @@ ImageData[] loadFromByteStream() {
  * Load one icon from the byte stream.
  */
 ImageData loadIcon(int[] iconHeader) {
+	if (inputStream.canSeek()) {
+		/* Go straight to the image, the icons may be stored in any order */
+		try {
+			inputStream.seek(iconHeader[6]);
+		} catch (IOException e) {
+			SWT.error(SWT.ERROR_INVALID_IMAGE, e);
+		}
+	}
 	try {
 		StaticImageFileFormat png = new PNGFileFormat();
 		if (png.isFileFormat(inputStream)) {
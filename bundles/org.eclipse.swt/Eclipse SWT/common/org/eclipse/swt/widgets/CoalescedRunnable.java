@@ -0,0 +1,55 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.widgets;
+
+import java.util.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Instances of this class hold the latest runnable posted
+ * with a key by <code>Synchronizer.asyncExecCoalesced(Object, Runnable)</code>
+ * until the user-interface thread runs it.
+ */
+class CoalescedRunnable implements Runnable {
+	final Map<Object, CoalescedRunnable> pending;
+	final Object key;
+	final AtomicReference<Runnable> runnable;
+
+CoalescedRunnable (Map<Object, CoalescedRunnable> pending, Object key, Runnable runnable) {
+	this.pending = pending;
+	this.key = key;
+	this.runnable = new AtomicReference<> (runnable);
+}
+
+/**
+ * Replaces the runnable, unless it has started to run.
+ *
+ * @return <code>true</code> if the runnable was replaced, and <code>false</code> otherwise
+ */
+boolean replace (Runnable newRunnable) {
+	for (;;) {
+		Runnable current = runnable.get ();
+		if (current == null) return false;
+		if (runnable.compareAndSet (current, newRunnable)) return true;
+	}
+}
+
+@Override
+public void run () {
+	Runnable current = runnable.getAndSet (null);
+	pending.remove (key, this);
+	if (current != null) current.run ();
+}
+
+}
@@ -0,0 +1,264 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.widgets;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.function.*;
+
+import org.eclipse.swt.*;
+
+/**
+ * Instances of this class measure where the user-interface thread
+ * of a display spends its time. A monitor is installed with
+ * <code>Display.setEventLoopMonitor(EventLoopMonitor)</code>, and
+ * records the distribution of:
+ * <ul>
+ * <li>the duration of each call to <code>Display.readAndDispatch()</code></li>
+ * <li>the time runnables of <code>Display.asyncExec(Runnable)</code> wait
+ * in the queue until they are run</li>
+ * <li>the time <code>Display.syncExec(Runnable)</code> blocks the calling thread</li>
+ * <li>how late the runnables of <code>Display.timerExec(int, Runnable)</code> are run</li>
+ * <li>the time spent in the listeners of each event type, including the
+ * events sent by these listeners</li>
+ * </ul>
+ * Recording does not allocate memory, so a monitor can stay installed
+ * in production. The histograms can be read at any time from any thread,
+ * e.g. to publish them through JMX.
+ * <p>
+ * In addition, a monitor can report stalls: when a call to
+ * <code>readAndDispatch()</code> runs longer than a threshold, a watchdog
+ * thread passes the stack of the user-interface thread to a handler.
+ * </p>
+ *
+ * @see Display#setEventLoopMonitor(EventLoopMonitor)
+ * @see LatencyHistogram
+ * @since 3.131
+ */
+public class EventLoopMonitor {
+	final LatencyHistogram dispatch = new LatencyHistogram ();
+	final LatencyHistogram asyncExec = new LatencyHistogram ();
+	final LatencyHistogram syncExec = new LatencyHistogram ();
+	final LatencyHistogram timerExec = new LatencyHistogram ();
+	final AtomicReferenceArray<LatencyHistogram> listeners = new AtomicReferenceArray<> (EVENT_TYPE_COUNT);
+	final AtomicLong stalls = new AtomicLong ();
+
+	/* The start of the innermost running readAndDispatch(), or 0 */
+	volatile long dispatchStart;
+	volatile Thread thread;
+	int depth;
+
+	Consumer<StackTraceElement []> stallHandler;
+	long stallNanos;
+	Thread watchdog;
+
+	static final int EVENT_TYPE_COUNT = 64;
+
+/**
+ * Constructs a new instance of this class.
+ */
+public EventLoopMonitor () {
+}
+
+long dispatchStarted () {
+	long now = System.nanoTime ();
+	thread = Thread.currentThread ();
+	depth++;
+	dispatchStart = now;
+	return now;
+}
+
+void dispatchEnded (long start) {
+	long now = System.nanoTime ();
+	dispatch.record (now - start);
+	/*
+	* When a nested event loop returns, the dispatch that ran it
+	* continues. Watch the rest of it as a new dispatch.
+	*/
+	dispatchStart = --depth > 0 ? now : 0;
+}
+
+void listenerEnded (int eventType, long start) {
+	long nanos = System.nanoTime () - start;
+	if (eventType < 0 || eventType >= EVENT_TYPE_COUNT) return;
+	LatencyHistogram histogram = listeners.get (eventType);
+	if (histogram == null) {
+		// once for each event type
+		listeners.compareAndSet (eventType, null, new LatencyHistogram ());
+		histogram = listeners.get (eventType);
+	}
+	histogram.record (nanos);
+}
+
+/**
+ * Returns the histogram of the durations of the calls to
+ * <code>Display.readAndDispatch()</code>. A nested event loop
+ * is part of the call that runs it.
+ *
+ * @return the histogram of the calls to <code>readAndDispatch()</code>
+ */
+public LatencyHistogram getDispatchHistogram () {
+	return dispatch;
+}
+
+/**
+ * Returns the histogram of the times the runnables of
+ * <code>Display.asyncExec(Runnable)</code> waited in the queue,
+ * from being posted until they started to run.
+ *
+ * @return the histogram of the waiting times of asynchronous runnables
+ */
+public LatencyHistogram getAsyncExecHistogram () {
+	return asyncExec;
+}
+
+/**
+ * Returns the histogram of the times <code>Display.syncExec(Runnable)</code>
+ * blocked a thread other than the user-interface thread, from posting the
+ * runnable until it had run.
+ *
+ * @return the histogram of the round trips of synchronous runnables
+ */
+public LatencyHistogram getSyncExecHistogram () {
+	return syncExec;
+}
+
+/**
+ * Returns the histogram of how late the runnables of
+ * <code>Display.timerExec(int, Runnable)</code> started to run,
+ * compared to the time they were scheduled for.
+ *
+ * @return the histogram of the lateness of timers
+ */
+public LatencyHistogram getTimerExecHistogram () {
+	return timerExec;
+}
+
+/**
+ * Returns the histogram of the time spent in each listener that
+ * was sent an event of the given type, or <code>null</code> if no
+ * such event was sent yet. The time includes the events sent and
+ * dispatched by the listener.
+ *
+ * @param eventType the type of event, e.g. <code>SWT.Paint</code>
+ * @return the histogram of the listeners of the event type, or <code>null</code>
+ *
+ * @see SWT
+ */
+public LatencyHistogram getListenerHistogram (int eventType) {
+	if (eventType < 0 || eventType >= EVENT_TYPE_COUNT) return null;
+	return listeners.get (eventType);
+}
+
+/**
+ * Returns the number of stalls that were reported to the stall handler.
+ *
+ * @return the number of stalls
+ *
+ * @see #setStallHandler(int, Consumer)
+ */
+public long getStallCount () {
+	return stalls.get ();
+}
+
+/**
+ * Discards the measurements of all histograms and the stall count.
+ */
+public void reset () {
+	dispatch.reset ();
+	asyncExec.reset ();
+	syncExec.reset ();
+	timerExec.reset ();
+	for (int i = 0; i < EVENT_TYPE_COUNT; i++) {
+		LatencyHistogram histogram = listeners.get (i);
+		if (histogram != null) histogram.reset ();
+	}
+	stalls.set (0);
+}
+
+/**
+ * Sets the handler that is told about stalls of the user-interface thread.
+ * When a call to <code>Display.readAndDispatch()</code> has been running
+ * for the given time, the handler is called with the stack of the
+ * user-interface thread at that moment, once for each such call.
+ * <p>
+ * The handler is called on a watchdog thread that the monitor starts
+ * for it, and that ends when the handler is set to <code>null</code>.
+ * The handler must not block, and must not access widgets.
+ * </p>
+ *
+ * @param milliseconds the duration of a dispatch that is reported as a stall
+ * @param handler the handler to call, or <code>null</code> to stop reporting stalls
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_INVALID_ARGUMENT - if the handler is not null and the duration is not positive</li>
+ * </ul>
+ */
+public synchronized void setStallHandler (int milliseconds, Consumer<StackTraceElement []> handler) {
+	if (handler != null && milliseconds <= 0) SWT.error (SWT.ERROR_INVALID_ARGUMENT);
+	stallHandler = handler;
+	stallNanos = TimeUnit.MILLISECONDS.toNanos (milliseconds);
+	if (handler == null) {
+		if (watchdog != null) watchdog.interrupt ();
+		watchdog = null;
+		return;
+	}
+	if (watchdog == null) {
+		watchdog = new Thread (this::watch, "SWT Event Loop Watchdog");
+		watchdog.setDaemon (true);
+		watchdog.start ();
+	}
+	notifyAll ();
+}
+
+void watch () {
+	long reported = 0;
+	for (;;) {
+		Consumer<StackTraceElement []> handler;
+		long threshold;
+		synchronized (this) {
+			if (watchdog != Thread.currentThread ()) return;
+			handler = stallHandler;
+			threshold = stallNanos;
+		}
+		long start = dispatchStart;
+		long now = System.nanoTime ();
+		long wait = threshold;
+		if (start != 0 && start != reported) {
+			long elapsed = now - start;
+			if (elapsed >= threshold) {
+				reported = start;
+				Thread thread = this.thread;
+				// the stack is only valid if the dispatch is still running
+				StackTraceElement [] stack = thread != null ? thread.getStackTrace () : new StackTraceElement [0];
+				if (dispatchStart == start) {
+					stalls.incrementAndGet ();
+					handler.accept (stack);
+				}
+			} else {
+				wait = threshold - elapsed;
+			}
+		}
+		synchronized (this) {
+			if (watchdog != Thread.currentThread ()) return;
+			try {
+				TimeUnit.NANOSECONDS.timedWait (this, Math.max (wait / 2, TimeUnit.MILLISECONDS.toNanos (1)));
+			} catch (InterruptedException e) {
+				// stopped by setStallHandler()
+			}
+		}
+	}
+}
+
+}
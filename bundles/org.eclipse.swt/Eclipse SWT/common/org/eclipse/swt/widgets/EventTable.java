@@ -81,16 +81,21 @@ public boolean hooks (int eventType) {
 public void sendEvent (Event event) {
 	if (types == null) return;
 	level += level >= 0 ? 1 : -1;
+	EventLoopMonitor monitor = event.display != null ? event.display.monitor : null;
 	try (ExceptionStash exceptions = new ExceptionStash ()) {
 		for (int i=0; i<types.length; i++) {
 			if (event.type == SWT.None) return;
 			if (types [i] == event.type) {
 				Listener listener = listeners [i];
 				if (listener != null) {
+					int type = event.type;
+					long start = monitor != null ? System.nanoTime () : 0;
 					try {
 						listener.handleEvent (event);
 					} catch (Error | RuntimeException ex) {
 						exceptions.stash (ex);
+					} finally {
+						if (monitor != null) monitor.listenerEnded (type, start);
 					}
 				}
 			}
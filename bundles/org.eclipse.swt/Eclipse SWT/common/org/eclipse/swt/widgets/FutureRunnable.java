@@ -0,0 +1,44 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.widgets;
+
+import java.util.concurrent.*;
+import java.util.function.*;
+
+/**
+ * Instances of this class complete a future with the result
+ * of a supplier when they are run by the user-interface thread.
+ *
+ * @see Display#supplyAsync(Supplier)
+ */
+class FutureRunnable<T> implements Runnable {
+	final Supplier<T> supplier;
+	final CompletableFuture<T> future = new CompletableFuture<> ();
+
+FutureRunnable (Supplier<T> supplier) {
+	this.supplier = supplier;
+}
+
+@Override
+public void run () {
+	// the caller may have cancelled the future
+	if (future.isDone ()) return;
+	try {
+		future.complete (supplier.get ());
+	} catch (Throwable t) {
+		future.completeExceptionally (t);
+	}
+}
+
+}
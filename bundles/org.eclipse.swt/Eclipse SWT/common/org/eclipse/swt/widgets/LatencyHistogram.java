@@ -0,0 +1,150 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.widgets;
+
+import java.util.concurrent.atomic.*;
+
+import org.eclipse.swt.*;
+
+/**
+ * Instances of this class record the distribution of durations
+ * measured by an <code>EventLoopMonitor</code>.
+ * <p>
+ * The durations are counted in buckets whose width grows with the
+ * duration, so that each bucket is at most 1/8 of its lower bound
+ * wide. Values returned by this class are therefore exact up to
+ * 8 nanoseconds, and within 12.5% above that. Recording a duration
+ * does not allocate memory, and may happen on any thread.
+ * </p>
+ * <p>
+ * All durations are in nanoseconds.
+ * </p>
+ *
+ * @see EventLoopMonitor
+ * @since 3.131
+ * @noinstantiate This class is not intended to be instantiated by clients.
+ * @noextend This class is not intended to be subclassed by clients.
+ */
+public final class LatencyHistogram {
+	final AtomicLongArray counts = new AtomicLongArray (BUCKET_COUNT);
+	final AtomicLong count = new AtomicLong ();
+	final AtomicLong total = new AtomicLong ();
+	final AtomicLong max = new AtomicLong ();
+
+	/* 8 sub-buckets for each power of 2, up to 2^40 ns (about 18 minutes) */
+	static final int SUB_BUCKET_BITS = 3;
+	static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	static final int MAX_EXPONENT = 40;
+	static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+LatencyHistogram () {
+}
+
+static int bucketIndex (long value) {
+	if (value < SUB_BUCKETS) return (int) value;
+	int exponent = 63 - Long.numberOfLeadingZeros (value);
+	if (exponent > MAX_EXPONENT) return BUCKET_COUNT - 1;
+	int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+	return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+}
+
+static long bucketLowerBound (int index) {
+	if (index < SUB_BUCKETS) return index;
+	int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+	return (long) (SUB_BUCKETS + index % SUB_BUCKETS) << (exponent - SUB_BUCKET_BITS);
+}
+
+/**
+ * Returns the number of recorded durations.
+ *
+ * @return the number of recorded durations
+ */
+public long getCount () {
+	return count.get ();
+}
+
+/**
+ * Returns the longest recorded duration, or 0 if none was recorded.
+ *
+ * @return the longest recorded duration in nanoseconds
+ */
+public long getMax () {
+	return max.get ();
+}
+
+/**
+ * Returns the average of the recorded durations, or 0 if none was recorded.
+ *
+ * @return the average duration in nanoseconds
+ */
+public long getMean () {
+	long n = count.get ();
+	return n == 0 ? 0 : total.get () / n;
+}
+
+/**
+ * Returns the duration that the given percentage of the recorded
+ * durations do not exceed, e.g. <code>getValueAtPercentile(99)</code>
+ * is the 99th percentile. The result is the upper bound of the bucket
+ * that contains the percentile, but never more than <code>getMax()</code>.
+ *
+ * @param percentile the percentile, from 0 to 100
+ * @return the duration at the percentile in nanoseconds, or 0 if none was recorded
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_INVALID_ARGUMENT - if the percentile is not between 0 and 100</li>
+ * </ul>
+ */
+public long getValueAtPercentile (double percentile) {
+	if (!(0 <= percentile && percentile <= 100)) SWT.error (SWT.ERROR_INVALID_ARGUMENT);
+	long n = 0;
+	long [] snapshot = new long [BUCKET_COUNT];
+	for (int i = 0; i < BUCKET_COUNT; i++) {
+		snapshot [i] = counts.get (i);
+		n += snapshot [i];
+	}
+	if (n == 0) return 0;
+	long rank = Math.max (1, (long) Math.ceil (percentile / 100 * n));
+	long seen = 0;
+	for (int i = 0; i < BUCKET_COUNT; i++) {
+		seen += snapshot [i];
+		if (seen >= rank) {
+			long upper = i + 1 < BUCKET_COUNT ? bucketLowerBound (i + 1) - 1 : Long.MAX_VALUE;
+			return Math.min (upper, max.get ());
+		}
+	}
+	return max.get ();
+}
+
+void record (long nanos) {
+	if (nanos < 0) nanos = 0;
+	counts.incrementAndGet (bucketIndex (nanos));
+	count.incrementAndGet ();
+	total.addAndGet (nanos);
+	max.accumulateAndGet (nanos, Math::max);
+}
+
+/**
+ * Discards all recorded durations.
+ */
+public void reset () {
+	for (int i = 0; i < BUCKET_COUNT; i++) {
+		counts.set (i, 0);
+	}
+	count.set (0);
+	total.set (0);
+	max.set (0);
+}
+
+}
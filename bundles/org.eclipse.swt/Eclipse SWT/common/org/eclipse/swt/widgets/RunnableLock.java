@@ -13,6 +13,7 @@
  *******************************************************************************/
 package org.eclipse.swt.widgets;
 
+import java.util.concurrent.locks.*;
 
 /**
  * Instances of this class are used to ensure that an
@@ -25,13 +26,34 @@ class RunnableLock {
 	Runnable runnable;
 	Thread thread;
 	Throwable throwable;
+	int lane;
+	/* When the lock was posted, only measured by an EventLoopMonitor */
+	long time;
+	volatile boolean finished;
 
 RunnableLock (Runnable runnable) {
 	this.runnable = runnable;
 }
 
-boolean done () {
-	return runnable == null || throwable != null;
+/*
+ * Waits with LockSupport rather than with Object.wait(), so that
+ * a virtual thread waiting in syncExec() does not pin its carrier.
+ */
+void await () {
+	boolean interrupted = false;
+	while (!finished) {
+		LockSupport.park (this);
+		if (Thread.interrupted ()) interrupted = true;
+	}
+	if (interrupted) {
+		Thread.currentThread ().interrupt ();
+	}
+}
+
+void finish (Throwable throwable) {
+	this.throwable = throwable;
+	finished = true;
+	if (thread != null) LockSupport.unpark (thread);
 }
 
 void run (Display display) {
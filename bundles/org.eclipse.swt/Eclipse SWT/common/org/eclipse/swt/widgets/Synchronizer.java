@@ -17,7 +17,6 @@ import java.util.*;
 import java.util.concurrent.*;
 
 import org.eclipse.swt.*;
-import org.eclipse.swt.graphics.*;
 
 /**
  * Instances of this class provide synchronization support
@@ -38,12 +37,33 @@ import org.eclipse.swt.graphics.*;
  * @see <a href="http://www.eclipse.org/swt/">Sample code and further information</a>
  */
 public class Synchronizer {
-	Display display;
+	volatile Display display;
 	final ConcurrentLinkedQueue<RunnableLock>  messages= new ConcurrentLinkedQueue<>();
+	final ConcurrentLinkedQueue<RunnableLock> interactiveMessages = new ConcurrentLinkedQueue<>();
+	final ConcurrentLinkedQueue<RunnableLock> backgroundMessages = new ConcurrentLinkedQueue<>();
+	final ConcurrentHashMap<Object, CoalescedRunnable> coalesced = new ConcurrentHashMap<>();
 	Thread syncThread;
+	int batchCount = 1;
+	long batchNanos;
+	int turn;
+	boolean backgroundDue;
 	static final int GROW_SIZE = 4;
 	static final int MESSAGE_LIMIT = 64;
 
+	/* Lanes of the message queue */
+	static final int LANE_NORMAL = 0;
+	static final int LANE_INTERACTIVE = 1;
+	static final int LANE_BACKGROUND = 2;
+	static final int LANE_COUNT = 3;
+
+	/*
+	 * The lane that is served first in each turn. A lane that is
+	 * empty in its turn passes it on to the others, interactive first.
+	 * This runs interactive, normal and background messages at a rate
+	 * of 4:2:1 when all lanes are busy, so none of them starves.
+	 */
+	static final int [] LANE_SCHEDULE = {LANE_INTERACTIVE, LANE_NORMAL, LANE_INTERACTIVE, LANE_BACKGROUND, LANE_INTERACTIVE, LANE_NORMAL, LANE_INTERACTIVE};
+
 	//TEMPORARY CODE
 	static final boolean IS_COCOA = "cocoa".equals (SWT.getPlatform ());
 	static final boolean IS_GTK = "gtk".equals (SWT.getPlatform ());
@@ -66,16 +86,49 @@ public Synchronizer (Display display) {
 void moveAllEventsTo (Synchronizer toReceiveTheEvents) {
 	// Drain target queue and add it later again to insert at the beginning of the
 	// queue for backward compatibility:
-	java.util.List<RunnableLock> tail = new ArrayList<>();
-	toReceiveTheEvents.messages.removeIf(tail::add);
-	messages.removeIf(toReceiveTheEvents.messages::add);
-	toReceiveTheEvents.messages.addAll(tail);
+	for (int i = 0; i < LANE_COUNT; i++) {
+		ConcurrentLinkedQueue<RunnableLock> source = getLane (i), target = toReceiveTheEvents.getLane (i);
+		java.util.List<RunnableLock> tail = new ArrayList<>();
+		target.removeIf(tail::add);
+		// poll rather than removeIf, a thread that posted to this synchronizer
+		// after it was replaced may be moving the events concurrently (see addLast)
+		RunnableLock lock;
+		while ((lock = source.poll()) != null) {
+			target.add(lock);
+		}
+		target.addAll(tail);
+	}
 }
 
-
+/*
+ * Posting does not take any lock. Races with the display being disposed
+ * or the synchronizer being replaced are detected by checking the state
+ * after the message was added: either the message is run (or moved to the
+ * new synchronizer), or the poster gets ERROR_DEVICE_DISPOSED.
+ */
 void addLast (RunnableLock lock) {
-	boolean wake = messages.isEmpty();
-	messages.add(lock);
+	ConcurrentLinkedQueue<RunnableLock> lane = getLane (lock.lane);
+	Display display = this.display;
+	if (display != null && display.monitor != null && lock.time == 0) lock.time = System.nanoTime ();
+	boolean wake = isMessagesEmpty();
+	lane.add(lock);
+	display = this.display;
+	if (display == null) {
+		// released concurrently, unless releaseSynchronizer() took the message it is not run
+		if (lane.remove(lock)) SWT.error (SWT.ERROR_DEVICE_DISPOSED);
+		return;
+	}
+	Synchronizer synchronizer = display.synchronizer;
+	if (synchronizer != this && synchronizer != null) {
+		// replaced concurrently by Display.setSynchronizer()
+		for (int i = 0; i < LANE_COUNT; i++) {
+			RunnableLock next;
+			while ((next = getLane (i).poll()) != null) {
+				synchronizer.addLast (next);
+			}
+		}
+		return;
+	}
 	if (wake) display.wakeThread ();
 }
 
@@ -101,18 +154,186 @@ protected void asyncExec (Runnable runnable) {
 	addLast (new RunnableLock (runnable));
 }
 
+/**
+ * Causes the <code>run()</code> method of the runnable to
+ * be invoked by the user-interface thread at the next
+ * reasonable opportunity for work of the given priority.
+ * The caller of this method continues to run in parallel,
+ * and is not notified when the runnable has completed.
+ * <p>
+ * The priority is one of:
+ * <dl>
+ * <dt><code>SWT.HIGH</code></dt>
+ * <dd>interactive work that the user waits for, such as a selection update</dd>
+ * <dt><code>SWT.NORMAL</code></dt>
+ * <dd>the same as <code>asyncExec(Runnable)</code></dd>
+ * <dt><code>SWT.LOW</code></dt>
+ * <dd>background work, such as refreshes after a change in the model</dd>
+ * </dl>
+ * Runnables of a higher priority are generally run first, but the
+ * user-interface thread keeps running some runnables of a lower priority
+ * when there are always runnables of a higher one. Background work is
+ * only run when the display has no events to dispatch. The runnables
+ * of <code>syncExec(Runnable)</code> are run as interactive work.
+ * </p>
+ *
+ * @param priority the priority of the runnable
+ * @param runnable code to run on the user-interface thread
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the runnable is null</li>
+ *    <li>ERROR_INVALID_ARGUMENT - if the priority is not one of <code>SWT.HIGH</code>, <code>SWT.NORMAL</code> or <code>SWT.LOW</code></li>
+ * </ul>
+ *
+ * @see #asyncExec(Runnable)
+ *
+ * @since 3.131
+ */
+protected void asyncExec (int priority, Runnable runnable) {
+	if (runnable == null) SWT.error (SWT.ERROR_NULL_ARGUMENT);
+	RunnableLock lock = new RunnableLock (runnable);
+	switch (priority) {
+		case SWT.HIGH: lock.lane = LANE_INTERACTIVE; break;
+		case SWT.NORMAL: asyncExec (runnable); return;
+		case SWT.LOW: lock.lane = LANE_BACKGROUND; break;
+		default: SWT.error (SWT.ERROR_INVALID_ARGUMENT);
+	}
+	addLast (lock);
+}
+
+/**
+ * Causes the <code>run()</code> method of the runnable to
+ * be invoked by the user-interface thread at the next
+ * reasonable opportunity, unless it is replaced before.
+ * A runnable posted with this method replaces the runnable
+ * of a previous call with an equal key that has not started
+ * to run yet, and is run in its place in the queue. This is
+ * useful for updates of which only the latest one matters,
+ * such as progress. The caller of this method continues
+ * to run in parallel, and is not notified when the
+ * runnable has completed.
+ *
+ * @param key the key identifying the runnables that replace each other
+ * @param runnable code to run on the user-interface thread.
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the key or the runnable is null</li>
+ * </ul>
+ *
+ * @see #asyncExec(Runnable)
+ *
+ * @since 3.131
+ */
+protected void asyncExecCoalesced (Object key, Runnable runnable) {
+	if (key == null || runnable == null) SWT.error (SWT.ERROR_NULL_ARGUMENT);
+	for (;;) {
+		CoalescedRunnable pending = coalesced.get (key);
+		if (pending == null) {
+			pending = new CoalescedRunnable (coalesced, key, runnable);
+			if (coalesced.putIfAbsent (key, pending) == null) {
+				asyncExec (pending);
+				return;
+			}
+		} else if (pending.replace (runnable)) {
+			return;
+		} else {
+			// it has started to run, post a new one
+			coalesced.remove (key, pending);
+		}
+	}
+}
+
+/**
+ * Sets how many asynchronous runnables the user-interface thread
+ * runs at once. By default, each call to <code>Display.readAndDispatch()</code>
+ * that does not find an event to dispatch runs one runnable. With a
+ * larger batch, it runs up to <code>count</code> queued runnables, and
+ * stops starting new ones after <code>milliseconds</code>. The runnables
+ * of a batch share one pair of <code>SWT.PreEvent</code> and
+ * <code>SWT.PostEvent</code> events.
+ *
+ * @param count the maximum number of runnables to run at once
+ * @param milliseconds the time after which no further runnable of a batch
+ * 	is started, or 0 for no time limit
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_INVALID_ARGUMENT - if the count is less than 1 or the time is negative</li>
+ * </ul>
+ *
+ * @since 3.131
+ */
+public void setBatchLimits (int count, int milliseconds) {
+	if (count < 1 || milliseconds < 0) SWT.error (SWT.ERROR_INVALID_ARGUMENT);
+	batchCount = count;
+	batchNanos = TimeUnit.MILLISECONDS.toNanos (milliseconds);
+}
+
+ConcurrentLinkedQueue<RunnableLock> getLane (int lane) {
+	switch (lane) {
+		case LANE_INTERACTIVE: return interactiveMessages;
+		case LANE_BACKGROUND: return backgroundMessages;
+		default: return messages;
+	}
+}
+
 boolean isMessagesEmpty() {
-	return messages.isEmpty();
+	return messages.isEmpty() && interactiveMessages.isEmpty() && backgroundMessages.isEmpty();
+}
+
+/*
+ * Answers whether there are messages that are run without waiting
+ * for the display to be idle, see runAsyncMessages(boolean, boolean).
+ */
+boolean isForegroundMessagesEmpty() {
+	return messages.isEmpty() && interactiveMessages.isEmpty();
 }
 
 void releaseSynchronizer () {
 	display = null;
-	messages.clear();
+	/*
+	 * Messages posted concurrently with the disposal are not run. Do not
+	 * leave the threads waiting for them in syncExec() blocked forever.
+	 */
+	for (int i = 0; i < LANE_COUNT; i++) {
+		RunnableLock lock;
+		while ((lock = getLane (i).poll()) != null) {
+			if (lock.thread != null) {
+				lock.finish (new SWTException (SWT.ERROR_DEVICE_DISPOSED));
+			} else if (lock.runnable instanceof FutureRunnable<?> task) {
+				task.future.completeExceptionally (new SWTException (SWT.ERROR_DEVICE_DISPOSED));
+			}
+		}
+	}
+	coalesced.clear ();
 	syncThread = null;
 }
 
-RunnableLock removeFirst () {
-	return messages.poll();
+/*
+ * Background messages are only taken when the display is idle, and
+ * only for the first message of a batch.
+ * A batch that passes the turn of the background lane keeps it for
+ * the start of the next drain, so that the lane is not skipped by
+ * every batch when the batch size is a multiple of the schedule.
+ */
+RunnableLock removeFirst (boolean background) {
+	int lane;
+	if (background && backgroundDue) {
+		lane = LANE_BACKGROUND;
+	} else {
+		lane = LANE_SCHEDULE [turn];
+		turn = (turn + 1) % LANE_SCHEDULE.length;
+		if (lane == LANE_BACKGROUND && !background) {
+			backgroundDue = true;
+			lane = LANE_SCHEDULE [turn];
+			turn = (turn + 1) % LANE_SCHEDULE.length;
+		}
+	}
+	if (lane == LANE_BACKGROUND) backgroundDue = false;
+	RunnableLock lock = getLane (lane).poll();
+	if (lock == null) lock = interactiveMessages.poll();
+	if (lock == null) lock = messages.poll();
+	if (lock == null && background) lock = backgroundMessages.poll();
+	return lock;
 }
 
 boolean runAsyncMessages () {
@@ -120,31 +341,69 @@ boolean runAsyncMessages () {
 }
 
 boolean runAsyncMessages (boolean all) {
+	return runAsyncMessages (all, false);
+}
+
+/*
+ * Runs a batch of messages, or all of them. Background messages are only
+ * run when idle is true, i.e. when called by readAndDispatch() after it
+ * found no event to dispatch, and not from the native event loop, modal
+ * loops or message hooks, which may run while events are pending.
+ */
+boolean runAsyncMessages (boolean all, boolean idle) {
 	boolean run = false;
 	do {
-		RunnableLock lock = removeFirst ();
+		RunnableLock lock = removeFirst (idle);
 		if (lock == null) return run;
 		run = true;
-		synchronized (lock) {
-			syncThread = lock.thread;
-			display.sendPreEvent(SWT.None);
-			try {
-				lock.run (display);
-			} catch (Throwable t) {
-				lock.throwable = t;
-				SWT.error (SWT.ERROR_FAILED_EXEC, t);
-			} finally {
-				if (display != null && !display.isDisposed()) {
-					display.sendPostEvent(SWT.None);
-				}
-				syncThread = null;
-				lock.notifyAll ();
+		display.sendPreEvent(SWT.None);
+		try {
+			long start = batchNanos != 0 ? System.nanoTime () : 0;
+			int count = 1;
+			runMessage (lock);
+			// run the following messages of the batch
+			while (count < batchCount && display != null && !display.isDisposed ()) {
+				if (batchNanos != 0 && System.nanoTime () - start >= batchNanos) break;
+				lock = removeFirst (false);
+				if (lock == null) break;
+				runMessage (lock);
+				count++;
+			}
+		} finally {
+			if (display != null && !display.isDisposed()) {
+				display.sendPostEvent(SWT.None);
 			}
 		}
 	} while (all);
 	return run;
 }
 
+void runMessage (RunnableLock lock) {
+	if (lock.thread == null) {
+		EventLoopMonitor monitor = display.monitor;
+		if (monitor != null && lock.time != 0) monitor.asyncExec.record (System.nanoTime () - lock.time);
+		// nobody waits for the message of an asyncExec()
+		try {
+			lock.run (display);
+		} catch (Throwable t) {
+			lock.throwable = t;
+			SWT.error (SWT.ERROR_FAILED_EXEC, t);
+		}
+		return;
+	}
+	syncThread = lock.thread;
+	Throwable throwable = null;
+	try {
+		lock.run (display);
+	} catch (Throwable t) {
+		throwable = t;
+		SWT.error (SWT.ERROR_FAILED_EXEC, t);
+	} finally {
+		syncThread = null;
+		lock.finish (throwable);
+	}
+}
+
 /**
  * Causes the <code>run()</code> method of the runnable to
  * be invoked by the user-interface thread at the next
@@ -161,20 +420,21 @@ boolean runAsyncMessages (boolean all) {
  */
 protected void syncExec (Runnable runnable) {
 	RunnableLock lock = null;
-	synchronized (Device.class) {
-		if (display == null || display.isDisposed ()) SWT.error (SWT.ERROR_DEVICE_DISPOSED);
-		if (!display.isValidThread ()) {
-			if (runnable == null) {
-				display.wake ();
-				return;
-			}
-			lock = new RunnableLock (runnable);
-			/*
-			 * Only remember the syncThread for syncExec.
-			 */
-			lock.thread = Thread.currentThread();
-			addLast (lock);
+	Display display = this.display;
+	if (display == null || display.isDisposed ()) SWT.error (SWT.ERROR_DEVICE_DISPOSED);
+	if (!display.isValidThread ()) {
+		if (runnable == null) {
+			display.wake ();
+			return;
 		}
+		lock = new RunnableLock (runnable);
+		/*
+		 * Only remember the syncThread for syncExec.
+		 */
+		lock.thread = Thread.currentThread();
+		// the calling thread is blocked until it has run
+		lock.lane = LANE_INTERACTIVE;
+		addLast (lock);
 	}
 	if (lock == null) {
 		if (runnable != null) {
@@ -193,21 +453,13 @@ protected void syncExec (Runnable runnable) {
 		}
 		return;
 	}
-	synchronized (lock) {
-		boolean interrupted = false;
-		while (!lock.done ()) {
-			try {
-				lock.wait ();
-			} catch (InterruptedException e) {
-				interrupted = true;
-			}
-		}
-		if (interrupted) {
-			Thread.currentThread().interrupt();
-		}
-		if (lock.throwable != null) {
-			SWT.error (SWT.ERROR_FAILED_EXEC, lock.throwable);
-		}
+	lock.await ();
+	if (lock.time != 0) {
+		EventLoopMonitor monitor = display.monitor;
+		if (monitor != null) monitor.syncExec.record (System.nanoTime () - lock.time);
+	}
+	if (lock.throwable != null) {
+		SWT.error (SWT.ERROR_FAILED_EXEC, lock.throwable);
 	}
 }
 
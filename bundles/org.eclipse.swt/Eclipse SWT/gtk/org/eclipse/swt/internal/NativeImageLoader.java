@@ -47,7 +47,13 @@ public class NativeImageLoader {
 			SWT.error(SWT.ERROR_UNSUPPORTED_FORMAT); // empty stream
 		}
 		InputStream stream2 = new ByteArrayInputStream(data_buffer);
-		if (FileFormat.isDynamicallySizableFormat(stream2)) {
+		/*
+		 * GdkPixbufLoader decodes the whole image at once, so rows of a
+		 * non-interlaced PNG can only be reported by the Java decoder.
+		 */
+		boolean progressivePNG = imageLoader.progressiveRows > 0 && imageLoader.hasListeners()
+				&& isPNG(data_buffer) && !isInterlacedPNG(data_buffer);
+		if (progressivePNG || FileFormat.isDynamicallySizableFormat(stream2)) {
 			try {
 				stream2.reset();
 			} catch (IOException e) {
@@ -142,6 +148,14 @@ public class NativeImageLoader {
 		return Arrays.stream(imgDataArray).map(data -> new ElementAtZoom<>(data, streamAtZoom.zoom())).toList();
 	}
 
+	/**
+	 * Return true if the data starts with the PNG file signature.
+	 */
+	private static boolean isPNG(byte[] imageAsByteArray) {
+		return imageAsByteArray.length > 4 && (imageAsByteArray[0] & 0xFF) == 0x89
+				&& imageAsByteArray[1] == 'P' && imageAsByteArray[2] == 'N' && imageAsByteArray[3] == 'G';
+	}
+
 	/**
 	 * Return true if the image is an interlaced PNG file. This is used to check
 	 * whether ImageLoaderEvent should be fired when loading images.
@@ -276,7 +290,9 @@ public class NativeImageLoader {
 		// Native implementation only supports a subset of possible image configurations.
 		// Redirect the not supported variants to the Java implementation.
 		// See also https://bugs.eclipse.org/bugs/show_bug.cgi?id=558043
-		if (!imgData.palette.isDirect || n_channels < 3 || n_channels > 4) {
+		// PNG images always use the Java implementation, since it supports
+		// ImageLoader.pngFilter and compresses large images on several threads.
+		if (!imgData.palette.isDirect || n_channels < 3 || n_channels > 4 || format == SWT.IMAGE_PNG) {
 			FileFormat.save(stream, format, imageLoader);
 			return;
 		}
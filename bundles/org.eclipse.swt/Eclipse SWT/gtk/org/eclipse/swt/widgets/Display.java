@@ -129,7 +129,7 @@ public class Display extends Device implements Executor {
 	Event [] eventQueue;
 	long fds;
 	int allocated_nfds;
-	boolean wake;
+	volatile boolean wake;
 	boolean windowSizeSet;
 	int [] max_priority = new int [1], timeout = new int [1];
 	Callback eventCallback;
@@ -195,9 +195,10 @@ public class Display extends Device implements Executor {
 	long preeditWindow, preeditLabel;
 
 	/* Sync/Async Widget Communication */
-	Synchronizer synchronizer = new Synchronizer (this);
+	volatile Synchronizer synchronizer = new Synchronizer (this);
 	Consumer<RuntimeException> runtimeExceptionHandler = DefaultExceptionHandler.RUNTIME_EXCEPTION_HANDLER;
 	Consumer<Error> errorHandler = DefaultExceptionHandler.RUNTIME_ERROR_HANDLER;
+	volatile EventLoopMonitor monitor;
 	Thread thread;
 
 	/* Display Shutdown */
@@ -236,6 +237,7 @@ public class Display extends Device implements Executor {
 	/* Timers */
 	int [] timerIds;
 	Runnable [] timerList;
+	long [] timerTimes;
 	Callback timerCallback;
 	long timerProc;
 	Callback windowTimerCallback;
@@ -272,7 +274,7 @@ public class Display extends Device implements Executor {
 	static final String ADD_IDLE_PROC_KEY = "org.eclipse.swt.internal.gtk.addIdleProc"; //$NON-NLS-1$
 	static final String REMOVE_IDLE_PROC_KEY = "org.eclipse.swt.internal.gtk.removeIdleProc"; //$NON-NLS-1$
 	Object idleLock = new Object();
-	boolean idleNeeded;
+	volatile boolean idleNeeded;
 
 	/* GtkTreeView callbacks */
 	long cellDataProc;
@@ -714,6 +716,26 @@ void addGdkEvent (long event) {
 	gdkEventCount++;
 }
 
+/*
+ * Adds the idle source that runs the messages while a native dialog is
+ * open, when it is not active already. Called after a message was added,
+ * see idleProc().
+ */
+void addIdleSource () {
+	if (!idleNeeded) return;
+	Object idleLock = this.idleLock;
+	if (idleLock == null) return;
+	synchronized (idleLock) {
+		if (idleNeeded && idleHandle == 0) {
+			if (GTK.GTK4) {
+				idleHandle = OS.g_idle_add (idleProc, 0);
+			} else {
+				idleHandle = GDK.gdk_threads_add_idle (idleProc, 0);
+			}
+		}
+	}
+}
+
 void addIdleProc() {
 	synchronized (idleLock){
 		this.idleNeeded = true;
@@ -916,20 +938,104 @@ void addWidget (long handle, Widget widget) {
  * @see #syncExec
  */
 public void asyncExec (Runnable runnable) {
-	synchronized (Device.class) {
-		if (isDisposed ()) error (SWT.ERROR_DEVICE_DISPOSED);
-		synchronized (idleLock) {
-			if (idleNeeded && idleHandle == 0) {
-				if (GTK.GTK4) {
-					idleHandle = OS.g_idle_add (idleProc, 0);
-				} else {
-					idleHandle = GDK.gdk_threads_add_idle (idleProc, 0);
-				}
+	/*
+	* Posting does not synchronize on Device.class, so that threads posting
+	* concurrently do not contend for one lock. The synchronizer detects the
+	* races with dispose() and setSynchronizer().
+	*/
+	Synchronizer synchronizer = this.synchronizer;
+	if (isDisposed () || synchronizer == null) error (SWT.ERROR_DEVICE_DISPOSED);
+	synchronizer.asyncExec (runnable);
+	addIdleSource ();
+}
 
-			}
-		}
-		synchronizer.asyncExec (runnable);
-	}
+/**
+ * Causes the <code>run()</code> method of the runnable to
+ * be invoked by the user-interface thread at the next
+ * reasonable opportunity for work of the given priority.
+ * The caller of this method continues to run in parallel,
+ * and is not notified when the runnable has completed.
+ * <p>
+ * The priority is one of:
+ * <dl>
+ * <dt><code>SWT.HIGH</code></dt>
+ * <dd>interactive work that the user waits for, such as a selection update</dd>
+ * <dt><code>SWT.NORMAL</code></dt>
+ * <dd>the same as {@link #asyncExec(Runnable)}</dd>
+ * <dt><code>SWT.LOW</code></dt>
+ * <dd>background work, such as refreshes after a change in the model</dd>
+ * </dl>
+ * Runnables of a higher priority are generally run first, but the
+ * user-interface thread keeps running some runnables of a lower priority
+ * when there are always runnables of a higher one. Background work is
+ * only run when the display has no events to dispatch. The runnables
+ * of {@link #syncExec(Runnable)} are run as interactive work.
+ * </p>
+ * <p>
+ * Note that at the time the runnable is invoked, widgets
+ * that have the receiver as their display may have been
+ * disposed. Therefore, it is necessary to check for this
+ * case inside the runnable before accessing the widget.
+ * </p>
+ *
+ * @param priority the priority of the runnable
+ * @param runnable code to run on the user-interface thread
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the runnable is null</li>
+ *    <li>ERROR_INVALID_ARGUMENT - if the priority is not one of <code>SWT.HIGH</code>, <code>SWT.NORMAL</code> or <code>SWT.LOW</code></li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_DEVICE_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ *
+ * @see #asyncExec(Runnable)
+ *
+ * @since 3.131
+ */
+public void asyncExec (int priority, Runnable runnable) {
+	Synchronizer synchronizer = this.synchronizer;
+	if (isDisposed () || synchronizer == null) error (SWT.ERROR_DEVICE_DISPOSED);
+	synchronizer.asyncExec (priority, runnable);
+	addIdleSource ();
+}
+
+/**
+ * Causes the <code>run()</code> method of the runnable to
+ * be invoked by the user-interface thread at the next
+ * reasonable opportunity, unless it is replaced before.
+ * The runnable replaces the runnable of a previous call
+ * with an equal key that has not started to run yet, and
+ * is run in its place. This is useful for updates of which
+ * only the latest one matters, such as progress. The caller
+ * of this method continues to run in parallel, and is not
+ * notified when the runnable has completed.
+ * <p>
+ * Note that at the time the runnable is invoked, widgets
+ * that have the receiver as their display may have been
+ * disposed. Therefore, it is necessary to check for this
+ * case inside the runnable before accessing the widget.
+ * </p>
+ *
+ * @param key the key identifying the runnables that replace each other
+ * @param runnable code to run on the user-interface thread
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the key or the runnable is null</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_DEVICE_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ *
+ * @see #asyncExec(Runnable)
+ *
+ * @since 3.131
+ */
+public void asyncExecCoalesced (Object key, Runnable runnable) {
+	Synchronizer synchronizer = this.synchronizer;
+	if (isDisposed () || synchronizer == null) error (SWT.ERROR_DEVICE_DISPOSED);
+	synchronizer.asyncExecCoalesced (key, runnable);
+	addIdleSource ();
 }
 
 /**
@@ -3461,7 +3567,12 @@ long idleProc (long data) {
 	boolean result = runAsyncMessages (false);
 	if (!result) {
 		synchronized (idleLock) {
-			idleHandle = 0;
+			/*
+			* A message may have been added after the queue was found empty, and
+			* its poster may have seen the idle source as still active.
+			*/
+			result = !synchronizer.isForegroundMessagesEmpty ();
+			if (!result) idleHandle = 0;
 		}
 	}
 	return result ? 1 : 0;
@@ -4506,23 +4617,29 @@ void putGdkEvents () {
  */
 public boolean readAndDispatch () {
 	checkDevice ();
-	runSkin ();
-	runDeferredLayouts ();
-	boolean events = false;
-	events |= runSettings ();
-	events |= runPopups ();
+	EventLoopMonitor monitor = this.monitor;
+	long start = monitor != null ? monitor.dispatchStarted () : 0;
+	try {
+		runSkin ();
+		runDeferredLayouts ();
+		boolean events = false;
+		events |= runSettings ();
+		events |= runPopups ();
 
-	if (GTK.GTK4) {
-		events |= OS.g_main_context_iteration (0, false);
-	} else {
-		events |= GTK3.gtk_events_pending ();
-		GTK3.gtk_main_iteration_do (false);
-	}
-	if (events) {
-		runDeferredEvents ();
-		return true;
+		if (GTK.GTK4) {
+			events |= OS.g_main_context_iteration (0, false);
+		} else {
+			events |= GTK3.gtk_events_pending ();
+			GTK3.gtk_main_iteration_do (false);
+		}
+		if (events) {
+			runDeferredEvents ();
+			return true;
+		}
+		return isDisposed () || runAsyncMessages (false, true);
+	} finally {
+		if (monitor != null) monitor.dispatchEnded (start);
 	}
-	return isDisposed () || runAsyncMessages (false);
 }
 
 static void register (Display display) {
@@ -4746,6 +4863,7 @@ void releaseDisplay () {
 	}
 	timerIds = null;
 	timerList = null;
+	timerTimes = null;
 	timerProc = 0;
 	timerCallback.dispose ();
 	timerCallback = null;
@@ -5052,6 +5170,10 @@ boolean runAsyncMessages (boolean all) {
 	return synchronizer.runAsyncMessages (all);
 }
 
+boolean runAsyncMessages (boolean all, boolean idle) {
+	return synchronizer.runAsyncMessages (all, idle);
+}
+
 boolean runDeferredEvents () {
 	boolean run = false;
 	/*
@@ -5544,6 +5666,47 @@ public final Consumer<Error> getErrorHandler () {
 	return errorHandler;
 }
 
+/**
+ * Returns the monitor that measures the event loop of the receiver,
+ * or <code>null</code> if it is not measured.
+ *
+ * @return the event loop monitor, or <code>null</code>
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ *    <li>ERROR_DEVICE_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ *
+ * @see #setEventLoopMonitor(EventLoopMonitor)
+ * @since 3.131
+ */
+public EventLoopMonitor getEventLoopMonitor () {
+	checkDevice ();
+	return monitor;
+}
+
+/**
+ * Sets the monitor that measures the event loop of the receiver.
+ * The monitor records how long the receiver takes to dispatch events
+ * and to run the runnables of <code>asyncExec()</code>, <code>syncExec()</code>
+ * and <code>timerExec()</code>. Measuring is off by default, and
+ * turned off again by setting the monitor to <code>null</code>.
+ *
+ * @param monitor the event loop monitor, or <code>null</code>
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ *    <li>ERROR_DEVICE_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ *
+ * @see EventLoopMonitor
+ * @since 3.131
+ */
+public void setEventLoopMonitor (EventLoopMonitor monitor) {
+	checkDevice ();
+	this.monitor = monitor;
+}
+
 void showIMWindow (Control control) {
 	imControl = control;
 	if (preeditWindow == 0) {
@@ -5687,6 +5850,7 @@ public void timerExec (int milliseconds, Runnable runnable) {
 	checkDevice ();
 	if (runnable == null) error (SWT.ERROR_NULL_ARGUMENT);
 	if (timerList == null) timerList = new Runnable [4];
+	if (timerTimes == null) timerTimes = new long [4];
 	if (timerIds == null) timerIds = new int [4];
 	int index = 0;
 	while (index < timerList.length) {
@@ -5709,6 +5873,9 @@ public void timerExec (int milliseconds, Runnable runnable) {
 			Runnable [] newTimerList = new Runnable [timerList.length + 4];
 			System.arraycopy (timerList, 0, newTimerList, 0, timerList.length);
 			timerList = newTimerList;
+			long [] newTimerTimes = new long [timerTimes.length + 4];
+			System.arraycopy (timerTimes, 0, newTimerTimes, 0, timerTimes.length);
+			timerTimes = newTimerTimes;
 			int [] newTimerIds = new int [timerIds.length + 4];
 			System.arraycopy (timerIds, 0, newTimerIds, 0, timerIds.length);
 			timerIds = newTimerIds;
@@ -5723,9 +5890,17 @@ public void timerExec (int milliseconds, Runnable runnable) {
 	if (timerId != 0) {
 		timerIds [index] = timerId;
 		timerList [index] = runnable;
+		timerTimes [index] = monitor != null ? System.nanoTime () + TimeUnit.MILLISECONDS.toNanos (milliseconds) : 0;
 	}
 }
 
+void timerStarted (int index) {
+	long time = timerTimes [index];
+	timerTimes [index] = 0;
+	EventLoopMonitor monitor = this.monitor;
+	if (monitor != null && time != 0) monitor.timerExec.record (System.nanoTime () - time);
+}
+
 long timerProc (long i) {
 	if (timerList == null) return 0;
 	int index = (int)i;
@@ -5734,6 +5909,7 @@ long timerProc (long i) {
 		timerList [index] = null;
 		timerIds [index] = 0;
 		if (runnable != null) {
+			timerStarted (index);
 			try {
 				runnable.run ();
 			} catch (RuntimeException exception) {
@@ -5927,6 +6103,83 @@ long signalProc (long gobject, long arg1, long user_data) {
 	return 0;
 }
 
+/**
+ * Causes the <code>run()</code> method of the runnable to
+ * be invoked by the user-interface thread at the next
+ * reasonable opportunity, and returns a future that is
+ * completed when the runnable has run. The caller of this
+ * method continues to run in parallel, and can wait for
+ * the future or add dependent actions to it. Unlike
+ * {@link #syncExec(Runnable)}, this does not block a thread.
+ * <p>
+ * An exception thrown by the runnable completes the future
+ * exceptionally, and is not passed to the exception handlers
+ * of the receiver. When the receiver is disposed before the
+ * runnable is run, the future is completed exceptionally with
+ * an <code>SWTException</code> with code <code>ERROR_DEVICE_DISPOSED</code>.
+ * </p>
+ *
+ * @param runnable code to run on the user-interface thread
+ * @return a future that is completed when the runnable has run
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the runnable is null</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_DEVICE_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ *
+ * @see #supplyAsync(Supplier)
+ * @see #asyncExec(Runnable)
+ *
+ * @since 3.131
+ */
+public CompletableFuture<Void> runAsync (Runnable runnable) {
+	if (runnable == null) error (SWT.ERROR_NULL_ARGUMENT);
+	return supplyAsync (() -> {
+		runnable.run ();
+		return null;
+	});
+}
+
+/**
+ * Causes the <code>get()</code> method of the supplier to
+ * be invoked by the user-interface thread at the next
+ * reasonable opportunity, and returns a future that is
+ * completed with its result. The caller of this method
+ * continues to run in parallel, and can wait for the future
+ * or add dependent actions to it. Unlike {@link #syncCall(SwtCallable)},
+ * this does not block a thread.
+ * <p>
+ * An exception thrown by the supplier completes the future
+ * exceptionally, and is not passed to the exception handlers
+ * of the receiver. When the receiver is disposed before the
+ * supplier is invoked, the future is completed exceptionally with
+ * an <code>SWTException</code> with code <code>ERROR_DEVICE_DISPOSED</code>.
+ * </p>
+ *
+ * @param supplier code to run on the user-interface thread
+ * @return a future that is completed with the result of the supplier
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the supplier is null</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_DEVICE_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ *
+ * @see #runAsync(Runnable)
+ * @see #asyncExec(Runnable)
+ *
+ * @since 3.131
+ */
+public <T> CompletableFuture<T> supplyAsync (Supplier<T> supplier) {
+	if (supplier == null) error (SWT.ERROR_NULL_ARGUMENT);
+	FutureRunnable<T> task = new FutureRunnable<> (supplier);
+	asyncExec (task);
+	return task.future;
+}
+
 /**
  * Causes the <code>run()</code> method of the runnable to
  * be invoked by the user-interface thread at the next
@@ -5950,20 +6203,13 @@ long signalProc (long gobject, long arg1, long user_data) {
  * @see #asyncExec
  */
 public void syncExec (Runnable runnable) {
-	Synchronizer synchronizer;
-	synchronized (Device.class) {
-		if (isDisposed ()) error (SWT.ERROR_DEVICE_DISPOSED);
-		synchronizer = this.synchronizer;
-		synchronized (idleLock) {
-			if (idleNeeded && idleHandle == 0) {
-				if (GTK.GTK4) {
-					idleHandle = OS.g_idle_add (idleProc, 0);
-				} else {
-					idleHandle = GDK.gdk_threads_add_idle (idleProc, 0);
-				}
-			}
-		}
-	}
+	Synchronizer synchronizer = this.synchronizer;
+	if (isDisposed () || synchronizer == null) error (SWT.ERROR_DEVICE_DISPOSED);
+	/*
+	* The synchronizer waits until the message was run, so the idle
+	* source can only be added before the message is.
+	*/
+	addIdleSource ();
 	synchronizer.syncExec (runnable);
 }
 
@@ -6056,11 +6302,9 @@ public void update () {
  * @see #sleep
  */
 public void wake () {
-	synchronized (Device.class) {
-		if (isDisposed ()) error (SWT.ERROR_DEVICE_DISPOSED);
-		if (thread == Thread.currentThread ()) return;
-		wakeThread ();
-	}
+	if (isDisposed ()) error (SWT.ERROR_DEVICE_DISPOSED);
+	if (thread == Thread.currentThread ()) return;
+	wakeThread ();
 }
 
 void wakeThread () {
@@ -667,51 +667,37 @@ void init() {
 }
 
 private ImageData applyDisableImageData(ImageData data, int height, int width) {
-	PaletteData palette = data.palette;
 	ImageData newData = new ImageData(width, height, 32, new PaletteData(0xFF, 0xFF00, 0xFF0000));
 	newData.alpha = data.alpha;
-	newData.alphaData = data.alphaData;
 	newData.maskData = data.maskData;
 	newData.maskPad = data.maskPad;
 	if (data.transparentPixel != -1) newData.transparentPixel = 0;
 
 	/* Convert the pixels. */
-	int[] scanline = new int[width];
+	int[] pixels = new int[data.width * data.height];
+	data.getARGB(pixels, 0);
+	int[] scanline = null;
+	if (data.transparentPixel != -1) scanline = new int[width];
 	int[] maskScanline = null;
 	ImageData mask = null;
 	if (data.maskData != null) mask = data.getTransparencyMask();
 	if (mask != null) maskScanline = new int[width];
-	int redMask = palette.redMask;
-	int greenMask = palette.greenMask;
-	int blueMask = palette.blueMask;
-	int redShift = palette.redShift;
-	int greenShift = palette.greenShift;
-	int blueShift = palette.blueShift;
+	int[] newPixels = new int[width * height];
 	for (int y=0; y<height; y++) {
-		data.getPixels(0, y, width, scanline, 0);
+		if (scanline != null) data.getPixels(0, y, width, scanline, 0);
 		if (mask != null) mask.getPixels(0, y, width, maskScanline, 0);
 		for (int x=0; x<width; x++) {
-			int pixel = scanline[x];
-			if (!((data.transparentPixel != -1 && pixel == data.transparentPixel) || (mask != null && maskScanline[x] == 0))) {
-				int red, green, blue;
-				if (palette.isDirect) {
-					red = pixel & redMask;
-					red = (redShift < 0) ? red >>> -redShift : red << redShift;
-					green = pixel & greenMask;
-					green = (greenShift < 0) ? green >>> -greenShift : green << greenShift;
-					blue = pixel & blueMask;
-					blue = (blueShift < 0) ? blue >>> -blueShift : blue << blueShift;
-				} else {
-					red = palette.colors[pixel].red;
-					green = palette.colors[pixel].green;
-					blue = palette.colors[pixel].blue;
-				}
-				RGBA result = DEFAULT_DISABLED_IMAGE_TRANSFORMER.adaptPixelValue(red, green, blue, data.getAlpha(x, y));
-				newData.setAlpha(x, y, result.alpha);
-				newData.setPixel(x, y, newData.palette.getPixel(result.rgb));
+			int argb = pixels[y * data.width + x];
+			if ((scanline != null && scanline[x] == data.transparentPixel) || (mask != null && maskScanline[x] == 0)) {
+				/* Transparent pixels stay black and keep their alpha value */
+				newPixels[y * width + x] = data.alphaData != null ? argb & 0xFF000000 : 0;
+			} else {
+				RGBA result = DEFAULT_DISABLED_IMAGE_TRANSFORMER.adaptPixelValue((argb >> 16) & 0xFF, (argb >> 8) & 0xFF, argb & 0xFF, argb >>> 24);
+				newPixels[y * width + x] = (result.alpha << 24) | (result.rgb.red << 16) | (result.rgb.green << 8) | result.rgb.blue;
 			}
 		}
 	}
+	newData.setARGB(newPixels, 0);
 	return newData;
 }
 
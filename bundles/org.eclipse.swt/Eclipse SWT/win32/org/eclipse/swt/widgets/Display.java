@@ -323,9 +323,10 @@ public class Display extends Device implements Executor {
 	static final short [] ACCENTS = new short [] {'~', '`', '\'', '^', '"'};
 
 	/* Sync/Async Widget Communication */
-	Synchronizer synchronizer;
+	volatile Synchronizer synchronizer;
 	Consumer<RuntimeException> runtimeExceptionHandler = DefaultExceptionHandler.RUNTIME_EXCEPTION_HANDLER;
 	Consumer<Error> errorHandler = DefaultExceptionHandler.RUNTIME_ERROR_HANDLER;
+	volatile EventLoopMonitor monitor;
 	boolean runMessagesInIdle = false, runMessagesInMessageProc = true;
 	static final String RUN_MESSAGES_IN_IDLE_KEY = "org.eclipse.swt.internal.win32.runMessagesInIdle"; //$NON-NLS-1$
 	static final String RUN_MESSAGES_IN_MESSAGE_PROC_KEY = "org.eclipse.swt.internal.win32.runMessagesInMessageProc"; //$NON-NLS-1$
@@ -354,6 +355,7 @@ public class Display extends Device implements Executor {
 	/* Timers */
 	long [] timerIds;
 	Runnable [] timerList;
+	long [] timerTimes;
 	long nextTimerId = SETTINGS_ID + 1;
 
 	/* Settings */
@@ -803,6 +805,95 @@ public void asyncExec (Runnable runnable) {
 	}
 }
 
+/**
+ * Causes the <code>run()</code> method of the runnable to
+ * be invoked by the user-interface thread at the next
+ * reasonable opportunity for work of the given priority.
+ * The caller of this method continues to run in parallel,
+ * and is not notified when the runnable has completed.
+ * <p>
+ * The priority is one of:
+ * <dl>
+ * <dt><code>SWT.HIGH</code></dt>
+ * <dd>interactive work that the user waits for, such as a selection update</dd>
+ * <dt><code>SWT.NORMAL</code></dt>
+ * <dd>the same as {@link #asyncExec(Runnable)}</dd>
+ * <dt><code>SWT.LOW</code></dt>
+ * <dd>background work, such as refreshes after a change in the model</dd>
+ * </dl>
+ * Runnables of a higher priority are generally run first, but the
+ * user-interface thread keeps running some runnables of a lower priority
+ * when there are always runnables of a higher one. Background work is
+ * only run when the display has no events to dispatch. The runnables
+ * of {@link #syncExec(Runnable)} are run as interactive work.
+ * </p>
+ * <p>
+ * Note that at the time the runnable is invoked, widgets
+ * that have the receiver as their display may have been
+ * disposed. Therefore, it is necessary to check for this
+ * case inside the runnable before accessing the widget.
+ * </p>
+ *
+ * @param priority the priority of the runnable
+ * @param runnable code to run on the user-interface thread
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the runnable is null</li>
+ *    <li>ERROR_INVALID_ARGUMENT - if the priority is not one of <code>SWT.HIGH</code>, <code>SWT.NORMAL</code> or <code>SWT.LOW</code></li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_DEVICE_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ *
+ * @see #asyncExec(Runnable)
+ *
+ * @since 3.131
+ */
+public void asyncExec (int priority, Runnable runnable) {
+	synchronized (Device.class) {
+		if (isDisposed ()) error (SWT.ERROR_DEVICE_DISPOSED);
+		synchronizer.asyncExec (priority, runnable);
+	}
+}
+
+/**
+ * Causes the <code>run()</code> method of the runnable to
+ * be invoked by the user-interface thread at the next
+ * reasonable opportunity, unless it is replaced before.
+ * The runnable replaces the runnable of a previous call
+ * with an equal key that has not started to run yet, and
+ * is run in its place. This is useful for updates of which
+ * only the latest one matters, such as progress. The caller
+ * of this method continues to run in parallel, and is not
+ * notified when the runnable has completed.
+ * <p>
+ * Note that at the time the runnable is invoked, widgets
+ * that have the receiver as their display may have been
+ * disposed. Therefore, it is necessary to check for this
+ * case inside the runnable before accessing the widget.
+ * </p>
+ *
+ * @param key the key identifying the runnables that replace each other
+ * @param runnable code to run on the user-interface thread
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the key or the runnable is null</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_DEVICE_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ *
+ * @see #asyncExec(Runnable)
+ *
+ * @since 3.131
+ */
+public void asyncExecCoalesced (Object key, Runnable runnable) {
+	synchronized (Device.class) {
+		if (isDisposed ()) error (SWT.ERROR_DEVICE_DISPOSED);
+		synchronizer.asyncExecCoalesced (key, runnable);
+	}
+}
+
 /**
  * Executes the given runnable in the user-interface thread of this Display.
  * <ul>
@@ -3733,20 +3824,26 @@ void postEvent (Event event) {
  */
 public boolean readAndDispatch () {
 	checkDevice ();
-	lpStartupInfo = null;
-	drawMenuBars ();
-	runSkin ();
-	runDeferredLayouts ();
-	runPopups ();
-	if (OS.PeekMessage (msg, 0, 0, 0, OS.PM_REMOVE)) {
-		if (!filterMessage (msg)) {
-			OS.TranslateMessage (msg);
-			OS.DispatchMessage (msg);
+	EventLoopMonitor monitor = this.monitor;
+	long start = monitor != null ? monitor.dispatchStarted () : 0;
+	try {
+		lpStartupInfo = null;
+		drawMenuBars ();
+		runSkin ();
+		runDeferredLayouts ();
+		runPopups ();
+		if (OS.PeekMessage (msg, 0, 0, 0, OS.PM_REMOVE)) {
+			if (!filterMessage (msg)) {
+				OS.TranslateMessage (msg);
+				OS.DispatchMessage (msg);
+			}
+			runDeferredEvents ();
+			return true;
 		}
-		runDeferredEvents ();
-		return true;
+		return isDisposed () || runAsyncMessages (false, true);
+	} finally {
+		if (monitor != null) monitor.dispatchEnded (start);
 	}
-	return isDisposed () || runAsyncMessages (false);
 }
 
 static void register (Display display) {
@@ -3952,6 +4049,7 @@ void releaseDisplay () {
 	lastHittestControl = null;
 	imageList = toolImageList = toolHotImageList = toolDisabledImageList = null;
 	timerList = null;
+	timerTimes = null;
 	tableBuffer = null;
 	eventTable = filterTable = null;
 	items = null;
@@ -4133,6 +4231,10 @@ boolean runAsyncMessages (boolean all) {
 	return synchronizer.runAsyncMessages (all);
 }
 
+boolean runAsyncMessages (boolean all, boolean idle) {
+	return synchronizer.runAsyncMessages (all, idle);
+}
+
 boolean runDeferredEvents () {
 	boolean run = false;
 	/*
@@ -4252,6 +4354,7 @@ boolean runTimer (long id) {
 				Runnable runnable = timerList [index];
 				timerList [index] = null;
 				if (runnable != null) {
+					timerStarted (index);
 					try {
 						runnable.run ();
 					} catch (RuntimeException exception) {
@@ -4827,6 +4930,47 @@ public final Consumer<Error> getErrorHandler () {
 	return errorHandler;
 }
 
+/**
+ * Returns the monitor that measures the event loop of the receiver,
+ * or <code>null</code> if it is not measured.
+ *
+ * @return the event loop monitor, or <code>null</code>
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ *    <li>ERROR_DEVICE_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ *
+ * @see #setEventLoopMonitor(EventLoopMonitor)
+ * @since 3.131
+ */
+public EventLoopMonitor getEventLoopMonitor () {
+	checkDevice ();
+	return monitor;
+}
+
+/**
+ * Sets the monitor that measures the event loop of the receiver.
+ * The monitor records how long the receiver takes to dispatch events
+ * and to run the runnables of <code>asyncExec()</code>, <code>syncExec()</code>
+ * and <code>timerExec()</code>. Measuring is off by default, and
+ * turned off again by setting the monitor to <code>null</code>.
+ *
+ * @param monitor the event loop monitor, or <code>null</code>
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ *    <li>ERROR_DEVICE_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ *
+ * @see EventLoopMonitor
+ * @since 3.131
+ */
+public void setEventLoopMonitor (EventLoopMonitor monitor) {
+	checkDevice ();
+	this.monitor = monitor;
+}
+
 int shiftedKey (int key) {
 	/* Clear the virtual keyboard and press the shift key */
 	for (int i=0; i<keyboard.length; i++) keyboard [i] = 0;
@@ -4861,6 +5005,83 @@ public boolean sleep () {
 	return result;
 }
 
+/**
+ * Causes the <code>run()</code> method of the runnable to
+ * be invoked by the user-interface thread at the next
+ * reasonable opportunity, and returns a future that is
+ * completed when the runnable has run. The caller of this
+ * method continues to run in parallel, and can wait for
+ * the future or add dependent actions to it. Unlike
+ * {@link #syncExec(Runnable)}, this does not block a thread.
+ * <p>
+ * An exception thrown by the runnable completes the future
+ * exceptionally, and is not passed to the exception handlers
+ * of the receiver. When the receiver is disposed before the
+ * runnable is run, the future is completed exceptionally with
+ * an <code>SWTException</code> with code <code>ERROR_DEVICE_DISPOSED</code>.
+ * </p>
+ *
+ * @param runnable code to run on the user-interface thread
+ * @return a future that is completed when the runnable has run
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the runnable is null</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_DEVICE_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ *
+ * @see #supplyAsync(Supplier)
+ * @see #asyncExec(Runnable)
+ *
+ * @since 3.131
+ */
+public CompletableFuture<Void> runAsync (Runnable runnable) {
+	if (runnable == null) error (SWT.ERROR_NULL_ARGUMENT);
+	return supplyAsync (() -> {
+		runnable.run ();
+		return null;
+	});
+}
+
+/**
+ * Causes the <code>get()</code> method of the supplier to
+ * be invoked by the user-interface thread at the next
+ * reasonable opportunity, and returns a future that is
+ * completed with its result. The caller of this method
+ * continues to run in parallel, and can wait for the future
+ * or add dependent actions to it. Unlike {@link #syncCall(SwtCallable)},
+ * this does not block a thread.
+ * <p>
+ * An exception thrown by the supplier completes the future
+ * exceptionally, and is not passed to the exception handlers
+ * of the receiver. When the receiver is disposed before the
+ * supplier is invoked, the future is completed exceptionally with
+ * an <code>SWTException</code> with code <code>ERROR_DEVICE_DISPOSED</code>.
+ * </p>
+ *
+ * @param supplier code to run on the user-interface thread
+ * @return a future that is completed with the result of the supplier
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the supplier is null</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_DEVICE_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ *
+ * @see #runAsync(Runnable)
+ * @see #asyncExec(Runnable)
+ *
+ * @since 3.131
+ */
+public <T> CompletableFuture<T> supplyAsync (Supplier<T> supplier) {
+	if (supplier == null) error (SWT.ERROR_NULL_ARGUMENT);
+	FutureRunnable<T> task = new FutureRunnable<> (supplier);
+	asyncExec (task);
+	return task.future;
+}
+
 /**
  * Causes the <code>run()</code> method of the runnable to
  * be invoked by the user-interface thread at the next
@@ -4968,6 +5189,7 @@ public void timerExec (int milliseconds, Runnable runnable) {
 	checkDevice ();
 	if (runnable == null) error (SWT.ERROR_NULL_ARGUMENT);
 	if (timerList == null) timerList = new Runnable [4];
+	if (timerTimes == null) timerTimes = new long [4];
 	if (timerIds == null) timerIds = new long [4];
 	int index = 0;
 	while (index < timerList.length) {
@@ -4995,6 +5217,9 @@ public void timerExec (int milliseconds, Runnable runnable) {
 			Runnable [] newTimerList = new Runnable [timerList.length + 4];
 			System.arraycopy (timerList, 0, newTimerList, 0, timerList.length);
 			timerList = newTimerList;
+			long [] newTimerTimes = new long [timerTimes.length + 4];
+			System.arraycopy (timerTimes, 0, newTimerTimes, 0, timerTimes.length);
+			timerTimes = newTimerTimes;
 			long [] newTimerIds = new long [timerIds.length + 4];
 			System.arraycopy (timerIds, 0, newTimerIds, 0, timerIds.length);
 			timerIds = newTimerIds;
@@ -5004,9 +5229,17 @@ public void timerExec (int milliseconds, Runnable runnable) {
 	if (newTimerID != 0) {
 		timerList [index] = runnable;
 		timerIds [index] = newTimerID;
+		timerTimes [index] = monitor != null ? System.nanoTime () + TimeUnit.MILLISECONDS.toNanos (milliseconds) : 0;
 	}
 }
 
+void timerStarted (int index) {
+	long time = timerTimes [index];
+	timerTimes [index] = 0;
+	EventLoopMonitor monitor = this.monitor;
+	if (monitor != null && time != 0) monitor.timerExec.record (System.nanoTime () - time);
+}
+
 boolean translateAccelerator (MSG msg, Control control) {
 	accelKeyHit = true;
 	boolean result = control.translateAccelerator (msg);
@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.tests.benchmarks.image;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.ImageLoader;
+import org.eclipse.swt.internal.DPIUtil.ElementAtZoom;
+import org.eclipse.swt.internal.image.FileFormat;
+import org.eclipse.swt.tests.benchmarks.image.ImageCorpus.Format;
+import org.eclipse.swt.tests.benchmarks.image.ImageCorpus.Size;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the pure Java image codecs in
+ * <code>org.eclipse.swt.internal.image</code> through {@link FileFormat}.
+ * <p>
+ * These benchmarks neither load the SWT native libraries nor need a display,
+ * so they can run on any headless machine.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms2g", "-Xmx2g" })
+public class ImageCodecBenchmark {
+
+	private static final int ZOOM = FileFormat.DEFAULT_ZOOM;
+
+	@Param
+	public Format format;
+
+	@Param
+	public Size size;
+
+	private byte[] encoded;
+	private ImageLoader saveLoader;
+	private ByteArrayOutputStream saveBuffer;
+
+	@Setup
+	public void setup() {
+		encoded = ImageCorpus.encode(format, size);
+		saveLoader = new ImageLoader();
+		saveLoader.data = new ImageData[] { ImageCorpus.createImageData(format, size) };
+		saveBuffer = new ByteArrayOutputStream(encoded.length * 2);
+	}
+
+	@Benchmark
+	public List<ElementAtZoom<ImageData>> load() {
+		ElementAtZoom<java.io.InputStream> stream = new ElementAtZoom<>(new ByteArrayInputStream(encoded), ZOOM);
+		return FileFormat.load(stream, new ImageLoader(), ZOOM);
+	}
+
+	@Benchmark
+	public int save() {
+		saveBuffer.reset();
+		FileFormat.save(saveBuffer, format.swtType, saveLoader);
+		return saveBuffer.size();
+	}
+}
@@ -0,0 +1,140 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.tests.benchmarks.image;
+
+import java.io.ByteArrayOutputStream;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.ImageLoader;
+import org.eclipse.swt.graphics.PaletteData;
+import org.eclipse.swt.graphics.RGB;
+import org.eclipse.swt.internal.image.FileFormat;
+
+/**
+ * Deterministic, synthetic image corpus for the codec benchmarks.
+ * <p>
+ * Images are generated in memory instead of being read from disk, so that
+ * every run (and every machine) decodes exactly the same bytes. The content
+ * is a smooth gradient overlaid with pseudo random noise, which compresses
+ * roughly like a typical icon or screenshot instead of degenerating into
+ * a single run.
+ * </p>
+ */
+public final class ImageCorpus {
+
+	/** Image dimensions covered by the benchmarks. */
+	public enum Size {
+		/** Typical toolbar icon */
+		SMALL(16, 16),
+		/** Typical wizard banner or large icon */
+		MEDIUM(256, 256),
+		/** 4K screenshot or camera photo */
+		LARGE(3840, 2160);
+
+		final int width;
+		final int height;
+
+		Size(int width, int height) {
+			this.width = width;
+			this.height = height;
+		}
+	}
+
+	/** Image formats covered by the benchmarks. */
+	public enum Format {
+		BMP(SWT.IMAGE_BMP, false),
+		GIF(SWT.IMAGE_GIF, true),
+		JPEG(SWT.IMAGE_JPEG, false),
+		PNG(SWT.IMAGE_PNG, false),
+		TIFF(SWT.IMAGE_TIFF, false);
+
+		final int swtType;
+		final boolean indexed;
+
+		Format(int swtType, boolean indexed) {
+			this.swtType = swtType;
+			this.indexed = indexed;
+		}
+	}
+
+	private ImageCorpus() {
+	}
+
+	/**
+	 * Creates the image data which is encoded for the given format. Formats
+	 * which only support palettes get an 8 bit indexed image, all others a 24
+	 * bit direct image. The scanline pad is 1 as required by the TIFF encoder.
+	 */
+	public static ImageData createImageData(Format format, Size size) {
+		return format.indexed ? createIndexed(size.width, size.height) : createDirect(size.width, size.height);
+	}
+
+	/**
+	 * Encodes the image data for the given format with the pure Java encoder.
+	 */
+	public static byte[] encode(Format format, Size size) {
+		ImageLoader loader = new ImageLoader();
+		loader.data = new ImageData[] { createImageData(format, size) };
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		FileFormat.save(out, format.swtType, loader);
+		return out.toByteArray();
+	}
+
+	private static ImageData createDirect(int width, int height) {
+		PaletteData palette = new PaletteData(0xFF0000, 0xFF00, 0xFF);
+		ImageData imageData = new ImageData(width, height, 24, palette, 1, new byte[width * height * 3]);
+		byte[] data = imageData.data;
+		int seed = 0x2545F491;
+		int i = 0;
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				seed ^= seed << 13;
+				seed ^= seed >>> 17;
+				seed ^= seed << 5;
+				int noise = (seed & 0x1F) - 16;
+				data[i++] = (byte) clamp(x * 255 / width + noise);
+				data[i++] = (byte) clamp(y * 255 / height + noise);
+				data[i++] = (byte) clamp((x + y) * 127 / (width + height) + 64 + noise);
+			}
+		}
+		return imageData;
+	}
+
+	private static ImageData createIndexed(int width, int height) {
+		RGB[] rgbs = new RGB[256];
+		for (int i = 0; i < rgbs.length; i++) {
+			rgbs[i] = new RGB(i, (i * 7) & 0xFF, 255 - i);
+		}
+		ImageData imageData = new ImageData(width, height, 8, new PaletteData(rgbs), 1, new byte[width * height]);
+		byte[] data = imageData.data;
+		int seed = 0x2545F491;
+		int i = 0;
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				seed ^= seed << 13;
+				seed ^= seed >>> 17;
+				seed ^= seed << 5;
+				// Mostly flat bands with occasional noise, like a typical GIF
+				int index = (x / 8 + y / 8) & 0xFF;
+				data[i++] = (byte) ((seed & 0xF) == 0 ? seed >>> 24 : index);
+			}
+		}
+		return imageData;
+	}
+
+	private static int clamp(int value) {
+		return Math.max(0, Math.min(255, value));
+	}
+}
@@ -0,0 +1,83 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.tests.benchmarks.image;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.ImageLoader;
+import org.eclipse.swt.tests.benchmarks.image.ImageCorpus.Format;
+import org.eclipse.swt.tests.benchmarks.image.ImageCorpus.Size;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the public {@link ImageLoader} API end to end.
+ * <p>
+ * Depending on the platform, <code>ImageLoader</code> delegates to the native
+ * image loader (GdkPixbuf on GTK, GDI+ on Windows), so these benchmarks load
+ * the SWT native libraries. They do not need a display, but the platform
+ * libraries must be installed. Exclude them with <code>-e ImageLoaderBenchmark</code>
+ * to only measure the pure Java codecs.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms2g", "-Xmx2g" })
+public class ImageLoaderBenchmark {
+
+	@Param
+	public Format format;
+
+	@Param
+	public Size size;
+
+	private byte[] encoded;
+	private ImageLoader saveLoader;
+	private ByteArrayOutputStream saveBuffer;
+
+	@Setup
+	public void setup() {
+		encoded = ImageCorpus.encode(format, size);
+		saveLoader = new ImageLoader();
+		saveLoader.data = new ImageData[] { ImageCorpus.createImageData(format, size) };
+		saveBuffer = new ByteArrayOutputStream(encoded.length * 2);
+	}
+
+	@Benchmark
+	public ImageData[] load() {
+		return new ImageLoader().load(new ByteArrayInputStream(encoded));
+	}
+
+	@Benchmark
+	public int save() {
+		saveBuffer.reset();
+		saveLoader.save(saveBuffer, format.swtType);
+		return saveBuffer.size();
+	}
+}
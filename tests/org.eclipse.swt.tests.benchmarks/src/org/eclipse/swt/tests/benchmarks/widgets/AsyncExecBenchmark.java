@@ -0,0 +1,164 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.tests.benchmarks.widgets;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.swt.widgets.Display;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures posting runnables to the user-interface thread with
+ * {@link Display#asyncExec(Runnable)} and {@link Display#syncExec(Runnable)}
+ * from a number of producer threads at the same time.
+ * <p>
+ * This is the JMH version of the manual
+ * <code>org.eclipse.swt.tests.junit.performance.BenchmarkSwtMultithreading</code>.
+ * Every invocation posts {@value #MESSAGES} runnables, split evenly between
+ * the producer threads, while a separate thread runs the event loop of the
+ * display. The results are the average time per runnable, so they can be
+ * compared between different numbers of producers. The benchmarks need a
+ * display, e.g. run them with <code>xvfb-run</code> on a headless machine.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AsyncExecBenchmark {
+
+	static final int MESSAGES = 1 << 16;
+
+	@Param({ "1", "2", "4", "8", "16", "32", "64" })
+	public int producers;
+
+	private Display display;
+	private Thread uiThread;
+	private volatile boolean running;
+	private ExecutorService executor;
+
+	private final AtomicInteger remaining = new AtomicInteger();
+	private volatile CountDownLatch drained;
+	private final Runnable message = () -> {
+		if (remaining.decrementAndGet() == 0) {
+			drained.countDown();
+		}
+	};
+
+	@Setup
+	public void setup() throws InterruptedException {
+		CountDownLatch created = new CountDownLatch(1);
+		uiThread = new Thread(() -> {
+			display = new Display();
+			running = true;
+			created.countDown();
+			while (running) {
+				if (!display.readAndDispatch()) {
+					display.sleep();
+				}
+			}
+			display.dispose();
+		}, "SWT UI thread");
+		uiThread.start();
+		created.await();
+		executor = Executors.newFixedThreadPool(producers);
+	}
+
+	@TearDown
+	public void tearDown() throws InterruptedException {
+		executor.shutdown();
+		display.asyncExec(() -> running = false);
+		uiThread.join();
+	}
+
+	/**
+	 * Only the time to post the runnables, the user-interface thread runs
+	 * them concurrently and is waited for after the invocation.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(MESSAGES)
+	public void asyncExec() throws Exception {
+		post(false);
+	}
+
+	@TearDown(Level.Invocation)
+	public void awaitDrained() throws InterruptedException {
+		CountDownLatch latch = drained;
+		if (latch != null) {
+			latch.await();
+		}
+	}
+
+	/**
+	 * The time to post the runnables and until the user-interface thread
+	 * has run all of them.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(MESSAGES)
+	public void asyncExecAndRun() throws Exception {
+		post(false);
+		drained.await();
+	}
+
+	/**
+	 * The round trip of {@link Display#syncExec(Runnable)}. Each producer
+	 * waits for its runnable to be run before it posts the next one.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(MESSAGES)
+	public void syncExec() throws Exception {
+		post(true);
+	}
+
+	private void post(boolean sync) throws Exception {
+		int perProducer = MESSAGES / producers;
+		remaining.set(perProducer * producers);
+		drained = new CountDownLatch(1);
+		Future<?>[] futures = new Future<?>[producers];
+		for (int i = 0; i < producers; i++) {
+			futures[i] = executor.submit(() -> {
+				for (int j = 0; j < perProducer; j++) {
+					if (sync) {
+						display.syncExec(message);
+					} else {
+						display.asyncExec(message);
+					}
+				}
+			});
+		}
+		for (Future<?> future : futures) {
+			future.get();
+		}
+	}
+}
@@ -212,6 +212,40 @@ public class ImageDataTestHelper {
 		return new BlitTestInfo(dstInfo_depth, dstInfo_scale, dstInfo_byteOrder, dstInfo_isDirect, dst);
 	}
 
+	/**
+	 * Blits the whole source into the whole destination, with the given byte
+	 * orders and flips. Indexed sources are not scaled and cannot be flipped.
+	 */
+	public static void blit(ImageData src, int srcOrder, ImageData dst, int dstOrder, boolean flipX, boolean flipY) throws IllegalAccessException, IllegalArgumentException, InvocationTargetException, NoSuchMethodException, SecurityException {
+		if (src.palette.isDirect) {
+			Method blitMethod = ImageData.class.getDeclaredMethod("blit", byte[].class, int.class,
+					int.class, int.class, int.class, int.class, int.class, int.class, int.class, byte[].class,
+					int.class, int.class, int.class, int.class, int.class, int.class, int.class, int.class,
+					boolean.class, boolean.class);
+			blitMethod.setAccessible(true);
+			blitMethod.invoke(null,
+				src.data, src.depth, src.bytesPerLine, srcOrder, src.width, src.height, src.palette.redMask, src.palette.greenMask, src.palette.blueMask,
+				dst.data, dst.depth, dst.bytesPerLine, dstOrder, dst.width, dst.height, dst.palette.redMask, dst.palette.greenMask, dst.palette.blueMask,
+				flipX, flipY);
+		} else {
+			RGB[] rgbs = src.palette.getRGBs();
+			byte[] reds = new byte[rgbs.length], greens = new byte[rgbs.length], blues = new byte[rgbs.length];
+			for (int i = 0; i < rgbs.length; i++) {
+				reds[i] = (byte) rgbs[i].red;
+				greens[i] = (byte) rgbs[i].green;
+				blues[i] = (byte) rgbs[i].blue;
+			}
+			Method blitMethod = ImageData.class.getDeclaredMethod("blit", int.class, int.class, byte[].class,
+					int.class, int.class, int.class, byte[].class, byte[].class, byte[].class, byte[].class,
+					int.class, int.class, int.class, int.class, int.class, int.class);
+			blitMethod.setAccessible(true);
+			blitMethod.invoke(null,
+				src.width, src.height,
+				src.data, src.depth, src.bytesPerLine, srcOrder, reds, greens, blues,
+				dst.data, dst.depth, dst.bytesPerLine, dstOrder, dst.palette.redMask, dst.palette.greenMask, dst.palette.blueMask);
+		}
+	}
+
 	public static void assertImageDataEqual(ImageData source, ImageData actual, ImageData expected) {
 		if (TEST_BLIT_SHOW_IMAGES) {
 			Image[] images = new Image[3];
@@ -28,6 +28,7 @@ import org.junit.platform.suite.api.Suite;
 		Test_org_eclipse_swt_graphics_FontMetrics.class,
 		Test_org_eclipse_swt_graphics_GC.class,
 		Test_org_eclipse_swt_graphics_Image.class,
+		Test_org_eclipse_swt_graphics_ImageAnimation.class,
 		Test_org_eclipse_swt_graphics_ImageData.class,
 		Test_org_eclipse_swt_graphics_PaletteData.class,
 		Test_org_eclipse_swt_graphics_Path.class,
@@ -46,7 +46,8 @@ import org.junit.platform.suite.api.Suite;
 		Test_org_eclipse_swt_accessibility_AccessibleEvent.class,
 		Test_org_eclipse_swt_accessibility_AccessibleTextEvent.class,
 		Test_org_eclipse_swt_internal_SVGRasterizer.class,
-		DPIUtilTests.class})
+		DPIUtilTests.class,
+		ImageCacheTests.class})
 public class AllNonBrowserTests {
 	private static List<Error> leakedResources;
 
@@ -48,6 +48,8 @@ import org.junit.platform.suite.api.Suite;
 		Test_org_eclipse_swt_custom_StyledText_VariableLineHeight.class,
 		Test_org_eclipse_swt_custom_StyledText_multiCaretsSelections.class,
 		Test_org_eclipse_swt_custom_StyledTextLineSpacingProvider.class,
+		Test_org_eclipse_swt_custom_PieceTableContent.class,
+		Test_org_eclipse_swt_custom_MappedFileContent.class,
 		Test_org_eclipse_swt_custom_CTabFolder.class, Test_org_eclipse_swt_widgets_Spinner.class,
 		Test_org_eclipse_swt_widgets_ScrolledComposite.class,
 		Test_org_eclipse_swt_custom_BusyIndicator.class})
@@ -0,0 +1,149 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.tests.junit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.PaletteData;
+import org.eclipse.swt.internal.image.ImageCache;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Automated Test Suite for class org.eclipse.swt.internal.image.ImageCache
+ *
+ * @see org.eclipse.swt.internal.image.ImageCache
+ */
+@SuppressWarnings("restriction")
+public class ImageCacheTests {
+
+	@TempDir
+	Path directory;
+
+	private static ImageData createImage(int width, int height, boolean alpha) {
+		ImageData image = new ImageData(width, height, 24, new PaletteData(0xFF0000, 0xFF00, 0xFF));
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				image.setPixel(x, y, (x * 0x10 << 16) | (y * 0x10 << 8) | 0x80);
+				if (alpha) image.setAlpha(x, y, x * y & 0xFF);
+			}
+		}
+		return image;
+	}
+
+	private static int[] getARGB(ImageData image) {
+		int[] argb = new int[image.width * image.height];
+		image.getARGB(argb, 0);
+		return argb;
+	}
+
+	@Test
+	public void keyDependsOnSourceMethodAndParameters() {
+		byte[] source = { 1, 2, 3 };
+		String key = ImageCache.key(source, "svg", 100);
+		assertEquals(key, ImageCache.key(source.clone(), "svg", 100));
+		assertNotEquals(key, ImageCache.key(source, "svg", 200));
+		assertNotEquals(key, ImageCache.key(source, "other", 100));
+		assertNotEquals(key, ImageCache.key(new byte[] { 1, 2, 4 }, "svg", 100));
+
+		ImageData image = createImage(4, 4, false);
+		String imageKey = ImageCache.key(image, "smooth", 8, 8);
+		assertEquals(imageKey, ImageCache.key((ImageData) image.clone(), "smooth", 8, 8));
+		image.setPixel(0, 0, 0xFFFFFF);
+		assertNotEquals(imageKey, ImageCache.key(image, "smooth", 8, 8));
+	}
+
+	@Test
+	public void getReturnsStoredImage() {
+		ImageCache cache = new ImageCache(directory, 1 << 20);
+		assertNull(cache.get("missing"));
+
+		ImageData transparent = createImage(5, 3, true);
+		cache.put("transparent", transparent);
+		ImageData result = cache.get("transparent");
+		assertNotNull(result);
+		assertEquals(5, result.width);
+		assertEquals(3, result.height);
+		assertArrayEquals(getARGB(transparent), getARGB(result));
+
+		ImageData opaque = createImage(3, 2, false);
+		opaque.alpha = 0x80;
+		cache.put("opaque", opaque);
+		result = cache.get("opaque");
+		assertNull(result.alphaData);
+		assertEquals(0x80, result.alpha);
+		assertArrayEquals(getARGB(opaque), getARGB(result));
+
+		ImageData masked = createImage(2, 2, false);
+		masked.transparentPixel = 0x80;
+		cache.put("masked", masked);
+		assertNull(cache.get("masked"));
+	}
+
+	@Test
+	public void getIgnoresDamagedEntries() throws IOException {
+		ImageCache cache = new ImageCache(directory, 1 << 20);
+		cache.put("damaged", createImage(4, 4, true));
+		Path file = directory.resolve("damaged.argb");
+		byte[] bytes = Files.readAllBytes(file);
+		Files.write(file, java.util.Arrays.copyOf(bytes, bytes.length - 1));
+		assertNull(cache.get("damaged"));
+		assertFalse(Files.exists(file));
+	}
+
+	@Test
+	public void largeEntriesCanBeReplacedAndEvicted() throws IOException {
+		// larger than 1 MB, entries that size used to be memory mapped and stayed locked on Windows
+		ImageCache cache = new ImageCache(directory, 3 * 4 * 600 * 600);
+		ImageData large = createImage(600, 600, false);
+		cache.put("large", large);
+		assertArrayEquals(getARGB(large), getARGB(cache.get("large")));
+
+		ImageData replaced = createImage(600, 600, true);
+		cache.put("large", replaced);
+		assertArrayEquals(getARGB(replaced), getARGB(cache.get("large")));
+
+		Files.setLastModifiedTime(directory.resolve("large.argb"), java.nio.file.attribute.FileTime.fromMillis(1000L));
+		cache.put("other", createImage(600, 600, false));
+		cache.put("another", createImage(600, 600, false));
+		assertFalse(Files.exists(directory.resolve("large.argb")));
+	}
+
+	@Test
+	public void putEvictsLeastRecentlyUsed() throws IOException {
+		ImageCache cache = new ImageCache(directory, 3 * 4 * 32 * 32);
+		for (int i = 0; i < 8; i++) {
+			cache.put("image" + i, createImage(32, 32, false));
+			Files.setLastModifiedTime(directory.resolve("image" + i + ".argb"), java.nio.file.attribute.FileTime.fromMillis(1000L * i));
+		}
+		cache.put("last", createImage(32, 32, false));
+		try (Stream<Path> files = Files.list(directory)) {
+			assertTrue(files.count() <= 3);
+		}
+		assertNotNull(cache.get("last"));
+		assertNull(cache.get("image0"));
+	}
+}
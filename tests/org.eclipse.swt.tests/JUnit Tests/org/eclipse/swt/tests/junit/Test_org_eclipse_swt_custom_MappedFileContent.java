@@ -0,0 +1,182 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.tests.junit;
+
+import static org.eclipse.swt.tests.junit.SwtTestUtil.assertSWTProblem;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.SWTException;
+import org.eclipse.swt.custom.MappedFileContent;
+import org.eclipse.swt.custom.StyledText;
+import org.eclipse.swt.custom.TextChangeListener;
+import org.eclipse.swt.custom.TextChangedEvent;
+import org.eclipse.swt.custom.TextChangingEvent;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Shell;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Automated Test Suite for class org.eclipse.swt.custom.MappedFileContent
+ *
+ * @see org.eclipse.swt.custom.MappedFileContent
+ */
+public class Test_org_eclipse_swt_custom_MappedFileContent {
+
+@Rule
+public TemporaryFolder tempFolder = new TemporaryFolder();
+
+MappedFileContent createContent(String text, Charset charset) throws IOException {
+	Path file = tempFolder.newFile().toPath();
+	Files.write(file, text.getBytes(charset));
+	MappedFileContent content = new MappedFileContent(file, charset);
+	// without a listener on a display, the lines are added by the indexing thread
+	while (!content.isIndexed()) {
+		Thread.onSpinWait();
+	}
+	return content;
+}
+
+/**
+ * Asserts that the content has the given text and the lines of it,
+ * computed independently of the content.
+ */
+static void assertContent(String text, MappedFileContent content) {
+	assertEquals(text.length(), content.getCharCount());
+	assertEquals(text, content.getTextRange(0, text.length()));
+	List<Integer> starts = new ArrayList<>();
+	starts.add(0);
+	for (int i = 0; i < text.length(); i++) {
+		char ch = text.charAt(i);
+		if (ch == '\n' || (ch == '\r' && (i + 1 == text.length() || text.charAt(i + 1) != '\n'))) starts.add(i + 1);
+	}
+	assertEquals(starts.size(), content.getLineCount());
+	for (int line = 0; line < starts.size(); line++) {
+		int start = starts.get(line);
+		int end = line + 1 < starts.size() ? starts.get(line + 1) : text.length();
+		assertEquals(start, content.getOffsetAtLine(line));
+		assertEquals(text.substring(start, end).replaceAll("[\r\n]+$", ""), content.getLine(line));
+		assertEquals(line, content.getLineAtOffset(start));
+		assertEquals(line, content.getLineAtOffset(end - (line + 1 < starts.size() ? 1 : 0)));
+	}
+}
+
+@Test
+public void test_ConstructorLjava_nio_file_PathLjava_nio_charset_Charset() throws IOException {
+	assertContent("", createContent("", StandardCharsets.UTF_8));
+	assertContent("a\nbc\r\nd\re\n", createContent("a\nbc\r\nd\re\n", StandardCharsets.UTF_8));
+	assertContent("\r\n\r\r", createContent("\r\n\r\r", StandardCharsets.ISO_8859_1));
+
+	Path missing = tempFolder.getRoot().toPath().resolve("missing.txt");
+	assertSWTProblem("Incorrect exception thrown for missing file", SWT.ERROR_IO,
+			assertThrows(SWTException.class, () -> new MappedFileContent(missing, StandardCharsets.UTF_8)));
+	assertSWTProblem("Incorrect exception thrown for null charset", SWT.ERROR_NULL_ARGUMENT,
+			assertThrows(IllegalArgumentException.class, () -> new MappedFileContent(missing, null)));
+}
+
+@Test
+public void test_getTextRangeII() throws IOException {
+	// long enough to be decoded in several blocks, with characters of different sizes
+	StringBuilder buffer = new StringBuilder();
+	for (int i = 0; i < 20000; i++) {
+		buffer.append("line ").append(i).append(i % 3 == 0 ? " \u00e9\u20ac\ud83d\ude00\r\n" : "\n");
+	}
+	String text = buffer.toString();
+	for (Charset charset : new Charset[] {StandardCharsets.UTF_8, StandardCharsets.UTF_16LE}) {
+		MappedFileContent content = createContent(text, charset);
+		assertContent(text, content);
+		assertEquals(text.substring(12345, 67890), content.getTextRange(12345, 67890 - 12345));
+		assertSWTProblem("Incorrect exception thrown for range out of bounds", SWT.ERROR_INVALID_ARGUMENT,
+				assertThrows(IllegalArgumentException.class, () -> content.getTextRange(text.length(), 1)));
+	}
+}
+
+@Test
+public void test_setContent_StyledText() throws IOException {
+	StringBuilder buffer = new StringBuilder();
+	for (int i = 0; i < 200000; i++) {
+		buffer.append("line ").append(i).append('\n');
+	}
+	String text = buffer.toString();
+	Path file = tempFolder.newFile().toPath();
+	Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+
+	Display display = Display.getDefault();
+	Shell shell = new Shell(display);
+	try {
+		StyledText styledText = new StyledText(shell, SWT.V_SCROLL);
+		MappedFileContent content = new MappedFileContent(file, StandardCharsets.UTF_8);
+		// does not wait for the file to be indexed
+		styledText.setContent(content);
+		int lineCount = styledText.getLineCount();
+		int charCount = styledText.getCharCount();
+		assertEquals(lineCount, content.getLineCount());
+		assertEquals(content.getOffsetAtLine(lineCount - 1), charCount);
+
+		// the rest of the lines are appended on the display
+		int[] appended = new int[2];
+		content.addTextChangeListener(new TextChangeListener() {
+			@Override
+			public void textChanging(TextChangingEvent event) {
+				// lines are only appended, at the end of the content
+				assertEquals(content.getCharCount(), event.start);
+				assertEquals(0, event.replaceCharCount);
+				assertEquals(0, event.replaceLineCount);
+				appended[0] += event.newCharCount;
+				appended[1] += event.newLineCount;
+			}
+			@Override
+			public void textChanged(TextChangedEvent event) {
+			}
+			@Override
+			public void textSet(TextChangedEvent event) {
+			}
+		});
+		while (!content.isIndexed()) {
+			if (!display.readAndDispatch()) {
+				Thread.onSpinWait();
+			}
+		}
+		assertEquals(text.length(), styledText.getCharCount());
+		assertEquals(200001, styledText.getLineCount());
+		assertEquals(text.length() - charCount, appended[0]);
+		assertEquals(200001 - lineCount, appended[1]);
+		assertEquals("line 199999", styledText.getLine(199999));
+		styledText.setCaretOffset(text.length());
+		assertEquals(200000, styledText.getLineAtOffset(styledText.getCaretOffset()));
+		assertEquals("line 199999\n", styledText.getTextRange(text.length() - 12, 12));
+	} finally {
+		shell.dispose();
+	}
+}
+
+@Test
+public void test_replaceTextRangeIILjava_lang_String() throws IOException {
+	MappedFileContent content = createContent("text", StandardCharsets.UTF_8);
+	assertThrows(UnsupportedOperationException.class, () -> content.replaceTextRange(0, 1, "x"));
+	assertThrows(UnsupportedOperationException.class, () -> content.setText("x"));
+	assertEquals("text", content.getLine(0));
+}
+}
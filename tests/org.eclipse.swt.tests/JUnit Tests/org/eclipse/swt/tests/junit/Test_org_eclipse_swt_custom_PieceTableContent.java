@@ -0,0 +1,175 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.tests.junit;
+
+import static org.eclipse.swt.tests.junit.SwtTestUtil.assertSWTProblem;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.custom.PieceTableContent;
+import org.eclipse.swt.custom.TextChangeListener;
+import org.eclipse.swt.custom.TextChangedEvent;
+import org.eclipse.swt.custom.TextChangingEvent;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Automated Test Suite for class org.eclipse.swt.custom.PieceTableContent
+ *
+ * @see org.eclipse.swt.custom.PieceTableContent
+ */
+public class Test_org_eclipse_swt_custom_PieceTableContent {
+	PieceTableContent content;
+
+@Before
+public void setUp() {
+	content = new PieceTableContent();
+}
+
+/**
+ * Asserts that the content has the given text and the lines of it,
+ * computed independently of the content.
+ */
+void assertContent(String text) {
+	assertEquals(text.length(), content.getCharCount());
+	assertEquals(text, content.getTextRange(0, text.length()));
+	List<Integer> starts = new ArrayList<>();
+	starts.add(0);
+	for (int i = 0; i < text.length(); i++) {
+		char ch = text.charAt(i);
+		if (ch == '\n' || (ch == '\r' && (i + 1 == text.length() || text.charAt(i + 1) != '\n'))) starts.add(i + 1);
+	}
+	assertEquals(starts.size(), content.getLineCount());
+	for (int line = 0; line < starts.size(); line++) {
+		int start = starts.get(line);
+		int end = line + 1 < starts.size() ? starts.get(line + 1) : text.length();
+		assertEquals(start, content.getOffsetAtLine(line));
+		assertEquals(text.substring(start, end).replaceAll("[\r\n]+$", ""), content.getLine(line));
+		for (int offset = start; offset < end; offset++) {
+			assertEquals(line, content.getLineAtOffset(offset));
+		}
+	}
+	assertEquals(starts.size() - 1, content.getLineAtOffset(text.length()));
+}
+
+@Test
+public void test_setTextLjava_lang_String() {
+	assertContent("");
+	content.setText("a\nbc\r\nd\re");
+	assertContent("a\nbc\r\nd\re");
+	content.setText("\r\n\r\n");
+	assertContent("\r\n\r\n");
+}
+
+@Test
+public void test_replaceTextRangeIILjava_lang_String() {
+	content.setText("line 1\nline 2\nline 3");
+	content.replaceTextRange(7, 6, "second\nline");
+	assertContent("line 1\nsecond\nline\nline 3");
+	content.replaceTextRange(0, 0, "0\r\n");
+	assertContent("0\r\nline 1\nsecond\nline\nline 3");
+	content.replaceTextRange(content.getCharCount(), 0, "\n");
+	assertContent("0\r\nline 1\nsecond\nline\nline 3\n");
+	content.replaceTextRange(1, content.getCharCount() - 1, "");
+	assertContent("0");
+}
+
+@Test
+public void test_replaceTextRangeJoinsDelimiter() {
+	// deleting or inserting between \r and \n joins them into one delimiter
+	content.setText("a\rb\nc");
+	content.replaceTextRange(2, 1, "");
+	assertContent("a\r\nc");
+	content.replaceTextRange(1, 0, "x\r");
+	assertContent("ax\r\r\nc");
+	content.replaceTextRange(3, 2, "\n");
+	assertContent("ax\r\nc");
+}
+
+@Test
+public void test_replaceTextRangeSplittingDelimiter() {
+	content.setText("a\r\nb");
+	assertSWTProblem("Incorrect exception thrown for splitting a delimiter", SWT.ERROR_INVALID_ARGUMENT,
+			assertThrows(IllegalArgumentException.class, () -> content.replaceTextRange(2, 0, "x")));
+	assertSWTProblem("Incorrect exception thrown for deleting part of a delimiter", SWT.ERROR_INVALID_ARGUMENT,
+			assertThrows(IllegalArgumentException.class, () -> content.replaceTextRange(0, 2, "")));
+	assertContent("a\r\nb");
+}
+
+@Test
+public void test_replaceTextRangeRandom() {
+	Random random = new Random(0);
+	String characters = "ab\r\n";
+	String text = "";
+	for (int i = 0; i < 2000; i++) {
+		int start = random.nextInt(text.length() + 1);
+		int length = random.nextInt(Math.min(5, text.length() - start) + 1);
+		if (isInsideCRLF(text, start) || isInsideCRLF(text, start + length)) continue;
+		StringBuilder newText = new StringBuilder();
+		for (int j = random.nextInt(4); j > 0; j--) {
+			newText.append(characters.charAt(random.nextInt(characters.length())));
+		}
+		content.replaceTextRange(start, length, newText.toString());
+		text = text.substring(0, start) + newText + text.substring(start + length);
+		if (i % 100 == 0) assertContent(text);
+	}
+	assertContent(text);
+}
+
+static boolean isInsideCRLF(String text, int offset) {
+	return offset > 0 && offset < text.length() && text.charAt(offset - 1) == '\r' && text.charAt(offset) == '\n';
+}
+
+@Test
+public void test_textChangeListener() {
+	List<String> events = new ArrayList<>();
+	TextChangeListener listener = new TextChangeListener() {
+		@Override
+		public void textChanging(TextChangingEvent event) {
+			events.add("changing " + event.start + " " + event.replaceCharCount + " " + event.newCharCount + " "
+					+ event.replaceLineCount + " " + event.newLineCount);
+		}
+		@Override
+		public void textChanged(TextChangedEvent event) {
+			events.add("changed");
+		}
+		@Override
+		public void textSet(TextChangedEvent event) {
+			events.add("set");
+		}
+	};
+	content.addTextChangeListener(listener);
+	content.setText("a\nb\r\nc");
+	content.replaceTextRange(1, 5, "\r\n\n");
+	content.removeTextChangeListener(listener);
+	content.setText("");
+	assertEquals(List.of("set", "changing 1 5 3 2 2", "changed"), events);
+}
+
+@Test
+public void test_getLineI() {
+	content.setText("a\nb");
+	assertSWTProblem("Incorrect exception thrown for line out of range", SWT.ERROR_INVALID_ARGUMENT,
+			assertThrows(IllegalArgumentException.class, () -> content.getLine(2)));
+	assertSWTProblem("Incorrect exception thrown for line out of range", SWT.ERROR_INVALID_ARGUMENT,
+			assertThrows(IllegalArgumentException.class, () -> content.getOffsetAtLine(-1)));
+	assertSWTProblem("Incorrect exception thrown for offset out of range", SWT.ERROR_INVALID_ARGUMENT,
+			assertThrows(IllegalArgumentException.class, () -> content.getLineAtOffset(4)));
+}
+}
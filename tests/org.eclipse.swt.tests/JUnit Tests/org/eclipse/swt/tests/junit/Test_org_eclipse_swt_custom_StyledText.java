@@ -26,9 +26,14 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.junit.Assume.assumeFalse;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.function.BooleanSupplier;
@@ -36,6 +41,7 @@ import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import org.eclipse.swt.SWT;
+import org.eclipse.swt.SWTException;
 import org.eclipse.swt.custom.BidiSegmentListener;
 import org.eclipse.swt.custom.CaretListener;
 import org.eclipse.swt.custom.ExtendedModifyListener;
@@ -52,6 +58,7 @@ import org.eclipse.swt.custom.TextChangeListener;
 import org.eclipse.swt.custom.VerifyKeyListener;
 import org.eclipse.swt.dnd.Clipboard;
 import org.eclipse.swt.dnd.HTMLTransfer;
+import org.eclipse.swt.dnd.ImageTransfer;
 import org.eclipse.swt.dnd.RTFTransfer;
 import org.eclipse.swt.dnd.TextTransfer;
 import org.eclipse.swt.dnd.Transfer;
@@ -809,6 +816,65 @@ public void test_clipboardWithHtml() {
 	fontArial8.dispose();
 }
 
+@Test
+public void test_exportTextIILorg_eclipse_swt_dnd_TransferLjava_io_Writer() {
+	// long enough to be passed on to the writer in several chunks
+	StringBuilder buffer = new StringBuilder();
+	for (int i = 0; i < 2000; i++) {
+		buffer.append("line ").append(i).append(" <red> {\\}\n");
+	}
+	String content = buffer.toString();
+	text.setText(content);
+	for (int i = 0; i < 2000; i += 7) {
+		int offset = text.getOffsetAtLine(i) + text.getLine(i).indexOf("red");
+		text.setStyleRange(new StyleRange(offset, 3, text.getDisplay().getSystemColor(SWT.COLOR_RED), null));
+	}
+
+	StringWriter writer = new StringWriter();
+	text.exportText(0, content.length(), TextTransfer.getInstance(), writer);
+	assertEquals(content.replace("\n", PLATFORM_LINE_DELIMITER), writer.toString());
+
+	writer = new StringWriter();
+	text.exportText(6, 4, TextTransfer.getInstance(), writer);
+	assertEquals(content.substring(6, 10), writer.toString());
+
+	writer = new StringWriter();
+	text.exportText(0, content.length(), RTFTransfer.getInstance(), writer);
+	String rtf = writer.toString();
+	assertTrue(rtf.startsWith("{\\rtf1"));
+	assertTrue(rtf.contains("\\red255\\green0\\blue0;"));
+	assertTrue(rtf.contains("line 1995 <{\\cf2 red}> \\{\\\\\\}"));
+	assertTrue(rtf.endsWith("\n}}"));
+
+	writer = new StringWriter();
+	text.exportText(0, content.length(), HTMLTransfer.getInstance(), writer);
+	String html = writer.toString();
+	assertTrue(html.startsWith("<div "));
+	assertTrue(html.contains("<p style='margin:0;'>line 1995 &lt;<span style='color:#ff0000;'>red</span>&gt; {\\}</p>"));
+	assertTrue(html.endsWith("</div></div>"));
+
+	Writer failing = new Writer() {
+		@Override
+		public void write(char[] cbuf, int off, int len) throws IOException {
+			throw new IOException();
+		}
+		@Override
+		public void flush() {
+		}
+		@Override
+		public void close() {
+		}
+	};
+	SwtTestUtil.assertSWTProblem("Incorrect exception thrown for failing writer", SWT.ERROR_IO,
+			assertThrows(SWTException.class, () -> text.exportText(0, content.length(), TextTransfer.getInstance(), failing)));
+	SwtTestUtil.assertSWTProblem("Incorrect exception thrown for unsupported transfer", SWT.ERROR_INVALID_ARGUMENT,
+			assertThrows(IllegalArgumentException.class, () -> text.exportText(0, 1, ImageTransfer.getInstance(), new StringWriter())));
+	SwtTestUtil.assertSWTProblem("Incorrect exception thrown for null writer", SWT.ERROR_NULL_ARGUMENT,
+			assertThrows(IllegalArgumentException.class, () -> text.exportText(0, 1, TextTransfer.getInstance(), null)));
+	SwtTestUtil.assertSWTProblem("Incorrect exception thrown for range out of bounds", SWT.ERROR_INVALID_RANGE,
+			assertThrows(IllegalArgumentException.class, () -> text.exportText(1, content.length(), TextTransfer.getInstance(), new StringWriter())));
+}
+
 @Test
 public void test_cut() {
 	if (SwtTestUtil.isCocoa) {
@@ -1902,6 +1968,39 @@ public void test_getStyleRanges_Bug549110() {
 	text.selectAll();
 }
 @Test
+public void test_getStyleRangesAfterEdits() {
+	// compare the styles with the style of each character, through random style and text changes
+	int[] fontStyles = {SWT.NORMAL, SWT.BOLD, SWT.ITALIC};
+	Random random = new Random(0);
+	text.setText("0123456789".repeat(20));
+	List<Integer> expected = new ArrayList<>(Collections.nCopies(text.getCharCount(), -1));
+	for (int i = 0; i < 1000; i++) {
+		int start = random.nextInt(expected.size() + 1);
+		int length = random.nextInt(Math.min(10, expected.size() - start) + 1);
+		if (random.nextBoolean()) {
+			int fontStyle = fontStyles[random.nextInt(fontStyles.length)];
+			text.setStyleRange(new StyleRange(start, length, null, null, fontStyle));
+			// a normal style without colors removes the styles
+			for (int j = start; j < start + length; j++) expected.set(j, fontStyle == SWT.NORMAL ? -1 : fontStyle);
+		} else {
+			int newLength = random.nextInt(4);
+			text.replaceTextRange(start, length, "abc".substring(0, newLength));
+			for (int j = 0; j < length; j++) expected.remove(start);
+			for (int j = 0; j < newLength; j++) expected.add(start, -1);
+		}
+		if (i % 50 == 0 || i == 999) {
+			List<Integer> actual = new ArrayList<>(Collections.nCopies(text.getCharCount(), -1));
+			int end = 0;
+			for (StyleRange style : text.getStyleRanges()) {
+				assertTrue(end <= style.start && style.length > 0);
+				for (int j = style.start; j < style.start + style.length; j++) actual.set(j, style.fontStyle);
+				end = style.start + style.length;
+			}
+			assertEquals(expected, actual);
+		}
+	}
+}
+@Test
 public void test_getTabs() {
 	text.setTabs(1);
 	assertEquals(":a:", 1, text.getTabs());
@@ -4583,6 +4682,37 @@ public void test_setStyleRanges$Lorg_eclipse_swt_custom_StyleRange() {
 	assertEquals(0, text.getStyleRanges().length);
 }
 
+@Test
+public void test_setLayoutCacheSizeI() {
+	assertEquals(300, text.getLayoutCacheSize());
+	assertThrows(IllegalArgumentException.class, () -> text.setLayoutCacheSize(-1));
+	text.setLayoutCacheSize(10);
+	assertEquals(10, text.getLayoutCacheSize());
+
+	StringBuilder buffer = new StringBuilder();
+	for (int i = 0; i < 100; i++) {
+		buffer.append("line ").append(i).append('\n');
+	}
+	text.setText(buffer.toString());
+	// only the layouts of measured lines are reused, scroll line 50 into view
+	text.setSize(400, text.getLineHeight() * 5);
+	text.setTopIndex(50);
+	int offset = text.getOffsetAtLine(50);
+	Rectangle bounds = text.getTextBounds(offset, offset + 3);
+	long hits = text.getLayoutCacheHitCount();
+	assertEquals(bounds, text.getTextBounds(offset, offset + 3));
+	assertTrue(text.getLayoutCacheHitCount() > hits);
+	// more lines than the cache holds, the layout of line 50 is disposed
+	for (int i = 0; i < 50; i++) {
+		text.getTextBounds(text.getOffsetAtLine(i), text.getOffsetAtLine(i) + 1);
+	}
+	long misses = text.getLayoutCacheMissCount();
+	assertEquals(bounds, text.getTextBounds(offset, offset + 3));
+	assertTrue(text.getLayoutCacheMissCount() > misses);
+	text.replaceTextRange(0, text.getOffsetAtLine(10), "");
+	assertEquals(bounds.width, text.getTextBounds(text.getOffsetAtLine(40), text.getOffsetAtLine(40) + 3).width);
+}
+
 @Test
 public void test_setTabsI(){
 	text.setTabs(1);
@@ -0,0 +1,164 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.tests.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.SWTException;
+import org.eclipse.swt.graphics.ImageAnimation;
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.ImageLoader;
+import org.eclipse.swt.graphics.PaletteData;
+import org.eclipse.swt.graphics.RGB;
+import org.junit.Test;
+
+/**
+ * Automated Test Suite for class org.eclipse.swt.graphics.ImageAnimation
+ *
+ * @see org.eclipse.swt.graphics.ImageAnimation
+ */
+public class Test_org_eclipse_swt_graphics_ImageAnimation {
+
+static final RGB[] COLORS = { new RGB(255, 0, 0), new RGB(0, 255, 0), new RGB(0, 0, 255), new RGB(0, 0, 0) };
+
+static PaletteData createPalette() {
+	RGB[] rgbs = new RGB[16];
+	for (int i = 0; i < rgbs.length; i++) {
+		rgbs[i] = i < COLORS.length ? COLORS[i] : new RGB(0, 0, 0);
+	}
+	return new PaletteData(rgbs);
+}
+
+/**
+ * Answer a GIF with a red background frame and three blue 2x2 frames
+ * moving over it, which are disposed with the given methods.
+ */
+static byte[] createAnimation(int... disposalMethods) {
+	ImageData[] frames = new ImageData[disposalMethods.length + 1];
+	frames[0] = new ImageData(8, 4, 4, createPalette());
+	frames[0].delayTime = 5;
+	for (int i = 1; i < frames.length; i++) {
+		ImageData frame = new ImageData(2, 2, 4, createPalette());
+		frame.setPixels(0, 0, 2, new byte[] {2, 2}, 0);
+		frame.setPixels(0, 1, 2, new byte[] {2, 3}, 0);
+		frame.transparentPixel = 3;
+		frame.x = 2 * (i - 1);
+		frame.y = 1;
+		frame.delayTime = 10 * i;
+		frame.disposalMethod = disposalMethods[i - 1];
+		frames[i] = frame;
+	}
+	ImageLoader loader = new ImageLoader();
+	loader.data = frames;
+	loader.logicalScreenWidth = 8;
+	loader.logicalScreenHeight = 4;
+	loader.repeatCount = 0;
+	ByteArrayOutputStream stream = new ByteArrayOutputStream();
+	loader.save(stream, SWT.IMAGE_GIF);
+	return stream.toByteArray();
+}
+
+static void assertColor(ImageData imageData, int x, int y, RGB expected) {
+	assertEquals(255, imageData.getAlpha(x, y));
+	assertEquals(expected, imageData.palette.getRGB(imageData.getPixel(x, y)));
+}
+
+@Test
+public void test_ConstructorLjava_io_InputStream() {
+	assertThrows(IllegalArgumentException.class, () -> new ImageAnimation((InputStream) null),
+			"No exception thrown for stream == null");
+	assertThrows(SWTException.class, () -> new ImageAnimation(new ByteArrayInputStream(new byte[0])),
+			"No exception thrown for empty stream");
+
+	ImageAnimation animation = new ImageAnimation(new ByteArrayInputStream(createAnimation(SWT.DM_UNSPECIFIED, SWT.DM_UNSPECIFIED)));
+	assertEquals(3, animation.getFrameCount());
+	assertEquals(8, animation.getWidth());
+	assertEquals(4, animation.getHeight());
+	assertEquals(0, animation.getRepeatCount());
+	assertEquals(5, animation.getDelayTime(0));
+	assertEquals(20, animation.getDelayTime(2));
+}
+
+@Test
+public void test_ConstructorLjava_lang_String() {
+	assertThrows(IllegalArgumentException.class, () -> new ImageAnimation((String) null),
+			"No exception thrown for filename == null");
+	assertThrows(SWTException.class, () -> new ImageAnimation("does-not-exist.gif"),
+			"No exception thrown for missing file");
+}
+
+@Test
+public void test_getFrameI() {
+	ImageAnimation animation = new ImageAnimation(new ByteArrayInputStream(createAnimation(SWT.DM_UNSPECIFIED)));
+	assertThrows(IllegalArgumentException.class, () -> animation.getFrame(-1));
+	assertThrows(IllegalArgumentException.class, () -> animation.getFrame(2));
+
+	ImageData frame = animation.getFrame(1);
+	assertEquals(2, frame.width);
+	assertEquals(2, frame.height);
+	assertEquals(0, frame.x);
+	assertEquals(1, frame.y);
+	assertEquals(3, frame.transparentPixel);
+	assertEquals(2, frame.getPixel(0, 0));
+	assertEquals(3, frame.getPixel(1, 1));
+	assertSame(frame, animation.getFrame(1));
+}
+
+@Test
+public void test_getComposedFrameI() {
+	ImageAnimation animation = new ImageAnimation(new ByteArrayInputStream(
+			createAnimation(SWT.DM_FILL_NONE, SWT.DM_FILL_BACKGROUND, SWT.DM_FILL_PREVIOUS, SWT.DM_FILL_NONE)));
+	assertThrows(IllegalArgumentException.class, () -> animation.getComposedFrame(5));
+
+	RGB red = COLORS[0], blue = COLORS[2];
+	ImageData composed = animation.getComposedFrame(0);
+	assertEquals(8, composed.width);
+	assertEquals(4, composed.height);
+	assertColor(composed, 0, 1, red);
+
+	// transparent pixels show the frames below
+	composed = animation.getComposedFrame(1);
+	assertColor(composed, 0, 1, blue);
+	assertColor(composed, 1, 2, red);
+
+	// the previous frame is kept
+	composed = animation.getComposedFrame(2);
+	assertColor(composed, 0, 1, blue);
+	assertColor(composed, 2, 1, blue);
+
+	// the previous frame is cleared to the background
+	composed = animation.getComposedFrame(3);
+	assertEquals(0, composed.getAlpha(2, 1));
+	assertColor(composed, 4, 1, blue);
+
+	// the previous frame is replaced by what was there before it
+	composed = animation.getComposedFrame(4);
+	assertColor(composed, 0, 1, blue);
+	assertEquals(0, composed.getAlpha(2, 1));
+	assertColor(composed, 4, 1, red);
+	assertColor(composed, 6, 1, blue);
+
+	// going back composes from the start
+	composed = animation.getComposedFrame(1);
+	assertColor(composed, 0, 1, blue);
+	assertColor(composed, 2, 1, red);
+}
+}
@@ -28,7 +28,9 @@ import static org.junit.Assert.assertThrows;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.SWTException;
@@ -114,6 +116,97 @@ public void test_blit() throws Exception {
 	}
 }
 
+/**
+ * Tests {@link ImageData#blit}:
+ * compares the byte shuffling fast paths for 8 bit channels with the
+ * comprehensive blit, which converts to a format with the same channels
+ * that are not aligned to bytes.
+ * @throws Exception
+ */
+@Test
+public void test_blit_fastPaths() throws Exception {
+	Random random = new Random(0);
+	// depth, byte order and masks of the direct formats taking the fast paths
+	int[][] formats = {
+		{24, MSB_FIRST, 0xFF, 0xFF00, 0xFF0000},
+		{24, MSB_FIRST, 0xFF0000, 0xFF00, 0xFF},
+		{32, MSB_FIRST, 0xFF00, 0xFF0000, 0xFF000000},
+		{32, MSB_FIRST, 0xFF0000, 0xFF00, 0xFF},
+		{32, LSB_FIRST, 0xFF0000, 0xFF00, 0xFF},
+		{32, MSB_FIRST, 0xFF000000, 0xFF0000, 0xFF00},
+	};
+	PaletteData referencePalette = new PaletteData(0x7F800000, 0x3FC000, 0x1FE0);
+	int width = 13, height = 7;
+
+	List<ImageData> sources = new ArrayList<>();
+	List<Integer> sourceOrders = new ArrayList<>();
+	for (int[] format : formats) {
+		sources.add(makeRandomImage(random, width, height, format[0], new PaletteData(format[2], format[3], format[4])));
+		sourceOrders.add(format[1]);
+	}
+	for (int depth : new int[] {1, 2, 4, 8}) {
+		RGB[] rgbs = new RGB[1 << depth];
+		for (int i = 0; i < rgbs.length; i++) {
+			rgbs[i] = new RGB(random.nextInt(256), random.nextInt(256), random.nextInt(256));
+		}
+		for (int order : new int[] {MSB_FIRST, LSB_FIRST}) {
+			sources.add(makeRandomImage(random, width, height, depth, new PaletteData(rgbs)));
+			sourceOrders.add(order);
+		}
+	}
+
+	for (int i = 0; i < sources.size(); i++) {
+		ImageData src = sources.get(i);
+		int srcOrder = sourceOrders.get(i);
+		for (int[] format : formats) {
+			PaletteData palette = new PaletteData(format[2], format[3], format[4]);
+			int[][] sizes = src.palette.isDirect ? new int[][] {{width, height}, {2 * width + 1, 2 * height}, {width / 2, height / 2}} : new int[][] {{width, height}};
+			for (int[] size : sizes) {
+				for (int flip = 0; flip < (src.palette.isDirect ? 4 : 1); flip++) {
+					boolean flipX = (flip & 1) != 0, flipY = (flip & 2) != 0;
+					ImageData actual = new ImageData(size[0], size[1], format[0], palette);
+					ImageDataTestHelper.blit(src, srcOrder, actual, format[1], flipX, flipY);
+					ImageData expected = new ImageData(size[0], size[1], 32, referencePalette);
+					ImageDataTestHelper.blit(src, srcOrder, expected, MSB_FIRST, flipX, flipY);
+					String message = "depth=" + src.depth + " order=" + srcOrder + " to " + Arrays.toString(format) + " size=" + Arrays.toString(size) + " flip=" + flip;
+					for (int y = 0; y < size[1]; y++) {
+						for (int x = 0; x < size[0]; x++) {
+							assertEquals(message, getRGB(expected, MSB_FIRST, x, y), getRGB(actual, format[1], x, y));
+						}
+					}
+				}
+			}
+		}
+	}
+
+	// the swapping 32 to 32 bit blit keeps the byte that is not covered by a channel
+	ImageData src = makeRandomImage(random, width, height, 32, new PaletteData(0xFF00, 0xFF0000, 0xFF000000));
+	ImageData dst = new ImageData(width, height, 32, new PaletteData(0xFF0000, 0xFF00, 0xFF));
+	ImageDataTestHelper.blit(src, MSB_FIRST, dst, MSB_FIRST, false, false);
+	for (int y = 0; y < height; y++) {
+		for (int x = 0; x < width; x++) {
+			assertEquals(src.data[y * src.bytesPerLine + x * 4 + 3], dst.data[y * dst.bytesPerLine + x * 4]);
+		}
+	}
+}
+
+private static ImageData makeRandomImage(Random random, int width, int height, int depth, PaletteData palette) {
+	ImageData image = new ImageData(width, height, depth, palette);
+	random.nextBytes(image.data);
+	return image;
+}
+
+/**
+ * Answers the color of a pixel of a direct image of 24 or 32 bit with the given byte order.
+ */
+private static RGB getRGB(ImageData image, int order, int x, int y) {
+	int bytes = image.depth / 8, offset = y * image.bytesPerLine + x * bytes, pixel = 0;
+	for (int i = 0; i < bytes; i++) {
+		pixel = pixel << 8 | image.data[offset + (order == MSB_FIRST || bytes == 3 ? i : bytes - 1 - i)] & 0xFF;
+	}
+	return image.palette.getRGB(pixel);
+}
+
 /**
  * Tests {@link ImageData#blit}:
  * Ensures that (MSB_FIRST, LSB_FIRST) round trip produces original.
@@ -260,6 +353,36 @@ public void test_clone() throws IOException {
 	}
 }
 
+@Test
+public void test_getARGB$II() {
+	RGB[] rgbs = new RGB[]{new RGB(0, 0, 0), new RGB(0x12, 0x34, 0x56)};
+	ImageData indexed = new ImageData(2, 2, 1, new PaletteData(rgbs));
+	indexed.setPixel(1, 0, 1);
+	int[] argb = new int[5];
+	indexed.getARGB(argb, 1);
+	assertArrayEquals(":a:", new int[] {0, 0xFF000000, 0xFF123456, 0xFF000000, 0xFF000000}, argb);
+
+	ImageData direct = new ImageData(2, 1, 32, new PaletteData(0xFF00, 0xFF0000, 0xFF000000));
+	direct.setPixel(0, 0, 0x56341200);
+	direct.setPixel(1, 0, 0x00FF0000);
+	direct.setAlpha(1, 0, 0x80);
+	argb = new int[2];
+	direct.getARGB(argb, 0);
+	assertArrayEquals(":b:", new int[] {0x00123456, 0x8000FF00}, argb);
+
+	ImageData direct16 = new ImageData(1, 1, 16, new PaletteData(0x7C00, 0x3E0, 0x1F));
+	direct16.setPixel(0, 0, 0x7C00);
+	direct16.getARGB(argb, 0);
+	assertEquals(":c:", 0xFFF80000, argb[0]);
+
+	// exception cases
+	IllegalArgumentException ex = assertThrows("No exception thrown for null array", IllegalArgumentException.class,
+		() -> direct.getARGB(null, 0));
+	assertSWTProblem("Incorrect exception thrown for null array", SWT.ERROR_NULL_ARGUMENT, ex);
+	assertThrows("No exception thrown for small array", IndexOutOfBoundsException.class,
+		() -> direct.getARGB(new int[2], 1));
+}
+
 @Test
 public void test_getAlphaII() {
 	int value;
@@ -734,6 +857,75 @@ public void test_scaledToII() {
 	assertArrayEquals(":d:", expectedPixelData, scaledPixelData);
 }
 
+@Test
+public void test_scaledToIII() {
+	RGB[] rgbs = new RGB[]{new RGB(0, 0, 0), new RGB(255, 0, 0)};
+	ImageData source = new ImageData(4, 4, 8, new PaletteData(rgbs));
+	source.transparentPixel = 0;
+	source.setPixel(1, 1, 1);
+
+	ImageData scaledImageData = source.scaledTo(8, 8, SWT.NONE);
+	assertEquals(":a:", 8, scaledImageData.depth);
+	assertEquals(":b:", 0, scaledImageData.transparentPixel);
+
+	for (int interpolation : new int[] {SWT.LOW, SWT.HIGH}) {
+		scaledImageData = source.scaledTo(8, 8, interpolation);
+		assertEquals(":c:", 8, scaledImageData.width);
+		assertEquals(":d:", 8, scaledImageData.height);
+		assertEquals(":e:", SWT.TRANSPARENCY_ALPHA, scaledImageData.getTransparencyType());
+		assertEquals(":f:", new RGB(255, 0, 0), scaledImageData.palette.getRGB(scaledImageData.getPixel(3, 3)));
+		assertNotEquals(":g:", 0, scaledImageData.getAlpha(3, 3));
+		assertEquals(":h:", 0, scaledImageData.getAlpha(7, 7));
+
+		ImageData flipped = source.scaledTo(-8, -8, interpolation);
+		assertEquals(":i:", scaledImageData.getPixel(3, 3), flipped.getPixel(4, 4));
+		assertEquals(":j:", scaledImageData.getAlpha(3, 3), flipped.getAlpha(4, 4));
+	}
+
+	ImageData opaque = new ImageData(3, 3, 24, new PaletteData(0xFF0000, 0xFF00, 0xFF));
+	opaque.setPixel(1, 1, 0x336699);
+	scaledImageData = opaque.scaledTo(3, 3, SWT.HIGH);
+	assertNull(":k:", scaledImageData.alphaData);
+	assertEquals(":l:", 0x336699, scaledImageData.getPixel(1, 1));
+	assertEquals(":m:", 0, scaledImageData.getPixel(0, 0));
+
+	IllegalArgumentException ex = assertThrows("No exception thrown for invalid interpolation", IllegalArgumentException.class,
+		() -> opaque.scaledTo(6, 6, 42));
+	assertSWTProblem("Incorrect exception thrown for invalid interpolation", SWT.ERROR_INVALID_ARGUMENT, ex);
+}
+
+@Test
+public void test_setARGB$II() {
+	int[] argb = new int[] {0, 0x80123456, 0xFFABCDEF, 0x00FFFFFF, 0x7F010203};
+	for (int depth : new int[] {24, 32}) {
+		ImageData data = new ImageData(2, 2, depth, new PaletteData(0xFF0000, 0xFF00, 0xFF));
+		data.setARGB(argb, 1);
+		assertEquals(":a:", 0x123456, data.getPixel(0, 0));
+		assertEquals(":b:", 0xABCDEF, data.getPixel(1, 0));
+		assertEquals(":c:", 0x010203, data.getPixel(1, 1));
+		assertArrayEquals(":d:", new byte[] {(byte)0x80, (byte)0xFF, 0, 0x7F}, data.alphaData);
+		int[] result = new int[4];
+		data.getARGB(result, 0);
+		assertArrayEquals(":e:", new int[] {0x80123456, 0xFFABCDEF, 0x00FFFFFF, 0x7F010203}, result);
+	}
+
+	ImageData data16 = new ImageData(2, 2, 16, new PaletteData(0xF800, 0x7E0, 0x1F));
+	data16.setARGB(argb, 1);
+	assertEquals(":f:", new PaletteData(0xF800, 0x7E0, 0x1F).getPixel(new RGB(0xAB, 0xCD, 0xEF)), data16.getPixel(1, 0));
+	assertEquals(":g:", 0x80, data16.getAlpha(0, 0));
+
+	// exception cases
+	ImageData indexed = new ImageData(2, 2, 1, new PaletteData(new RGB(0, 0, 0), new RGB(255, 255, 255)));
+	IllegalArgumentException ex = assertThrows("No exception thrown for indexed palette", IllegalArgumentException.class,
+		() -> indexed.setARGB(argb, 0));
+	assertSWTProblem("Incorrect exception thrown for indexed palette", SWT.ERROR_INVALID_ARGUMENT, ex);
+	ex = assertThrows("No exception thrown for null array", IllegalArgumentException.class,
+		() -> data16.setARGB(null, 0));
+	assertSWTProblem("Incorrect exception thrown for null array", SWT.ERROR_NULL_ARGUMENT, ex);
+	assertThrows("No exception thrown for small array", IndexOutOfBoundsException.class,
+		() -> data16.setARGB(argb, 2));
+}
+
 @Test
 public void test_setAlphaIII() {
 	int value;
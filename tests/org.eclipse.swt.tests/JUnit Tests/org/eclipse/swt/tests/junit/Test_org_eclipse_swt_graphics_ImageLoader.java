@@ -18,7 +18,10 @@ package org.eclipse.swt.tests.junit;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.io.ByteArrayInputStream;
@@ -26,7 +29,14 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
 
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.SWTException;
@@ -35,8 +45,12 @@ import org.eclipse.swt.graphics.ImageLoader;
 import org.eclipse.swt.graphics.ImageLoaderEvent;
 import org.eclipse.swt.graphics.ImageLoaderListener;
 import org.eclipse.swt.graphics.PaletteData;
+import org.eclipse.swt.graphics.RGB;
+import org.eclipse.swt.internal.image.JPEGDecoder;
 import org.eclipse.swt.widgets.Display;
+import org.junit.ClassRule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 /**
  * Automated Test Suite for class org.eclipse.swt.graphics.ImageLoader
@@ -45,6 +59,9 @@ import org.junit.Test;
  */
 public class Test_org_eclipse_swt_graphics_ImageLoader {
 
+@ClassRule
+public static TemporaryFolder tempFolder = new TemporaryFolder();
+
 @Test
 public void test_Constructor() {
 	new ImageLoader();
@@ -81,6 +98,44 @@ public void test_addImageLoaderListenerLorg_eclipse_swt_graphics_ImageLoaderList
 	assertFalse(":f:", loader.hasListeners());
 }
 
+@Test
+public void test_progressiveRows() throws IOException {
+	ImageLoader loader = new ImageLoader();
+	List<ImageLoaderEvent> events = new ArrayList<>();
+	loader.addImageLoaderListener(events::add);
+	loader.progressiveRows = 7;
+	ImageData[] loaded;
+	try (InputStream stream = SwtTestUtil.class.getResourceAsStream("target.png")) {
+		loaded = loader.load(stream);
+	}
+	ImageLoaderEvent last = events.get(events.size() - 1);
+	assertTrue(last.endOfImage);
+	ImageData image = last.imageData;
+	// listeners get a copy, the loaded image is not shared with them
+	assertNotSame(loaded[0], image);
+	assertArrayEquals(loaded[0].data, image.data);
+	int bands = (image.height + 6) / 7;
+	assertEquals(bands, events.size());
+	int y = 0;
+	for (int i = 0; i < bands - 1; i++) {
+		ImageLoaderEvent event = events.get(i);
+		assertFalse(event.endOfImage);
+		assertEquals(i, event.incrementCount);
+		ImageData band = event.imageData;
+		assertEquals(y, band.y);
+		assertEquals(7, band.height);
+		assertArrayEquals(Arrays.copyOfRange(image.data, y * image.bytesPerLine, (y + 7) * image.bytesPerLine), band.data);
+		y += 7;
+	}
+
+	events.clear();
+	loader.progressiveRows = 0;
+	try (InputStream stream = SwtTestUtil.class.getResourceAsStream("target.png")) {
+		loader.load(stream);
+	}
+	assertTrue(events.isEmpty());
+}
+
 @Test
 public void test_loadLjava_io_InputStream() throws IOException {
 	ImageLoader loader = new ImageLoader();
@@ -108,6 +163,178 @@ public void test_loadLjava_lang_String() {
 			"No exception thrown for load filename == null");
 }
 
+@Test
+public void test_loadLjava_nio_ByteBuffer() throws IOException {
+	ImageLoader loader = new ImageLoader();
+	assertThrows(IllegalArgumentException.class, () -> loader.load((ByteBuffer) null),
+			"No exception thrown for load buffer == null");
+	assertThrows(SWTException.class, () -> loader.load(ByteBuffer.allocate(0)),
+			"No exception thrown for load from empty buffer");
+
+	String fileName = SwtTestUtil.imageFilenames[0];
+	for (String format : SwtTestUtil.imageFormats) {
+		byte[] bytes;
+		try (InputStream stream = SwtTestUtil.class.getResourceAsStream(fileName + "." + format)) {
+			bytes = stream.readAllBytes();
+		}
+		ImageData expected = new ImageLoader().load(new ByteArrayInputStream(bytes))[0];
+
+		// only the bytes between position and limit are read, the position is kept
+		ByteBuffer buffer = ByteBuffer.allocate(bytes.length + 20);
+		buffer.position(10);
+		buffer.put(bytes);
+		buffer.position(10).limit(10 + bytes.length);
+		ImageData[] images = loader.load(buffer);
+		assertEquals(1, images.length);
+		assertEquals(expected.width, images[0].width);
+		assertEquals(expected.height, images[0].height);
+		assertEquals(10, buffer.position());
+	}
+}
+
+@Test
+public void test_loadLjava_nio_file_Path() {
+	ImageLoader loader = new ImageLoader();
+	assertThrows(IllegalArgumentException.class, () -> loader.load((Path) null),
+			"No exception thrown for load path == null");
+	assertThrows(SWTException.class, () -> loader.load(tempFolder.getRoot().toPath().resolve("missing.png")),
+			"No exception thrown for load from missing file");
+
+	String fileName = SwtTestUtil.imageFilenames[0];
+	for (String format : SwtTestUtil.imageFormats) {
+		Path path = SwtTestUtil.getPath(fileName + "." + format, tempFolder);
+		ImageData[] images = loader.load(path);
+		assertEquals(1, images.length);
+		assertEquals(loader.load(path.toString())[0].width, images[0].width);
+	}
+}
+
+@Test
+public void test_loadFramesLjava_io_InputStream() {
+	ImageLoader loader = new ImageLoader();
+	assertThrows(IllegalArgumentException.class, () -> loader.loadFrames(null),
+			"No exception thrown for loadFrames inputStream == null");
+	assertThrows(SWTException.class, () -> loader.loadFrames(new ByteArrayInputStream(new byte[0])),
+			"No exception thrown for loadFrames from empty stream");
+
+	RGB[] rgbs = new RGB[256];
+	for (int i = 0; i < rgbs.length; i++) {
+		rgbs[i] = new RGB(i, 255 - i, i / 2);
+	}
+	ImageData[] frames = new ImageData[3];
+	for (int frame = 0; frame < frames.length; frame++) {
+		ImageData imageData = new ImageData(40, 30, 8, new PaletteData(rgbs));
+		for (int y = 0; y < imageData.height; y++) {
+			for (int x = 0; x < imageData.width; x++) {
+				imageData.setPixel(x, y, (x * y + frame * 7) % 256);
+			}
+		}
+		imageData.delayTime = 10 + frame;
+		frames[frame] = imageData;
+	}
+	ImageLoader saver = new ImageLoader();
+	saver.data = frames;
+	saver.logicalScreenWidth = 40;
+	saver.logicalScreenHeight = 30;
+	saver.repeatCount = 0;
+	ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+	saver.save(outputStream, SWT.IMAGE_GIF);
+
+	Iterator<ImageData> iterator = loader.loadFrames(new ByteArrayInputStream(outputStream.toByteArray()));
+	assertEquals(40, loader.logicalScreenWidth);
+	assertEquals(30, loader.logicalScreenHeight);
+	for (ImageData expected : frames) {
+		assertTrue(iterator.hasNext());
+		ImageData imageData = iterator.next();
+		assertEquals(expected.delayTime, imageData.delayTime);
+		for (int y = 0; y < expected.height; y++) {
+			for (int x = 0; x < expected.width; x++) {
+				assertEquals(expected.getPixel(x, y), imageData.getPixel(x, y));
+			}
+		}
+	}
+	assertFalse(iterator.hasNext());
+	assertThrows(NoSuchElementException.class, iterator::next);
+	assertEquals(0, loader.repeatCount);
+	assertNull(loader.data);
+}
+
+@Test
+public void test_loadScaledLjava_io_InputStreamII() {
+	ImageLoader loader = new ImageLoader();
+	assertThrows(IllegalArgumentException.class, () -> loader.loadScaled((InputStream) null, 1, 1),
+			"No exception thrown for loadScaled inputStream == null");
+	assertThrows(IllegalArgumentException.class, () -> loader.loadScaled(new ByteArrayInputStream(new byte[0]), 0, 1),
+			"No exception thrown for loadScaled targetWidth == 0");
+
+	ImageData imageData = new ImageData(64, 48, 24, new PaletteData(0xFF0000, 0xFF00, 0xFF));
+	for (int y = 0; y < imageData.height; y++) {
+		for (int x = 0; x < imageData.width; x++) {
+			imageData.setPixel(x, y, x < imageData.width / 2 ? 0xFF0000 : 0x0000FF);
+		}
+	}
+	ImageLoader saver = new ImageLoader();
+	saver.data = new ImageData[] { imageData };
+	ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+	saver.save(outputStream, SWT.IMAGE_JPEG);
+	byte[] jpeg = outputStream.toByteArray();
+
+	// the smallest of 1/1, 1/2, 1/4 and 1/8 which is still large enough
+	ImageData[] scaled = loader.loadScaled(new ByteArrayInputStream(jpeg), 16, 12);
+	assertEquals(1, scaled.length);
+	assertEquals(16, scaled[0].width);
+	assertEquals(12, scaled[0].height);
+	scaled = loader.loadScaled(new ByteArrayInputStream(jpeg), 17, 12);
+	assertEquals(32, scaled[0].width);
+	assertEquals(24, scaled[0].height);
+	scaled = loader.loadScaled(new ByteArrayInputStream(jpeg), 1, 1);
+	assertEquals(8, scaled[0].width);
+	assertEquals(6, scaled[0].height);
+	scaled = loader.loadScaled(new ByteArrayInputStream(jpeg), 100, 100);
+	assertEquals(64, scaled[0].width);
+	assertEquals(48, scaled[0].height);
+
+	// colors survive the reduced IDCT
+	scaled = loader.loadScaled(new ByteArrayInputStream(jpeg), 8, 6);
+	RGB left = scaled[0].palette.getRGB(scaled[0].getPixel(1, 3));
+	RGB right = scaled[0].palette.getRGB(scaled[0].getPixel(6, 3));
+	assertTrue(left.red > 200 && left.blue < 50);
+	assertTrue(right.blue > 200 && right.red < 50);
+}
+
+@Test
+public void test_jpegDctMethods() throws IOException {
+	// JDCT_ISLOW is the reference, JDCT_IFAST and JDCT_FLOAT trade accuracy for speed
+	int islow = 0, ifast = 1, floatingPoint = 2;
+	for (String fileName : SwtTestUtil.imageFilenames) {
+		ImageData reference = reflection_loadJpeg(fileName, islow);
+		assertJpegClose(fileName + " ifast", reference, reflection_loadJpeg(fileName, ifast), 6);
+		assertJpegClose(fileName + " float", reference, reflection_loadJpeg(fileName, floatingPoint), 3);
+	}
+}
+
+private static void assertJpegClose(String message, ImageData expected, ImageData actual, int tolerance) {
+	assertEquals(message, expected.width, actual.width);
+	assertEquals(message, expected.height, actual.height);
+	assertEquals(message, expected.data.length, actual.data.length);
+	for (int i = 0; i < expected.data.length; i++) {
+		int difference = Math.abs((expected.data[i] & 0xFF) - (actual.data[i] & 0xFF));
+		assertTrue(message + " differs by " + difference + " at " + i, difference <= tolerance);
+	}
+}
+
+private static ImageData reflection_loadJpeg(String fileName, int dctMethod) throws IOException {
+	try (InputStream stream = SwtTestUtil.class.getResourceAsStream(fileName + ".jpg")) {
+		Method method = JPEGDecoder.class.getDeclaredMethod("loadFromByteStream",
+				InputStream.class, ImageLoader.class, int.class, int.class, int.class);
+		method.setAccessible(true);
+		return ((ImageData[]) method.invoke(null, stream, new ImageLoader(), 0, 0, dctMethod))[0];
+	} catch (ReflectiveOperationException e) {
+		fail("Failed to access the JPEG decoder via reflections.");
+		return null;
+	}
+}
+
 @Test
 public void test_saveLjava_io_OutputStreamI() throws IOException {
 	ImageLoader loader = new ImageLoader();
@@ -148,6 +375,37 @@ public void test_saveLjava_lang_StringI() {
 			"No exception thrown for save filename == null");
 }
 
+@Test
+public void test_pngFilter() {
+	ImageLoader loader = new ImageLoader();
+	assertEquals(ImageLoader.PNG_FILTER_AUTO, loader.pngFilter);
+
+	// a smooth gradient, which compresses much better filtered
+	ImageData image = new ImageData(256, 64, 24, new PaletteData(0xFF0000, 0xFF00, 0xFF));
+	for (int y = 0; y < image.height; y++) {
+		for (int x = 0; x < image.width; x++) {
+			image.setPixel(x, y, x << 16 | (x + y) << 8 | y);
+		}
+	}
+	loader.data = new ImageData[] {image};
+	loader.compression = 2;
+	int[] sizes = new int[3];
+	for (int filter : new int[] {ImageLoader.PNG_FILTER_AUTO, ImageLoader.PNG_FILTER_NONE, ImageLoader.PNG_FILTER_ADAPTIVE}) {
+		loader.pngFilter = filter;
+		ByteArrayOutputStream stream = new ByteArrayOutputStream();
+		loader.save(stream, SWT.IMAGE_PNG);
+		sizes[filter] = stream.size();
+		ImageData result = new ImageLoader().load(new ByteArrayInputStream(stream.toByteArray()))[0];
+		for (int y = 0; y < image.height; y++) {
+			for (int x = 0; x < image.width; x++) {
+				assertEquals(image.palette.getRGB(image.getPixel(x, y)), result.palette.getRGB(result.getPixel(x, y)));
+			}
+		}
+	}
+	assertTrue(sizes[ImageLoader.PNG_FILTER_ADAPTIVE] < sizes[ImageLoader.PNG_FILTER_NONE]);
+	assertEquals(sizes[ImageLoader.PNG_FILTER_ADAPTIVE], sizes[ImageLoader.PNG_FILTER_AUTO]);
+}
+
 /**
  * Ensure that saving and loading an image with {@link ImageLoader}
  * does not result in different {@link ImageData#data} arrays.
@@ -13,14 +13,23 @@
 package org.eclipse.swt.tests.junit;
 
 import static org.eclipse.swt.tests.junit.SwtTestUtil.assertSWTProblem;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.SWTException;
 import org.eclipse.swt.graphics.Image;
 import org.eclipse.swt.graphics.ImageData;
 import org.eclipse.swt.graphics.ImageDataProvider;
 import org.eclipse.swt.graphics.ImageFileNameProvider;
+import org.eclipse.swt.internal.image.SVGFileFormat;
 import org.eclipse.swt.widgets.Display;
 import org.junit.ClassRule;
 import org.junit.Test;
@@ -70,4 +79,36 @@ public class Test_org_eclipse_swt_internal_SVGRasterizer {
 		assertSWTProblem("Incorrect exception thrown for provider with corrupt images", SWT.ERROR_INVALID_IMAGE, e);
 	}
 
+	@Test
+	public void test_getImageDataAtSeveralZooms() throws IOException {
+		ImageFileNameProvider imageFileNameProvider = zoom -> getPath("collapseall.svg");
+		Image image = new Image(Display.getDefault(), imageFileNameProvider);
+		try {
+			ImageData imageData100 = image.getImageData(100);
+			byte[] source = Files.readAllBytes(Path.of(getPath("collapseall.svg")));
+			Object document = reflection_getDocument(source);
+			ImageData imageData200 = image.getImageData(200);
+			ImageData imageData150 = image.getImageData(150);
+			assertEquals(imageData100.width * 2, imageData200.width);
+			assertEquals(imageData100.height * 2, imageData200.height);
+			assertEquals(Math.round(imageData100.width * 1.5f), imageData150.width);
+			assertEquals(imageData100.width, image.getImageData(100).width);
+			// the other zooms are rasterized from the document parsed for the first one
+			assertSame(document, reflection_getDocument(source));
+		} finally {
+			image.dispose();
+		}
+	}
+
+	private static Object reflection_getDocument(byte[] source) {
+		try {
+			Method method = SVGFileFormat.class.getDeclaredMethod("getDocument", byte[].class);
+			method.setAccessible(true);
+			return method.invoke(null, source);
+		} catch (Exception e) {
+			fail("Failed to access the parsed SVG documents via reflections.");
+			return null;
+		}
+	}
+
 }
\ No newline at end of file
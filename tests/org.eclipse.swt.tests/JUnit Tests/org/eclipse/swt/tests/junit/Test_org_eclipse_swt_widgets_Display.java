@@ -20,12 +20,16 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -40,6 +44,8 @@ import org.eclipse.swt.graphics.Rectangle;
 import org.eclipse.swt.widgets.Button;
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Event;
+import org.eclipse.swt.widgets.EventLoopMonitor;
+import org.eclipse.swt.widgets.LatencyHistogram;
 import org.eclipse.swt.widgets.Listener;
 import org.eclipse.swt.widgets.Monitor;
 import org.eclipse.swt.widgets.Shell;
@@ -220,6 +226,135 @@ public void test_asyncExecLjava_lang_Runnable_dispose() {
 	}
 }
 
+@Test
+public void test_asyncExecILjava_lang_Runnable() {
+	final Display display = new Display();
+	try {
+		StringBuilder ran = new StringBuilder();
+		display.asyncExec(SWT.LOW, () -> ran.append("l"));
+		display.asyncExec(SWT.NORMAL, () -> ran.append("n"));
+		display.asyncExec(SWT.HIGH, () -> ran.append("h"));
+		while (display.readAndDispatch()) {
+			// dispatch
+		}
+		assertEquals("hnl", ran.toString());
+
+		assertSWTProblem("Incorrect exception thrown for invalid priority", SWT.ERROR_INVALID_ARGUMENT,
+				assertThrows(IllegalArgumentException.class, () -> display.asyncExec(42, () -> {})));
+		assertSWTProblem("Incorrect exception thrown for null runnable", SWT.ERROR_NULL_ARGUMENT,
+				assertThrows(IllegalArgumentException.class, () -> display.asyncExec(SWT.HIGH, null)));
+	} finally {
+		display.dispose();
+	}
+}
+
+@Test
+public void test_asyncExecILjava_lang_Runnable_batch() {
+	final Display display = new Display();
+	try {
+		// a batch as long as the lane schedule must not skip the background lane
+		display.getSynchronizer().setBatchLimits(7, 0);
+		AtomicBoolean running = new AtomicBoolean(true);
+		AtomicInteger normal = new AtomicInteger(), background = new AtomicInteger();
+		Runnable[] runnables = new Runnable[2];
+		runnables[0] = () -> {
+			normal.incrementAndGet();
+			if (running.get()) display.asyncExec(runnables[0]);
+		};
+		runnables[1] = () -> {
+			background.incrementAndGet();
+			if (running.get()) display.asyncExec(SWT.LOW, runnables[1]);
+		};
+		for (int i = 0; i < 10; i++) {
+			display.asyncExec(runnables[0]);
+			display.asyncExec(SWT.LOW, runnables[1]);
+		}
+		for (int i = 0; i < 1000 && background.get() < 20; i++) {
+			display.readAndDispatch();
+		}
+		running.set(false);
+		assertTrue(normal.get() > 0);
+		assertTrue(background.get() >= 20, "background runnables starved: " + background.get());
+		while (display.readAndDispatch()) {
+			// dispatch
+		}
+	} finally {
+		display.dispose();
+	}
+}
+
+@Test
+public void test_asyncExecCoalescedLjava_lang_ObjectLjava_lang_Runnable() throws InterruptedException {
+	final Display display = new Display();
+	try {
+		StringBuilder ran = new StringBuilder();
+		Object key = new Object();
+		Thread thread = new Thread(() -> {
+			display.asyncExecCoalesced(key, () -> ran.append("1"));
+			display.asyncExecCoalesced("other", () -> ran.append("a"));
+			display.asyncExecCoalesced(key, () -> ran.append("2"));
+			display.asyncExecCoalesced(key, () -> ran.append("3"));
+		});
+		thread.start();
+		thread.join();
+		while (display.readAndDispatch()) {
+			// dispatch
+		}
+		// the latest runnable runs at the position of the first one
+		assertEquals("3a", ran.toString());
+
+		display.asyncExecCoalesced(key, () -> ran.append("4"));
+		while (display.readAndDispatch()) {
+			// dispatch
+		}
+		assertEquals("3a4", ran.toString());
+
+		// int keys coalesce too, they are not taken for a priority
+		display.asyncExecCoalesced(1, () -> ran.append("5"));
+		display.asyncExecCoalesced(1, () -> ran.append("6"));
+		while (display.readAndDispatch()) {
+			// dispatch
+		}
+		assertEquals("3a46", ran.toString());
+
+		assertSWTProblem("Incorrect exception thrown for null key", SWT.ERROR_NULL_ARGUMENT,
+				assertThrows(IllegalArgumentException.class, () -> display.asyncExecCoalesced(null, () -> {})));
+		assertSWTProblem("Incorrect exception thrown for null runnable", SWT.ERROR_NULL_ARGUMENT,
+				assertThrows(IllegalArgumentException.class, () -> display.asyncExecCoalesced(key, null)));
+	} finally {
+		display.dispose();
+	}
+}
+
+@Test
+public void test_setBatchLimitsII() {
+	final Display display = new Display();
+	try {
+		Synchronizer synchronizer = display.getSynchronizer();
+		assertSWTProblem("Incorrect exception thrown for count 0", SWT.ERROR_INVALID_ARGUMENT,
+				assertThrows(IllegalArgumentException.class, () -> synchronizer.setBatchLimits(0, 0)));
+		assertSWTProblem("Incorrect exception thrown for negative time", SWT.ERROR_INVALID_ARGUMENT,
+				assertThrows(IllegalArgumentException.class, () -> synchronizer.setBatchLimits(1, -1)));
+
+		synchronizer.setBatchLimits(3, 0);
+		AtomicInteger count = new AtomicInteger();
+		for (int i = 0; i < 4; i++) {
+			display.asyncExec(count::incrementAndGet);
+		}
+		// the first three runnables run in the same call
+		while (count.get() == 0) {
+			if (!display.readAndDispatch()) display.sleep();
+		}
+		assertEquals(3, count.get());
+		while (display.readAndDispatch()) {
+			// dispatch
+		}
+		assertEquals(4, count.get());
+	} finally {
+		display.dispose();
+	}
+}
+
 @Test
 public void test_beep() {
 	Display display = new Display();
@@ -1160,6 +1295,34 @@ public void test_readAndDispatch() {
 	//    test_postLorg_eclipse_swt_widgets_Event()
 }
 
+@Test
+public void test_runAsyncLjava_lang_Runnable() throws Exception {
+	final Display display = new Display();
+	try {
+		AtomicBoolean ran = new AtomicBoolean();
+		CompletableFuture<Void> future = display.runAsync(() -> ran.set(true));
+		// not run before the event loop runs
+		assertFalse(ran.get());
+		while (!future.isDone()) {
+			if (!display.readAndDispatch()) display.sleep();
+		}
+		assertTrue(ran.get());
+		assertNull(future.get());
+
+		CompletableFuture<Void> failed = display.runAsync(() -> {throw new IllegalStateException("42");});
+		while (!failed.isDone()) {
+			if (!display.readAndDispatch()) display.sleep();
+		}
+		ExecutionException e = assertThrows(ExecutionException.class, failed::get);
+		assertEquals("42", e.getCause().getMessage());
+
+		assertSWTProblem("Incorrect exception thrown for null runnable", SWT.ERROR_NULL_ARGUMENT,
+				assertThrows(IllegalArgumentException.class, () -> display.runAsync(null)));
+	} finally {
+		display.dispose();
+	}
+}
+
 @Test
 public void test_removeFilterILorg_eclipse_swt_widgets_Listener() {
 	final int CLOSE_CALLBACK = 0;
@@ -1314,6 +1477,75 @@ public void test_setDataLjava_lang_StringLjava_lang_Object() {
 	}
 }
 
+@Test
+public void test_setEventLoopMonitorLorg_eclipse_swt_widgets_EventLoopMonitor() throws InterruptedException {
+	final Display display = new Display();
+	try {
+		assertNull(display.getEventLoopMonitor());
+		EventLoopMonitor monitor = new EventLoopMonitor();
+		display.setEventLoopMonitor(monitor);
+		assertSame(monitor, display.getEventLoopMonitor());
+
+		Shell shell = new Shell(display);
+		shell.addListener(SWT.Selection, e -> {});
+		shell.notifyListeners(SWT.Selection, new Event());
+		assertEquals(1, monitor.getListenerHistogram(SWT.Selection).getCount());
+		assertNull(monitor.getListenerHistogram(SWT.Verify));
+
+		AtomicBoolean timer = new AtomicBoolean();
+		display.timerExec(10, () -> timer.set(true));
+		display.asyncExec(() -> {});
+		Thread thread = new Thread(() -> display.syncExec(() -> {}));
+		thread.start();
+		while (thread.isAlive() || !timer.get()) {
+			if (!display.readAndDispatch()) display.sleep();
+		}
+		assertTrue(monitor.getDispatchHistogram().getCount() > 0);
+		assertTrue(monitor.getAsyncExecHistogram().getCount() > 0);
+		assertEquals(1, monitor.getSyncExecHistogram().getCount());
+		assertEquals(1, monitor.getTimerExecHistogram().getCount());
+		LatencyHistogram dispatch = monitor.getDispatchHistogram();
+		assertTrue(dispatch.getValueAtPercentile(50) <= dispatch.getValueAtPercentile(100));
+		assertEquals(dispatch.getMax(), dispatch.getValueAtPercentile(100));
+		assertSWTProblem("Incorrect exception thrown for invalid percentile", SWT.ERROR_INVALID_ARGUMENT,
+				assertThrows(IllegalArgumentException.class, () -> dispatch.getValueAtPercentile(101)));
+
+		List<StackTraceElement[]> stalls = new ArrayList<>();
+		monitor.setStallHandler(50, stack -> {
+			synchronized (stalls) {
+				stalls.add(stack);
+			}
+		});
+		display.asyncExec(() -> {
+			try {
+				Thread.sleep(500);
+			} catch (InterruptedException e) {
+				// ignore
+			}
+		});
+		while (display.readAndDispatch()) {
+			// dispatch
+		}
+		monitor.setStallHandler(0, null);
+		assertEquals(1, monitor.getStallCount());
+		synchronized (stalls) {
+			assertEquals(1, stalls.size());
+		}
+
+		monitor.reset();
+		assertEquals(0, monitor.getAsyncExecHistogram().getCount());
+		assertEquals(0, monitor.getStallCount());
+		display.setEventLoopMonitor(null);
+		display.asyncExec(() -> {});
+		while (display.readAndDispatch()) {
+			// dispatch
+		}
+		assertEquals(0, monitor.getAsyncExecHistogram().getCount());
+	} finally {
+		display.dispose();
+	}
+}
+
 @Test
 public void test_setSynchronizerLorg_eclipse_swt_widgets_Synchronizer() {
 	final Display display = new Display();
@@ -1414,6 +1646,39 @@ public void test_sleep() {
 	}
 }
 
+@Test
+public void test_supplyAsyncLjava_util_function_Supplier() throws Exception {
+	final Display display = new Display();
+	try {
+		CompletableFuture<Integer> future = display.supplyAsync(() -> display.getDepth());
+		while (!future.isDone()) {
+			if (!display.readAndDispatch()) display.sleep();
+		}
+		assertEquals(display.getDepth(), future.get());
+
+		assertSWTProblem("Incorrect exception thrown for null supplier", SWT.ERROR_NULL_ARGUMENT,
+				assertThrows(IllegalArgumentException.class, () -> display.supplyAsync(null)));
+	} finally {
+		display.dispose();
+	}
+}
+
+@Test
+public void test_supplyAsyncLjava_util_function_Supplier_dispose() throws Exception {
+	final Display display = new Display();
+	CompletableFuture<Integer> future = display.supplyAsync(() -> 42);
+	List<CompletableFuture<Integer>> late = new ArrayList<>();
+	display.disposeExec(() -> late.add(display.supplyAsync(() -> 43)));
+	display.dispose();
+	// run while disposing
+	assertEquals(42, future.get());
+	// posted after the last runnables were run, completed by the disposal
+	ExecutionException e = assertThrows(ExecutionException.class, late.get(0)::get);
+	assertSWTProblem("Incorrect exception for disposed display", SWT.ERROR_DEVICE_DISPOSED, e.getCause());
+	assertSWTProblem("Incorrect exception thrown for disposed display", SWT.ERROR_DEVICE_DISPOSED,
+			assertThrows(SWTException.class, () -> display.supplyAsync(() -> 42)));
+}
+
 @Test
 public void test_syncExecLjava_lang_Runnable() {
 	final Display display = new Display();
@@ -1434,6 +1699,31 @@ public void test_syncExecLjava_lang_Runnable_dispose() {
 	}
 }
 
+@Test
+public void test_syncExecLjava_lang_Runnable_concurrent() throws InterruptedException {
+	final Display display = new Display();
+	try {
+		AtomicInteger count = new AtomicInteger();
+		Thread[] threads = new Thread[16];
+		for (int i = 0; i < threads.length; i++) {
+			threads[i] = new Thread(() -> {
+				for (int j = 0; j < 100; j++) {
+					display.syncExec(count::incrementAndGet);
+				}
+			});
+			threads[i].start();
+		}
+		for (Thread thread : threads) {
+			while (thread.isAlive()) {
+				display.readAndDispatch();
+			}
+		}
+		assertEquals(threads.length * 100, count.get());
+	} finally {
+		display.dispose();
+	}
+}
+
 @Test
 public void test_syncCall() {
 	final Display display = new Display();
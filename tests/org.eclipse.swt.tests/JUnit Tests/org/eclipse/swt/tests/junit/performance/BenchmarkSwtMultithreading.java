@@ -20,6 +20,10 @@ import org.eclipse.swt.widgets.Display;
 
 /**
  * Tests SWT Event scheduling performance
+ * <p>
+ * See <code>AsyncExecBenchmark</code> in <code>org.eclipse.swt.tests.benchmarks</code>
+ * for a JMH benchmark of the same with several producer threads.
+ * </p>
  */
 public class BenchmarkSwtMultithreading {
 	private static final int BATCH_SIZE = 1_000_000;